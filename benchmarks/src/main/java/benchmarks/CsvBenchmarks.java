@@ -0,0 +1,70 @@
+package benchmarks;
+
+import dao.adapter.CSVAdapter;
+import model.FoodItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Loading the synthetic catalog back from a CSV file written at setup, and writing it out
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvBenchmarks {
+
+    private List<FoodItem> foods;
+    private File csvFile;
+    private File exportFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        foods = new SyntheticCatalog(42).getFoodList();
+        csvFile = File.createTempFile("food-catalog", ".csv");
+        exportFile = File.createTempFile("food-export", ".csv");
+        CSVAdapter.saveFoodItemsToCSV(foods, csvFile.getPath());
+    }
+
+    @TearDown
+    public void tearDown() {
+        csvFile.delete();
+        exportFile.delete();
+    }
+
+    @Benchmark
+    public List<FoodItem> loadFoodItemsFromCSV() {
+        return CSVAdapter.loadFoodItemsFromCSV(csvFile.getPath());
+    }
+
+    @Benchmark
+    public long streamFoodItemsFromCSV() throws IOException {
+        // Consumed one row at a time, never held as a list
+        try (Stream<FoodItem> rows = CSVAdapter.streamFoodItems(csvFile.getPath())) {
+            return rows.mapToLong(FoodItem::getFoodID).sum();
+        }
+    }
+
+    @Benchmark
+    public long saveFoodItemsToCSV() {
+        CSVAdapter.saveFoodItemsToCSV(foods, exportFile.getPath());
+        return exportFile.length();
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import model.FoodItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.FoodSearchService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Food search latency over CNF-like names ("Chicken, breast, roasted"), exact and
+ * misspelled, against the linear contains() scan the meal entry dialog used to do
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FoodSearchBenchmarks {
+
+    private static final String[] HEADS = {
+            "Chicken", "Beef", "Pork", "Turkey", "Lamb", "Salmon", "Tuna", "Cod", "Shrimp", "Egg",
+            "Milk", "Yogurt", "Cheese", "Butter", "Bread", "Rice", "Pasta", "Oats", "Barley", "Quinoa",
+            "Broccoli", "Carrot", "Spinach", "Potato", "Tomato", "Onion", "Pepper", "Cabbage", "Lettuce", "Celery",
+            "Apple", "Banana", "Orange", "Strawberry", "Blueberry", "Grape", "Peach", "Pear", "Mango", "Pineapple",
+            "Beans", "Lentils", "Chickpeas", "Tofu", "Almonds", "Peanuts", "Walnuts", "Cereal", "Cookie", "Soup"};
+    private static final String[] QUALIFIERS = {
+            "raw", "boiled", "roasted", "fried", "baked", "steamed", "grilled", "canned", "frozen", "dried",
+            "breast", "thigh", "ground", "lean", "whole", "skim", "plain", "cheddar", "white", "brown",
+            "with salt", "without salt", "drained", "unprepared", "ready-to-serve", "meat only", "with skin",
+            "2% M.F.", "low fat", "sweetened", "unsweetened", "enriched", "whole wheat", "long grain"};
+
+    @Param({"chicken breast", "brocoli", "chiken brest roasted", "yoghurt plain"})
+    private String query;
+
+    private List<FoodItem> foods;
+    private FoodSearchService searchService;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        foods = new ArrayList<>(SyntheticCatalog.FOOD_COUNT);
+        Map<Integer, Integer> usageCounts = new HashMap<>();
+        for (int foodId = 1; foodId <= SyntheticCatalog.FOOD_COUNT; foodId++) {
+            StringBuilder name = new StringBuilder(HEADS[random.nextInt(HEADS.length)]);
+            int qualifiers = 1 + random.nextInt(3);
+            for (int q = 0; q < qualifiers; q++) {
+                name.append(", ").append(QUALIFIERS[random.nextInt(QUALIFIERS.length)]);
+            }
+            foods.add(new FoodItem(foodId, name.toString(), "Synthetic"));
+            if (random.nextInt(4) == 0) {
+                usageCounts.put(foodId, 1 + random.nextInt(200));
+            }
+        }
+        searchService = new FoodSearchService(() -> foods, () -> usageCounts);
+        searchService.getIndex();
+    }
+
+    @Benchmark
+    public List<FoodItem> indexedSearch() {
+        return searchService.search(query, 50);
+    }
+
+    @Benchmark
+    public List<FoodItem> linearContainsScan() {
+        String lowerQuery = query.toLowerCase();
+        List<FoodItem> matches = new ArrayList<>();
+        for (FoodItem food : foods) {
+            if (food.getName().toLowerCase().contains(lowerQuery)) {
+                matches.add(food);
+            }
+        }
+        return matches;
+    }
+}
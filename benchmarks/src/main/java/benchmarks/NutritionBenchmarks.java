@@ -0,0 +1,66 @@
+package benchmarks;
+
+import backend.NutritionAnalyzer;
+import model.FoodItem;
+import model.meal.Meal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.CFGComparisonEngine;
+import service.NutrientCalculator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meal nutrient totals and CFG food group distribution over the synthetic catalog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NutritionBenchmarks {
+
+    private Map<Integer, FoodItem> foods;
+    private Meal meal;
+    private List<Meal> monthOfMeals;
+    private NutritionAnalyzer analyzer;
+    private CFGComparisonEngine cfgEngine;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(42);
+        Random random = new Random(7);
+        foods = catalog.getFoods();
+        meal = catalog.randomMeal(random, 1, java.time.LocalDate.of(2024, 1, 1));
+        monthOfMeals = catalog.randomMeals(random, 30);
+        analyzer = new NutritionAnalyzer(foods);
+        cfgEngine = new CFGComparisonEngine();
+    }
+
+    @Benchmark
+    public Map<String, Double> calculateMealNutrients() {
+        return NutrientCalculator.calculateMealNutrients(meal.getIngredients(), foods);
+    }
+
+    @Benchmark
+    public Map<String, Double> analyzeMeal() {
+        return analyzer.analyzeMeal(meal);
+    }
+
+    @Benchmark
+    public Map<String, Double> calculateFoodGroupDistribution() {
+        return cfgEngine.calculateFoodGroupDistribution(monthOfMeals, foods);
+    }
+}
@@ -0,0 +1,75 @@
+package benchmarks;
+
+import backend.SwapEngine;
+import model.FoodItem;
+import model.Goal;
+import model.SwapSuggestion;
+import model.meal.IngredientEntry;
+import model.meal.Meal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import service.SwapBatchApplier;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Swap suggestion generation and application over the synthetic catalog
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SwapBenchmarks {
+
+    private Map<Integer, FoodItem> foods;
+    private List<Goal> goals;
+    private Meal meal;
+    private List<SwapSuggestion> suggestions;
+    private SwapEngine swapEngine;
+    private SwapBatchApplier batchApplier;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog catalog = new SyntheticCatalog(42);
+        foods = catalog.getFoods();
+        goals = SyntheticCatalog.defaultGoals();
+        meal = catalog.randomMeal(new Random(7), 1, LocalDate.of(2024, 1, 1));
+        swapEngine = new SwapEngine();
+        batchApplier = new SwapBatchApplier();
+
+        // Swap every ingredient for the next food id, so applySwaps has real work to do
+        suggestions = new ArrayList<>();
+        for (IngredientEntry entry : meal.getIngredients()) {
+            IngredientEntry replacement = new IngredientEntry(entry.getFoodID() + 1, entry.getQuantity());
+            suggestions.add(new SwapSuggestion(entry, replacement, "benchmark"));
+        }
+
+        // Build the candidate index outside the measurement
+        swapEngine.generateSwaps(goals, meal.getIngredients(), foods);
+    }
+
+    @Benchmark
+    public List<SwapSuggestion> generateSwaps() {
+        return swapEngine.generateSwaps(goals, meal.getIngredients(), foods);
+    }
+
+    @Benchmark
+    public Meal applySwaps() {
+        return batchApplier.applySwaps(meal, suggestions);
+    }
+}
@@ -0,0 +1,114 @@
+package benchmarks;
+
+import model.FoodItem;
+import model.Goal;
+import model.NutrientDictionary;
+import model.meal.IngredientEntry;
+import model.meal.Meal;
+import model.meal.MealType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic, CNF-sized food catalog and meals built in memory, so the
+ * benchmarks never need MySQL or network access.
+ */
+public final class SyntheticCatalog {
+
+    public static final int FOOD_COUNT = 6000;
+    public static final int NUTRIENT_COUNT = 150;
+
+    // The 23 CNF food groups
+    private static final String[] FOOD_GROUPS = {
+            "Dairy and Egg Products", "Spices and Herbs", "Babyfoods", "Fats and Oils",
+            "Poultry Products", "Soups, Sauces and Gravies", "Sausages and Luncheon meats",
+            "Breakfast cereals", "Fruits and fruit juices", "Pork Products",
+            "Vegetables and Vegetable Products", "Nuts and Seeds", "Beef Products", "Beverages",
+            "Finfish and Shellfish Products", "Legumes and Legume Products",
+            "Lamb, Veal and Game", "Baked Products", "Sweets", "Cereals, Grains and Pasta",
+            "Fast Foods", "Mixed Dishes", "Snacks"
+    };
+
+    // Names the app looks up directly, followed by generic CNF-style nutrients
+    private static final String[] NAMED_NUTRIENTS = {"Protein", "Carbs", "Fat", "Fiber", "Sodium"};
+
+    private final Map<Integer, FoodItem> foods;
+    private final List<FoodItem> foodList;
+    private final List<Integer> foodIds;
+
+    public SyntheticCatalog(long seed) {
+        Random random = new Random(seed);
+
+        int[] nutrientIndices = new int[NUTRIENT_COUNT];
+        for (int n = 0; n < NUTRIENT_COUNT; n++) {
+            String name = n < NAMED_NUTRIENTS.length
+                    ? NAMED_NUTRIENTS[n]
+                    : String.format("NUTRIENT %03d", n);
+            nutrientIndices[n] = NutrientDictionary.intern(name, 1000 + n);
+        }
+
+        foods = new LinkedHashMap<>();
+        foodList = new ArrayList<>(FOOD_COUNT);
+        foodIds = new ArrayList<>(FOOD_COUNT);
+        for (int i = 0; i < FOOD_COUNT; i++) {
+            int foodId = 2 + i;
+            double[] nutrients = new double[NutrientDictionary.size()];
+            Arrays.fill(nutrients, Double.NaN);
+            for (int n = 0; n < NUTRIENT_COUNT; n++) {
+                // Roughly two thirds of the nutrients are listed for a typical CNF food
+                if (n < NAMED_NUTRIENTS.length || random.nextInt(3) > 0) {
+                    nutrients[nutrientIndices[n]] = Math.round(random.nextDouble() * 500.0) / 10.0;
+                }
+            }
+            FoodItem food = new FoodItem(foodId, "Food " + foodId, 20 + random.nextInt(600),
+                    nutrients, FOOD_GROUPS[random.nextInt(FOOD_GROUPS.length)]);
+            foods.put(foodId, food);
+            foodList.add(food);
+            foodIds.add(foodId);
+        }
+    }
+
+    public Map<Integer, FoodItem> getFoods() {
+        return foods;
+    }
+
+    public List<FoodItem> getFoodList() {
+        return foodList;
+    }
+
+    /** A meal of 3-8 random ingredients of 50-250 g */
+    public Meal randomMeal(Random random, int mealId, LocalDate date) {
+        int ingredientCount = 3 + random.nextInt(6);
+        List<IngredientEntry> ingredients = new ArrayList<>(ingredientCount);
+        for (int i = 0; i < ingredientCount; i++) {
+            int foodId = foodIds.get(random.nextInt(foodIds.size()));
+            ingredients.add(new IngredientEntry(foodId, 50 + random.nextInt(201)));
+        }
+        MealType type = MealType.values()[mealId % MealType.values().length];
+        return new Meal(mealId, 1, date, type, ingredients);
+    }
+
+    /** Four meals a day over the given number of days */
+    public List<Meal> randomMeals(Random random, int days) {
+        List<Meal> meals = new ArrayList<>(days * 4);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int day = 0; day < days; day++) {
+            for (int m = 0; m < 4; m++) {
+                meals.add(randomMeal(random, meals.size() + 1, start.plusDays(day)));
+            }
+        }
+        return meals;
+    }
+
+    /** The two goals the swap screen allows: more protein, less fat */
+    public static List<Goal> defaultGoals() {
+        return List.of(new Goal("Protein", "Increase", 5, "Moderate"),
+                new Goal("Fat", "Decrease", 5, "Low"));
+    }
+}
@@ -15,9 +15,12 @@ import chart.*;
 import javax.swing.*;
 import java.awt.*;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.prefs.Preferences;
 
 public class Main {
     private static UserProfile currentUser;
@@ -30,22 +33,52 @@ public class Main {
     private static JFrame mainFrame;
     private static SwapService swapService;
     
+    // Connections opened ahead of the first screens that need them
+    private static final int WARM_CONNECTIONS = 4;
+    private static final String LAST_USER_KEY = "lastUserId";
+    
+    private static CompletableFuture<Void> databaseReady;
+    private static CompletableFuture<List<Goal>> prefetchedGoals;
+    private static int prefetchedGoalsUserId;
+    
     public static void main(String[] args) {
         // Set English locale for the entire application
         Locale.setDefault(Locale.ENGLISH);
         
-        // Initialize the application
-        initializeApplication();
-        
-        // Start with splash screen
+        // Independent startup steps run in parallel; the splash does not wait for any of them
+        StartupPipeline startup = new StartupPipeline(5);
+        databaseReady = startup.run("database", Main::initializeApplication);
+        CompletableFuture<Void> poolWarmUp = startup.run("pool warm-up", Main::warmUpConnectionPool);
+        CompletableFuture<Void> catalog = startup.run("catalog", Main::loadFoodDatabase);
+        CompletableFuture<List<UserProfile>> profiles = startup.<List<UserProfile>>run("profiles",
+                () -> UserProfileManager.getInstance().getProfiles());
+        int lastUserId = Preferences.userNodeForPackage(Main.class).getInt(LAST_USER_KEY, -1);
+        CompletableFuture<List<Goal>> goals = lastUserId < 0 ? CompletableFuture.completedFuture(null)
+                : startup.run("goal prefetch", () -> new GoalDAO().loadGoals(lastUserId));
+        prefetchedGoals = goals;
+        prefetchedGoalsUserId = lastUserId;
+        
+        CompletableFuture<Void> interactive = new CompletableFuture<>();
         SwingUtilities.invokeLater(() -> {
-            showSplashScreen();
+            // The splash shows a loading message and fills itself in when the profiles phase ends
+            showSplashScreen(profiles);
+            startup.mark("splash shown");
+            profiles.whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+                startup.mark("interactive");
+                interactive.complete(null);
+            }));
         });
+        
+        CompletableFuture.allOf(databaseReady, poolWarmUp, catalog, profiles, goals, interactive)
+                .whenComplete((done, error) -> {
+                    System.out.println(startup.report());
+                    startup.shutdown();
+                });
     }
     
     private static void initializeApplication() {
-        // Initialize database adapter
-        DatabaseAdapter databaseAdapter = new MySQLAdapter();
+        // Shared adapter, so the DAOs and services all borrow from the same pool
+        DatabaseAdapter databaseAdapter = DatabaseManager.getAdapter();
         Connection connection = databaseAdapter.connect();
         
         if (connection != null) {
@@ -71,19 +104,30 @@ public class Main {
             // Initialize SwapService even without database connection
             swapService = new SwapService();
             System.err.println("Warning: SwapService initialized without database adapter");
-            
-            // Load food database
-            loadFoodDatabase();
         }
         
         // Initialize services
         initializeServices();
     }
     
+    private static void warmUpConnectionPool() {
+        try {
+            int opened = DatabaseManager.getPool().warmUp(WARM_CONNECTIONS);
+            System.out.println("Opened " + opened + " database connections ahead of use");
+        } catch (SQLException e) {
+            System.err.println("Error warming up connection pool: " + e.getMessage());
+        }
+    }
+    
     private static void loadFoodDatabase() {
+        // Shared catalog, from its snapshot file or MySQL, loaded once per process
+        foodDatabase = FoodCatalog.getInstance().getFoods();
+        if (!foodDatabase.isEmpty()) {
+            return;
+        }
         foodDatabase = new HashMap<>();
         
-        // Add sample food items (in real app, this would load from CSV/database)
+        // Add sample food items when the database is unavailable
         foodDatabase.put(1, new FoodItem(1, "Beef Steak", 250, 
             Map.of("Calories", 250.0, "Protein", 26.0, "Fat", 15.0, "Sodium", 70.0), "Meat"));
         foodDatabase.put(2, new FoodItem(2, "Chicken Breast", 165, 
@@ -111,6 +155,10 @@ public class Main {
     }
     
     private static void showSplashScreen() {
+        showSplashScreen(CompletableFuture.completedFuture(UserProfileManager.getInstance().getProfiles()));
+    }
+    
+    private static SplashScreenUI showSplashScreen(CompletableFuture<List<UserProfile>> profiles) {
         // Create splash screen with callback to continue to main menu
         SplashScreenUI splashScreen = new SplashScreenUI(() -> {
             // This will be called when a profile is selected
@@ -119,23 +167,44 @@ public class Main {
             currentUser = profileManager.getCurrentProfile();
             
             if (currentUser != null) {
-                // Load user's goals
-                loadUserGoals();
-                showMainMenu();
+                // The DAOs are created by the database startup phase, normally long done by now;
+                // wait for it off the EDT and come back to it with the outcome
+                databaseReady.handle((ready, error) -> error).thenAccept(error -> SwingUtilities.invokeLater(() -> {
+                    if (error != null) {
+                        Throwable cause = error.getCause() != null ? error.getCause() : error;
+                        JOptionPane.showMessageDialog(null, "Could not start the database: " + cause.getMessage()
+                                + "\nPlease check the database and restart the application.",
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                        System.exit(1);
+                    }
+                    Preferences.userNodeForPackage(Main.class).putInt(LAST_USER_KEY, currentUser.getUserID());
+                    // Load user's goals
+                    loadUserGoals();
+                    showMainMenu();
+                }));
             } else {
                 // If no current profile, show error and exit
                 JOptionPane.showMessageDialog(null, "No profile selected. Please restart the application.", 
                     "Error", JOptionPane.ERROR_MESSAGE);
                 System.exit(1);
             }
-        });
+        }, profiles);
         
         splashScreen.setVisible(true);
+        return splashScreen;
     }
     
     private static void loadUserGoals() {
         if (currentUser != null) {
-            userGoals = goalDAO.loadGoals(currentUser.getUserID());
+            // Goals prefetched at startup for the last user, used once if they are ready
+            CompletableFuture<List<Goal>> prefetched = prefetchedGoals;
+            prefetchedGoals = null;
+            List<Goal> goals = null;
+            if (prefetched != null && prefetchedGoalsUserId == currentUser.getUserID()
+                    && prefetched.isDone() && !prefetched.isCompletedExceptionally()) {
+                goals = prefetched.join();
+            }
+            userGoals = goals != null ? goals : goalDAO.loadGoals(currentUser.getUserID());
             System.out.println("Loaded " + userGoals.size() + " goals for user " + currentUser.getUserID());
         }
     }
@@ -311,9 +380,8 @@ public class Main {
         if (swapService != null) {
             // Try to get the database adapter from the existing connection
             try {
-                journalDatabaseAdapter = new MySQLAdapter();
-                journalDatabaseAdapter.connect();
-                System.out.println("Created new DatabaseAdapter for JournalPanel");
+                journalDatabaseAdapter = DatabaseManager.getAdapter();
+                System.out.println("Using shared DatabaseAdapter for JournalPanel");
             } catch (Exception e) {
                 System.err.println("Failed to create DatabaseAdapter for JournalPanel: " + e.getMessage());
             }
@@ -642,9 +710,8 @@ public class Main {
         if (swapService != null) {
             // Try to get the database adapter from the existing connection
             try {
-                journalDatabaseAdapter = new MySQLAdapter();
-                journalDatabaseAdapter.connect();
-                System.out.println("Created new DatabaseAdapter for JournalPanel");
+                journalDatabaseAdapter = DatabaseManager.getAdapter();
+                System.out.println("Using shared DatabaseAdapter for JournalPanel");
             } catch (Exception e) {
                 System.err.println("Failed to create DatabaseAdapter for JournalPanel: " + e.getMessage());
             }
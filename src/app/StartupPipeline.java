@@ -0,0 +1,100 @@
+package app;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent startup phases in parallel on daemon threads and records when
+ * each one started and how long it took, plus milestones such as the splash screen
+ * becoming usable, all relative to the pipeline's creation.
+ */
+public class StartupPipeline {
+    private final long startNanos = System.nanoTime();
+    private final ExecutorService executor;
+    // Phase or milestone -> {start offset, duration} in ms; guarded by this
+    private final Map<String, long[]> timings = new LinkedHashMap<>();
+
+    public StartupPipeline(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "startup-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Start a phase. Its future fails if the step throws; the failure is logged and
+     * the time is still recorded.
+     */
+    public <T> CompletableFuture<T> run(String phase, Supplier<T> step) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                return step.get();
+            } catch (RuntimeException e) {
+                System.err.println("Error in startup phase " + phase + ": " + e.getMessage());
+                throw e;
+            } finally {
+                record(phase, start, System.nanoTime());
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<Void> run(String phase, Runnable step) {
+        return run(phase, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /** Record a point in time, e.g. "splash shown" */
+    public void mark(String milestone) {
+        long now = System.nanoTime();
+        record(milestone, now, now);
+    }
+
+    /** Milliseconds since the pipeline was created */
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /** Phases and milestones recorded so far, in completion order: name -> {start, duration} ms */
+    public synchronized Map<String, long[]> getTimings() {
+        Map<String, long[]> copy = new LinkedHashMap<>();
+        timings.forEach((name, timing) -> copy.put(name, timing.clone()));
+        return copy;
+    }
+
+    /** One line per phase, e.g. "  catalog        started at 3 ms, took 41 ms" */
+    public synchronized String report() {
+        StringBuilder report = new StringBuilder("Startup timings:");
+        for (Map.Entry<String, long[]> timing : timings.entrySet()) {
+            long[] value = timing.getValue();
+            report.append(String.format("%n  %-20s", timing.getKey()));
+            if (value[1] == 0) {
+                report.append("at ").append(value[0]).append(" ms");
+            } else {
+                report.append("started at ").append(value[0]).append(" ms, took ").append(value[1]).append(" ms");
+            }
+        }
+        return report.toString();
+    }
+
+    /** Stop the startup threads once every phase has finished */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private synchronized void record(String name, long start, long end) {
+        timings.put(name, new long[]{
+                TimeUnit.NANOSECONDS.toMillis(start - startNanos),
+                TimeUnit.NANOSECONDS.toMillis(end - start)});
+    }
+}
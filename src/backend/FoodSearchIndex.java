@@ -0,0 +1,457 @@
+package backend;
+
+import model.FoodItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-memory search over food descriptions. CNF names are comma-separated phrases
+ * ("Cheese, cheddar, shredded"), so each name is split into words: a query matches a
+ * food when every query word is the start of one of its words, in any order. Queries
+ * that are not word prefixes still find names containing them, through a trigram index
+ * over the whole lowercased name.
+ *
+ * Results are ranked: exact name, name prefix, first word prefix, any word prefix,
+ * then substring matches; shorter names and catalog order break ties.
+ *
+ * Fuzzy searches also accept typos ("brocoli", "chiken"): a query word may match a
+ * name word within a few Levenshtein edits, found through a BK-tree over the distinct
+ * words. Those matches rank after all the exact ones, fewest edits first.
+ *
+ * The index is read-only once built and safe to search from any thread.
+ */
+public class FoodSearchIndex {
+
+    private static final int[] NO_FOODS = new int[0];
+
+    // Match ranks, best first
+    private static final int EXACT = 0;
+    private static final int NAME_PREFIX = 1;
+    private static final int FIRST_WORD_PREFIX = 2;
+    private static final int WORD_PREFIX = 3;
+    private static final int SUBSTRING = 4;
+    // Fuzzy matches rank FUZZY + (edits - 1)
+    private static final int FUZZY = 5;
+    private static final int MAX_RANK = 63;
+    private static final int NO_MATCH = -1;
+
+    private final FoodItem[] foods;
+    private final String[] lowerNames;
+    private final String[][] nameWords;
+    // Distinct words sorted, each with the positions of the foods using it (ascending)
+    private final String[] words;
+    private final int[][] wordPostings;
+    private final WordTree wordTree;
+    // Trigram of a lowercased name -> positions of the foods containing it (ascending)
+    private final Map<Long, int[]> trigramPostings;
+    private final Map<Integer, FoodItem> foodsById = new HashMap<>();
+    private final Map<String, FoodItem> foodsByName = new HashMap<>();
+
+    public FoodSearchIndex(Collection<FoodItem> foodItems) {
+        List<FoodItem> named = new ArrayList<>(foodItems.size());
+        for (FoodItem food : foodItems) {
+            if (food != null && food.getName() != null) {
+                named.add(food);
+            }
+        }
+        int n = named.size();
+        foods = named.toArray(new FoodItem[0]);
+        lowerNames = new String[n];
+        nameWords = new String[n][];
+
+        Map<String, IntList> postingsByWord = new HashMap<>();
+        Map<Long, IntList> postingsByTrigram = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            FoodItem food = foods[i];
+            foodsById.putIfAbsent(food.getFoodID(), food);
+            foodsByName.putIfAbsent(food.getName(), food);
+
+            String lower = food.getName().toLowerCase();
+            lowerNames[i] = lower;
+            nameWords[i] = splitWords(lower);
+            for (String word : nameWords[i]) {
+                postingsByWord.computeIfAbsent(word, w -> new IntList()).addOnce(i);
+            }
+            for (int c = 0; c + 3 <= lower.length(); c++) {
+                postingsByTrigram.computeIfAbsent(trigram(lower, c), t -> new IntList()).addOnce(i);
+            }
+        }
+
+        words = postingsByWord.keySet().toArray(new String[0]);
+        Arrays.sort(words);
+        wordPostings = new int[words.length][];
+        for (int w = 0; w < words.length; w++) {
+            wordPostings[w] = postingsByWord.get(words[w]).toArray();
+        }
+        wordTree = new WordTree(words);
+        trigramPostings = new HashMap<>(postingsByTrigram.size() * 2);
+        for (Map.Entry<Long, IntList> entry : postingsByTrigram.entrySet()) {
+            trigramPostings.put(entry.getKey(), entry.getValue().toArray());
+        }
+    }
+
+    public int size() {
+        return foods.length;
+    }
+
+    public FoodItem findById(int foodId) {
+        return foodsById.get(foodId);
+    }
+
+    /** The food with exactly this name (as displayed), or null */
+    public FoodItem findByName(String name) {
+        return name == null ? null : foodsByName.get(name);
+    }
+
+    /**
+     * Up to limit foods matching the query, best first. A blank query matches nothing.
+     */
+    public List<FoodItem> search(String query, int limit) {
+        return search(query, limit, false, null);
+    }
+
+    /**
+     * Up to limit foods matching the query, best first, optionally also matching words
+     * with typos. Within a rank, foods with a higher popularity come first (null: all
+     * equally popular). A blank query matches nothing.
+     */
+    public List<FoodItem> search(String query, int limit, boolean fuzzy, ToIntFunction<FoodItem> popularity) {
+        String lowerQuery = query == null ? "" : query.toLowerCase().trim();
+        String[] queryWords = splitWords(lowerQuery);
+        if (lowerQuery.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Rank every candidate once; a food found several ways keeps its best rank
+        int[] ranks = new int[foods.length];
+        Arrays.fill(ranks, NO_MATCH);
+        if (queryWords.length > 0) {
+            for (int position : wordPrefixMatches(queryWords)) {
+                ranks[position] = rankWordMatch(position, lowerQuery, queryWords[0]);
+            }
+        }
+        for (int position : substringCandidates(lowerQuery)) {
+            if (ranks[position] == NO_MATCH && lowerNames[position].contains(lowerQuery)) {
+                ranks[position] = lowerNames[position].startsWith(lowerQuery) ? NAME_PREFIX : SUBSTRING;
+            }
+        }
+        if (fuzzy && queryWords.length > 0) {
+            int[] edits = fuzzyEdits(queryWords);
+            for (int position = 0; position < foods.length; position++) {
+                if (ranks[position] == NO_MATCH && edits[position] > 0) {
+                    ranks[position] = Math.min(FUZZY + edits[position] - 1, MAX_RANK);
+                }
+            }
+        }
+
+        // Pack (rank, popularity, name length, position) into one long so the sort needs no comparator
+        long[] keys = new long[foods.length];
+        int k = 0;
+        for (int position = 0; position < foods.length; position++) {
+            if (ranks[position] == NO_MATCH) {
+                continue;
+            }
+            int uses = popularity == null ? 0 : Math.max(0, Math.min(popularity.applyAsInt(foods[position]), 0xFFFF));
+            keys[k++] = ((long) ranks[position] << 57)
+                    | ((long) (0xFFFF - uses) << 41)
+                    | ((long) Math.min(lowerNames[position].length(), 0xFFF) << 29)
+                    | position;
+        }
+        Arrays.sort(keys, 0, k);
+
+        List<FoodItem> results = new ArrayList<>(Math.min(limit, k));
+        for (int i = 0; i < k && i < limit; i++) {
+            results.add(foods[(int) (keys[i] & 0x1FFFFFFF)]);
+        }
+        return results;
+    }
+
+    /**
+     * Per food, the fewest edits that let every query word match one of its words
+     * (a word prefix counts as 0 edits), or NO_MATCH
+     */
+    private int[] fuzzyEdits(String[] queryWords) {
+        int[] total = new int[foods.length];
+        int[] best = new int[foods.length];
+        for (String queryWord : queryWords) {
+            Arrays.fill(best, NO_MATCH);
+            for (int position : foodsWithWordPrefix(queryWord)) {
+                best[position] = 0;
+            }
+            wordTree.forEachWithin(queryWord, maxEdits(queryWord), (word, distance) -> {
+                for (int position : wordPostings[word]) {
+                    if (best[position] == NO_MATCH || distance < best[position]) {
+                        best[position] = distance;
+                    }
+                }
+            });
+            for (int position = 0; position < foods.length; position++) {
+                if (total[position] != NO_MATCH) {
+                    total[position] = best[position] == NO_MATCH ? NO_MATCH : total[position] + best[position];
+                }
+            }
+        }
+        return total;
+    }
+
+    // Typos tolerated per word: none in short words, where one edit makes a different word
+    private static int maxEdits(String word) {
+        if (word.length() <= 3) {
+            return 0;
+        }
+        return word.length() <= 7 ? 1 : 2;
+    }
+
+    private int rankWordMatch(int position, String lowerQuery, String firstQueryWord) {
+        String name = lowerNames[position];
+        if (name.equals(lowerQuery)) {
+            return EXACT;
+        }
+        if (name.startsWith(lowerQuery)) {
+            return NAME_PREFIX;
+        }
+        String[] foodWords = nameWords[position];
+        return foodWords.length > 0 && foodWords[0].startsWith(firstQueryWord) ? FIRST_WORD_PREFIX : WORD_PREFIX;
+    }
+
+    // Foods where every query word is a prefix of one of the name's words
+    private int[] wordPrefixMatches(String[] queryWords) {
+        int[] matches = null;
+        for (String queryWord : queryWords) {
+            int[] foodsForWord = foodsWithWordPrefix(queryWord);
+            matches = matches == null ? foodsForWord : intersect(matches, foodsForWord);
+            if (matches.length == 0) {
+                break;
+            }
+        }
+        return matches == null ? NO_FOODS : matches;
+    }
+
+    private int[] foodsWithWordPrefix(String prefix) {
+        // Words with this prefix are one contiguous run of the sorted word array
+        int from = lowerBound(prefix);
+        int to = from;
+        while (to < words.length && words[to].startsWith(prefix)) {
+            to++;
+        }
+        if (to == from) {
+            return NO_FOODS;
+        }
+        if (to - from == 1) {
+            return wordPostings[from];
+        }
+        boolean[] seen = new boolean[foods.length];
+        int count = 0;
+        for (int w = from; w < to; w++) {
+            for (int position : wordPostings[w]) {
+                if (!seen[position]) {
+                    seen[position] = true;
+                    count++;
+                }
+            }
+        }
+        int[] union = new int[count];
+        for (int position = 0, u = 0; u < count; position++) {
+            if (seen[position]) {
+                union[u++] = position;
+            }
+        }
+        return union;
+    }
+
+    // Foods whose name may contain the query: those sharing all its trigrams
+    private int[] substringCandidates(String lowerQuery) {
+        if (lowerQuery.length() < 3) {
+            // Too short for trigrams; the word prefix matches cover these queries
+            return NO_FOODS;
+        }
+        int[] candidates = null;
+        for (int c = 0; c + 3 <= lowerQuery.length(); c++) {
+            int[] postings = trigramPostings.get(trigram(lowerQuery, c));
+            if (postings == null) {
+                return NO_FOODS;
+            }
+            candidates = candidates == null ? postings : intersect(candidates, postings);
+            if (candidates.length == 0) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    // First position in words that is >= key
+    private int lowerBound(String key) {
+        int low = 0, high = words.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (words[mid].compareTo(key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    /** Lowercase words of a name: runs of letters and digits */
+    private static String[] splitWords(String lower) {
+        List<String> split = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                split.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return split.toArray(new String[0]);
+    }
+
+    private static long trigram(String s, int at) {
+        return ((long) s.charAt(at) << 32) | ((long) s.charAt(at + 1) << 16) | s.charAt(at + 2);
+    }
+
+    /**
+     * Levenshtein distance between a and b, or limit + 1 if it is greater than limit
+     */
+    static int editDistance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            int rowMin = row[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                row[j] = Math.min(substitute, Math.min(previous[j], row[j - 1]) + 1);
+                rowMin = Math.min(rowMin, row[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return Math.min(previous[b.length()], limit + 1);
+    }
+
+    /**
+     * BK-tree over the distinct words: each child edge is labelled with the edit distance
+     * to its parent, so by the triangle inequality a search within k edits of a word at
+     * distance d only descends into edges labelled d - k to d + k.
+     */
+    private static final class WordTree {
+        private final String[] words;
+        // Children of a node as a linked list: first child, next sibling, edge label
+        private final int[] firstChild;
+        private final int[] nextSibling;
+        private final int[] edge;
+
+        private WordTree(String[] words) {
+            this.words = words;
+            firstChild = new int[words.length];
+            nextSibling = new int[words.length];
+            edge = new int[words.length];
+            Arrays.fill(firstChild, -1);
+            Arrays.fill(nextSibling, -1);
+            for (int w = 1; w < words.length; w++) {
+                insert(w);
+            }
+        }
+
+        private void insert(int word) {
+            int node = 0;
+            while (true) {
+                int distance = editDistance(words[word], words[node], Integer.MAX_VALUE - 1);
+                int child = firstChild[node];
+                while (child != -1 && edge[child] != distance) {
+                    child = nextSibling[child];
+                }
+                if (child == -1) {
+                    edge[word] = distance;
+                    nextSibling[word] = firstChild[node];
+                    firstChild[node] = word;
+                    return;
+                }
+                node = child;
+            }
+        }
+
+        /** Call action with every word within maxEdits of query, and its distance */
+        void forEachWithin(String query, int maxEdits, WordAction action) {
+            if (words.length == 0 || maxEdits <= 0) {
+                return;
+            }
+            int[] stack = new int[words.length];
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                // Exact distance (not capped) is needed to choose which edges to follow
+                int distance = editDistance(query, words[node], Integer.MAX_VALUE - 1);
+                if (distance <= maxEdits) {
+                    action.accept(node, distance);
+                }
+                for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+                    if (Math.abs(edge[child] - distance) <= maxEdits) {
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+    }
+
+    private interface WordAction {
+        void accept(int word, int distance);
+    }
+
+    /**
+     * Growable int array of ascending positions
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        // Positions arrive in ascending order, so a repeat is always the last value
+        void addOnce(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
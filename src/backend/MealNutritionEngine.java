@@ -0,0 +1,170 @@
+package backend;
+
+import model.FoodItem;
+import model.NutrientDictionary;
+import model.meal.IngredientEntry;
+import model.meal.Meal;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single nutrient aggregation path for meals, days and date ranges.
+ * Sums into NutrientTotals accumulators indexed by NutrientDictionary, so
+ * the hot loop is plain array adds with no boxing, hashing or console output.
+ * Nutrient values are per 100g; ingredient quantities are in grams.
+ */
+public class MealNutritionEngine {
+
+    private final Map<Integer, FoodItem> foodDatabase;
+
+    // Per-thread accumulator reused by the map-returning convenience methods
+    private static final ThreadLocal<NutrientTotals> SCRATCH = ThreadLocal.withInitial(NutrientTotals::new);
+
+    /**
+     * @param foodDatabase Map of foodID to FoodItem
+     */
+    public MealNutritionEngine(Map<Integer, FoodItem> foodDatabase) {
+        this.foodDatabase = foodDatabase;
+    }
+
+    /** Add the nutrients of the given ingredients into totals */
+    public NutrientTotals sumIngredients(List<IngredientEntry> ingredients, NutrientTotals totals) {
+        if (ingredients == null) {
+            return totals;
+        }
+        for (int i = 0, n = ingredients.size(); i < n; i++) {
+            IngredientEntry entry = ingredients.get(i);
+            FoodItem food = foodDatabase.get(entry.getFoodID());
+            if (food == null) continue;
+
+            double factor = entry.getQuantity() / 100.0; // nutrients per 100g
+            totals.ensureCapacity(NutrientDictionary.size());
+            totals.calories += food.getCalories() * factor;
+            food.addNutrientsTo(totals.values, totals.present, factor);
+            totals.foodCount++;
+        }
+        return totals;
+    }
+
+    /** Add one meal into totals */
+    public NutrientTotals sumMeal(Meal meal, NutrientTotals totals) {
+        return sumIngredients(meal.getIngredients(), totals);
+    }
+
+    /** Add every meal logged on the given day into totals */
+    public NutrientTotals sumDay(List<Meal> meals, LocalDate day, NutrientTotals totals) {
+        return sumRange(meals, day, day, totals);
+    }
+
+    /** Add every meal logged between from and to (inclusive) into totals */
+    public NutrientTotals sumRange(List<Meal> meals, LocalDate from, LocalDate to, NutrientTotals totals) {
+        for (Meal meal : meals) {
+            LocalDate date = meal.getDate();
+            if (date != null && !date.isBefore(from) && !date.isAfter(to)) {
+                sumMeal(meal, totals);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Thread-confined accumulator, reset and ready to use. Only valid until the
+     * next call to scratch() on the same thread, so copy out what you need first.
+     */
+    public static NutrientTotals scratch() {
+        NutrientTotals totals = SCRATCH.get();
+        totals.reset();
+        return totals;
+    }
+
+    /** Totals for one meal as "Calories" plus raw nutrient names */
+    public Map<String, Double> analyzeMeal(Meal meal) {
+        return sumMeal(meal, scratch()).toMap();
+    }
+
+    /** Totals for a list of ingredients as "Calories" plus raw nutrient names */
+    public Map<String, Double> analyzeIngredients(List<IngredientEntry> ingredients) {
+        return sumIngredients(ingredients, scratch()).toMap();
+    }
+
+    /**
+     * Mutable running totals. calories comes from FoodItem.getCalories(); values
+     * are indexed by NutrientDictionary, with present marking nutrients that at
+     * least one summed food listed.
+     */
+    public static final class NutrientTotals {
+        private double calories;
+        private double[] values = new double[0];
+        private boolean[] present = new boolean[0];
+        private int foodCount;
+
+        public NutrientTotals() {
+            ensureCapacity(NutrientDictionary.size());
+        }
+
+        public void reset() {
+            calories = 0.0;
+            Arrays.fill(values, 0.0);
+            Arrays.fill(present, false);
+            foodCount = 0;
+        }
+
+        void ensureCapacity(int size) {
+            if (values.length < size) {
+                values = Arrays.copyOf(values, size);
+                present = Arrays.copyOf(present, size);
+            }
+        }
+
+        public double getCalories() {
+            return calories;
+        }
+
+        /** Number of ingredients whose food was found and summed */
+        public int getFoodCount() {
+            return foodCount;
+        }
+
+        /** Total for a NutrientDictionary index (0 if no food listed it) */
+        public double get(int nutrientIndex) {
+            return nutrientIndex >= 0 && nutrientIndex < values.length ? values[nutrientIndex] : 0.0;
+        }
+
+        /** Total for a raw nutrient name (0 if no food listed it) */
+        public double get(String nutrientName) {
+            return get(NutrientDictionary.indexOf(nutrientName));
+        }
+
+        public boolean isPresent(int nutrientIndex) {
+            return nutrientIndex >= 0 && nutrientIndex < present.length && present[nutrientIndex];
+        }
+
+        /** "Calories" (when any food was found) plus every listed nutrient under its raw name */
+        public Map<String, Double> toMap() {
+            return toMap(true, false);
+        }
+
+        /**
+         * Copy the totals into a map.
+         * @param includeCalories add a "Calories" entry (or "calories" when lowercasing)
+         * @param lowerCaseKeys lowercase nutrient names, summing names that collide
+         */
+        public Map<String, Double> toMap(boolean includeCalories, boolean lowerCaseKeys) {
+            Map<String, Double> map = new HashMap<>();
+            if (includeCalories && foodCount > 0) {
+                map.put(lowerCaseKeys ? "calories" : "Calories", calories);
+            }
+            for (int i = 0; i < present.length; i++) {
+                if (present[i]) {
+                    String name = NutrientDictionary.nameOf(i);
+                    map.merge(lowerCaseKeys ? name.toLowerCase() : name, values[i], Double::sum);
+                }
+            }
+            return map;
+        }
+    }
+}
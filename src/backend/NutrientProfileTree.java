@@ -0,0 +1,144 @@
+package backend;
+
+import model.FoodItem;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * KD-tree over the nutrient profiles of a fixed set of foods (one food group).
+ * Each food is a point with one coordinate per nutrient, and the tree answers box
+ * queries ("every nutrient within these bounds"). Nodes split on the dimension with
+ * the widest range-normalized spread, so nutrients measured in large units (sodium
+ * in mg) do not decide every split.
+ *
+ * Results refer to foods by their position in the list given to the constructor.
+ */
+public class NutrientProfileTree {
+
+    private final List<FoodItem> foods;
+    private final List<String> nutrients;
+    private final int dimensions;
+    // Node order: the node for range [lo, hi) is at (lo + hi) / 2
+    private final int[] order;
+    private final int[] splitDimension;
+    private final double[][] points; // points[food][dimension]
+    private final double[] scale;    // 1 / value range per dimension, 0 if constant
+
+    /**
+     * @param foods foods to index; positions in this list identify results
+     * @param nutrients nutrient names, read with FoodItem.getNutrientValue
+     */
+    public NutrientProfileTree(List<FoodItem> foods, List<String> nutrients) {
+        this.foods = foods;
+        this.nutrients = nutrients;
+        this.dimensions = nutrients.size();
+        int n = foods.size();
+
+        points = new double[n][dimensions];
+        double[] min = new double[dimensions];
+        double[] max = new double[dimensions];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < n; i++) {
+            for (int d = 0; d < dimensions; d++) {
+                double value = foods.get(i).getNutrientValue(nutrients.get(d));
+                points[i][d] = value;
+                min[d] = Math.min(min[d], value);
+                max[d] = Math.max(max[d], value);
+            }
+        }
+        scale = new double[dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            double range = max[d] - min[d];
+            scale[d] = range > 0 ? 1.0 / range : 0.0;
+        }
+
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            boxed[i] = i;
+        }
+        splitDimension = new int[n];
+        build(boxed, 0, n);
+        order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = boxed[i];
+        }
+    }
+
+    public List<String> getNutrients() {
+        return nutrients;
+    }
+
+    public int size() {
+        return foods.size();
+    }
+
+    /**
+     * Report every food whose value on each dimension d lies within [min[d], max[d]].
+     * Use infinite bounds for unconstrained dimensions.
+     */
+    public void rangeQuery(double[] min, double[] max, IntConsumer action) {
+        rangeQuery(0, order.length, min, max, action);
+    }
+
+    private void build(Integer[] items, int lo, int hi) {
+        if (hi - lo <= 0) {
+            return;
+        }
+        int dimension = widestDimension(items, lo, hi);
+        Arrays.sort(items, lo, hi, Comparator.comparingDouble(i -> points[i][dimension]));
+        int mid = (lo + hi) >>> 1;
+        splitDimension[mid] = dimension;
+        build(items, lo, mid);
+        build(items, mid + 1, hi);
+    }
+
+    private int widestDimension(Integer[] items, int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int d = 0; d < dimensions; d++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double value = points[items[i]][d];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            double spread = (max - min) * scale[d];
+            if (spread > widestSpread) {
+                widestSpread = spread;
+                widest = d;
+            }
+        }
+        return widest;
+    }
+
+    private void rangeQuery(int lo, int hi, double[] min, double[] max, IntConsumer action) {
+        if (hi - lo <= 0) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int item = order[mid];
+        double[] point = points[item];
+
+        boolean inside = true;
+        for (int d = 0; d < dimensions && inside; d++) {
+            inside = point[d] >= min[d] && point[d] <= max[d];
+        }
+        if (inside) {
+            action.accept(item);
+        }
+
+        // Left subtree holds values <= the split value, right subtree values >= it
+        int dimension = splitDimension[mid];
+        if (min[dimension] <= point[dimension]) {
+            rangeQuery(lo, mid, min, max, action);
+        }
+        if (max[dimension] >= point[dimension]) {
+            rangeQuery(mid + 1, hi, min, max, action);
+        }
+    }
+}
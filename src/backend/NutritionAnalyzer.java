@@ -2,10 +2,7 @@ package backend;
 
 import model.FoodItem;
 import model.meal.Meal;
-import model.meal.IngredientEntry;
 
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -14,13 +11,13 @@ import java.util.Map;
  */
 public class NutritionAnalyzer {
 
-    private Map<Integer, FoodItem> foodDatabase;
+    private final MealNutritionEngine engine;
 
     /**
      * @param foodDatabase Map of foodID to FoodItem
      */
     public NutritionAnalyzer(Map<Integer, FoodItem> foodDatabase) {
-        this.foodDatabase = foodDatabase;
+        this.engine = new MealNutritionEngine(foodDatabase);
     }
 
     /**
@@ -29,32 +26,6 @@ public class NutritionAnalyzer {
      * @return a map of nutrient name to total amount in the meal
      */
     public Map<String, Double> analyzeMeal(Meal meal) {
-        Map<String, Double> totalNutrients = new HashMap<>();
-
-        List<IngredientEntry> ingredients = meal.getIngredients();
-
-        for (IngredientEntry entry : ingredients) {
-            FoodItem food = foodDatabase.get(entry.getFoodID());
-            if (food == null) continue;
-
-            double quantityFactor = entry.getQuantity() / 100.0; // nutrients per 100g
-
-            // Add calories from the food item
-            double calories = food.getCalories() * quantityFactor;
-            totalNutrients.merge("Calories", calories, Double::sum);
-
-            // Add other nutrients with proper unit handling
-            for (Map.Entry<String, Double> nutrient : food.getNutrients().entrySet()) {
-                String nutrientName = nutrient.getKey();
-                double amount = nutrient.getValue() * quantityFactor;
-
-                // Debug: Show nutrient values being added
-                System.out.println("Adding nutrient: " + nutrientName + " = " + amount + " (from " + nutrient.getValue() + " * " + quantityFactor + ")");
-                
-                totalNutrients.merge(nutrientName, amount, Double::sum);
-            }
-        }
-
-        return totalNutrients;
+        return engine.analyzeMeal(meal);
     }
 }
\ No newline at end of file
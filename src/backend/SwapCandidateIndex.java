@@ -0,0 +1,161 @@
+package backend;
+
+import model.FoodItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Swap candidates bucketed by food group, with a NutrientProfileTree per group over
+ * the goal nutrients. Candidate lookup is one box query on the original's group: the
+ * goal nutrient is bounded on the side the user wants to improve, and every other
+ * indexed nutrient by how far it may move, so lookups no longer scan the whole catalog
+ * for every ingredient.
+ */
+public class SwapCandidateIndex {
+
+    /** Nutrients indexed by the per-group trees */
+    public static final List<String> GOAL_NUTRIENTS =
+            List.of("calories", "protein", "carbs", "fat", "fiber", "sodium");
+
+    private static SwapCandidateIndex cached;
+
+    private final Map<Integer, FoodItem> source;
+    private final int sourceSize;
+    // Food group -> foods in catalog iteration order
+    private final Map<String, List<FoodItem>> groups = new HashMap<>();
+    // Food group -> profile tree over GOAL_NUTRIENTS, positions matching groups
+    private final Map<String, NutrientProfileTree> trees = new HashMap<>();
+    // Goal nutrient -> food group -> that group's foods ranked by it, built on first use
+    private final Map<String, Map<String, NutrientRanking>> rankings = new ConcurrentHashMap<>();
+
+    public SwapCandidateIndex(Map<Integer, FoodItem> foods) {
+        this.source = foods;
+        this.sourceSize = foods.size();
+        for (FoodItem food : foods.values()) {
+            if (food != null && food.getFoodGroup() != null) {
+                groups.computeIfAbsent(food.getFoodGroup(), g -> new ArrayList<>()).add(food);
+            }
+        }
+        for (Map.Entry<String, List<FoodItem>> group : groups.entrySet()) {
+            trees.put(group.getKey(), new NutrientProfileTree(group.getValue(), GOAL_NUTRIENTS));
+        }
+    }
+
+    /**
+     * Index for the given food map, reusing the last one built when it is the same map.
+     * Catalog snapshots are immutable, so identity (plus size as a cheap guard for the
+     * mutable mock maps) is enough to tell whether the index is still current.
+     */
+    public static synchronized SwapCandidateIndex forFoods(Map<Integer, FoodItem> foods) {
+        SwapCandidateIndex index = cached;
+        if (index == null || index.source != foods || index.sourceSize != foods.size()) {
+            index = new SwapCandidateIndex(foods);
+            cached = index;
+        }
+        return index;
+    }
+
+    /**
+     * Foods in the original's group whose nutrient value is strictly higher ("increase")
+     * or strictly lower ("decrease") than the original's, and whose GOAL_NUTRIENTS values
+     * are each within maxChange[d] of the original's (use infinity for no limit). Sorted
+     * by the nutrient, ties in catalog order. The result is a new list the caller may keep.
+     */
+    public List<FoodItem> betterThanWithin(FoodItem original, String nutrient, String direction,
+                                           double[] maxChange) {
+        NutrientProfileTree tree = original.getFoodGroup() == null ? null : trees.get(original.getFoodGroup());
+        if (tree == null || !(direction.equals("increase") || direction.equals("decrease"))) {
+            return new ArrayList<>();
+        }
+
+        double originalValue = original.getNutrientValue(nutrient);
+        boolean increase = direction.equals("increase");
+        double[] min = new double[GOAL_NUTRIENTS.size()];
+        double[] max = new double[GOAL_NUTRIENTS.size()];
+        for (int d = 0; d < min.length; d++) {
+            String name = GOAL_NUTRIENTS.get(d);
+            double value = original.getNutrientValue(name);
+            double slack = Math.ulp(value) * 2; // absorb rounding in value +/- maxChange
+            min[d] = value - maxChange[d] - slack;
+            max[d] = value + maxChange[d] + slack;
+            if (name.equalsIgnoreCase(nutrient)) {
+                // Only the improving side of the goal nutrient; strictly better is checked below
+                if (increase) {
+                    min[d] = Math.max(min[d], value);
+                } else {
+                    max[d] = Math.min(max[d], value);
+                }
+            }
+        }
+
+        // Keep the hits that are strictly better for the goal, by their rank on the nutrient
+        List<FoodItem> groupFoods = groups.get(original.getFoodGroup());
+        NutrientRanking ranking = ranking(original.getFoodGroup(), nutrient);
+        RankCollector hits = new RankCollector();
+        tree.rangeQuery(min, max, position -> {
+            double value = ranking.values[position];
+            if (increase ? value > originalValue : value < originalValue) {
+                hits.add(ranking.rankOf[position]);
+            }
+        });
+
+        // Ranks order by nutrient value, then catalog order
+        Arrays.sort(hits.ranks, 0, hits.count);
+        List<FoodItem> candidates = new ArrayList<>(hits.count);
+        for (int i = 0; i < hits.count; i++) {
+            candidates.add(groupFoods.get(ranking.positionAt[hits.ranks[i]]));
+        }
+        return candidates;
+    }
+
+    private NutrientRanking ranking(String group, String nutrient) {
+        return rankings.computeIfAbsent(nutrient, n -> new ConcurrentHashMap<>())
+                .computeIfAbsent(group, g -> new NutrientRanking(groups.get(g), nutrient));
+    }
+
+    /**
+     * One food group ordered by one nutrient (ties in catalog order), so query hits can
+     * be put in that order by sorting their int ranks
+     */
+    private static final class NutrientRanking {
+        private final double[] values;    // position -> nutrient value
+        private final int[] rankOf;       // position -> rank
+        private final int[] positionAt;   // rank -> position
+
+        private NutrientRanking(List<FoodItem> foods, String nutrient) {
+            int n = foods.size();
+            values = new double[n];
+            Integer[] byValue = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = foods.get(i).getNutrientValue(nutrient);
+                byValue[i] = i;
+            }
+            // Stable sort, so equal values stay in catalog order
+            Arrays.sort(byValue, Comparator.comparingDouble(i -> values[i]));
+            rankOf = new int[n];
+            positionAt = new int[n];
+            for (int rank = 0; rank < n; rank++) {
+                positionAt[rank] = byValue[rank];
+                rankOf[byValue[rank]] = rank;
+            }
+        }
+    }
+
+    private static final class RankCollector {
+        private int[] ranks = new int[32];
+        private int count;
+
+        private void add(int rank) {
+            if (count == ranks.length) {
+                ranks = Arrays.copyOf(ranks, count * 2);
+            }
+            ranks[count++] = rank;
+        }
+    }
+}
@@ -17,6 +17,25 @@ public class SwapEngine {
     public List<SwapSuggestion> generateSwaps(List<Goal> goals, List<IngredientEntry> currentMeal, Map<Integer, FoodItem> foodDatabase) {
         List<SwapSuggestion> suggestions = new ArrayList<>();
         
+        // Best suggestion per goal, up to the per-meal maximum
+        for (List<SwapSuggestion> ranked : rankSwaps(goals, currentMeal, foodDatabase, 1)) {
+            if (suggestions.size() >= MAX_SWAPS_PER_MEAL) break;
+            suggestions.add(ranked.get(0));
+        }
+
+        return suggestions;
+    }
+
+    /**
+     * Ranked alternatives for one meal: for each goal that produced any, up to limit
+     * suggestions, best first (equal scores keep the order they were found in).
+     * generateSwaps takes the first of each list; batch callers use the rest as fallbacks.
+     * Reads foodDatabase only, so meals can be ranked concurrently.
+     */
+    public List<List<SwapSuggestion>> rankSwaps(List<Goal> goals, List<IngredientEntry> currentMeal,
+                                                Map<Integer, FoodItem> foodDatabase, int limit) {
+        List<List<SwapSuggestion>> rankedPerGoal = new ArrayList<>();
+        
         // Limit number of goals to maximum 2
         if (goals.size() > 2) {
             goals = goals.subList(0, 2);
@@ -25,34 +44,37 @@ public class SwapEngine {
         // Calculate total nutrients for current meal
         Map<String, Double> currentNutrients = NutrientCalculator.calculateMealNutrients(currentMeal, foodDatabase);
         
-        // Generate suggestions for each goal, but limit total number
         for (Goal goal : goals) {
-            if (suggestions.size() >= MAX_SWAPS_PER_MEAL) break;
-            
-            double intensityFactor = getIntensityFactor(goal.getIntensity());
             RecommendationStrategy strategy = selectStrategy(goal);
 
             if (strategy == null) continue;
 
-            // Find best replacement for current goal
+            // Find best replacements for current goal
             GoalContext goalContext = new GoalContext(goal);
-            SwapSuggestion bestSuggestion = findBestSwapForGoal(goalContext, currentMeal, foodDatabase, currentNutrients, strategy);
+            List<SwapSuggestion> ranked = rankSwapsForGoal(goalContext, currentMeal, foodDatabase, currentNutrients, limit);
             
-            if (bestSuggestion != null) {
-                suggestions.add(bestSuggestion);
+            if (!ranked.isEmpty()) {
+                rankedPerGoal.add(ranked);
             }
         }
 
-        return suggestions;
+        return rankedPerGoal;
     }
 
-    private SwapSuggestion findBestSwapForGoal(GoalContext goalContext, List<IngredientEntry> currentMeal, 
-                                              Map<Integer, FoodItem> foodDatabase, 
-                                              Map<String, Double> currentNutrients,
-                                              RecommendationStrategy strategy) {
+    private List<SwapSuggestion> rankSwapsForGoal(GoalContext goalContext, List<IngredientEntry> currentMeal, 
+                                                  Map<Integer, FoodItem> foodDatabase, 
+                                                  Map<String, Double> currentNutrients,
+                                                  int limit) {
         
-        SwapSuggestion bestSuggestion = null;
-        double bestScore = Double.NEGATIVE_INFINITY;
+        // Best candidates so far, highest score first
+        List<RankedSwap> best = new ArrayList<>(limit + 1);
+        
+        SwapCandidateIndex index = SwapCandidateIndex.forFoods(foodDatabase);
+        MealBalance balance = new MealBalance(currentNutrients, goalContext.getTargetNutrient());
+        double[] maxChange = balance.maxChange(SwapCandidateIndex.GOAL_NUTRIENTS);
+        // The goal nutrient is read for every candidate, so resolve its name once
+        int targetIndex = MealBalance.nutrientIndexOf(goalContext.getTargetNutrient());
+        double currentTotal = currentNutrients.getOrDefault(goalContext.getTargetNutrient(), 0.0);
         
         for (IngredientEntry entry : currentMeal) {
             FoodItem original = foodDatabase.get(entry.getFoodID());
@@ -62,45 +84,47 @@ public class SwapEngine {
                 continue;
             }
 
-            // Filter candidate replacements (same group, different items, beneficial for goal)
-            List<FoodItem> candidates = foodDatabase.values().stream()
-                    .filter(item -> item != null && item.getFoodGroup() != null && 
-                                   item.getFoodGroup().equals(original.getFoodGroup()))
-                    .filter(item -> item.getFoodID() != original.getFoodID())
-                    .filter(item -> isBetterForGoal(item, original, goalContext))
-                    .toList();
+            // Candidate replacements: same group, strictly better for the goal, and within
+            // tolerance on the indexed nutrients (range query on the group's profile tree)
+            List<FoodItem> candidates = index.betterThanWithin(original, goalContext.getTargetNutrient(),
+                    goalContext.getDirection(), maxChange);
 
             for (FoodItem candidate : candidates) {
-                // Check nutrient balance after replacement
-                if (isNutrientBalanced(original, candidate, currentNutrients, goalContext)) {
-                    // Calculate overall score for replacement
-                    double score = calculateSwapScore(original, candidate, goalContext, currentNutrients);
-                    
-                    if (score > bestScore) {
-                        bestScore = score;
-                        String reason = SwapReasonGenerator.generateReason(original, candidate, goalContext);
-                        bestSuggestion = new SwapSuggestion(entry, new IngredientEntry(candidate.getFoodID(), entry.getQuantity()), reason);
+                // Exact check, also covering meal nutrients the tree does not index
+                if (!isNutrientBalanced(original, candidate, balance)) continue;
+
+                // Calculate overall score for replacement
+                double score = calculateSwapScore(original, candidate, goalContext,
+                        MealBalance.nutrientValue(original, targetIndex), MealBalance.nutrientValue(candidate, targetIndex),
+                        currentTotal);
+                
+                // A later candidate only displaces an earlier one with a strictly higher score
+                if (best.size() < limit || score > best.get(best.size() - 1).score) {
+                    int position = best.size();
+                    while (position > 0 && score > best.get(position - 1).score) {
+                        position--;
+                    }
+                    best.add(position, new RankedSwap(score, entry, original, candidate));
+                    if (best.size() > limit) {
+                        best.remove(limit);
                     }
                 }
             }
         }
         
-        return bestSuggestion;
+        List<SwapSuggestion> suggestions = new ArrayList<>(best.size());
+        for (RankedSwap swap : best) {
+            String reason = SwapReasonGenerator.generateReason(swap.original, swap.candidate, goalContext);
+            suggestions.add(new SwapSuggestion(swap.entry,
+                    new IngredientEntry(swap.candidate.getFoodID(), swap.entry.getQuantity()), reason));
+        }
+        return suggestions;
     }
 
-
-
-        private boolean isNutrientBalanced(FoodItem original, FoodItem replacement, 
-                                      Map<String, Double> currentNutrients, GoalContext goalContext) {
-        String targetNutrient = goalContext.getTargetNutrient();
-        
-        for (Map.Entry<String, Double> nutrient : currentNutrients.entrySet()) {
-            String nutrientName = nutrient.getKey().toLowerCase();
-            
-            // Skip target nutrient
-            if (nutrientName.equals(targetNutrient)) continue;
-            
-            double changePercentage = calculateNutrientChange(original, replacement, nutrientName, nutrient.getValue());
+    private boolean isNutrientBalanced(FoodItem original, FoodItem replacement, MealBalance balance) {
+        for (int i = 0; i < balance.size(); i++) {
+            double changePercentage = Math.abs(balance.valueOf(replacement, i) - balance.valueOf(original, i))
+                    / balance.total(i);
             
             if (changePercentage > NUTRIENT_TOLERANCE) {
                 return false; // Change too large, unbalanced
@@ -110,35 +134,22 @@ public class SwapEngine {
         return true;
     }
 
-    private double calculateNutrientChange(FoodItem original, FoodItem replacement, 
-                                         String nutrientName, double currentTotal) {
-        double originalValue = original.getNutrientValue(nutrientName);
-        double replacementValue = replacement.getNutrientValue(nutrientName);
-        double difference = replacementValue - originalValue;
-        
-        return Math.abs(difference) / currentTotal;
-    }
-
-    private double calculateSwapScore(FoodItem original, FoodItem replacement, GoalContext goalContext, Map<String, Double> currentNutrients) {
-        double baseScore = calculateBaseScore(original, replacement, goalContext);
-        double targetBonus = calculateTargetBonus(original, replacement, goalContext, currentNutrients);
+    private double calculateSwapScore(FoodItem original, FoodItem replacement, GoalContext goalContext,
+                                      double originalValue, double replacementValue, double currentTotal) {
+        double baseScore = calculateBaseScore(originalValue, replacementValue, goalContext);
+        double targetBonus = calculateTargetBonus(originalValue, replacementValue, goalContext, currentTotal);
         double groupBonus = calculateGroupBonus(original, replacement);
         
         return baseScore + targetBonus + groupBonus;
     }
 
-    private double calculateBaseScore(FoodItem original, FoodItem replacement, GoalContext goalContext) {
-        double originalValue = original.getNutrientValue(goalContext.getTargetNutrient());
-        double replacementValue = replacement.getNutrientValue(goalContext.getTargetNutrient());
+    private double calculateBaseScore(double originalValue, double replacementValue, GoalContext goalContext) {
         double difference = replacementValue - originalValue;
         
         return goalContext.getDirection().equals("increase") ? difference : -difference;
     }
 
-    private double calculateTargetBonus(FoodItem original, FoodItem replacement, GoalContext goalContext, Map<String, Double> currentNutrients) {
-        double originalValue = original.getNutrientValue(goalContext.getTargetNutrient());
-        double replacementValue = replacement.getNutrientValue(goalContext.getTargetNutrient());
-        double currentTotal = currentNutrients.getOrDefault(goalContext.getTargetNutrient(), 0.0);
+    private double calculateTargetBonus(double originalValue, double replacementValue, GoalContext goalContext, double currentTotal) {
         double newTotal = currentTotal - originalValue + replacementValue;
         
         if (goalContext.getDirection().equals("increase") && newTotal >= currentTotal + goalContext.getTargetAmount()) {
@@ -156,23 +167,6 @@ public class SwapEngine {
 
 
 
-    private boolean isBetterForGoal(FoodItem candidate, FoodItem original, GoalContext goalContext) {
-        double originalValue = original.getNutrientValue(goalContext.getTargetNutrient());
-        double candidateValue = candidate.getNutrientValue(goalContext.getTargetNutrient());
-        
-        if (goalContext.getDirection().equals("increase")) {
-            return candidateValue > originalValue;
-        } else if (goalContext.getDirection().equals("decrease")) {
-            return candidateValue < originalValue;
-        }
-        
-        return false;
-    }
-    
-
-    
-
-
     private RecommendationStrategy selectStrategy(Goal goal) {
         return StrategyFactory.createStrategy(goal.getNutrient());
     }
@@ -180,4 +174,96 @@ public class SwapEngine {
     private double getIntensityFactor(String intensity) {
         return IntensityLevel.fromString(intensity).getFactor();
     }
-}
\ No newline at end of file
+
+    /**
+     * Meal totals for every nutrient except the goal nutrient, resolved once per
+     * meal so the balance check per candidate reads FoodItem vectors by index.
+     */
+    private static final class MealBalance {
+        private static final int CALORIES = -2;
+
+        private final int[] nutrientIndices;
+        private final double[] totals;
+        private final int size;
+
+        MealBalance(Map<String, Double> currentNutrients, String targetNutrient) {
+            nutrientIndices = new int[currentNutrients.size()];
+            totals = new double[currentNutrients.size()];
+            int count = 0;
+            for (Map.Entry<String, Double> nutrient : currentNutrients.entrySet()) {
+                String nutrientName = nutrient.getKey().toLowerCase();
+                
+                // Skip target nutrient
+                if (nutrientName.equals(targetNutrient)) continue;
+                
+                int index = nutrientIndexOf(nutrientName);
+                // A name with no dictionary index reads as 0 for every food, so it never unbalances
+                if (index == -1) continue;
+                
+                nutrientIndices[count] = index;
+                totals[count] = nutrient.getValue();
+                count++;
+            }
+            this.size = count;
+        }
+
+        int size() {
+            return size;
+        }
+
+        double total(int i) {
+            return totals[i];
+        }
+
+        /**
+         * Largest allowed absolute change per nutrient, for a box query over the given
+         * nutrients. Unconstrained nutrients (the goal, or not in the meal) get infinity.
+         * Slightly widened so the box never rejects what the exact check accepts.
+         */
+        double[] maxChange(List<String> nutrients) {
+            double[] limits = new double[nutrients.size()];
+            Arrays.fill(limits, Double.POSITIVE_INFINITY);
+            for (int d = 0; d < limits.length; d++) {
+                String name = nutrients.get(d);
+                int index = nutrientIndexOf(name);
+                if (index == -1) continue; // Unknown nutrient reads as 0 for every food
+                for (int i = 0; i < size; i++) {
+                    // Change/total > tolerance fails only for a positive total (0 allows no change)
+                    if (nutrientIndices[i] == index && totals[i] >= 0) {
+                        double limit = NUTRIENT_TOLERANCE * totals[i];
+                        limits[d] = Math.min(limits[d], limit * (1 + 1e-9));
+                    }
+                }
+            }
+            return limits;
+        }
+
+        double valueOf(FoodItem food, int i) {
+            return nutrientValue(food, nutrientIndices[i]);
+        }
+
+        /** What FoodItem.getNutrientValue(name) reads: CALORIES, a dictionary index, or -1 */
+        static int nutrientIndexOf(String nutrient) {
+            return nutrient.equalsIgnoreCase("calories") ? CALORIES : FoodItem.nutrientIndexOf(nutrient);
+        }
+
+        /** FoodItem.getNutrientValue(name) for an index from nutrientIndexOf */
+        static double nutrientValue(FoodItem food, int index) {
+            return index == CALORIES ? food.getCalories() : food.getNutrientValue(index);
+        }
+    }
+
+    private static final class RankedSwap {
+        private final double score;
+        private final IngredientEntry entry;
+        private final FoodItem original;
+        private final FoodItem candidate;
+
+        RankedSwap(double score, IngredientEntry entry, FoodItem original, FoodItem candidate) {
+            this.score = score;
+            this.entry = entry;
+            this.original = original;
+            this.candidate = candidate;
+        }
+    }
+}
@@ -5,27 +5,80 @@ import model.FoodItem;
 import model.meal.Meal;
 import model.user.UserProfile;
 import service.CFGComparisonEngine;
+import dao.Implementations.DailyNutrientTotalsDAO;
 import dao.Implementations.MealDAO;
+import dao.adapter.DatabaseManager;
 
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class DailyIntakeAndCFGAnalysisController {
     private final MealDAO mealDAO;
+    private final DailyNutrientTotalsDAO dailyTotalsDAO;
     private final Map<Integer, FoodItem> foodDatabase;
 
     public DailyIntakeAndCFGAnalysisController(MealDAO mealDAO, Map<Integer, FoodItem> foodDatabase) {
+        this(mealDAO, new DailyNutrientTotalsDAO(DatabaseManager.getAdapter()), foodDatabase);
+    }
+
+    public DailyIntakeAndCFGAnalysisController(MealDAO mealDAO, DailyNutrientTotalsDAO dailyTotalsDAO,
+                                               Map<Integer, FoodItem> foodDatabase) {
         this.mealDAO = mealDAO;
+        this.dailyTotalsDAO = dailyTotalsDAO;
         this.foodDatabase = foodDatabase;
     }
 
     public Map<String, Double> getDailyNutrientIntake(int userId) {
+        Map<String, Double> totals = dailyTotalsDAO.getTotals(userId);
+        if (totals != null) {
+            return totals;
+        }
+
+        // Database unavailable: sum the meals directly
+        return sumMeals(mealDAO.getMealsByUserId(userId), null, null);
+    }
+
+    /**
+     * Average daily intake per nutrient between two dates (inclusive), over the days
+     * with meals logged (Use Case 6)
+     */
+    public Map<String, Double> getAverageDailyIntake(int userId, LocalDate startDate, LocalDate endDate) {
+        Map<String, Double> average = dailyTotalsDAO.getAverageDailyIntake(userId, startDate, endDate);
+        if (average != null) {
+            return average;
+        }
+
         List<Meal> meals = mealDAO.getMealsByUserId(userId);
+        Map<String, Double> totals = sumMeals(meals, startDate, endDate);
+        Set<LocalDate> days = new HashSet<>();
+        for (Meal meal : meals) {
+            if (inRange(meal, startDate, endDate)) {
+                days.add(meal.getDate());
+            }
+        }
+        totals.replaceAll((nutrient, total) -> total / days.size());
+        return totals;
+    }
+
+    public Map<String, Boolean> analyzeCFGCompliance(UserProfile profile) {
+        Map<String, Double> dailyIntake = getDailyNutrientIntake(profile.getUserID());
+        CFGComparisonEngine engine = new CFGComparisonEngine();
+        return engine.compareToCFG(profile, dailyIntake);
+    }
+
+    // Null dates leave that end of the range open
+    private Map<String, Double> sumMeals(List<Meal> meals, LocalDate startDate, LocalDate endDate) {
         NutritionAnalyzer analyzer = new NutritionAnalyzer(foodDatabase);
         Map<String, Double> dailyTotals = new HashMap<>();
 
         for (Meal meal : meals) {
+            if (!inRange(meal, startDate, endDate)) {
+                continue;
+            }
             Map<String, Double> nutrients = analyzer.analyzeMeal(meal);
             for (Map.Entry<String, Double> entry : nutrients.entrySet()) {
                 dailyTotals.merge(entry.getKey(), entry.getValue(), Double::sum);
@@ -35,9 +88,12 @@ public class DailyIntakeAndCFGAnalysisController {
         return dailyTotals;
     }
 
-    public Map<String, Boolean> analyzeCFGCompliance(UserProfile profile) {
-        Map<String, Double> dailyIntake = getDailyNutrientIntake(profile.getUserID());
-        CFGComparisonEngine engine = new CFGComparisonEngine();
-        return engine.compareToCFG(profile, dailyIntake);
+    private static boolean inRange(Meal meal, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null && endDate == null) {
+            return true;
+        }
+        LocalDate date = meal.getDate();
+        return date != null && (startDate == null || !date.isBefore(startDate))
+                && (endDate == null || !date.isAfter(endDate));
     }
-}
\ No newline at end of file
+}
@@ -35,6 +35,10 @@ public class MealLoggerController implements IMealLogger {
         return mealDAO.getMealsByUserId(userId);
     }
 
+    public List<Meal> getMealsForUserOnDate(int userId, LocalDate date) {
+        return mealDAO.getMealsByDate(userId, date);
+    }
+
     @Override
     public List<Meal> loadMeals() {
         int exampleUserId = 1;
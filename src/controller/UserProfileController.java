@@ -15,11 +15,7 @@ public class UserProfileController {
     public void createProfile(String name, String sex,
                               LocalDate dob, double height, double weight) {
         // Check if a profile with this name already exists
-        List<UserProfile> existingProfiles = userProfileDAO.getAllUserProfiles();
-        boolean nameExists = existingProfiles.stream()
-                .anyMatch(profile -> profile.getName().equals(name));
-        
-        if (nameExists) {
+        if (userProfileDAO.existsByName(name)) {
             throw new IllegalArgumentException("A profile with the name '" + name + "' already exists. Please choose a different name.");
         }
         
@@ -69,10 +65,7 @@ public class UserProfileController {
 
     public void deleteProfile(int userId) {
         userProfileDAO.deleteUserProfile(userId);
-        // Remove from manager if it's the current profile
-        UserProfile currentProfile = manager.getCurrentProfile();
-        if (currentProfile != null && currentProfile.getUserID() == userId) {
-            manager.removeCurrentProfile();
-        }
+        // Drop it from the manager's cache too, clearing the current profile if it is this one
+        manager.removeProfile(userId);
     }
 }
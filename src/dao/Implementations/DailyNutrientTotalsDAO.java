@@ -0,0 +1,131 @@
+package dao.Implementations;
+
+import dao.adapter.DailyNutrientTotals;
+import dao.adapter.DatabaseAdapter;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Range queries over daily_nutrient_totals. Results are keyed like
+ * MealNutritionEngine.analyzeMeal: "Calories" (CNF NutrientID 208) plus the CNF
+ * nutrient names, other energy nutrients left out. Each query is one aggregate over
+ * the (user_id, date, nutrient_id) primary key, so its cost follows the number of
+ * days in the range rather than the number of meals logged.
+ *
+ * Methods return null when the database cannot be read, so callers can fall back to
+ * computing from the meals; an empty map means no meals were logged in the range.
+ */
+public class DailyNutrientTotalsDAO {
+    private static final String NAME_COLUMN =
+            "CASE WHEN t.nutrient_id = 208 THEN 'Calories' ELSE nn.NutrientName END AS NutrientName";
+    private static final String NUTRIENT_JOIN =
+            "JOIN nutrient_name nn ON nn.NutrientID = t.nutrient_id ";
+    private static final String ENERGY_FILTER =
+            "AND (t.nutrient_id = 208 OR (nn.NutrientName NOT LIKE '%calor%' AND nn.NutrientName NOT LIKE '%kcal%' " +
+            "AND nn.NutrientName NOT LIKE '%energy%' AND nn.NutrientName NOT LIKE '%kilojoule%')) ";
+
+    private DatabaseAdapter databaseAdapter;
+
+    public DailyNutrientTotalsDAO(DatabaseAdapter databaseAdapter) {
+        this.databaseAdapter = databaseAdapter;
+    }
+
+    /**
+     * Total intake per nutrient over all of a user's logged days
+     */
+    public Map<String, Double> getTotals(int userId) {
+        String sql = "SELECT " + NAME_COLUMN + ", SUM(t.amount) AS amount " +
+                    "FROM daily_nutrient_totals t " + NUTRIENT_JOIN +
+                    "WHERE t.user_id = ? " + ENERGY_FILTER +
+                    "GROUP BY t.nutrient_id, nn.NutrientName";
+        return query(sql, "total nutrient intake", stmt -> stmt.setInt(1, userId));
+    }
+
+    /**
+     * Total intake per nutrient between two dates (inclusive)
+     */
+    public Map<String, Double> getTotals(int userId, LocalDate startDate, LocalDate endDate) {
+        String sql = "SELECT " + NAME_COLUMN + ", SUM(t.amount) AS amount " +
+                    "FROM daily_nutrient_totals t " + NUTRIENT_JOIN +
+                    "WHERE t.user_id = ? AND t.date BETWEEN ? AND ? " + ENERGY_FILTER +
+                    "GROUP BY t.nutrient_id, nn.NutrientName";
+        return query(sql, "nutrient totals", stmt -> {
+            stmt.setInt(1, userId);
+            stmt.setDate(2, Date.valueOf(startDate));
+            stmt.setDate(3, Date.valueOf(endDate));
+        });
+    }
+
+    /**
+     * Average daily intake per nutrient between two dates (inclusive), over the days
+     * that have meals logged; days without meals do not pull the average down.
+     */
+    public Map<String, Double> getAverageDailyIntake(int userId, LocalDate startDate, LocalDate endDate) {
+        String sql = "SELECT " + NAME_COLUMN + ", SUM(t.amount) / d.days AS amount " +
+                    "FROM daily_nutrient_totals t " + NUTRIENT_JOIN +
+                    "CROSS JOIN (SELECT COUNT(DISTINCT date) AS days FROM daily_nutrient_totals " +
+                    "WHERE user_id = ? AND date BETWEEN ? AND ?) d " +
+                    "WHERE t.user_id = ? AND t.date BETWEEN ? AND ? " + ENERGY_FILTER +
+                    "GROUP BY t.nutrient_id, nn.NutrientName, d.days";
+        return query(sql, "average daily intake", stmt -> {
+            for (int offset = 0; offset <= 3; offset += 3) {
+                stmt.setInt(offset + 1, userId);
+                stmt.setDate(offset + 2, Date.valueOf(startDate));
+                stmt.setDate(offset + 3, Date.valueOf(endDate));
+            }
+        });
+    }
+
+    /**
+     * Rebuild the table from every logged meal, e.g. after meals were written
+     * outside the application. Returns the number of rows written, or -1 on failure.
+     */
+    public int backfill() {
+        try (Connection conn = databaseAdapter.borrowConnection()) {
+            if (conn == null) {
+                System.err.println("Failed to create database connection for backfilling daily nutrient totals");
+                return -1;
+            }
+            return DailyNutrientTotals.backfill(conn);
+        } catch (SQLException e) {
+            System.err.println("Error backfilling daily nutrient totals: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private Map<String, Double> query(String sql, String description, ParameterSetter parameters) {
+        if (databaseAdapter == null) {
+            return null;
+        }
+        try (Connection conn = databaseAdapter.borrowConnection()) {
+            if (conn == null) {
+                System.err.println("Failed to create database connection for loading " + description);
+                return null;
+            }
+            if (!DailyNutrientTotals.ensureTable(conn)) {
+                return null;
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                parameters.set(stmt);
+                Map<String, Double> nutrients = new HashMap<>();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        nutrients.merge(rs.getString("NutrientName"), rs.getDouble("amount"), Double::sum);
+                    }
+                }
+                return nutrients;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading " + description + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private interface ParameterSetter {
+        void set(PreparedStatement stmt) throws SQLException;
+    }
+}
@@ -1,18 +1,45 @@
 package dao.Implementations;
 
+import dao.adapter.DatabaseManager;
 import dao.interfaces.IFoodDAO;
 import model.FoodItem;
+import model.NutrientDictionary;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
 public class FoodDAO implements IFoodDAO {
 
+    // NutrientID 208 represents KCAL (kilocalories)
+    private static final int CALORIES_NUTRIENT_ID = 208;
+    // Keep IN (...) lists well under MySQL packet and placeholder limits
+    private static final int MAX_IDS_PER_QUERY = 500;
+
+    private static final String FOOD_COLUMNS = """
+        SELECT f.FoodID, f.FoodCode, f.FoodDescription,
+               g.FoodGroupName, s.FoodSourceDescription
+        FROM food_name f
+        LEFT JOIN food_group g ON f.FoodGroupID = g.FoodGroupID
+        LEFT JOIN food_source s ON f.FoodSourceID = s.FoodSourceID
+        """;
+
+    private static final String NUTRIENT_COLUMNS = """
+        SELECT na.FoodID, na.NutrientID, nn.NutrientName, na.NutrientValue
+        FROM nutrient_amount na
+        JOIN nutrient_name nn ON na.NutrientID = nn.NutrientID
+        """;
+
     private final Connection connection;
 
+    /**
+     * @param connection connection to use, or null to borrow from the shared pool per call
+     */
     public FoodDAO(Connection connection) {
         this.connection = connection;
     }
@@ -20,34 +47,28 @@ public class FoodDAO implements IFoodDAO {
     @Override
     public List<FoodItem> loadFoods() {
         List<FoodItem> foods = new ArrayList<>();
-        String query = """
-            SELECT f.FoodID, f.FoodCode, f.FoodDescription,
-                   g.FoodGroupName, s.FoodSourceDescription
-            FROM food_name f
-            LEFT JOIN food_group g ON f.FoodGroupID = g.FoodGroupID
-            LEFT JOIN food_source s ON f.FoodSourceID = s.FoodSourceID
-            """;
-
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-
-            while (rs.next()) {
-                int foodId = rs.getInt("FoodID");
-                String name = rs.getString("FoodDescription");
-                String groupName = rs.getString("FoodGroupName");
-                
-                // Get calories for this food (NutrientID = 208 for KCAL)
-                double calories = getCaloriesForFood(foodId);
-                
-                // Get nutrients for this food
-                Map<String, Double> nutrients = getNutrientsForFood(foodId);
-
-                FoodItem food = new FoodItem(foodId, name, calories, nutrients, groupName);
-                foods.add(food);
+        Connection conn = null;
+
+        try {
+            conn = acquireConnection();
+
+            // Two set-based queries for the whole catalog: nutrients pivoted per food, then names
+            Map<Integer, Double> calories = new HashMap<>();
+            Map<Integer, double[]> nutrients = new HashMap<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(NUTRIENT_COLUMNS)) {
+                readNutrients(rs, calories, nutrients);
+            }
+
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(FOOD_COLUMNS)) {
+                readFoods(rs, calories, nutrients, foods);
             }
 
         } catch (SQLException e) {
             System.err.println("Error loading foods: " + e.getMessage());
+        } finally {
+            releaseConnection(conn);
         }
 
         return foods;
@@ -55,81 +76,130 @@ public class FoodDAO implements IFoodDAO {
 
     @Override
     public FoodItem getFoodById(int foodId) {
-        String query = """
-            SELECT f.FoodID, f.FoodCode, f.FoodDescription,
-                   g.FoodGroupName, s.FoodSourceDescription
-            FROM food_name f
-            LEFT JOIN food_group g ON f.FoodGroupID = g.FoodGroupID
-            LEFT JOIN food_source s ON f.FoodSourceID = s.FoodSourceID
-            WHERE f.FoodID = ?
-            """;
-
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, foodId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    String name = rs.getString("FoodDescription");
-                    String groupName = rs.getString("FoodGroupName");
-                    
-                    // Get calories for this food
-                    double calories = getCaloriesForFood(foodId);
-                    
-                    // Get nutrients for this food
-                    Map<String, Double> nutrients = getNutrientsForFood(foodId);
-
-                    return new FoodItem(foodId, name, calories, nutrients, groupName);
+        List<FoodItem> foods = getFoodsByIds(List.of(foodId));
+        return foods.isEmpty() ? null : foods.get(0);
+    }
+
+    @Override
+    public List<FoodItem> getFoodsByIds(Collection<Integer> foodIds) {
+        List<FoodItem> foods = new ArrayList<>();
+        if (foodIds == null || foodIds.isEmpty()) {
+            return foods;
+        }
+
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(foodIds));
+        Connection conn = null;
+
+        try {
+            conn = acquireConnection();
+
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+
+                Map<Integer, Double> calories = new HashMap<>();
+                Map<Integer, double[]> nutrients = new HashMap<>();
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        NUTRIENT_COLUMNS + "WHERE na.FoodID IN (" + placeholders + ")")) {
+                    bindIds(stmt, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        readNutrients(rs, calories, nutrients);
+                    }
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        FOOD_COLUMNS + "WHERE f.FoodID IN (" + placeholders + ")")) {
+                    bindIds(stmt, chunk);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        readFoods(rs, calories, nutrients, foods);
+                    }
                 }
             }
+
         } catch (SQLException e) {
-            System.err.println("Error retrieving food by ID: " + e.getMessage());
+            System.err.println("Error retrieving foods by ID: " + e.getMessage());
+        } finally {
+            releaseConnection(conn);
         }
 
-        return null;
+        return foods;
     }
 
-    /**
-     * Get calories for a specific food item
-     * NutrientID = 208 represents KCAL (kilocalories)
-     */
-    private double getCaloriesForFood(int foodId) {
-        String query = "SELECT NutrientValue FROM nutrient_amount WHERE FoodID = ? AND NutrientID = 208";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, foodId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getDouble("NutrientValue");
+    @Override
+    public Map<Integer, Integer> getFoodUsageCounts() {
+        Map<Integer, Integer> counts = new HashMap<>();
+        Connection conn = null;
+
+        try {
+            conn = acquireConnection();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT FoodID, COUNT(*) AS Uses FROM ingredient GROUP BY FoodID")) {
+                while (rs.next()) {
+                    counts.put(rs.getInt("FoodID"), rs.getInt("Uses"));
                 }
             }
         } catch (SQLException e) {
-            System.err.println("Error getting calories for food " + foodId + ": " + e.getMessage());
+            System.err.println("Error loading food usage counts: " + e.getMessage());
+        } finally {
+            releaseConnection(conn);
+        }
+
+        return counts;
+    }
+
+    private static void bindIds(PreparedStatement stmt, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setInt(i + 1, ids.get(i));
         }
-        return 0.0; // Default value if not found
     }
 
     /**
-     * Get nutrients for a specific food item
+     * Pivot nutrient_amount rows into a calories value and a nutrient vector per food
      */
-    private Map<String, Double> getNutrientsForFood(int foodId) {
-        Map<String, Double> nutrients = new HashMap<>();
-        String query = """
-            SELECT nn.NutrientName, na.NutrientValue
-            FROM nutrient_amount na
-            JOIN nutrient_name nn ON na.NutrientID = nn.NutrientID
-            WHERE na.FoodID = ?
-            """;
-        
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, foodId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    String nutrientName = rs.getString("NutrientName");
-                    double value = rs.getDouble("NutrientValue");
-                    nutrients.put(nutrientName, value);
-                }
+    private static void readNutrients(ResultSet rs, Map<Integer, Double> calories,
+                                      Map<Integer, double[]> nutrients) throws SQLException {
+        while (rs.next()) {
+            int foodId = rs.getInt("FoodID");
+            int nutrientId = rs.getInt("NutrientID");
+            String nutrientName = rs.getString("NutrientName");
+            double value = rs.getDouble("NutrientValue");
+
+            if (nutrientId == CALORIES_NUTRIENT_ID) {
+                calories.put(foodId, value);
+            }
+            int index = NutrientDictionary.intern(nutrientName, nutrientId);
+            double[] vector = nutrients.getOrDefault(foodId, NutrientDictionary.emptyVector());
+            nutrients.put(foodId, NutrientDictionary.put(vector, index, value));
+        }
+    }
+
+    private static void readFoods(ResultSet rs, Map<Integer, Double> calories,
+                                  Map<Integer, double[]> nutrients,
+                                  List<FoodItem> foods) throws SQLException {
+        while (rs.next()) {
+            int foodId = rs.getInt("FoodID");
+            String name = rs.getString("FoodDescription");
+            String groupName = rs.getString("FoodGroupName");
+
+            foods.add(new FoodItem(foodId, name,
+                    calories.getOrDefault(foodId, 0.0),
+                    nutrients.getOrDefault(foodId, NutrientDictionary.emptyVector()),
+                    groupName));
+        }
+    }
+
+    private Connection acquireConnection() throws SQLException {
+        return connection != null ? connection : DatabaseManager.getPool().borrow();
+    }
+
+    private void releaseConnection(Connection conn) {
+        // Only pooled connections are returned; a caller-supplied connection stays open
+        if (conn != null && conn != connection) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error returning connection to pool: " + e.getMessage());
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting nutrients for food " + foodId + ": " + e.getMessage());
         }
-        return nutrients;
     }
 }
@@ -3,18 +3,58 @@ package dao.Implementations;
 import dao.interfaces.IGoalDAO;
 import model.Goal;
 import dao.adapter.DatabaseAdapter;
-import dao.adapter.MySQLAdapter;
 import dao.adapter.DatabaseManager;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Implementation of IGoalDAO for database operations
+ * Implementation of IGoalDAO for database operations.
+ *
+ * Goals are kept per user in a shared GoalStore: loadGoals and hasGoals read the
+ * database once per user and then answer from memory. Writes are write-behind: they
+ * update the store and are flushed shortly afterwards on a background thread, so
+ * several saves in a row cost one write. A flush replaces every pending user's goals
+ * in a single transaction; if the database cannot be reached the goals stay pending
+ * (and readable) and the flush is retried until it succeeds, or at exit.
  */
 public class GoalDAO implements IGoalDAO {
     
+    private static final long FLUSH_DELAY_MILLIS = 200;
+    private static final long RETRY_DELAY_MILLIS = 30_000;
+    private static final String DELETE_QUERY = "DELETE FROM user_goals WHERE UserID = ?";
+    private static final String INSERT_QUERY = "INSERT INTO user_goals (UserID, Nutrient, Direction, Amount, Intensity, CreatedAt) VALUES (?, ?, ?, ?, ?, NOW())";
+
+    private static final GoalStore store = new GoalStore();
+    private static final Object flushLock = new Object();
+    private static final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "goal-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    // Guarded by GoalDAO.class
+    private static ScheduledFuture<?> scheduledFlush;
+    private static DatabaseAdapter flushAdapter;
+
+    static {
+        // Write-behind must not lose goals saved just before the application exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            DatabaseAdapter adapter;
+            synchronized (GoalDAO.class) {
+                adapter = flushAdapter;
+            }
+            if (adapter != null) {
+                flushPending(adapter);
+            }
+        }, "goal-writer-shutdown"));
+    }
+
     private DatabaseAdapter databaseAdapter;
     
     public GoalDAO() {
@@ -27,49 +67,22 @@ public class GoalDAO implements IGoalDAO {
     
     @Override
     public void saveGoals(int userId, List<Goal> goals) {
-        // First delete existing goals for this user
-        deleteGoals(userId);
-        
-        // Then insert new goals
-        String insertQuery = "INSERT INTO user_goals (UserID, Nutrient, Direction, Amount, Intensity, CreatedAt) VALUES (?, ?, ?, ?, ?, NOW())";
-        
-        try {
-            Connection conn = databaseAdapter.connect();
-            if (conn != null) {
-                try (PreparedStatement stmt = conn.prepareStatement(insertQuery)) {
-                    for (Goal goal : goals) {
-                        stmt.setInt(1, userId);
-                        stmt.setString(2, goal.getNutrient());
-                        stmt.setString(3, goal.getDirection());
-                        stmt.setDouble(4, goal.getAmount());
-                        stmt.setString(5, goal.getIntensity());
-                        stmt.addBatch();
-                    }
-                    stmt.executeBatch();
-                    System.out.println("Saved " + goals.size() + " goals for user " + userId);
-                } finally {
-                    // Always close the connection
-                    if (conn != null && !conn.isClosed()) {
-                        conn.close();
-                    }
-                }
-            } else {
-                throw new SQLException("Database connection is null");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error saving goals: " + e.getMessage());
-            // Fallback to in-memory storage for demo
-            saveGoalsInMemory(userId, goals);
-        }
+        store.putPending(userId, goals);
+        scheduleFlush(databaseAdapter, FLUSH_DELAY_MILLIS);
     }
     
     @Override
     public List<Goal> loadGoals(int userId) {
+        List<Goal> stored = store.get(userId);
+        if (stored != null) {
+            return stored;
+        }
+
         List<Goal> goals = new ArrayList<>();
         String query = "SELECT Nutrient, Direction, Amount, Intensity FROM user_goals WHERE UserID = ?";
         
         try {
-            Connection conn = databaseAdapter.connect();
+            Connection conn = databaseAdapter.borrowConnection();
             if (conn != null) {
                 try (PreparedStatement stmt = conn.prepareStatement(query)) {
                     stmt.setInt(1, userId);
@@ -87,7 +100,7 @@ public class GoalDAO implements IGoalDAO {
                         }
                     }
                 } finally {
-                    // Always close the connection
+                    // Always return the connection to the pool
                     if (conn != null && !conn.isClosed()) {
                         conn.close();
                     }
@@ -96,96 +109,139 @@ public class GoalDAO implements IGoalDAO {
                 throw new SQLException("Database connection is null");
             }
         } catch (SQLException e) {
+            // Not stored, so the next call asks the database again
             System.err.println("Error loading goals: " + e.getMessage());
-            // Fallback to in-memory storage for demo
-            return loadGoalsFromMemory(userId);
+            return goals;
         }
         
+        store.putLoaded(userId, goals);
         return goals;
     }
     
     @Override
     public void updateGoals(int userId, List<Goal> goals) {
-        saveGoals(userId, goals); // For simplicity, delete and re-insert
+        saveGoals(userId, goals); // The flush replaces the user's goals either way
     }
     
     @Override
     public void deleteGoals(int userId) {
-        String deleteQuery = "DELETE FROM user_goals WHERE UserID = ?";
-        
-        try {
-            Connection conn = databaseAdapter.connect();
-            if (conn != null) {
-                try (PreparedStatement stmt = conn.prepareStatement(deleteQuery)) {
-                    stmt.setInt(1, userId);
-                    int rowsAffected = stmt.executeUpdate();
-                    System.out.println("Deleted " + rowsAffected + " goals for user " + userId);
-                } finally {
-                    // Always close the connection
-                    if (conn != null && !conn.isClosed()) {
-                        conn.close();
-                    }
-                }
-            } else {
-                throw new SQLException("Database connection is null");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error deleting goals: " + e.getMessage());
-            // Fallback to in-memory storage for demo
-            deleteGoalsFromMemory(userId);
-        }
+        saveGoals(userId, new ArrayList<>());
     }
     
     @Override
     public boolean hasGoals(int userId) {
-        String countQuery = "SELECT COUNT(*) FROM user_goals WHERE UserID = ?";
-        
-        try {
-            Connection conn = databaseAdapter.connect();
-            if (conn != null) {
-                try (PreparedStatement stmt = conn.prepareStatement(countQuery)) {
-                    stmt.setInt(1, userId);
-                    ResultSet rs = stmt.executeQuery();
-                    
-                    if (rs.next()) {
-                        return rs.getInt(1) > 0;
-                    }
-                } finally {
-                    // Always close the connection
-                    if (conn != null && !conn.isClosed()) {
-                        conn.close();
-                    }
-                }
-            } else {
-                throw new SQLException("Database connection is null");
+        return !loadGoals(userId).isEmpty();
+    }
+
+    @Override
+    public void flush() {
+        flushPending(databaseAdapter);
+    }
+
+    // Flush after delayMillis, or sooner if a flush is already scheduled by then
+    private static synchronized void scheduleFlush(DatabaseAdapter adapter, long delayMillis) {
+        flushAdapter = adapter;
+        if (scheduledFlush != null) {
+            if (scheduledFlush.getDelay(TimeUnit.MILLISECONDS) <= delayMillis) {
+                return;
             }
-        } catch (SQLException e) {
-            System.err.println("Error checking goals: " + e.getMessage());
-            // Fallback to in-memory storage for demo
-            return hasGoalsInMemory(userId);
+            scheduledFlush.cancel(false);
         }
-        
-        return false;
+        scheduledFlush = writer.schedule(GoalDAO::runScheduledFlush, delayMillis, TimeUnit.MILLISECONDS);
     }
-    
-    // In-memory fallback methods for demo purposes
-    private static final java.util.Map<Integer, List<Goal>> inMemoryGoals = new java.util.HashMap<>();
-    
-    private void saveGoalsInMemory(int userId, List<Goal> goals) {
-        inMemoryGoals.put(userId, new ArrayList<>(goals));
-        System.out.println("Goals saved in memory for user " + userId);
+
+    private static void runScheduledFlush() {
+        DatabaseAdapter adapter;
+        synchronized (GoalDAO.class) {
+            scheduledFlush = null;
+            adapter = flushAdapter;
+        }
+        if (!flushPending(adapter)) {
+            scheduleFlush(adapter, RETRY_DELAY_MILLIS);
+        }
     }
-    
-    private List<Goal> loadGoalsFromMemory(int userId) {
-        return inMemoryGoals.getOrDefault(userId, new ArrayList<>());
+
+    /**
+     * Write every pending user's goals in one transaction. Returns false if some are
+     * still pending because the database could not be reached.
+     */
+    private static boolean flushPending(DatabaseAdapter adapter) {
+        synchronized (flushLock) {
+            Map<Integer, GoalStore.PendingWrite> pending = store.getPendingWrites();
+            if (pending.isEmpty()) {
+                return true;
+            }
+            Connection conn = adapter.borrowConnection();
+            if (conn == null) {
+                System.err.println("Goals for " + pending.size() + " users not saved yet: no database connection");
+                return false;
+            }
+            try (conn) {
+                conn.setAutoCommit(false);
+                try {
+                    writeGoals(conn, pending);
+                    conn.commit();
+                    pending.forEach(store::markSaved);
+                    System.out.println("Saved goals for " + pending.size() + " users");
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    System.err.println("Error saving goals: " + e.getMessage());
+                    // One rejected user (e.g. their profile was just deleted) must not hold back the rest
+                    return flushEach(conn, pending);
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                System.err.println("Error saving goals: " + e.getMessage());
+                return false;
+            }
+        }
     }
-    
-    private void deleteGoalsFromMemory(int userId) {
-        inMemoryGoals.remove(userId);
+
+    // Write each user's goals in a transaction of its own, dropping writes the database rejects
+    private static boolean flushEach(Connection conn, Map<Integer, GoalStore.PendingWrite> pending) throws SQLException {
+        boolean allWritten = true;
+        for (Map.Entry<Integer, GoalStore.PendingWrite> write : pending.entrySet()) {
+            int userId = write.getKey();
+            try {
+                writeGoals(conn, Map.of(userId, write.getValue()));
+                conn.commit();
+                store.markSaved(userId, write.getValue());
+            } catch (SQLException e) {
+                conn.rollback();
+                // SQLState class 23 is an integrity constraint violation, which a retry cannot fix
+                if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                    System.err.println("Dropping goals for user " + userId + ": " + e.getMessage());
+                    store.discard(userId, write.getValue());
+                } else {
+                    allWritten = false;
+                }
+            }
+        }
+        return allWritten;
     }
-    
-    private boolean hasGoalsInMemory(int userId) {
-        return inMemoryGoals.containsKey(userId) && !inMemoryGoals.get(userId).isEmpty();
+
+    // Replace each user's rows with their pending goals; the caller commits
+    private static void writeGoals(Connection conn, Map<Integer, GoalStore.PendingWrite> pending) throws SQLException {
+        try (PreparedStatement delete = conn.prepareStatement(DELETE_QUERY);
+             PreparedStatement insert = conn.prepareStatement(INSERT_QUERY)) {
+            for (Map.Entry<Integer, GoalStore.PendingWrite> write : pending.entrySet()) {
+                delete.setInt(1, write.getKey());
+                delete.addBatch();
+                for (Goal goal : write.getValue().getGoals()) {
+                    insert.setInt(1, write.getKey());
+                    insert.setString(2, goal.getNutrient());
+                    insert.setString(3, goal.getDirection());
+                    insert.setDouble(4, goal.getAmount());
+                    insert.setString(5, goal.getIntensity());
+                    insert.addBatch();
+                }
+            }
+            // Every delete runs before any insert, so a user's new rows are never deleted
+            delete.executeBatch();
+            insert.executeBatch();
+        }
     }
     
     /**
@@ -0,0 +1,127 @@
+package dao.Implementations;
+
+import model.Goal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Goals of recently used users, kept by GoalDAO so reads are served from memory and
+ * writes can reach the database later. A user's goals are pending from the moment
+ * they change until the write is committed; when the store is full, the least
+ * recently used user whose goals are already saved is dropped first. Goals are
+ * copied in and out so callers can never change a stored goal.
+ */
+public class GoalStore {
+    private static final int MAX_USERS = 256;
+
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long lastVersion;
+
+    /** A user's goals as they were when a write was taken, to hand back once it is done */
+    public static final class PendingWrite {
+        private final List<Goal> goals;
+        private final long version;
+
+        private PendingWrite(List<Goal> goals, long version) {
+            this.goals = goals;
+            this.version = version;
+        }
+
+        public List<Goal> getGoals() {
+            return goals;
+        }
+    }
+
+    private static final class Entry {
+        private List<Goal> goals;
+        private long version;        // 0 for goals read from the database
+        private long savedVersion;
+
+        private boolean isPending() {
+            return version != savedVersion;
+        }
+    }
+
+    /** Copy of the user's goals, or null if they are not stored */
+    public synchronized List<Goal> get(int userId) {
+        Entry entry = entries.get(userId);
+        return entry == null ? null : copy(entry.goals);
+    }
+
+    /** Goals just read from the database; ignored if the user's goals changed meanwhile */
+    public synchronized void putLoaded(int userId, List<Goal> goals) {
+        if (!entries.containsKey(userId)) {
+            Entry entry = new Entry();
+            entry.goals = copy(goals);
+            entries.put(userId, entry);
+            trim();
+        }
+    }
+
+    /** New goals for the user, pending until markSaved is called with their write */
+    public synchronized void putPending(int userId, List<Goal> goals) {
+        Entry entry = entries.computeIfAbsent(userId, id -> new Entry());
+        entry.goals = copy(goals);
+        entry.version = ++lastVersion;
+        trim();
+    }
+
+    /** The goals waiting to be written, by user */
+    public synchronized Map<Integer, PendingWrite> getPendingWrites() {
+        Map<Integer, PendingWrite> pending = new LinkedHashMap<>();
+        entries.forEach((userId, entry) -> {
+            if (entry.isPending()) {
+                pending.put(userId, new PendingWrite(copy(entry.goals), entry.version));
+            }
+        });
+        return pending;
+    }
+
+    /** The write was committed; the user stays pending if their goals changed since it was taken */
+    public synchronized void markSaved(int userId, PendingWrite write) {
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.version == write.version) {
+            entry.savedVersion = write.version;
+        }
+    }
+
+    /** The database rejected the write, so forget it unless the goals changed since */
+    public synchronized void discard(int userId, PendingWrite write) {
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.version == write.version) {
+            entries.remove(userId);
+        }
+    }
+
+    private void trim() {
+        while (entries.size() > MAX_USERS) {
+            // Iteration runs from least to most recently used
+            Map.Entry<Integer, Entry> victim = null;
+            for (Map.Entry<Integer, Entry> candidate : entries.entrySet()) {
+                if (victim == null) {
+                    victim = candidate;
+                }
+                if (!candidate.getValue().isPending()) {
+                    victim = candidate;
+                    break;
+                }
+            }
+            if (victim.getValue().isPending()) {
+                // Only unsaved goals are left; keep the store bounded all the same
+                System.err.println("Goal store is full, dropping unsaved goals for user " + victim.getKey());
+            }
+            entries.remove(victim.getKey());
+        }
+    }
+
+    private static List<Goal> copy(List<Goal> goals) {
+        List<Goal> copy = new ArrayList<>(goals.size());
+        for (Goal goal : goals) {
+            copy.add(new Goal(goal.getNutrient(), goal.getDirection(), goal.getAmount(), goal.getIntensity()));
+        }
+        return copy;
+    }
+}
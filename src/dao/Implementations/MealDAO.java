@@ -6,9 +6,8 @@ import dao.adapter.DatabaseManager;
 import dao.interfaces.IMealDAO;
 import model.meal.Meal;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class MealDAO implements IMealDAO {
 
@@ -23,35 +22,23 @@ public class MealDAO implements IMealDAO {
         return adapter.loadMeals(userId);
     }
 
+    @Override
+    public List<Meal> getMealsInDateRange(int userId, LocalDate from, LocalDate to) {
+        return adapter.loadMeals(userId, from, to);
+    }
+
+    @Override
+    public List<Meal> getMealsByDate(int userId, LocalDate date) {
+        return adapter.loadMealsByDate(userId, date);
+    }
+
     @Override
     public Meal getMealById(int mealId) {
-        List<Meal> allMeals = new ArrayList<>();
-        
-        // Dynamically get the maximum user ID from database
-        int maxUserId = getMaxUserId();
-        System.out.println("DEBUG: Searching for meal " + mealId + " in user range 1-" + maxUserId);
-        
-        // Try to find the meal by searching through all users
-        for (int userId = 1; userId <= maxUserId; userId++) {
-            List<Meal> userMeals = getMealsByUserId(userId);
-            if (userMeals != null) {
-                for (Meal meal : userMeals) {
-                    if (meal.getMealID() == mealId) {
-                        return meal;
-                    }
-                }
-            }
+        Meal meal = adapter.loadMeal(mealId);
+        if (meal == null) {
+            System.err.println("Meal with ID " + mealId + " not found");
         }
-        
-        System.err.println("Meal with ID " + mealId + " not found");
-        return null;
-    }
-    
-    /**
-     * Get the maximum user ID - hardcoded for simplicity
-     */
-    private int getMaxUserId() {
-        return 1000; // Simple hardcoded value
+        return meal;
     }
 
     @Override
@@ -21,7 +21,7 @@ public class NutrientDAO implements INutrientDAO {
         List<Nutrient> nutrients = new ArrayList<>();
         String query = "SELECT * FROM nutrient_name";
 
-        try (Connection conn = db.connect();
+        try (Connection conn = db.borrowConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
 
@@ -45,7 +45,7 @@ public class NutrientDAO implements INutrientDAO {
         Nutrient nutrient = null;
         String query = "SELECT * FROM nutrient_name WHERE NutrientID = ?";
 
-        try (Connection conn = db.connect();
+        try (Connection conn = db.borrowConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
 
             pstmt.setInt(1, nutrientId);
@@ -1,12 +1,18 @@
 package dao.Implementations;
 
 import dao.adapter.DatabaseAdapter;
+import model.meal.Meal;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 public class SwapStatusDAO {
+    /** Prefix of an original_meal_data value that refers to a swap_snapshot row */
+    public static final String SNAPSHOT_REFERENCE_PREFIX = "SNAPSHOT:";
+    
+    private static volatile boolean snapshotTableReady = false;
+    
     private DatabaseAdapter databaseAdapter;
     
     public SwapStatusDAO(DatabaseAdapter databaseAdapter) {
@@ -22,8 +28,8 @@ public class SwapStatusDAO {
                     "ON DUPLICATE KEY UPDATE is_swapped = TRUE, original_meal_data = ?, swap_timestamp = CURRENT_TIMESTAMP";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = databaseAdapter.connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = databaseAdapter.borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for marking meal as swapped");
                 return false;
@@ -39,7 +45,7 @@ public class SwapStatusDAO {
                 int result = stmt.executeUpdate();
                 return result > 0;
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -58,8 +64,8 @@ public class SwapStatusDAO {
         String sql = "UPDATE swap_status SET is_swapped = FALSE WHERE user_id = ? AND meal_id = ? AND date = ?";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = databaseAdapter.connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = databaseAdapter.borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for marking meal as restored");
                 return false;
@@ -73,7 +79,7 @@ public class SwapStatusDAO {
                 int result = stmt.executeUpdate();
                 return result > 0;
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -92,8 +98,8 @@ public class SwapStatusDAO {
         String sql = "SELECT COUNT(*) FROM swap_status WHERE user_id = ? AND date = ? AND is_swapped = TRUE";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = databaseAdapter.connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = databaseAdapter.borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for swap status check");
                 return false;
@@ -108,7 +114,7 @@ public class SwapStatusDAO {
                     return rs.getInt(1) > 0;
                 }
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -128,8 +134,8 @@ public class SwapStatusDAO {
         String sql = "SELECT is_swapped FROM swap_status WHERE user_id = ? AND meal_id = ? AND date = ?";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = databaseAdapter.connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = databaseAdapter.borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for meal swap status check");
                 return false;
@@ -145,7 +151,7 @@ public class SwapStatusDAO {
                     return rs.getBoolean("is_swapped");
                 }
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -165,8 +171,8 @@ public class SwapStatusDAO {
         String sql = "SELECT original_meal_data FROM swap_status WHERE user_id = ? AND meal_id = ? AND date = ? AND is_swapped = TRUE";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = databaseAdapter.connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = databaseAdapter.borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for getting original meal data");
                 return null;
@@ -182,7 +188,7 @@ public class SwapStatusDAO {
                     return rs.getString("original_meal_data");
                 }
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -195,6 +201,117 @@ public class SwapStatusDAO {
         return null;
     }
     
+    /**
+     * Store one rollback snapshot for a swap batch on the caller's connection (no commit).
+     * Each swap_status row of the batch then refers to it with SNAPSHOT_REFERENCE_PREFIX + id
+     * instead of carrying its own copy, so write those rows in the same transaction.
+     * @return the snapshot ID
+     */
+    public int saveSnapshot(Connection conn, int userId, String snapshotData) throws SQLException {
+        String sql = "INSERT INTO swap_snapshot (user_id, snapshot_data) VALUES (?, ?)";
+        
+        ensureSnapshotTable(conn);
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, snapshotData);
+            stmt.executeUpdate();
+            
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    return keys.getInt(1);
+                }
+            }
+        }
+        throw new SQLException("No snapshot ID generated");
+    }
+    
+    /**
+     * Mark many meals of one user as swapped in a single batched upsert on the caller's
+     * connection (no commit). All rows get the same original meal data.
+     */
+    public void markMealsAsSwapped(Connection conn, int userId, List<Meal> meals, String originalMealData) throws SQLException {
+        String sql = "INSERT INTO swap_status (user_id, meal_id, date, is_swapped, original_meal_data) " +
+                    "VALUES (?, ?, ?, TRUE, ?) " +
+                    "ON DUPLICATE KEY UPDATE is_swapped = TRUE, original_meal_data = VALUES(original_meal_data), " +
+                    "swap_timestamp = CURRENT_TIMESTAMP";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Meal meal : meals) {
+                stmt.setInt(1, userId);
+                stmt.setInt(2, meal.getMealID());
+                stmt.setDate(3, Date.valueOf(meal.getDate()));
+                stmt.setString(4, originalMealData);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Delete the swap status rows of meals that no longer exist, in one batch on the
+     * caller's connection (no commit)
+     */
+    public void deleteSwapStatus(Connection conn, int userId, List<Meal> meals) throws SQLException {
+        String sql = "DELETE FROM swap_status WHERE user_id = ? AND meal_id = ?";
+        
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Meal meal : meals) {
+                stmt.setInt(1, userId);
+                stmt.setInt(2, meal.getMealID());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+    
+    /**
+     * Get the encoded data of a rollback snapshot, or null if it does not exist
+     */
+    public String loadSnapshot(int snapshotId) {
+        String sql = "SELECT snapshot_data FROM swap_snapshot WHERE snapshot_id = ?";
+        
+        Connection conn = databaseAdapter.borrowConnection();
+        if (conn == null) {
+            System.err.println("Failed to create database connection for loading swap snapshot");
+            return null;
+        }
+        
+        try (conn;
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, snapshotId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString("snapshot_data");
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading swap snapshot: " + e.getMessage());
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Create swap_snapshot on first use so existing databases pick it up without a migration
+     * (same table as sql/create_swap_snapshot_table.sql). CREATE TABLE commits implicitly in
+     * MySQL, so callers that save snapshots inside a transaction run this before starting it.
+     */
+    public static void ensureSnapshotTable(Connection conn) throws SQLException {
+        if (snapshotTableReady) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS swap_snapshot (" +
+                        "snapshot_id INT AUTO_INCREMENT PRIMARY KEY, " +
+                        "user_id INT NOT NULL, " +
+                        "snapshot_data MEDIUMTEXT NOT NULL, " +
+                        "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                        "INDEX idx_swap_snapshot_user (user_id))");
+        }
+        snapshotTableReady = true;
+    }
+    
     /**
      * Get all swapped meal IDs for a specific date
      */
@@ -203,8 +320,8 @@ public class SwapStatusDAO {
         String sql = "SELECT meal_id FROM swap_status WHERE user_id = ? AND date = ? AND is_swapped = TRUE";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = databaseAdapter.connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = databaseAdapter.borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for getting swapped meal IDs");
                 return mealIds;
@@ -219,7 +336,7 @@ public class SwapStatusDAO {
                     mealIds.add(rs.getInt("meal_id"));
                 }
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -232,6 +349,52 @@ public class SwapStatusDAO {
         return mealIds;
     }
     
+    /**
+     * Get all swapped meals on a date, across all users
+     */
+    public List<SwapStatusRecord> getSwappedMealsOnDate(LocalDate date) {
+        return getSwappedMealsOnDate(date, null);
+    }
+    
+    /**
+     * Get all swapped meals on a date, optionally for one user (null = all users).
+     * Served from the (date, is_swapped, user_id, meal_id) covering index, so records
+     * carry user and meal IDs only; use getOriginalMealData for the rollback data.
+     */
+    public List<SwapStatusRecord> getSwappedMealsOnDate(LocalDate date, Integer userId) {
+        List<SwapStatusRecord> records = new ArrayList<>();
+        String sql = "SELECT user_id, meal_id FROM swap_status WHERE date = ? AND is_swapped = TRUE" +
+                    (userId != null ? " AND user_id = ?" : "") + " ORDER BY user_id, meal_id";
+        
+        Connection conn = databaseAdapter.borrowConnection();
+        if (conn == null) {
+            System.err.println("Failed to create database connection for getting swapped meals for date");
+            return records;
+        }
+        
+        try (conn;
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(date));
+            if (userId != null) {
+                stmt.setInt(2, userId);
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    SwapStatusRecord record = new SwapStatusRecord();
+                    record.setUserId(rs.getInt("user_id"));
+                    record.setMealId(rs.getInt("meal_id"));
+                    record.setDate(date);
+                    records.add(record);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting swapped meals for date: " + e.getMessage());
+        }
+        
+        return records;
+    }
+    
     /**
      * Delete swap status record by meal ID
      */
@@ -239,8 +402,8 @@ public class SwapStatusDAO {
         String sql = "DELETE FROM swap_status WHERE meal_id = ?";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = databaseAdapter.connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = databaseAdapter.borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for deleting swap status");
                 return false;
@@ -252,7 +415,7 @@ public class SwapStatusDAO {
                 int result = stmt.executeUpdate();
                 return result >= 0; // Return true even if no rows were deleted
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -272,8 +435,8 @@ public class SwapStatusDAO {
         List<SwapStatusRecord> records = new ArrayList<>();
         
         try {
-            // Create a new connection for this operation
-            Connection conn = databaseAdapter.connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = databaseAdapter.borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for getting swapped meals");
                 return records;
@@ -288,6 +451,7 @@ public class SwapStatusDAO {
                 try (ResultSet rs = stmt.executeQuery()) {
                     while (rs.next()) {
                         SwapStatusRecord record = new SwapStatusRecord();
+                        record.setUserId(userId);
                         record.setMealId(rs.getInt("meal_id"));
                         record.setDate(rs.getDate("date").toLocalDate());
                         record.setOriginalMealData(rs.getString("original_meal_data"));
@@ -296,7 +460,7 @@ public class SwapStatusDAO {
                     }
                 }
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -316,10 +480,14 @@ public class SwapStatusDAO {
      * Record class for swap status data
      */
     public static class SwapStatusRecord {
+        private int userId;
         private int mealId;
         private LocalDate date;
         private String originalMealData;
         
+        public int getUserId() { return userId; }
+        public void setUserId(int userId) { this.userId = userId; }
+        
         public int getMealId() { return mealId; }
         public void setMealId(int mealId) { this.mealId = mealId; }
         
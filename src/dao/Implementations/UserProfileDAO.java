@@ -1,33 +1,24 @@
 package dao.Implementations;
 
 import dao.adapter.DatabaseAdapter;
+import dao.adapter.DatabaseManager;
 import dao.adapter.MySQLAdapter;
 import dao.interfaces.IUserProfileDAO;
 import model.user.UserProfile;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class UserProfileDAO implements IUserProfileDAO {
     private final DatabaseAdapter adapter;
 
     public UserProfileDAO() {
-        this.adapter = new MySQLAdapter();
-        try {
-        this.adapter.connect();
-        } catch (Exception e) {
-            System.err.println("Warning: Could not connect to database: " + e.getMessage());
-            // Continue without database connection
-        }
+        // Shared adapter; a private MySQLAdapter would hold a second session connection
+        this.adapter = DatabaseManager.getAdapter();
     }
 
     @Override
     public UserProfile getUserProfile(int userId) {
-        List<UserProfile> profiles = adapter.loadProfiles();
-        return profiles.stream()
-                .filter(profile -> profile.getUserID() == userId)
-                .findFirst()
-                .orElse(null);
+        return adapter.loadProfile(userId);
     }
 
     @Override
@@ -35,6 +26,11 @@ public class UserProfileDAO implements IUserProfileDAO {
         return adapter.loadProfiles();
     }
 
+    @Override
+    public boolean existsByName(String name) {
+        return adapter.profileNameExists(name);
+    }
+
     @Override
     public void saveUserProfile(UserProfile profile) {
         adapter.saveProfile(profile);
@@ -1,30 +1,50 @@
 package dao.adapter;
 
 import model.FoodItem;
+import model.NutrientDictionary;
 import model.user.UserProfile;
 import model.meal.Meal;
 import model.meal.IngredientEntry;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * CSV import and export. Files are read and written one record at a time through
+ * CSVReader and CSVWriter, so exports take any Iterable (e.g. meals loaded one user at
+ * a time) and streamFoodItems reads files of any size in constant memory.
+ *
+ * Food files have the columns ID,Name,Calories,Group,Nutrients, where Nutrients is
+ * "name:value|name:value". Fields are quoted when they hold a comma; rows that cannot
+ * be parsed are reported and skipped.
+ */
 public class CSVAdapter {
 
-    public static void saveFoodItemsToCSV(List<FoodItem> foodItems, String filePath) {
-        try (PrintWriter writer = new PrintWriter(new File(filePath))) {
-            writer.println("ID,Name,Calories,Group,Nutrients");
+    public static void saveFoodItemsToCSV(Iterable<FoodItem> foodItems, String filePath) {
+        try (CSVWriter writer = CSVWriter.open(Paths.get(filePath))) {
+            writer.record("ID", "Name", "Calories", "Group", "Nutrients");
+            StringBuilder nutrientPairs = new StringBuilder();
             for (FoodItem item : foodItems) {
-                writer.print(item.getFoodID() + ",");
-                writer.print(item.getName() + ",");
-                writer.print(item.getCalories() + ",");
-                writer.print(item.getFoodGroup() + ",");
+                writer.field(item.getFoodID())
+                        .field(item.getName())
+                        .field(item.getCalories())
+                        .field(item.getFoodGroup());
 
+                nutrientPairs.setLength(0);
                 Map<String, Double> nutrients = item.getNutrients();
-                List<String> nutrientPairs = new ArrayList<>();
-                for (Map.Entry<String, Double> entry : nutrients.entrySet()) {
-                    nutrientPairs.add(entry.getKey() + ":" + entry.getValue());
+                if (nutrients != null) {
+                    for (Map.Entry<String, Double> entry : nutrients.entrySet()) {
+                        if (nutrientPairs.length() > 0) {
+                            nutrientPairs.append('|');
+                        }
+                        nutrientPairs.append(entry.getKey()).append(':').append(entry.getValue());
+                    }
                 }
-                writer.println(String.join("|", nutrientPairs));
+                writer.field(nutrientPairs.toString()).endRecord();
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -33,60 +53,141 @@ public class CSVAdapter {
 
     public static List<FoodItem> loadFoodItemsFromCSV(String filePath) {
         List<FoodItem> foodItems = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String line = br.readLine(); // Skip header
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split(",", 5);
-                int id = Integer.parseInt(parts[0]);
-                String name = parts[1];
-                double calories = Double.parseDouble(parts[2]);
-                String group = parts[3];
-                Map<String, Double> nutrients = new HashMap<>();
+        try (Stream<FoodItem> rows = streamFoodItems(filePath)) {
+            rows.forEach(foodItems::add);
+        } catch (IOException | UncheckedIOException e) {
+            e.printStackTrace();
+        }
+        return foodItems;
+    }
 
-                String[] nutrientPairs = parts[4].split("\\|");
-                for (String pair : nutrientPairs) {
-                    String[] kv = pair.split(":");
-                    nutrients.put(kv[0], Double.parseDouble(kv[1]));
+    /**
+     * Foods of a CSV file, read as the stream is consumed. The stream holds the file open
+     * and must be closed; read errors surface as UncheckedIOException.
+     */
+    public static Stream<FoodItem> streamFoodItems(String filePath) throws IOException {
+        CSVReader reader = CSVReader.open(Paths.get(filePath));
+        try {
+            reader.nextRecord(); // Skip header
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+
+        Spliterator<FoodItem> rows = new Spliterators.AbstractSpliterator<FoodItem>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int skipped;
+            private String firstProblem;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super FoodItem> action) {
+                try {
+                    while (reader.nextRecord()) {
+                        try {
+                            action.accept(parseFoodItem(reader));
+                            return true;
+                        } catch (IllegalArgumentException e) {
+                            if (skipped++ == 0) {
+                                firstProblem = "line " + reader.getLineNumber() + ": " + e.getMessage();
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (skipped > 0) {
+                    // One report per file, not per row, for a file in the wrong format
+                    System.err.println("Skipped " + skipped + " malformed food rows in " + filePath
+                            + " (first at " + firstProblem + ")");
+                    skipped = 0;
                 }
+                return false;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // The current record as a food; IllegalArgumentException when it is malformed
+    private static FoodItem parseFoodItem(CSVReader reader) {
+        if (reader.fieldCount() < 4) {
+            throw new IllegalArgumentException("expected at least 4 fields, found " + reader.fieldCount());
+        }
+        int id = Integer.parseInt(reader.field(0).trim());
+        String name = reader.field(1);
+        double calories = Double.parseDouble(reader.field(2));
+        String group = reader.field(3);
+
+        String nutrientPairs = reader.fieldCount() > 4 ? reader.field(4) : "";
+        // Files written before fields were quoted split nutrient names with commas over several fields
+        for (int i = 5; i < reader.fieldCount(); i++) {
+            nutrientPairs = nutrientPairs + "," + reader.field(i);
+        }
+        return new FoodItem(id, name, calories, parseNutrients(nutrientPairs), group);
+    }
 
-                foodItems.add(new FoodItem(id, name, calories, nutrients, group));
+    // "name:value|name:value" straight into a nutrient vector; the value follows the last colon
+    private static double[] parseNutrients(String nutrientPairs) {
+        double[] vector = NutrientDictionary.emptyVector();
+        int start = 0;
+        while (start < nutrientPairs.length()) {
+            int end = nutrientPairs.indexOf('|', start);
+            if (end < 0) {
+                end = nutrientPairs.length();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            int colon = nutrientPairs.lastIndexOf(':', end - 1);
+            if (colon < start) {
+                throw new IllegalArgumentException("nutrient without a value: " + nutrientPairs.substring(start, end));
+            }
+            String name = nutrientPairs.substring(start, colon);
+            double value = Double.parseDouble(nutrientPairs.substring(colon + 1, end));
+            vector = NutrientDictionary.put(vector, NutrientDictionary.intern(name), value);
+            start = end + 1;
         }
-        return foodItems;
+        return vector;
     }
 
-    public static void saveUserProfilesToCSV(List<UserProfile> profiles, String filePath) {
-        try (PrintWriter writer = new PrintWriter(new File(filePath))) {
-            writer.println("ID,Name,DOB,Sex,Height,Weight,Units");
+    public static void saveUserProfilesToCSV(Iterable<UserProfile> profiles, String filePath) {
+        try (CSVWriter writer = CSVWriter.open(Paths.get(filePath))) {
+            writer.record("ID", "Name", "DOB", "Sex", "Height", "Weight", "Units");
             for (UserProfile profile : profiles) {
-                writer.printf("%d,%s,%s,%s,%.2f,%.2f,%s\n",
-                        profile.getUserID(),
-                        profile.getName(),
-                        profile.getDob(),
-                        profile.getSex(),
-                        profile.getHeight(),
-                        profile.getWeight(),
-                        profile.getSettings().getUnits());
+                writer.field(profile.getUserID())
+                        .field(profile.getName())
+                        .field(String.valueOf(profile.getDob()))
+                        .field(profile.getSex())
+                        .field(profile.getHeight(), 2)
+                        .field(profile.getWeight(), 2)
+                        .field(profile.getSettings().getUnits())
+                        .endRecord();
             }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
-    public static void saveMealsToCSV(List<Meal> meals, String filePath) {
-        try (PrintWriter writer = new PrintWriter(new File(filePath))) {
-            writer.println("MealID,UserID,Date,Type,FoodID,Quantity");
+    /**
+     * One row per ingredient. Meals are written as the Iterable yields them, so a caller
+     * exporting many users can pass a lazy source instead of loading every meal first.
+     */
+    public static void saveMealsToCSV(Iterable<Meal> meals, String filePath) {
+        try (CSVWriter writer = CSVWriter.open(Paths.get(filePath))) {
+            writer.record("MealID", "UserID", "Date", "Type", "FoodID", "Quantity");
             for (Meal meal : meals) {
+                String date = String.valueOf(meal.getDate());
+                String type = String.valueOf(meal.getType());
                 for (IngredientEntry entry : meal.getIngredients()) {
-                    writer.printf("%d,%d,%s,%s,%d,%.2f\n",
-                            meal.getMealID(),
-                            meal.getUserID(),
-                            meal.getDate(),
-                            meal.getType(),
-                            entry.getFoodID(),
-                            entry.getQuantity());
+                    writer.field(meal.getMealID())
+                            .field(meal.getUserID())
+                            .field(date)
+                            .field(type)
+                            .field(entry.getFoodID())
+                            .field(entry.getQuantity(), 2)
+                            .endRecord();
                 }
             }
         } catch (IOException e) {
@@ -0,0 +1,211 @@
+package dao.adapter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Record-at-a-time RFC 4180 reader: quoted fields may hold commas, doubled quotes and
+ * line breaks ("Chop suey, with meat, canned"). The char buffer and field array are
+ * reused for every record, so memory stays the same however large the file is; only
+ * the field strings of the current record are allocated.
+ *
+ * Lines may end in CRLF or LF, blank lines are skipped and a leading byte order mark
+ * is ignored. Malformed input is read leniently (a stray quote inside an unquoted
+ * field is kept as a character), like the split() parsing it replaces.
+ */
+public final class CSVReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean started;
+
+    private final StringBuilder field = new StringBuilder();
+    private String[] fields = new String[16];
+    private int fieldCount;
+    private long lineNumber;
+    private long recordLine;
+
+    public CSVReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** Read a UTF-8 file; undecodable bytes become U+FFFD instead of failing the read */
+    public static CSVReader open(Path path) throws IOException {
+        return open(path, StandardCharsets.UTF_8);
+    }
+
+    public static CSVReader open(Path path, Charset charset) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        return new CSVReader(Channels.newReader(channel,
+                charset.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE),
+                BUFFER_SIZE));
+    }
+
+    /**
+     * Advance to the next record. Returns false at the end of the input.
+     */
+    public boolean nextRecord() throws IOException {
+        fieldCount = 0;
+        if (!started) {
+            started = true;
+            if (fill() && buffer[position] == '\uFEFF') {
+                position++;
+            }
+        }
+
+        while (true) {
+            if (position == limit && !fill()) {
+                return false;
+            }
+            lineNumber++;
+            char first = buffer[position];
+            if (first == '\n') {
+                position++;
+                continue;
+            }
+            if (first == '\r') {
+                position++;
+                skipLineFeed();
+                continue;
+            }
+            recordLine = lineNumber;
+            readFields();
+            return true;
+        }
+    }
+
+    /** Number of fields in the current record */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /** A field of the current record, without its quotes */
+    public String field(int index) {
+        if (index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount + " on line " + recordLine);
+        }
+        return fields[index];
+    }
+
+    /** Line the current record starts on (1 is the first line) */
+    public long getLineNumber() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readFields() throws IOException {
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (position == limit && !fill()) {
+                addField();
+                return;
+            }
+
+            if (quoted) {
+                // Copy up to the next quote in one step
+                int start = position;
+                while (position < limit && buffer[position] != '"') {
+                    if (buffer[position] == '\n') {
+                        lineNumber++;
+                    }
+                    position++;
+                }
+                field.append(buffer, start, position - start);
+                if (position < limit) {
+                    position++;
+                    if (peek() == '"') {
+                        field.append('"');
+                        position++;
+                    } else {
+                        quoted = false;
+                    }
+                }
+                continue;
+            }
+
+            // Copy up to the next separator in one step
+            int start = position;
+            char c = 0;
+            while (position < limit) {
+                c = buffer[position];
+                if (c == ',' || c == '\n' || c == '\r' || (c == '"' && position == start && field.length() == 0)) {
+                    break;
+                }
+                position++;
+            }
+            field.append(buffer, start, position - start);
+            if (position == limit) {
+                continue;
+            }
+
+            position++;
+            if (c == ',') {
+                addField();
+                field.setLength(0);
+            } else if (c == '"') {
+                quoted = true;
+            } else {
+                if (c == '\r') {
+                    skipLineFeed();
+                }
+                addField();
+                return;
+            }
+        }
+    }
+
+    private void addField() {
+        if (fieldCount == fields.length) {
+            fields = Arrays.copyOf(fields, fieldCount * 2);
+        }
+        fields[fieldCount++] = field.toString();
+    }
+
+    private void skipLineFeed() throws IOException {
+        if (peek() == '\n') {
+            position++;
+        }
+    }
+
+    // Next char without consuming it, or -1 at the end of the input
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            position = 0;
+            limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
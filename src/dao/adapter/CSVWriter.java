@@ -0,0 +1,208 @@
+package dao.adapter;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Field-at-a-time RFC 4180 writer: fields holding a comma, quote or line break are
+ * quoted, with quotes doubled. Output goes through one reused char buffer to a file
+ * channel, so rows are never built as strings first and numbers are written without
+ * String.format (which would also follow the default locale's decimal separator).
+ * Records end in "\n", like the files written before.
+ */
+public final class CSVWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    private final Writer writer;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private boolean recordStarted;
+
+    public CSVWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /** Create or truncate a UTF-8 file */
+    public static CSVWriter open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        return new CSVWriter(Channels.newWriter(channel,
+                StandardCharsets.UTF_8.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE),
+                BUFFER_SIZE));
+    }
+
+    /** Write a whole record of text fields, e.g. a header */
+    public CSVWriter record(String... values) throws IOException {
+        for (String value : values) {
+            field(value);
+        }
+        return endRecord();
+    }
+
+    /** Text field, quoted only when it needs to be; null is written as "null" like String.valueOf */
+    public CSVWriter field(String value) throws IOException {
+        separate();
+        String text = String.valueOf(value);
+        if (!needsQuotes(text)) {
+            write(text, 0, text.length());
+            return this;
+        }
+        write('"');
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                // Write through this quote, then start the next run with a second one
+                write(text, start, i + 1);
+                start = i;
+            }
+        }
+        write(text, start, text.length());
+        write('"');
+        return this;
+    }
+
+    public CSVWriter field(long value) throws IOException {
+        separate();
+        writeLong(value);
+        return this;
+    }
+
+    /** Shortest text that reads back as the same double (Double.toString) */
+    public CSVWriter field(double value) throws IOException {
+        separate();
+        String text = Double.toString(value);
+        write(text, 0, text.length());
+        return this;
+    }
+
+    /** Fixed number of decimals (at most 6), rounded half up like "%.2f" */
+    public CSVWriter field(double value, int decimals) throws IOException {
+        separate();
+        long scale = POWERS_OF_TEN[decimals];
+        double scaled = Math.abs(value) * scale;
+        // Near a tie (1.005), round the decimal form like "%.2f" does, not the scaled double
+        double tie = scaled - Math.floor(scaled) - 0.5;
+        if (!Double.isFinite(value) || scaled >= Long.MAX_VALUE / 2.0 || Math.abs(tie) < 1e-6) {
+            String text = Double.isFinite(value)
+                    ? BigDecimal.valueOf(value).setScale(decimals, RoundingMode.HALF_UP).toPlainString()
+                    : Double.toString(value);
+            write(text, 0, text.length());
+            return this;
+        }
+        long rounded = Math.round(scaled);
+        if (value < 0 && rounded != 0) {
+            write('-');
+        }
+        writeLong(rounded / scale);
+        if (decimals > 0) {
+            write('.');
+            long fraction = rounded % scale;
+            for (long digit = scale / 10; digit > 0; digit /= 10) {
+                write((char) ('0' + fraction / digit % 10));
+            }
+        }
+        return this;
+    }
+
+    public CSVWriter endRecord() throws IOException {
+        write('\n');
+        recordStarted = false;
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.write(buffer, 0, position);
+        position = 0;
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void separate() throws IOException {
+        if (recordStarted) {
+            write(',');
+        }
+        recordStarted = true;
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                String text = Long.toString(value);
+                write(text, 0, text.length());
+                return;
+            }
+            write('-');
+            value = -value;
+        }
+        if (buffer.length - position < 20) {
+            drain();
+        }
+        // Digits are produced last first, so write them backwards into place
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    private void write(char c) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = c;
+    }
+
+    private void write(String text, int from, int to) throws IOException {
+        while (from < to) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int count = Math.min(to - from, buffer.length - position);
+            text.getChars(from, from + count, buffer, position);
+            position += count;
+            from += count;
+        }
+    }
+
+    private void drain() throws IOException {
+        writer.write(buffer, 0, position);
+        position = 0;
+    }
+}
@@ -0,0 +1,432 @@
+package dao.adapter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool shared by all DAOs through DatabaseManager.
+ * Borrowed connections are proxies: calling close() returns the physical
+ * connection to the pool instead of closing the socket.
+ */
+public class ConnectionPool {
+
+    // Default sizing, tuned for a single desktop client against a local MySQL
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 5_000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 5 * 60_000;
+    // Leak detection records where each connection was borrowed, which costs a stack
+    // trace per borrow, so it is off unless a threshold is given
+    public static final long LEAK_DETECTION_DISABLED = 0;
+    public static final long DEFAULT_LEAK_THRESHOLD_MILLIS = LEAK_DETECTION_DISABLED;
+
+    // Idle connections used more recently than this are handed out without a ping
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    // Physical connections open or being opened, never more than maxSize. A connection is
+    // only opened with a permit held and, under sizeLock, either no idle one to reuse or
+    // fewer than the warm-up target open.
+    private final Object sizeLock = new Object();
+    private int openCount;
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    public ConnectionPool(String url, String username, String password) {
+        this(url, username, password, DEFAULT_MAX_SIZE, DEFAULT_MAX_WAIT_MILLIS,
+                DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_LEAK_THRESHOLD_MILLIS);
+    }
+
+    public ConnectionPool(String url, String username, String password, int maxSize,
+                          long maxWaitMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        // Load MySQL driver once for the lifetime of the pool
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            System.err.println("MySQL JDBC Driver not found. Please ensure mysql-connector-java is in the classpath.");
+        }
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, HOUSEKEEPING_INTERVAL_MILLIS,
+                HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection, waiting at most the configured max wait.
+     * The caller must close() the returned connection to give it back.
+     */
+    public Connection borrow() throws SQLException {
+        return borrow(true);
+    }
+
+    /**
+     * Borrow a connection. Long-lived holders (an adapter's session connection)
+     * pass trackLeaks = false so they are not reported by leak detection.
+     */
+    public Connection borrow(boolean trackLeaks) throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + maxWaitMillis + "ms waiting for a database connection ("
+                        + active.size() + "/" + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        PooledConnection pooled;
+        try {
+            pooled = takeIdleOrCreate();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        pooled.borrowedAt = System.currentTimeMillis();
+        pooled.borrowSite = trackLeaks && leakThresholdMillis > LEAK_DETECTION_DISABLED
+                ? new Throwable("Connection borrowed here") : null;
+        pooled.leakReported = false;
+        active.add(pooled);
+        borrowCount.incrementAndGet();
+        return pooled.newHandle();
+    }
+
+    /**
+     * Open connections until count (at most the pool size) are open, so the first
+     * borrows after startup do not wait for MySQL to connect. Returns how many were opened.
+     */
+    public int warmUp(int count) throws SQLException {
+        int target = Math.min(count, maxSize);
+        int opened = 0;
+        // Each connection is opened holding a permit, like a borrow; a pool with none free is
+        // already in use and needs no warming
+        while (!shutdown && permits.tryAcquire()) {
+            try {
+                synchronized (sizeLock) {
+                    if (openCount >= target) {
+                        break;
+                    }
+                    openCount++;
+                }
+                PooledConnection pooled = new PooledConnection(openReserved());
+                synchronized (sizeLock) {
+                    idle.offerLast(pooled);
+                }
+                opened++;
+            } finally {
+                permits.release();
+            }
+        }
+        return opened;
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        while (true) {
+            PooledConnection candidate;
+            synchronized (sizeLock) {
+                candidate = idle.pollFirst();
+                if (candidate == null) {
+                    openCount++;
+                    break;
+                }
+            }
+            if (isUsable(candidate)) {
+                return candidate;
+            }
+            evictedCount.incrementAndGet();
+            discard(candidate.physical);
+        }
+        return new PooledConnection(openReserved());
+    }
+
+    /** Open a physical connection for a slot already counted in openCount */
+    private Connection openReserved() throws SQLException {
+        try {
+            Connection physical = DriverManager.getConnection(url, username, password);
+            createdCount.incrementAndGet();
+            return physical;
+        } catch (SQLException | RuntimeException e) {
+            synchronized (sizeLock) {
+                openCount--;
+            }
+            throw e;
+        }
+    }
+
+    /** Close a physical connection and free its slot */
+    private void discard(Connection physical) {
+        closeQuietly(physical);
+        synchronized (sizeLock) {
+            openCount--;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - pooled.lastReturnedAt < VALIDATION_BYPASS_MILLIS) {
+                return true;
+            }
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        if (!active.remove(pooled)) {
+            return;
+        }
+        try {
+            Connection physical = pooled.physical;
+            if (shutdown || physical.isClosed()) {
+                discard(physical);
+                return;
+            }
+            // Never hand out a connection with someone else's open transaction
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            synchronized (sizeLock) {
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding pooled connection that failed to reset: " + e.getMessage());
+            discard(pooled.physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Evict connections idle for longer than the idle timeout and report
+     * borrowed connections held past the leak threshold.
+     */
+    void housekeep() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext()) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastReturnedAt > idleTimeoutMillis && idle.remove(pooled)) {
+                evictedCount.incrementAndGet();
+                discard(pooled.physical);
+            }
+        }
+
+        for (PooledConnection pooled : active) {
+            if (pooled.borrowSite != null && !pooled.leakReported
+                    && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("Possible connection leak: connection held for "
+                        + (now - pooled.borrowedAt) + "ms without being closed");
+                pooled.borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    /** Snapshot of pool usage for sizing and diagnostics */
+    public PoolMetrics getMetrics() {
+        long borrows = borrowCount.get();
+        double avgWaitMillis = borrows == 0 ? 0.0 : totalWaitNanos.get() / 1_000_000.0 / borrows;
+        return new PoolMetrics(active.size(), idle.size(), maxSize, borrows, timeoutCount.get(),
+                createdCount.get(), evictedCount.get(), leakCount.get(),
+                avgWaitMillis, maxWaitNanos.get() / 1_000_000.0);
+    }
+
+    /** Close all idle connections and stop handing out new ones */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled.physical);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Connection is being discarded anyway
+        }
+    }
+
+    /**
+     * A physical connection plus its bookkeeping. Each borrow gets a fresh
+     * proxy handle so a stale handle cannot touch a connection after close().
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private volatile boolean closed;
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (closed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Immutable view of pool counters
+     */
+    public static class PoolMetrics {
+        private final int active;
+        private final int idle;
+        private final int maxSize;
+        private final long borrowCount;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long evictedCount;
+        private final long leakCount;
+        private final double averageWaitMillis;
+        private final double maxWaitMillis;
+
+        public PoolMetrics(int active, int idle, int maxSize, long borrowCount, long timeoutCount,
+                           long createdCount, long evictedCount, long leakCount,
+                           double averageWaitMillis, double maxWaitMillis) {
+            this.active = active;
+            this.idle = idle;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+            this.leakCount = leakCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getMaxSize() { return maxSize; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getEvictedCount() { return evictedCount; }
+        public long getLeakCount() { return leakCount; }
+        public double getAverageWaitMillis() { return averageWaitMillis; }
+        public double getMaxWaitMillis() { return maxWaitMillis; }
+
+        @Override
+        public String toString() {
+            return String.format("Pool[active=%d, idle=%d, max=%d, borrows=%d, timeouts=%d, created=%d, evicted=%d, leaks=%d, avgWait=%.2fms, maxWait=%.2fms]",
+                    active, idle, maxSize, borrowCount, timeoutCount, createdCount, evictedCount, leakCount,
+                    averageWaitMillis, maxWaitMillis);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package dao.adapter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Maintenance of daily_nutrient_totals(user_id, date, nutrient_id, amount): each user's
+ * nutrient intake per day, summed from meal, ingredient and nutrient_amount (per 100g).
+ * MySQLAdapter recomputes the days a meal write touched, so range queries read one row
+ * per day and nutrient instead of every meal and ingredient.
+ */
+public final class DailyNutrientTotals {
+
+    private static final String DAY_TOTALS_SELECT =
+            "SELECT m.UserID, m.Date, na.NutrientID, SUM(i.Quantity * na.NutrientValue / 100) " +
+            "FROM meal m " +
+            "JOIN ingredient i ON i.MealID = m.MealID " +
+            "JOIN nutrient_amount na ON na.FoodID = i.FoodID ";
+
+    private static volatile boolean tableReady = false;
+
+    private DailyNutrientTotals() {
+    }
+
+    /**
+     * Create the table on first use and backfill it from every logged meal, so existing
+     * databases pick it up without a migration (same table as sql/create_daily_nutrient_totals_table.sql).
+     * Returns false when the table does not exist and could not be created here: CREATE TABLE
+     * commits implicitly in MySQL, so it is never run on a connection inside a transaction.
+     */
+    public static boolean ensureTable(Connection conn) throws SQLException {
+        if (tableReady) {
+            return true;
+        }
+        if (tableExists(conn)) {
+            tableReady = true;
+            return true;
+        }
+        if (!conn.getAutoCommit()) {
+            return false;
+        }
+        backfill(conn);
+        return true;
+    }
+
+    /**
+     * Rebuild the whole table from the meal tables, creating it first if needed. Runs in
+     * one transaction when the connection is in auto-commit mode, so readers never see it
+     * half empty.
+     */
+    public static int backfill(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        try (Statement stmt = conn.createStatement()) {
+            if (autoCommit) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS daily_nutrient_totals (" +
+                            "user_id INT NOT NULL, " +
+                            "date DATE NOT NULL, " +
+                            "nutrient_id INT NOT NULL, " +
+                            "amount DOUBLE NOT NULL, " +
+                            "PRIMARY KEY (user_id, date, nutrient_id))");
+                conn.setAutoCommit(false);
+            }
+            stmt.executeUpdate("DELETE FROM daily_nutrient_totals");
+            int rows = stmt.executeUpdate("INSERT INTO daily_nutrient_totals (user_id, date, nutrient_id, amount) " +
+                    DAY_TOTALS_SELECT + "GROUP BY m.UserID, m.Date, na.NutrientID");
+            if (autoCommit) {
+                conn.commit();
+            }
+            tableReady = true;
+            System.out.println("Backfilled " + rows + " daily nutrient totals");
+            return rows;
+        } catch (SQLException e) {
+            if (autoCommit) {
+                conn.rollback();
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Recompute a user's totals for the days from..to (inclusive) on the caller's
+     * connection, as part of its transaction if it has one.
+     */
+    public static void refresh(Connection conn, int userId, LocalDate from, LocalDate to) throws SQLException {
+        if (!ensureTable(conn)) {
+            // Not created yet; the backfill that creates it will include these days
+            return;
+        }
+        try (PreparedStatement deleteStmt = conn.prepareStatement(
+                     "DELETE FROM daily_nutrient_totals WHERE user_id = ? AND date BETWEEN ? AND ?");
+             PreparedStatement insertStmt = conn.prepareStatement(
+                     "INSERT INTO daily_nutrient_totals (user_id, date, nutrient_id, amount) " +
+                     DAY_TOTALS_SELECT + "WHERE m.UserID = ? AND m.Date BETWEEN ? AND ? " +
+                     "GROUP BY m.UserID, m.Date, na.NutrientID")) {
+            for (PreparedStatement stmt : new PreparedStatement[]{deleteStmt, insertStmt}) {
+                stmt.setInt(1, userId);
+                stmt.setDate(2, java.sql.Date.valueOf(from));
+                stmt.setDate(3, java.sql.Date.valueOf(to));
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Drop all of a user's totals (the user's meals were deleted)
+     */
+    public static void deleteUser(Connection conn, int userId) throws SQLException {
+        if (!ensureTable(conn)) {
+            return;
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM daily_nutrient_totals WHERE user_id = ?")) {
+            stmt.setInt(1, userId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean tableExists(Connection conn) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.tables " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'daily_nutrient_totals'";
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package dao.adapter;
 
 import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
 import model.*;
 import model.meal.IngredientEntry;
@@ -10,18 +12,51 @@ import model.user.UserProfile;
 public interface DatabaseAdapter {
     Connection connect();
     Connection getConnection();
+    /** Borrow a pooled connection for one operation; close() returns it to the pool */
+    Connection borrowConnection();
 
     void saveMeal(Meal meal);
     void updateMeal(Meal meal);
     void deleteMeal(int mealId);
     void deleteMealsByDate(int userId, String date);
     List<Meal> loadMeals(int userId);
+    /** Load the user's meals dated from..to (inclusive) with their ingredients, newest first */
+    List<Meal> loadMeals(int userId, LocalDate from, LocalDate to);
+    /** Load the user's meals on one date with their ingredients */
+    List<Meal> loadMealsByDate(int userId, LocalDate date);
+    /** Load one meal and its ingredients by MealID, or null if it does not exist */
+    Meal loadMeal(int mealId);
     void updateIngredientQuantity(int mealId, int foodId, double newQuantity);
+    /**
+     * Load the user's meals dated from..to (inclusive) with all their ingredients on the
+     * caller's connection, locking the rows until its transaction ends, so they can be
+     * snapshotted before replaceMealsInRange deletes them.
+     */
+    List<Meal> loadMealsForUpdate(Connection conn, int userId, LocalDate from, LocalDate to) throws SQLException;
+    /**
+     * Replace the user's meals dated from..to (inclusive) with a copy of the template meals on
+     * each date. Runs on the caller's connection and does not commit, so it can be part of a
+     * larger transaction. Returns the copies with their new MealIDs, by date then template order.
+     */
+    List<Meal> replaceMealsInRange(Connection conn, int userId, LocalDate from, LocalDate to,
+                                   List<Meal> template) throws SQLException;
 
     void saveProfile(UserProfile profile);
     List<UserProfile> loadProfiles();
 
+    /** The profile with this UserID, read by primary key; null if there is none */
+    UserProfile loadProfile(int userId);
+
+    /** Whether a profile already uses exactly this name (case-sensitive) */
+    boolean profileNameExists(String name);
+
     List<IngredientEntry> loadIngredients();
     List<FoodItem> loadFoods();
+
+    /**
+     * Fingerprint of the food tables loadFoods reads; it changes whenever their contents
+     * do. Null if it cannot be read.
+     */
+    String loadFoodCatalogKey();
     List<Nutrient> loadNutrients();
 }
\ No newline at end of file
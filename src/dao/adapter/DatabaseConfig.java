@@ -16,7 +16,7 @@ public class DatabaseConfig {
     // Get database URL
     // This method was found through internet research for MySQL JDBC connection
     public static String getDatabaseUrl() {
-        return String.format("jdbc:mysql://%s:%s/%s?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true",
+        return String.format("jdbc:mysql://%s:%s/%s?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true",
                 DEFAULT_HOST, DEFAULT_PORT, DEFAULT_DATABASE);
     }
     
@@ -30,6 +30,12 @@ public class DatabaseConfig {
         return DEFAULT_PASSWORD;
     }
     
+    // Report connections borrowed for longer than this many ms, with where they were
+    // borrowed; set with -Ddb.leakThresholdMillis=30000 when hunting a leak (0 = off)
+    public static long getLeakThresholdMillis() {
+        return Long.getLong("db.leakThresholdMillis", ConnectionPool.LEAK_DETECTION_DISABLED);
+    }
+    
     // Print configuration information (for debugging)
     public static void printConfig() {
         System.out.println("=== Database Configuration Information ===");
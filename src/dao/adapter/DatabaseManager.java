@@ -1,25 +1,79 @@
 package dao.adapter;
 
 public class DatabaseManager {
-    private static DatabaseManager instance;
-    private static DatabaseAdapter adapter;
-    
+    private static volatile DatabaseManager instance;
+    private static volatile DatabaseAdapter adapter;
+    private static volatile ConnectionPool pool;
+    // Separate from the class monitor so borrowing never waits on adapter creation
+    private static final Object POOL_LOCK = new Object();
+
     private DatabaseManager() {
         adapter = new MySQLAdapter();
-        adapter.connect();
     }
-    
+
     public static DatabaseManager getInstance() {
-        if (instance == null) {
-            instance = new DatabaseManager();
-        }
+        getAdapter();
         return instance;
     }
-    
+
+    /**
+     * Shared adapter. It is created under the class monitor, but its session connection is
+     * opened afterwards by the thread that created it, so concurrent startup phases get the
+     * adapter (and borrow from the pool) without waiting for that connect.
+     */
     public static DatabaseAdapter getAdapter() {
-        if (adapter == null) {
-            getInstance();
+        DatabaseAdapter current = adapter;
+        if (current != null) {
+            return current;
+        }
+        
+        boolean created = false;
+        synchronized (DatabaseManager.class) {
+            if (instance == null) {
+                instance = new DatabaseManager();
+                created = true;
+            }
+            current = adapter;
+        }
+        if (created) {
+            current.connect();
+        }
+        return current;
+    }
+
+    /**
+     * Shared connection pool used by every adapter and DAO.
+     * Created independently of the singleton so adapters can borrow while it is being built.
+     */
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (POOL_LOCK) {
+            if (pool == null) {
+                DatabaseConfig.printConfig();
+                pool = new ConnectionPool(DatabaseConfig.getDatabaseUrl(),
+                        DatabaseConfig.getUsername(), DatabaseConfig.getPassword(),
+                        ConnectionPool.DEFAULT_MAX_SIZE, ConnectionPool.DEFAULT_MAX_WAIT_MILLIS,
+                        ConnectionPool.DEFAULT_IDLE_TIMEOUT_MILLIS, DatabaseConfig.getLeakThresholdMillis());
+            }
+            return pool;
+        }
+    }
+
+    /** Current pool usage (active, idle, waits, borrows) */
+    public static ConnectionPool.PoolMetrics getPoolMetrics() {
+        return getPool().getMetrics();
+    }
+
+    /** Close pooled connections, e.g. on application exit */
+    public static void shutdownPool() {
+        synchronized (POOL_LOCK) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+            }
         }
-        return adapter;
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,569 @@
+package dao.adapter;
+
+import model.FoodItem;
+import model.NutrientDictionary;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.BufferedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The food catalog compiled to a binary file and read back memory-mapped, so startup
+ * does not need the database and the nutrient values stay off the heap.
+ *
+ * The file is columnar: a header with the offset of every section, then one array per
+ * field (FoodIDs ascending, calories, group, name offsets, nutrient entry offsets),
+ * the sparse nutrient entries (slot, value) sorted by slot, and the UTF-8 names.
+ * Foods are served as read-only FoodItem views that read the mapped columns on each
+ * call; only a view's name is kept once decoded.
+ *
+ * The header also records a source key, a fingerprint of the database tables the foods
+ * were read from, so a reader can tell whether the file is still current.
+ */
+public final class FoodCatalogSnapshot {
+    private static final int MAGIC = 0x434E4653; // "CNFS"
+    private static final int VERSION = 2;
+
+    // Sections, in file order; the header holds the byte offset of each
+    private static final int NUTRIENTS = 0;
+    private static final int GROUPS = 1;
+    private static final int FOOD_IDS = 2;
+    private static final int CALORIES = 3;
+    private static final int FOOD_GROUPS = 4;
+    private static final int NAME_OFFSETS = 5;
+    private static final int ENTRY_OFFSETS = 6;
+    private static final int ENTRY_SLOTS = 7;
+    private static final int ENTRY_VALUES = 8;
+    private static final int NAMES = 9;
+    private static final int SOURCE_KEY = 10;
+    private static final int SECTION_COUNT = 11;
+    private static final int HEADER_SIZE = 24 + SECTION_COUNT * 8;
+
+    private final ByteBuffer buffer;
+    private final int foodCount;
+    private final long[] sections = new long[SECTION_COUNT];
+    private final int[] slotToIndex;
+    private final int[] indexToSlot;
+    private final String[] groups;
+    private final String sourceKey;
+    private final AtomicReferenceArray<MappedFoodItem> views;
+
+    private FoodCatalogSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a food catalog snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported food catalog snapshot version " + buffer.getInt(4));
+        }
+        foodCount = buffer.getInt(8);
+        int nutrientCount = buffer.getInt(12);
+        int groupCount = buffer.getInt(16);
+        int entryCount = buffer.getInt(20);
+        for (int section = 0; section < SECTION_COUNT; section++) {
+            sections[section] = buffer.getLong(24 + section * 8);
+            if (sections[section] < HEADER_SIZE || sections[section] > buffer.capacity()) {
+                throw new IOException("Food catalog snapshot is truncated");
+            }
+        }
+        if (sections[ENTRY_VALUES] + entryCount * 8L > sections[NAMES]
+                || sections[NAMES] + intAt(NAME_OFFSETS, foodCount) > sections[SOURCE_KEY]
+                || sections[SOURCE_KEY] + 4 + buffer.getInt((int) sections[SOURCE_KEY]) > buffer.capacity()) {
+            throw new IOException("Food catalog snapshot is truncated");
+        }
+        sourceKey = readString((int) sections[SOURCE_KEY]);
+
+        // Nutrient names and groups are few; read them once and map slots to dictionary indices
+        int position = (int) sections[NUTRIENTS];
+        slotToIndex = new int[nutrientCount];
+        int maxIndex = -1;
+        for (int slot = 0; slot < nutrientCount; slot++) {
+            int cnfId = buffer.getInt(position);
+            String name = readString(position + 4);
+            position += 8 + buffer.getInt(position + 4);
+            slotToIndex[slot] = NutrientDictionary.intern(name, cnfId);
+            maxIndex = Math.max(maxIndex, slotToIndex[slot]);
+        }
+        indexToSlot = new int[maxIndex + 1];
+        Arrays.fill(indexToSlot, -1);
+        for (int slot = 0; slot < nutrientCount; slot++) {
+            indexToSlot[slotToIndex[slot]] = slot;
+        }
+
+        position = (int) sections[GROUPS];
+        groups = new String[groupCount];
+        for (int group = 0; group < groupCount; group++) {
+            groups[group] = readString(position);
+            position += 4 + buffer.getInt(position);
+        }
+        views = new AtomicReferenceArray<>(foodCount);
+    }
+
+    /**
+     * Map a snapshot file written by write(). The file must not be modified while mapped;
+     * write() replaces it with a new file instead.
+     */
+    public static FoodCatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Food catalog snapshot is too large: " + channel.size() + " bytes");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new FoodCatalogSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Compile foods into a snapshot file, recording sourceKey (null for none) in it. The file
+     * is written next to path and moved into place, so a snapshot that is currently mapped is
+     * never changed underneath its readers.
+     */
+    public static void write(Collection<FoodItem> foods, Path path, String sourceKey) throws IOException {
+        List<FoodItem> sorted = new ArrayList<>(foods);
+        sorted.sort(Comparator.comparingInt(FoodItem::getFoodID));
+
+        // Slots number the nutrients any food lists, in dictionary order, so a food's
+        // entries come out sorted by slot when read in dictionary order
+        int dictionarySize = NutrientDictionary.size();
+        boolean[] listed = new boolean[dictionarySize];
+        Map<String, Integer> groupIndex = new LinkedHashMap<>();
+        int entryCount = 0;
+        for (FoodItem food : sorted) {
+            for (int index = 0; index < dictionarySize; index++) {
+                if (food.hasNutrient(index)) {
+                    listed[index] = true;
+                    entryCount++;
+                }
+            }
+            if (food.getFoodGroup() != null) {
+                groupIndex.putIfAbsent(food.getFoodGroup(), groupIndex.size());
+            }
+        }
+        int[] indexBySlot = new int[dictionarySize];
+        int nutrientCount = 0;
+        for (int index = 0; index < dictionarySize; index++) {
+            if (listed[index]) {
+                indexBySlot[nutrientCount++] = index;
+            }
+        }
+        if (nutrientCount > Short.MAX_VALUE) {
+            throw new IOException("Too many nutrients for a food catalog snapshot: " + nutrientCount);
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (SectionWriter out = new SectionWriter(temp)) {
+                out.skip(HEADER_SIZE);
+                long[] sections = new long[SECTION_COUNT];
+
+                sections[NUTRIENTS] = out.align();
+                for (int slot = 0; slot < nutrientCount; slot++) {
+                    int index = indexBySlot[slot];
+                    out.writeInt(NutrientDictionary.cnfIdOf(index));
+                    out.writeString(NutrientDictionary.nameOf(index));
+                }
+                sections[GROUPS] = out.align();
+                for (String group : groupIndex.keySet()) {
+                    out.writeString(group);
+                }
+
+                sections[FOOD_IDS] = out.align();
+                for (FoodItem food : sorted) {
+                    out.writeInt(food.getFoodID());
+                }
+                sections[CALORIES] = out.align();
+                for (FoodItem food : sorted) {
+                    out.writeDouble(food.getCalories());
+                }
+                sections[FOOD_GROUPS] = out.align();
+                for (FoodItem food : sorted) {
+                    out.writeInt(food.getFoodGroup() == null ? -1 : groupIndex.get(food.getFoodGroup()));
+                }
+
+                List<byte[]> names = new ArrayList<>(sorted.size());
+                sections[NAME_OFFSETS] = out.align();
+                int nameOffset = 0;
+                for (FoodItem food : sorted) {
+                    byte[] name = food.getName() == null ? new byte[0] : food.getName().getBytes(StandardCharsets.UTF_8);
+                    names.add(name);
+                    out.writeInt(nameOffset);
+                    nameOffset += name.length;
+                }
+                out.writeInt(nameOffset);
+
+                // Each food's entries sorted by slot, so lookups can binary search
+                sections[ENTRY_OFFSETS] = out.align();
+                int entryOffset = 0;
+                for (FoodItem food : sorted) {
+                    out.writeInt(entryOffset);
+                    for (int slot = 0; slot < nutrientCount; slot++) {
+                        if (food.hasNutrient(indexBySlot[slot])) {
+                            entryOffset++;
+                        }
+                    }
+                }
+                out.writeInt(entryOffset);
+
+                sections[ENTRY_SLOTS] = out.align();
+                for (FoodItem food : sorted) {
+                    for (int slot = 0; slot < nutrientCount; slot++) {
+                        if (food.hasNutrient(indexBySlot[slot])) {
+                            out.writeShort(slot);
+                        }
+                    }
+                }
+                sections[ENTRY_VALUES] = out.align();
+                for (FoodItem food : sorted) {
+                    for (int slot = 0; slot < nutrientCount; slot++) {
+                        if (food.hasNutrient(indexBySlot[slot])) {
+                            out.writeDouble(food.getNutrientValue(indexBySlot[slot]));
+                        }
+                    }
+                }
+
+                sections[NAMES] = out.align();
+                for (byte[] name : names) {
+                    out.write(name);
+                }
+                sections[SOURCE_KEY] = out.align();
+                out.writeString(sourceKey == null ? "" : sourceKey);
+
+                out.writeHeader(sorted.size(), nutrientCount, groupIndex.size(), entryCount, sections);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public int size() {
+        return foodCount;
+    }
+
+    /** The source key given to write(), or "" if there was none */
+    public String getSourceKey() {
+        return sourceKey;
+    }
+
+    /** All foods in FoodID order; views are created on first access and then reused */
+    public List<FoodItem> getFoods() {
+        return new AbstractList<FoodItem>() {
+            @Override
+            public FoodItem get(int position) {
+                return view(position);
+            }
+
+            @Override
+            public int size() {
+                return foodCount;
+            }
+        };
+    }
+
+    /** A food by FoodID, or null if the snapshot does not have it */
+    public FoodItem getFood(int foodId) {
+        int low = 0;
+        int high = foodCount - 1;
+        long ids = sections[FOOD_IDS];
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = buffer.getInt((int) (ids + mid * 4L));
+            if (id < foodId) {
+                low = mid + 1;
+            } else if (id > foodId) {
+                high = mid - 1;
+            } else {
+                return view(mid);
+            }
+        }
+        return null;
+    }
+
+    private MappedFoodItem view(int position) {
+        if (position < 0 || position >= foodCount) {
+            throw new IndexOutOfBoundsException("Food " + position + " of " + foodCount);
+        }
+        MappedFoodItem view = views.get(position);
+        if (view == null) {
+            int foodId = buffer.getInt((int) (sections[FOOD_IDS] + position * 4L));
+            views.compareAndSet(position, null, new MappedFoodItem(foodId, position));
+            view = views.get(position);
+        }
+        return view;
+    }
+
+    private int intAt(int section, int position) {
+        return buffer.getInt((int) (sections[section] + position * 4L));
+    }
+
+    // Length-prefixed UTF-8 string at an absolute offset
+    private String readString(int offset) {
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Entry position holding a dictionary index for the food at position, or -1
+    private int findEntry(int position, int nutrientIndex) {
+        if (nutrientIndex < 0 || nutrientIndex >= indexToSlot.length || indexToSlot[nutrientIndex] < 0) {
+            return -1;
+        }
+        int slot = indexToSlot[nutrientIndex];
+        int low = intAt(ENTRY_OFFSETS, position);
+        int high = intAt(ENTRY_OFFSETS, position + 1) - 1;
+        long slots = sections[ENTRY_SLOTS];
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int found = buffer.getShort((int) (slots + mid * 2L));
+            if (found < slot) {
+                low = mid + 1;
+            } else if (found > slot) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private int entrySlot(int entry) {
+        return buffer.getShort((int) (sections[ENTRY_SLOTS] + entry * 2L));
+    }
+
+    private double entryValue(int entry) {
+        return buffer.getDouble((int) (sections[ENTRY_VALUES] + entry * 8L));
+    }
+
+    /**
+     * Read-only food backed by the mapped columns
+     */
+    private final class MappedFoodItem extends FoodItem {
+        private final int position;
+        private volatile String name;
+
+        private MappedFoodItem(int foodId, int position) {
+            super(foodId, null, null);
+            this.position = position;
+        }
+
+        @Override
+        public String getName() {
+            String decoded = name;
+            if (decoded == null) {
+                int start = intAt(NAME_OFFSETS, position);
+                byte[] bytes = new byte[intAt(NAME_OFFSETS, position + 1) - start];
+                buffer.get((int) (sections[NAMES] + start), bytes);
+                decoded = new String(bytes, StandardCharsets.UTF_8);
+                name = decoded;
+            }
+            return decoded;
+        }
+
+        @Override
+        public double getCalories() {
+            return buffer.getDouble((int) (sections[CALORIES] + position * 8L));
+        }
+
+        @Override
+        public String getFoodGroup() {
+            int group = intAt(FOOD_GROUPS, position);
+            return group < 0 ? null : groups[group];
+        }
+
+        @Override
+        public Map<String, Double> getNutrients() {
+            return new EntryMapView(intAt(ENTRY_OFFSETS, position), intAt(ENTRY_OFFSETS, position + 1));
+        }
+
+        @Override
+        public double getNutrientValue(int nutrientIndex) {
+            int entry = findEntry(position, nutrientIndex);
+            return entry < 0 ? 0.0 : entryValue(entry);
+        }
+
+        @Override
+        public boolean hasNutrient(int nutrientIndex) {
+            return findEntry(position, nutrientIndex) >= 0;
+        }
+
+        @Override
+        public void addNutrientsTo(double[] totals, boolean[] present, double factor) {
+            int end = intAt(ENTRY_OFFSETS, position + 1);
+            for (int entry = intAt(ENTRY_OFFSETS, position); entry < end; entry++) {
+                int index = slotToIndex[entrySlot(entry)];
+                totals[index] += entryValue(entry) * factor;
+                if (present != null) {
+                    present[index] = true;
+                }
+            }
+        }
+
+        @Override
+        public void setName(String name) {
+            throw new UnsupportedOperationException("Foods from a catalog snapshot are read-only");
+        }
+
+        @Override
+        public void setCalories(double calories) {
+            throw new UnsupportedOperationException("Foods from a catalog snapshot are read-only");
+        }
+
+        @Override
+        public void setNutrients(Map<String, Double> nutrients) {
+            throw new UnsupportedOperationException("Foods from a catalog snapshot are read-only");
+        }
+
+        @Override
+        public void setFoodGroup(String foodGroup) {
+            throw new UnsupportedOperationException("Foods from a catalog snapshot are read-only");
+        }
+
+        @Override
+        public String toString() {
+            return getName() + " (Group: " + getFoodGroup() + ")";
+        }
+    }
+
+    /**
+     * Name-keyed view of one food's entries, like FoodItem.getNutrients
+     */
+    private final class EntryMapView extends AbstractMap<String, Double> {
+        private final int start;
+        private final int end;
+
+        private EntryMapView(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+
+        @Override
+        public Double get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int index = NutrientDictionary.indexOf((String) key);
+            if (index < 0 || index >= indexToSlot.length || indexToSlot[index] < 0) {
+                return null;
+            }
+            int slot = indexToSlot[index];
+            for (int entry = start; entry < end; entry++) {
+                if (entrySlot(entry) == slot) {
+                    return entryValue(entry);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Double>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Double>>() {
+                @Override
+                public int size() {
+                    return end - start;
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, Double>> iterator() {
+                    return new Iterator<Map.Entry<String, Double>>() {
+                        private int entry = start;
+
+                        @Override
+                        public boolean hasNext() {
+                            return entry < end;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Double> next() {
+                            if (entry >= end) {
+                                throw new NoSuchElementException();
+                            }
+                            String key = NutrientDictionary.nameOf(slotToIndex[entrySlot(entry)]);
+                            Double value = entryValue(entry);
+                            entry++;
+                            return new SimpleImmutableEntry<>(key, value);
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * Sequential writer that tracks its offset, pads sections to 8 bytes and
+     * fills in the header at the end
+     */
+    private static final class SectionWriter extends DataOutputStream {
+        private final Path path;
+
+        private SectionWriter(Path path) throws IOException {
+            super(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+            this.path = path;
+        }
+
+        private void skip(int bytes) throws IOException {
+            write(new byte[bytes]);
+        }
+
+        private long align() throws IOException {
+            while (size() % 8 != 0) {
+                writeByte(0);
+            }
+            return size();
+        }
+
+        private void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            write(bytes);
+        }
+
+        private void writeHeader(int foodCount, int nutrientCount, int groupCount, int entryCount,
+                                 long[] sections) throws IOException {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(foodCount).putInt(nutrientCount)
+                    .putInt(groupCount).putInt(entryCount);
+            for (long offset : sections) {
+                header.putLong(offset);
+            }
+            header.flip();
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.write(header, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dao.adapter;
+
+import model.meal.Meal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-user cache of meals keyed by MealID, filled by MySQLAdapter reads and
+ * invalidated by its writes. Each user keeps at most MAX_MEALS_PER_USER
+ * recently used meals. Meals are copied in and out so callers can never
+ * change a cached ingredient list.
+ */
+public class MealCache {
+    private static final int MAX_MEALS_PER_USER = 512;
+
+    private final Map<Integer, Map<Integer, Meal>> mealsByUser = new HashMap<>();
+    private final Map<Integer, Integer> ownerByMealId = new HashMap<>();
+
+    /** Cached copy of the meal, or null if it is not cached */
+    public synchronized Meal get(int mealId) {
+        Integer userId = ownerByMealId.get(mealId);
+        if (userId == null) {
+            return null;
+        }
+        Meal meal = mealsByUser.get(userId).get(mealId);
+        return meal == null ? null : copy(meal);
+    }
+
+    public synchronized void put(Meal meal) {
+        Integer previousOwner = ownerByMealId.put(meal.getMealID(), meal.getUserID());
+        if (previousOwner != null && previousOwner != meal.getUserID()) {
+            Map<Integer, Meal> previous = mealsByUser.get(previousOwner);
+            if (previous != null) {
+                previous.remove(meal.getMealID());
+            }
+        }
+        mealsByUser.computeIfAbsent(meal.getUserID(), id -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Meal> eldest) {
+                if (size() > MAX_MEALS_PER_USER) {
+                    ownerByMealId.remove(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        }).put(meal.getMealID(), copy(meal));
+    }
+
+    public synchronized void evict(int mealId) {
+        Integer userId = ownerByMealId.remove(mealId);
+        if (userId != null) {
+            mealsByUser.get(userId).remove(mealId);
+        }
+    }
+
+    public synchronized void evictUser(int userId) {
+        Map<Integer, Meal> meals = mealsByUser.remove(userId);
+        if (meals != null) {
+            meals.keySet().forEach(ownerByMealId::remove);
+        }
+    }
+
+    public synchronized void clear() {
+        mealsByUser.clear();
+        ownerByMealId.clear();
+    }
+
+    private static Meal copy(Meal meal) {
+        return new Meal(meal.getMealID(), meal.getUserID(), meal.getDate(), meal.getType(),
+                meal.getIngredients() == null ? null : new ArrayList<>(meal.getIngredients()));
+    }
+}
@@ -0,0 +1,29 @@
+package dao.adapter;
+
+import model.meal.Meal;
+
+import java.time.LocalDate;
+
+/**
+ * Notified by MySQLAdapter after meal writes succeed, so derived data (such as
+ * daily rollups) can be kept current without reloading the user's history.
+ */
+public interface MealChangeListener {
+    /** A new meal was saved; meal carries its generated MealID */
+    void mealSaved(Meal meal);
+
+    /** An existing meal was rewritten */
+    void mealUpdated(Meal meal);
+
+    /** A meal was deleted */
+    void mealDeleted(int mealId);
+
+    /** A meal changed in place (e.g. one ingredient's quantity); its new contents are not given */
+    void mealChanged(int mealId);
+
+    /** All of a user's meals on a date were deleted */
+    void mealsDeleted(int userId, LocalDate date);
+
+    /** Any number of a user's meals changed; derived data for the user should be rebuilt */
+    void mealsChanged(int userId);
+}
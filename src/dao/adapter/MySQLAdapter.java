@@ -6,41 +6,28 @@ import model.meal.IngredientEntry;
 import model.user.UserProfile;
 import model.FoodItem;
 import model.Nutrient;
+import model.NutrientDictionary;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.*;
 
 public class MySQLAdapter implements DatabaseAdapter {
-    private Connection connection;
+    private volatile Connection connection;
 
+    /**
+     * Establish this adapter's session connection, reusing it while it is still open.
+     * The session connection is borrowed from the shared pool; closing it returns it.
+     */
     @Override
-    public Connection connect() {
-        // Load MySQL driver
+    public synchronized Connection connect() {
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC Driver not found. Please ensure mysql-connector-java is in the classpath.");
-            System.err.println("Error: " + e.getMessage());
-            return null;
-        }
-        
-        // Use configuration class to get database connection information
-        String url = DatabaseConfig.getDatabaseUrl();
-        String user = DatabaseConfig.getUsername();
-        String password = DatabaseConfig.getPassword();
-        
-        // Print configuration information (for debugging)
-        DatabaseConfig.printConfig();
-        try {
-            connection = DriverManager.getConnection(url, user, password);
-            System.out.println("MySQL connection established successfully.");
+            if (connection == null || connection.isClosed()) {
+                connection = DatabaseManager.getPool().borrow(false);
+                System.out.println("MySQL connection established successfully.");
+            }
             return connection;
         } catch (SQLException e) {
-            System.err.println("Failed to connect to MySQL database: " + e.getMessage());
-            System.err.println("Please check:");
-            System.err.println("1. MySQL server is running on localhost:3306");
-            System.err.println("2. Database 'cnf2015' exists");
-            System.err.println("3. User 'root' with password 'abcd1234' has access");
-            System.err.println("4. MySQL JDBC driver is in the classpath");
+            printConnectionHelp(e);
             return null;
         }
     }
@@ -50,14 +37,33 @@ public class MySQLAdapter implements DatabaseAdapter {
         return connection;
     }
 
+    @Override
+    public Connection borrowConnection() {
+        try {
+            return DatabaseManager.getPool().borrow();
+        } catch (SQLException e) {
+            printConnectionHelp(e);
+            return null;
+        }
+    }
+
+    private void printConnectionHelp(SQLException e) {
+        System.err.println("Failed to connect to MySQL database: " + e.getMessage());
+        System.err.println("Please check:");
+        System.err.println("1. MySQL server is running on localhost:3306");
+        System.err.println("2. Database 'cnf2015' exists");
+        System.err.println("3. User 'root' with password 'abcd1234' has access");
+        System.err.println("4. MySQL JDBC driver is in the classpath");
+    }
+
     @Override
     public void saveMeal(Meal meal) {
         String mealInsert = "INSERT INTO meal (UserID, Date, Type) VALUES (?, ?, ?)";
         String ingredientInsert = "INSERT INTO ingredient (MealID, FoodID, Quantity) VALUES (?, ?, ?)";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for saving meal");
                 return;
@@ -81,12 +87,15 @@ public class MySQLAdapter implements DatabaseAdapter {
                             ingredientStmt.addBatch();
                         }
                         ingredientStmt.executeBatch();
+                        Meal saved = new Meal(mealId, meal.getUserID(), meal.getDate(), meal.getType(), meal.getIngredients());
+                        fireMealEvent(listener -> listener.mealSaved(saved));
+                        refreshDailyTotals(conn, meal.getUserID(), meal.getDate());
                         System.out.println("Saved meal: " + meal.getIngredients().get(0).getFoodID() + 
                                          " (" + meal.getIngredients().get(0).getQuantity() + "g, " + meal.getType() + ")");
                     }
                 }
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -102,8 +111,8 @@ public class MySQLAdapter implements DatabaseAdapter {
         String deleteMeal = "DELETE FROM meal WHERE MealID = ?";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for deleting meal");
                 return;
@@ -113,6 +122,8 @@ public class MySQLAdapter implements DatabaseAdapter {
                     PreparedStatement ingredientStmt = conn.prepareStatement(deleteIngredients);
                     PreparedStatement mealStmt = conn.prepareStatement(deleteMeal)
             ) {
+                Meal owner = findMealOwner(conn, mealId);
+                
                 // First delete ingredients (due to foreign key constraint)
                 ingredientStmt.setInt(1, mealId);
                 ingredientStmt.executeUpdate();
@@ -120,10 +131,14 @@ public class MySQLAdapter implements DatabaseAdapter {
                 // Then delete the meal
                 mealStmt.setInt(1, mealId);
                 mealStmt.executeUpdate();
+                fireMealEvent(listener -> listener.mealDeleted(mealId));
+                if (owner != null) {
+                    refreshDailyTotals(conn, owner.getUserID(), owner.getDate());
+                }
                 
                 System.out.println("Deleted meal ID: " + mealId);
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -131,6 +146,7 @@ public class MySQLAdapter implements DatabaseAdapter {
         } catch (SQLException e) {
             System.err.println("Error deleting meal: " + e.getMessage());
         }
+        mealCache.evict(mealId);
     }
     
     @Override
@@ -141,8 +157,8 @@ public class MySQLAdapter implements DatabaseAdapter {
         String deleteMeal = "DELETE FROM meal WHERE MealID = ?";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for deleting meals by date");
                 return;
@@ -173,9 +189,11 @@ public class MySQLAdapter implements DatabaseAdapter {
                     mealStmt.executeUpdate();
                 }
                 
+                fireMealEvent(listener -> listener.mealsDeleted(userId, LocalDate.parse(date)));
+                refreshDailyTotals(conn, userId, LocalDate.parse(date));
                 System.out.println("Deleted " + mealIds.size() + " meals for user " + userId + " on date " + date);
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -183,6 +201,7 @@ public class MySQLAdapter implements DatabaseAdapter {
         } catch (SQLException e) {
             System.err.println("Error deleting meals by date: " + e.getMessage());
         }
+        mealCache.evictUser(userId);
     }
 
     @Override
@@ -190,8 +209,8 @@ public class MySQLAdapter implements DatabaseAdapter {
         String updateQuery = "UPDATE ingredient SET Quantity = ? WHERE MealID = ? AND FoodID = ?";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for updating ingredient quantity");
                 return;
@@ -204,12 +223,17 @@ public class MySQLAdapter implements DatabaseAdapter {
                 
                 int rowsAffected = stmt.executeUpdate();
                 if (rowsAffected > 0) {
+                    fireMealEvent(listener -> listener.mealChanged(mealId));
+                    Meal owner = findMealOwner(conn, mealId);
+                    if (owner != null) {
+                        refreshDailyTotals(conn, owner.getUserID(), owner.getDate());
+                    }
                     System.out.println("Successfully updated quantity for meal " + mealId + ", food " + foodId + " to " + newQuantity);
                 } else {
                     System.err.println("No rows updated for meal " + mealId + ", food " + foodId);
                 }
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -217,6 +241,7 @@ public class MySQLAdapter implements DatabaseAdapter {
         } catch (SQLException e) {
             System.err.println("Error updating ingredient quantity: " + e.getMessage());
         }
+        mealCache.evict(mealId);
     }
 
     @Override
@@ -226,8 +251,8 @@ public class MySQLAdapter implements DatabaseAdapter {
         String ingredientInsert = "INSERT INTO ingredient (MealID, FoodID, Quantity) VALUES (?, ?, ?)";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for updating meal");
                 return;
@@ -238,6 +263,9 @@ public class MySQLAdapter implements DatabaseAdapter {
                     PreparedStatement deleteStmt = conn.prepareStatement(deleteIngredients);
                     PreparedStatement ingredientStmt = conn.prepareStatement(ingredientInsert)
             ) {
+                // The day the meal was on before, which also needs its totals recomputed
+                Meal previous = findMealOwner(conn, meal.getMealID());
+                
                 // Update meal details
                 mealStmt.setInt(1, meal.getUserID());
                 mealStmt.setDate(2, java.sql.Date.valueOf(meal.getDate()));
@@ -257,9 +285,15 @@ public class MySQLAdapter implements DatabaseAdapter {
                     ingredientStmt.addBatch();
                 }
                 ingredientStmt.executeBatch();
+                fireMealEvent(listener -> listener.mealUpdated(meal));
+                if (previous != null && (previous.getUserID() != meal.getUserID()
+                        || !previous.getDate().equals(meal.getDate()))) {
+                    refreshDailyTotals(conn, previous.getUserID(), previous.getDate());
+                }
+                refreshDailyTotals(conn, meal.getUserID(), meal.getDate());
                 
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -267,59 +301,143 @@ public class MySQLAdapter implements DatabaseAdapter {
         } catch (SQLException e) {
             System.err.println("Error updating meal: " + e.getMessage());
         }
+        mealCache.evict(meal.getMealID());
+    }
+
+    @Override
+    public List<Meal> loadMealsForUpdate(Connection conn, int userId, LocalDate from,
+                                         LocalDate to) throws SQLException {
+        String mealQuery = "SELECT m.MealID, m.UserID, m.Date, m.Type, i.FoodID, i.Quantity " +
+                          "FROM meal m LEFT JOIN ingredient i ON i.MealID = m.MealID " +
+                          "WHERE m.UserID = ? AND m.Date BETWEEN ? AND ? " +
+                          "ORDER BY m.Date, m.MealID FOR UPDATE";
+        
+        try (PreparedStatement mealStmt = conn.prepareStatement(mealQuery)) {
+            mealStmt.setInt(1, userId);
+            mealStmt.setDate(2, java.sql.Date.valueOf(from));
+            mealStmt.setDate(3, java.sql.Date.valueOf(to));
+            try (ResultSet rs = mealStmt.executeQuery()) {
+                // Unfiltered: a rollback has to put back every ingredient that was there
+                return readMeals(rs, null);
+            }
+        }
+    }
+
+    @Override
+    public List<Meal> replaceMealsInRange(Connection conn, int userId, LocalDate from,
+                                          LocalDate to, List<Meal> template) throws SQLException {
+        String deleteIngredients = "DELETE i FROM ingredient i JOIN meal m ON m.MealID = i.MealID " +
+                                  "WHERE m.UserID = ? AND m.Date BETWEEN ? AND ?";
+        String deleteMeals = "DELETE FROM meal WHERE UserID = ? AND Date BETWEEN ? AND ?";
+        String mealInsert = "INSERT INTO meal (UserID, Date, Type) VALUES (?, ?, ?)";
+        String ingredientInsert = "INSERT INTO ingredient (MealID, FoodID, Quantity) VALUES (?, ?, ?)";
+        
+        List<Meal> copies = new ArrayList<>();
+        try (
+                PreparedStatement deleteIngredientsStmt = conn.prepareStatement(deleteIngredients);
+                PreparedStatement deleteMealsStmt = conn.prepareStatement(deleteMeals);
+                PreparedStatement mealStmt = conn.prepareStatement(mealInsert, Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement ingredientStmt = conn.prepareStatement(ingredientInsert)
+        ) {
+            // Two set-based deletes for the whole range (ingredients first, due to the foreign key)
+            for (PreparedStatement stmt : List.of(deleteIngredientsStmt, deleteMealsStmt)) {
+                stmt.setInt(1, userId);
+                stmt.setDate(2, java.sql.Date.valueOf(from));
+                stmt.setDate(3, java.sql.Date.valueOf(to));
+                stmt.executeUpdate();
+            }
+            
+            // One batch for every meal; the generated MealIDs come back in insert order
+            List<LocalDate> dates = new ArrayList<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                for (Meal meal : template) {
+                    mealStmt.setInt(1, userId);
+                    mealStmt.setDate(2, java.sql.Date.valueOf(date));
+                    mealStmt.setString(3, meal.getType().name());
+                    mealStmt.addBatch();
+                }
+                dates.add(date);
+            }
+            mealStmt.executeBatch();
+            
+            try (ResultSet generatedKeys = mealStmt.getGeneratedKeys()) {
+                for (LocalDate date : dates) {
+                    for (Meal meal : template) {
+                        if (!generatedKeys.next()) {
+                            throw new SQLException("Missing generated MealID for " + meal.getType() + " on " + date);
+                        }
+                        int mealId = generatedKeys.getInt(1);
+                        for (IngredientEntry entry : meal.getIngredients()) {
+                            ingredientStmt.setInt(1, mealId);
+                            ingredientStmt.setInt(2, entry.getFoodID());
+                            ingredientStmt.setDouble(3, entry.getQuantity());
+                            ingredientStmt.addBatch();
+                        }
+                        copies.add(new Meal(mealId, userId, date, meal.getType(), new ArrayList<>(meal.getIngredients())));
+                    }
+                }
+            }
+            ingredientStmt.executeBatch();
+            
+            // Part of the caller's transaction, so the totals roll back with the meals
+            DailyNutrientTotals.refresh(conn, userId, from, to);
+        } finally {
+            // Also on failure: the caller may still roll back, so derived data is rebuilt either way
+            mealCache.evictUser(userId);
+            fireMealEvent(listener -> listener.mealsChanged(userId));
+        }
+        return copies;
     }
 
     @Override
     public List<Meal> loadMeals(int userId) {
+        return queryMeals(userId, null, null);
+    }
+
+    @Override
+    public List<Meal> loadMeals(int userId, LocalDate from, LocalDate to) {
+        return queryMeals(userId, from, to);
+    }
+
+    @Override
+    public List<Meal> loadMealsByDate(int userId, LocalDate date) {
+        return queryMeals(userId, date, date);
+    }
+
+    /**
+     * A user's meals, optionally only those dated from..to (inclusive). The date range is a
+     * range scan on meal(UserID, Date) (sql/create_meal_user_date_index.sql), so a day or a
+     * week reads only its own rows.
+     */
+    private List<Meal> queryMeals(int userId, LocalDate from, LocalDate to) {
         List<Meal> meals = new ArrayList<>();
-        String mealQuery = "SELECT * FROM meal WHERE UserID = ? ORDER BY Date DESC";
-        String ingredientQuery = "SELECT FoodID, Quantity FROM ingredient WHERE MealID = ?";
+        // One round trip: meals joined with their ingredients, rows for a meal kept contiguous
+        String mealQuery = "SELECT m.MealID, m.UserID, m.Date, m.Type, i.FoodID, i.Quantity " +
+                          "FROM meal m LEFT JOIN ingredient i ON i.MealID = m.MealID " +
+                          "WHERE m.UserID = ? " + (from != null ? "AND m.Date BETWEEN ? AND ? " : "") +
+                          "ORDER BY m.Date DESC, m.MealID";
         
         try {
-            // Create a new connection for this operation
-            Connection conn = connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for loading meals");
                 return meals;
             }
             
-            try (
-                    PreparedStatement mealStmt = conn.prepareStatement(mealQuery);
-                    PreparedStatement ingredientStmt = conn.prepareStatement(ingredientQuery)
-            ) {
+            try (PreparedStatement mealStmt = conn.prepareStatement(mealQuery)) {
+                Set<Integer> knownFoodIds = getKnownFoodIds(conn);
                 mealStmt.setInt(1, userId);
-                ResultSet mealRs = mealStmt.executeQuery();
-                while (mealRs.next()) {
-                    int mealId = mealRs.getInt("MealID");
-                    java.time.LocalDate date = mealRs.getDate("Date").toLocalDate();
-                    MealType type = MealType.valueOf(mealRs.getString("Type"));
-                    List<IngredientEntry> ingredients = new ArrayList<>();
-                    ingredientStmt.setInt(1, mealId);
-                    ResultSet ingRs = ingredientStmt.executeQuery();
-                    while (ingRs.next()) {
-                        int foodId = ingRs.getInt("FoodID");
-                        double quantity = ingRs.getDouble("Quantity");
-                        
-                        // Check if this food ID exists in the database
-                        String foodCheckQuery = "SELECT COUNT(*) FROM food_name WHERE FoodID = ?";
-                        try (PreparedStatement checkStmt = conn.prepareStatement(foodCheckQuery)) {
-                            checkStmt.setInt(1, foodId);
-                            ResultSet checkRs = checkStmt.executeQuery();
-                            if (checkRs.next() && checkRs.getInt(1) == 0) {
-                                System.err.println("Warning: Food item with ID " + foodId + " not found in database, skipping...");
-                                continue; // Skip this ingredient
-                            }
-                        } catch (SQLException e) {
-                            System.err.println("Error checking food ID " + foodId + ": " + e.getMessage());
-                            continue;
-                        }
-                        
-                        ingredients.add(new IngredientEntry(foodId, quantity));
-                    }
-                    meals.add(new Meal(mealId, userId, date, type, ingredients));
+                if (from != null) {
+                    mealStmt.setDate(2, java.sql.Date.valueOf(from));
+                    mealStmt.setDate(3, java.sql.Date.valueOf(to));
                 }
+                try (ResultSet rs = mealStmt.executeQuery()) {
+                    meals = readMeals(rs, knownFoodIds);
+                }
+                meals.forEach(mealCache::put);
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -330,10 +448,168 @@ public class MySQLAdapter implements DatabaseAdapter {
         return meals;
     }
 
+    @Override
+    public Meal loadMeal(int mealId) {
+        Meal cached = mealCache.get(mealId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Connection conn = borrowConnection();
+        if (conn == null) {
+            return null;
+        }
+        // Primary-key lookup: one meal and its ingredients
+        String mealQuery = "SELECT m.MealID, m.UserID, m.Date, m.Type, i.FoodID, i.Quantity " +
+                          "FROM meal m LEFT JOIN ingredient i ON i.MealID = m.MealID " +
+                          "WHERE m.MealID = ?";
+        
+        try (conn;
+             PreparedStatement mealStmt = conn.prepareStatement(mealQuery)) {
+            Set<Integer> knownFoodIds = getKnownFoodIds(conn);
+            mealStmt.setInt(1, mealId);
+            try (ResultSet rs = mealStmt.executeQuery()) {
+                List<Meal> meals = readMeals(rs, knownFoodIds);
+                if (meals.isEmpty()) {
+                    return null;
+                }
+                mealCache.put(meals.get(0));
+                return meals.get(0);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading meal " + mealId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Build meals from rows of (MealID, UserID, Date, Type, FoodID, Quantity) ordered so that
+     * each meal's rows are contiguous. Ingredients whose FoodID is not in the CNF catalog are skipped.
+     */
+    private List<Meal> readMeals(ResultSet rs, Set<Integer> knownFoodIds) throws SQLException {
+        List<Meal> meals = new ArrayList<>();
+        int currentMealId = -1;
+        int currentUserId = -1;
+        java.time.LocalDate currentDate = null;
+        MealType currentType = null;
+        List<IngredientEntry> ingredients = null;
+        
+        while (rs.next()) {
+            int mealId = rs.getInt("MealID");
+            if (ingredients == null || mealId != currentMealId) {
+                if (ingredients != null) {
+                    meals.add(new Meal(currentMealId, currentUserId, currentDate, currentType, ingredients));
+                }
+                currentMealId = mealId;
+                currentUserId = rs.getInt("UserID");
+                currentDate = rs.getDate("Date").toLocalDate();
+                currentType = MealType.valueOf(rs.getString("Type"));
+                ingredients = new ArrayList<>();
+            }
+            
+            int foodId = rs.getInt("FoodID");
+            if (rs.wasNull()) {
+                continue; // Meal without ingredients
+            }
+            if (knownFoodIds != null && !knownFoodIds.contains(foodId)) {
+                System.err.println("Warning: Food item with ID " + foodId + " not found in database, skipping...");
+                continue;
+            }
+            ingredients.add(new IngredientEntry(foodId, rs.getDouble("Quantity")));
+        }
+        
+        if (ingredients != null) {
+            meals.add(new Meal(currentMealId, currentUserId, currentDate, currentType, ingredients));
+        }
+        return meals;
+    }
+
+    // Meals read through any adapter instance, evicted by the write methods above
+    private static final MealCache mealCache = new MealCache();
+    private static final List<MealChangeListener> mealListeners = new java.util.concurrent.CopyOnWriteArrayList<>();
+    
+    /** Register a listener for meal writes made through any MySQLAdapter */
+    public static void addMealChangeListener(MealChangeListener listener) {
+        mealListeners.add(listener);
+    }
+    
+    public static void removeMealChangeListener(MealChangeListener listener) {
+        mealListeners.remove(listener);
+    }
+    
+    private static void fireMealEvent(java.util.function.Consumer<MealChangeListener> event) {
+        for (MealChangeListener listener : mealListeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying meal change listener: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * UserID and Date of a meal as stored (no ingredients), or null if it does not exist
+     */
+    private Meal findMealOwner(Connection conn, int mealId) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT UserID, Date FROM meal WHERE MealID = ?")) {
+            stmt.setInt(1, mealId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Meal(mealId, rs.getInt("UserID"), rs.getDate("Date").toLocalDate(), null, new ArrayList<>());
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recompute a day of daily_nutrient_totals after an auto-committed meal write.
+     * The meal write has already succeeded, so a failure here is only logged.
+     */
+    private void refreshDailyTotals(Connection conn, int userId, LocalDate date) {
+        try {
+            DailyNutrientTotals.refresh(conn, userId, date, date);
+        } catch (SQLException e) {
+            System.err.println("Error refreshing daily nutrient totals: " + e.getMessage());
+        }
+    }
+
+    // CNF food IDs are static reference data, so the set is loaded once per process
+    private static volatile Set<Integer> knownFoodIds;
+
+    /**
+     * Get the set of FoodIDs present in food_name, used to validate meal ingredients
+     * in memory instead of one existence query per ingredient.
+     * Returns null if the set cannot be loaded, in which case no ingredients are filtered.
+     */
+    private static Set<Integer> getKnownFoodIds(Connection conn) {
+        Set<Integer> ids = knownFoodIds;
+        if (ids != null) {
+            return ids;
+        }
+        synchronized (MySQLAdapter.class) {
+            if (knownFoodIds == null) {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT FoodID FROM food_name")) {
+                    Set<Integer> loaded = new HashSet<>();
+                    while (rs.next()) {
+                        loaded.add(rs.getInt(1));
+                    }
+                    knownFoodIds = Collections.unmodifiableSet(loaded);
+                } catch (SQLException e) {
+                    System.err.println("Error loading food IDs: " + e.getMessage());
+                    return null;
+                }
+            }
+            return knownFoodIds;
+        }
+    }
+
     @Override
     public void saveProfile(UserProfile profile) {
         String insertProfileQuery = "INSERT INTO user_profile (UserName, Sex, Dob, Height, Weight) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(insertProfileQuery, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = borrowConnection();
+             PreparedStatement stmt = conn.prepareStatement(insertProfileQuery, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, profile.getName());
             stmt.setString(2, profile.getSex());
             stmt.setDate(3, java.sql.Date.valueOf(profile.getDob()));
@@ -354,7 +630,8 @@ public class MySQLAdapter implements DatabaseAdapter {
 
     public void updateProfile(UserProfile profile) {
         String updateProfileQuery = "UPDATE user_profile SET UserName = ?, Sex = ?, Dob = ?, Height = ?, Weight = ? WHERE UserID = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(updateProfileQuery)) {
+        try (Connection conn = borrowConnection();
+             PreparedStatement stmt = conn.prepareStatement(updateProfileQuery)) {
             stmt.setString(1, profile.getName());
             stmt.setString(2, profile.getSex());
             stmt.setDate(3, java.sql.Date.valueOf(profile.getDob()));
@@ -368,14 +645,19 @@ public class MySQLAdapter implements DatabaseAdapter {
     }
 
     public void deleteProfile(int userId) {
+        Connection conn = borrowConnection();
+        if (conn == null) {
+            System.err.println("Failed to create database connection for deleting profile");
+            return;
+        }
         try {
             // Start transaction
-            connection.setAutoCommit(false);
+            conn.setAutoCommit(false);
             
             // First, get all meal IDs for this user
             String getMealIdsQuery = "SELECT MealID FROM meal WHERE UserID = ?";
             List<Integer> mealIds = new ArrayList<>();
-            try (PreparedStatement stmt = connection.prepareStatement(getMealIdsQuery)) {
+            try (PreparedStatement stmt = conn.prepareStatement(getMealIdsQuery)) {
                 stmt.setInt(1, userId);
                 ResultSet rs = stmt.executeQuery();
                 while (rs.next()) {
@@ -386,7 +668,7 @@ public class MySQLAdapter implements DatabaseAdapter {
             // Delete ingredients for each meal first (due to foreign key constraint)
             if (!mealIds.isEmpty()) {
                 String deleteIngredientsQuery = "DELETE FROM ingredient WHERE MealID = ?";
-                try (PreparedStatement stmt = connection.prepareStatement(deleteIngredientsQuery)) {
+                try (PreparedStatement stmt = conn.prepareStatement(deleteIngredientsQuery)) {
                     for (Integer mealId : mealIds) {
                         stmt.setInt(1, mealId);
                         int ingredientsDeleted = stmt.executeUpdate();
@@ -397,15 +679,17 @@ public class MySQLAdapter implements DatabaseAdapter {
             
             // Now delete all meals for this user
             String deleteMealsQuery = "DELETE FROM meal WHERE UserID = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteMealsQuery)) {
+            try (PreparedStatement stmt = conn.prepareStatement(deleteMealsQuery)) {
                 stmt.setInt(1, userId);
                 int mealsDeleted = stmt.executeUpdate();
                 System.out.println("Deleted " + mealsDeleted + " meals for user " + userId);
             }
             
+            DailyNutrientTotals.deleteUser(conn, userId);
+            
             // Delete swap status records (has ON DELETE CASCADE, but being explicit)
             String deleteSwapStatusQuery = "DELETE FROM swap_status WHERE user_id = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteSwapStatusQuery)) {
+            try (PreparedStatement stmt = conn.prepareStatement(deleteSwapStatusQuery)) {
                 stmt.setInt(1, userId);
                 int swapStatusDeleted = stmt.executeUpdate();
                 System.out.println("Deleted " + swapStatusDeleted + " swap status records for user " + userId);
@@ -413,7 +697,7 @@ public class MySQLAdapter implements DatabaseAdapter {
             
             // Delete user goals (has ON DELETE CASCADE, but being explicit)
             String deleteGoalsQuery = "DELETE FROM user_goals WHERE UserID = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteGoalsQuery)) {
+            try (PreparedStatement stmt = conn.prepareStatement(deleteGoalsQuery)) {
                 stmt.setInt(1, userId);
                 int goalsDeleted = stmt.executeUpdate();
                 System.out.println("Deleted " + goalsDeleted + " goals for user " + userId);
@@ -421,31 +705,38 @@ public class MySQLAdapter implements DatabaseAdapter {
             
             // Finally, delete the user profile
             String deleteProfileQuery = "DELETE FROM user_profile WHERE UserID = ?";
-            try (PreparedStatement stmt = connection.prepareStatement(deleteProfileQuery)) {
+            try (PreparedStatement stmt = conn.prepareStatement(deleteProfileQuery)) {
                 stmt.setInt(1, userId);
                 int rowsAffected = stmt.executeUpdate();
                 if (rowsAffected > 0) {
                     System.out.println("Profile with UserID " + userId + " deleted successfully.");
-                    connection.commit();
+                    conn.commit();
                 } else {
                     System.out.println("No profile found with UserID " + userId);
-                    connection.rollback();
+                    conn.rollback();
                 }
             }
         } catch (SQLException e) {
             try {
-                connection.rollback();
+                conn.rollback();
             } catch (SQLException rollbackEx) {
                 System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
             }
             System.err.println("Error deleting profile: " + e.getMessage());
         } finally {
             try {
-                connection.setAutoCommit(true);
+                conn.setAutoCommit(true);
             } catch (SQLException e) {
                 System.err.println("Error resetting auto-commit: " + e.getMessage());
             }
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Error returning connection to pool: " + e.getMessage());
+            }
         }
+        mealCache.evictUser(userId);
+        fireMealEvent(listener -> listener.mealsChanged(userId));
     }
 
     @Override
@@ -453,24 +744,18 @@ public class MySQLAdapter implements DatabaseAdapter {
         List<UserProfile> profiles = new ArrayList<>();
         
         // Check if connection is available
-        if (connection == null) {
+        Connection conn = borrowConnection();
+        if (conn == null) {
             System.err.println("Warning: No database connection available. Returning empty profile list.");
             return profiles;
         }
         
         String profileQuery = "SELECT * FROM user_profile";
-        try (Statement stmt = connection.createStatement();
+        try (conn;
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(profileQuery)) {
             while (rs.next()) {
-                int userId = rs.getInt("UserID");
-                String name = rs.getString("UserName");
-                String sex = rs.getString("Sex");
-                java.time.LocalDate dob = rs.getDate("Dob").toLocalDate();
-                double height = rs.getDouble("Height");
-                double weight = rs.getDouble("Weight");
-                UserProfile profile = new UserProfile(name, sex, dob, height, weight);
-                profile.setUserID(userId);
-                profiles.add(profile);
+                profiles.add(readProfile(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error loading profiles: " + e.getMessage());
@@ -481,11 +766,67 @@ public class MySQLAdapter implements DatabaseAdapter {
         return profiles;
     }
 
+    @Override
+    public UserProfile loadProfile(int userId) {
+        Connection conn = borrowConnection();
+        if (conn == null) {
+            return null;
+        }
+        String profileQuery = "SELECT UserID, UserName, Sex, Dob, Height, Weight FROM user_profile WHERE UserID = ?";
+        try (conn;
+             PreparedStatement stmt = conn.prepareStatement(profileQuery)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? readProfile(rs) : null;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading profile " + userId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean profileNameExists(String name) {
+        Connection conn = borrowConnection();
+        if (conn == null) {
+            return false;
+        }
+        // Served by idx_user_profile_name (src/sql/create_user_profile_name_index.sql). The column's
+        // collation ignores case, so compare the few matches exactly, as the old full scan did
+        String nameQuery = "SELECT UserName FROM user_profile WHERE UserName = ?";
+        try (conn;
+             PreparedStatement stmt = conn.prepareStatement(nameQuery)) {
+            stmt.setString(1, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (rs.getString("UserName").equals(name)) {
+                        return true;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error checking profile name: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private static UserProfile readProfile(ResultSet rs) throws SQLException {
+        String name = rs.getString("UserName");
+        String sex = rs.getString("Sex");
+        java.time.LocalDate dob = rs.getDate("Dob").toLocalDate();
+        double height = rs.getDouble("Height");
+        double weight = rs.getDouble("Weight");
+        UserProfile profile = new UserProfile(name, sex, dob, height, weight);
+        profile.setUserID(rs.getInt("UserID"));
+        return profile;
+    }
+
     @Override
     public List<IngredientEntry> loadIngredients() {
         List<IngredientEntry> ingredients = new ArrayList<>();
         String query = "SELECT FoodID, Quantity FROM meal_ingredient";
-        try (Statement stmt = connection.createStatement();
+        try (Connection conn = borrowConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
                 int foodId = rs.getInt("FoodID");
@@ -512,15 +853,21 @@ public class MySQLAdapter implements DatabaseAdapter {
                               "WHERE na.NutrientID = 208"; // 208 is the standard nutrient ID for KCAL
         
         // Load all nutrients in one query
-        String nutrientsQuery = "SELECT na.FoodID, nn.NutrientName, nn.NutrientUnit, na.NutrientValue " +
+        String nutrientsQuery = "SELECT na.FoodID, na.NutrientID, nn.NutrientName, nn.NutrientUnit, na.NutrientValue " +
                                "FROM nutrient_amount na " +
                                "JOIN nutrient_name nn ON na.NutrientID = nn.NutrientID " +
                                "WHERE nn.NutrientName NOT LIKE '%calor%' AND nn.NutrientName NOT LIKE '%kcal%' AND nn.NutrientName NOT LIKE '%energy%' AND nn.NutrientName NOT LIKE '%kilojoule%'";
         
-        try {
+        Connection conn = borrowConnection();
+        if (conn == null) {
+            System.err.println("Error loading foods: no database connection available");
+            return foods;
+        }
+        
+        try (conn) {
             // Load all calories into a map
             Map<Integer, Double> caloriesMap = new HashMap<>();
-            try (Statement stmt = connection.createStatement();
+            try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(caloriesQuery)) {
                 while (rs.next()) {
                     int foodId = rs.getInt("FoodID");
@@ -545,21 +892,23 @@ public class MySQLAdapter implements DatabaseAdapter {
                 }
             }
             
-            // Load all nutrients into a map
-            Map<Integer, Map<String, Double>> nutrientsMap = new HashMap<>();
-            try (Statement stmt = connection.createStatement();
+            // Load all nutrients into a vector per food
+            Map<Integer, double[]> nutrientsMap = new HashMap<>();
+            try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(nutrientsQuery)) {
                 while (rs.next()) {
                     int foodId = rs.getInt("FoodID");
                     String nutrientName = rs.getString("NutrientName");
                     double value = rs.getDouble("NutrientValue");
                     
-                    nutrientsMap.computeIfAbsent(foodId, k -> new HashMap<>()).put(nutrientName, value);
+                    int index = NutrientDictionary.intern(nutrientName, rs.getInt("NutrientID"));
+                    double[] vector = nutrientsMap.getOrDefault(foodId, NutrientDictionary.emptyVector());
+                    nutrientsMap.put(foodId, NutrientDictionary.put(vector, index, value));
                 }
             }
             
             // Now load food items with pre-loaded data
-            try (Statement stmt = connection.createStatement();
+            try (Statement stmt = conn.createStatement();
                  ResultSet rs = stmt.executeQuery(foodQuery)) {
                 
                 while (rs.next()) {
@@ -575,7 +924,7 @@ public class MySQLAdapter implements DatabaseAdapter {
                     double calories = caloriesMap.getOrDefault(foodId, 0.0);
                     
                     // Get pre-loaded nutrients
-                    Map<String, Double> nutrients = nutrientsMap.getOrDefault(foodId, new HashMap<>());
+                    double[] nutrients = nutrientsMap.getOrDefault(foodId, NutrientDictionary.emptyVector());
                     
                     FoodItem food = new FoodItem(foodId, name, calories, nutrients, foodGroup);
                     foods.add(food);
@@ -675,11 +1024,40 @@ public class MySQLAdapter implements DatabaseAdapter {
         return nutrients;
     }
 
+    @Override
+    public String loadFoodCatalogKey() {
+        // Live checksums of every table loadFoods reads; a full scan, so call it off the UI thread
+        String query = "CHECKSUM TABLE food_name, food_group, nutrient_amount, nutrient_name";
+        Connection conn = borrowConnection();
+        if (conn == null) {
+            System.err.println("Failed to create database connection for checking the food catalog");
+            return null;
+        }
+        try (conn;
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(query)) {
+            StringBuilder key = new StringBuilder();
+            while (rs.next()) {
+                long checksum = rs.getLong("Checksum");
+                if (rs.wasNull()) {
+                    // A missing table has no checksum
+                    return null;
+                }
+                key.append(rs.getString("Table")).append('=').append(checksum).append(';');
+            }
+            return key.toString();
+        } catch (SQLException e) {
+            System.err.println("Error checking food catalog: " + e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public List<Nutrient> loadNutrients() {
         List<Nutrient> nutrients = new ArrayList<>();
         String query = "SELECT na.FoodID, nn.NutrientName, nn.NutrientUnit, na.NutrientValue, ns.NutrientSourceDescription FROM nutrient_amount na LEFT JOIN nutrient_name nn ON na.NutrientID = nn.NutrientID LEFT JOIN nutrient_source ns ON na.NutrientSourceID = ns.NutrientSourceID";
-        try (Statement stmt = connection.createStatement();
+        try (Connection conn = borrowConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
                 int foodId = rs.getInt("FoodID");
@@ -701,8 +1079,8 @@ public class MySQLAdapter implements DatabaseAdapter {
      */
     public int getMaxUserId() {
         try {
-            // Create a new connection for this operation
-            Connection conn = connect();
+            // Borrow a pooled connection for this operation
+            Connection conn = borrowConnection();
             if (conn == null) {
                 System.err.println("Failed to create database connection for getting max user ID");
                 return 20; // Fallback default
@@ -719,7 +1097,7 @@ public class MySQLAdapter implements DatabaseAdapter {
                     }
                 }
             } finally {
-                // Always close the connection
+                // Always return the connection to the pool
                 if (conn != null && !conn.isClosed()) {
                     conn.close();
                 }
@@ -1,9 +1,15 @@
 package dao.interfaces;
 
 import model.FoodItem;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface IFoodDAO {
     List<FoodItem> loadFoods();
     FoodItem getFoodById(int foodId);
+    /** Load several foods in one batch; unknown IDs are omitted from the result */
+    List<FoodItem> getFoodsByIds(Collection<Integer> foodIds);
+    /** How many logged ingredients use each food, keyed by FoodID */
+    Map<Integer, Integer> getFoodUsageCounts();
 }
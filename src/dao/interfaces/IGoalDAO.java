@@ -41,4 +41,9 @@ public interface IGoalDAO {
      * @return true if user has goals, false otherwise
      */
     boolean hasGoals(int userId);
+    
+    /**
+     * Write any saved goals that have not reached the database yet
+     */
+    void flush();
 } 
\ No newline at end of file
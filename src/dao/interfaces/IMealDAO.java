@@ -1,10 +1,13 @@
 package dao.interfaces;
 
 import model.meal.Meal;
+import java.time.LocalDate;
 import java.util.List;
 
 public interface IMealDAO {
     List<Meal> getMealsByUserId(int userId);
+    List<Meal> getMealsInDateRange(int userId, LocalDate from, LocalDate to);
+    List<Meal> getMealsByDate(int userId, LocalDate date);
     Meal getMealById(int mealId);
     void saveMeal(Meal meal);
     void updateMeal(Meal meal);
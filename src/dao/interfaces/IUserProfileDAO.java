@@ -6,6 +6,7 @@ import java.util.List;
 public interface IUserProfileDAO {
     UserProfile getUserProfile(int userId);
     List<UserProfile> getAllUserProfiles();
+    boolean existsByName(String name);
     void saveUserProfile(UserProfile profile);
     void updateUserProfile(UserProfile profile);
     void deleteUserProfile(int userId);
@@ -1,12 +1,25 @@
 package model;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 public class FoodItem {
+    // Dictionary indices for the short names used by getNutrientValue
+    private static final int PROTEIN = NutrientDictionary.intern("Protein");
+    private static final int CARBS = NutrientDictionary.intern("Carbs");
+    private static final int FAT = NutrientDictionary.intern("Fat");
+    private static final int FIBER = NutrientDictionary.intern("Fiber");
+
     private int foodID;
     private String name;
-    private double calories; 
-    private Map<String, Double> nutrients; // Optional, can be empty
+    private double calories;
+    // Indexed by NutrientDictionary; NaN = not present. Null when no nutrients were given.
+    private double[] nutrientValues;
+    private Map<String, Double> nutrientView; // Built lazily from nutrientValues
     private String foodGroup;
 
     public FoodItem() {
@@ -18,15 +31,27 @@ public class FoodItem {
         this.name = name;
         this.foodGroup = foodGroup;
         this.calories = 0.0;
-        this.nutrients = Map.of(); // default empty
+        this.nutrientValues = NutrientDictionary.emptyVector(); // default empty
     }
 
-    // Full constructor 
+    // Full constructor
     public FoodItem(int foodID, String name, double calories, Map<String, Double> nutrients, String foodGroup) {
         this.foodID = foodID;
         this.name = name;
         this.calories = calories;
-        this.nutrients = nutrients;
+        this.nutrientValues = nutrients == null ? null : NutrientDictionary.toVector(nutrients);
+        this.foodGroup = foodGroup;
+    }
+
+    /**
+     * Construct from a nutrient vector indexed by NutrientDictionary (NaN = not present).
+     * The array is used as-is and must not be modified afterwards.
+     */
+    public FoodItem(int foodID, String name, double calories, double[] nutrientValues, String foodGroup) {
+        this.foodID = foodID;
+        this.name = name;
+        this.calories = calories;
+        this.nutrientValues = nutrientValues;
         this.foodGroup = foodGroup;
     }
 
@@ -43,8 +68,17 @@ public class FoodItem {
         return calories;
     }
 
+    /** Read-only name-keyed view of the nutrient vector */
     public Map<String, Double> getNutrients() {
-        return nutrients;
+        if (nutrientValues == null) {
+            return null;
+        }
+        Map<String, Double> view = nutrientView;
+        if (view == null) {
+            view = new NutrientMapView(nutrientValues);
+            nutrientView = view;
+        }
+        return view;
     }
 
     public String getFoodGroup() {
@@ -65,7 +99,8 @@ public class FoodItem {
     }
 
     public void setNutrients(Map<String, Double> nutrients) {
-        this.nutrients = nutrients;
+        this.nutrientValues = nutrients == null ? null : NutrientDictionary.toVector(nutrients);
+        this.nutrientView = null;
     }
 
     public void setFoodGroup(String foodGroup) {
@@ -73,20 +108,73 @@ public class FoodItem {
     }
 
     public double getNutrientValue(String nutrient) {
-        Map<String, Double> nutrients = getNutrients();
+        if (nutrient.equalsIgnoreCase("calories")) {
+            return getCalories();
+        }
+        return getNutrientValue(nutrientIndexOf(nutrient));
+    }
+
+    /**
+     * NutrientDictionary index that getNutrientValue(String) reads for a name other
+     * than "calories", so callers can resolve a name once and reuse the index.
+     */
+    public static int nutrientIndexOf(String nutrient) {
         switch (nutrient.toLowerCase()) {
-            case "calories":
-                return getCalories();
             case "protein":
-                return nutrients.getOrDefault("Protein", 0.0);
+                return PROTEIN;
             case "carbs":
-                return nutrients.getOrDefault("Carbs", 0.0);
+                return CARBS;
             case "fat":
-                return nutrients.getOrDefault("Fat", 0.0);
+                return FAT;
             case "fiber":
-                return nutrients.getOrDefault("Fiber", 0.0);
+                return FIBER;
             default:
-                return nutrients.getOrDefault(nutrient, 0.0);
+                return NutrientDictionary.indexOf(nutrient);
+        }
+    }
+
+    /** Value for a NutrientDictionary index, or 0 if this food does not list it */
+    public double getNutrientValue(int nutrientIndex) {
+        double[] values = nutrientValues;
+        if (values == null || nutrientIndex < 0 || nutrientIndex >= values.length) {
+            return 0.0;
+        }
+        double value = values[nutrientIndex];
+        return Double.isNaN(value) ? 0.0 : value;
+    }
+
+    /** Whether this food lists the nutrient at the given NutrientDictionary index */
+    public boolean hasNutrient(int nutrientIndex) {
+        double[] values = nutrientValues;
+        return values != null && nutrientIndex >= 0 && nutrientIndex < values.length
+                && !Double.isNaN(values[nutrientIndex]);
+    }
+
+    /**
+     * Add this food's nutrients, scaled by factor, into totals (indexed by NutrientDictionary).
+     * totals must be at least NutrientDictionary.size() long. Allocates nothing.
+     */
+    public void addNutrientsTo(double[] totals, double factor) {
+        addNutrientsTo(totals, null, factor);
+    }
+
+    /**
+     * Same as addNutrientsTo(totals, factor), also flagging in present (if not null)
+     * every index this food lists, so callers can tell "listed as 0" from "absent".
+     */
+    public void addNutrientsTo(double[] totals, boolean[] present, double factor) {
+        double[] values = nutrientValues;
+        if (values == null) {
+            return;
+        }
+        for (int i = 0; i < values.length; i++) {
+            double value = values[i];
+            if (!Double.isNaN(value)) {
+                totals[i] += value * factor;
+                if (present != null) {
+                    present[i] = true;
+                }
+            }
         }
     }
 
@@ -94,4 +182,84 @@ public class FoodItem {
     public String toString() {
         return name + " (Group: " + foodGroup + ")";
     }
+
+    /**
+     * Map adapter over a nutrient vector so existing Map-based callers keep working
+     */
+    private static final class NutrientMapView extends AbstractMap<String, Double> {
+        private final double[] values;
+        private final int size;
+
+        private NutrientMapView(double[] values) {
+            this.values = values;
+            int count = 0;
+            for (double value : values) {
+                if (!Double.isNaN(value)) {
+                    count++;
+                }
+            }
+            this.size = count;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Double get(Object key) {
+            if (!(key instanceof String)) {
+                return null;
+            }
+            int index = NutrientDictionary.indexOf((String) key);
+            if (index < 0 || index >= values.length || Double.isNaN(values[index])) {
+                return null;
+            }
+            return values[index];
+        }
+
+        @Override
+        public Set<Entry<String, Double>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return size;
+                }
+
+                @Override
+                public Iterator<Entry<String, Double>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            while (from < values.length && Double.isNaN(values[from])) {
+                                from++;
+                            }
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < values.length;
+                        }
+
+                        @Override
+                        public Entry<String, Double> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int index = next;
+                            next = advance(index + 1);
+                            return new SimpleImmutableEntry<>(NutrientDictionary.nameOf(index), values[index]);
+                        }
+                    };
+                }
+            };
+        }
+    }
 }
@@ -0,0 +1,125 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide dictionary that interns nutrient names to dense indices so nutrient
+ * values can be stored in plain double[] vectors instead of string-keyed maps.
+ * Names loaded from CNF also record their NutrientID (e.g. 208 for KCAL).
+ *
+ * Vectors use NaN to mark "nutrient not present", so a food that lists a
+ * nutrient with value 0 is still distinguishable from one that omits it.
+ */
+public final class NutrientDictionary {
+
+    /** CNF id recorded for names that did not come from the CNF tables */
+    public static final int UNKNOWN_CNF_ID = 0;
+
+    private static final double[] EMPTY_VECTOR = new double[0];
+
+    private static final Map<String, Integer> indexByName = new ConcurrentHashMap<>();
+    private static final Map<Integer, Integer> indexByCnfId = new ConcurrentHashMap<>();
+    private static volatile String[] names = new String[0];
+    private static volatile int[] cnfIds = new int[0];
+
+    private NutrientDictionary() {
+    }
+
+    /** Get the index for a nutrient name, assigning a new one if it has not been seen */
+    public static int intern(String name) {
+        return intern(name, UNKNOWN_CNF_ID);
+    }
+
+    /** Get the index for a nutrient name and remember its CNF NutrientID */
+    public static int intern(String name, int cnfNutrientId) {
+        Integer existing = indexByName.get(name);
+        if (existing != null && (cnfNutrientId == UNKNOWN_CNF_ID || cnfIds[existing] == cnfNutrientId)) {
+            return existing;
+        }
+        synchronized (NutrientDictionary.class) {
+            Integer index = indexByName.get(name);
+            if (index == null) {
+                index = names.length;
+                String[] grownNames = Arrays.copyOf(names, index + 1);
+                int[] grownIds = Arrays.copyOf(cnfIds, index + 1);
+                grownNames[index] = name;
+                grownIds[index] = cnfNutrientId;
+                // Publish arrays before the name so readers never see an index past their end
+                names = grownNames;
+                cnfIds = grownIds;
+                indexByName.put(name, index);
+            } else if (cnfNutrientId != UNKNOWN_CNF_ID && cnfIds[index] == UNKNOWN_CNF_ID) {
+                int[] updatedIds = cnfIds.clone();
+                updatedIds[index] = cnfNutrientId;
+                cnfIds = updatedIds;
+            }
+            if (cnfNutrientId != UNKNOWN_CNF_ID) {
+                indexByCnfId.putIfAbsent(cnfNutrientId, index);
+            }
+            return index;
+        }
+    }
+
+    /** Get the index for a nutrient name, or -1 if it has never been interned */
+    public static int indexOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer index = indexByName.get(name);
+        return index == null ? -1 : index;
+    }
+
+    /** Get the index for a CNF NutrientID, or -1 if no name was loaded with that id */
+    public static int indexOfCnfId(int cnfNutrientId) {
+        Integer index = indexByCnfId.get(cnfNutrientId);
+        return index == null ? -1 : index;
+    }
+
+    public static String nameOf(int index) {
+        return names[index];
+    }
+
+    public static int cnfIdOf(int index) {
+        return cnfIds[index];
+    }
+
+    /** Number of interned nutrients; accumulators sized to this fit every vector */
+    public static int size() {
+        return names.length;
+    }
+
+    /** Shared zero-length vector; never written to */
+    public static double[] emptyVector() {
+        return EMPTY_VECTOR;
+    }
+
+    /**
+     * Set a value in a vector, growing it (new slots are NaN) when the index is past its end.
+     * Returns the vector to keep using, which may be a new array.
+     */
+    public static double[] put(double[] vector, int index, double value) {
+        if (index >= vector.length) {
+            int oldLength = vector.length;
+            vector = Arrays.copyOf(vector, Math.max(index + 1, size()));
+            Arrays.fill(vector, oldLength, vector.length, Double.NaN);
+        }
+        vector[index] = value;
+        return vector;
+    }
+
+    /** Convert a name-keyed map to a vector; null values are treated as absent */
+    public static double[] toVector(Map<String, Double> values) {
+        if (values == null || values.isEmpty()) {
+            return EMPTY_VECTOR;
+        }
+        double[] vector = EMPTY_VECTOR;
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            if (entry.getValue() != null) {
+                vector = put(vector, intern(entry.getKey()), entry.getValue());
+            }
+        }
+        return vector;
+    }
+}
@@ -32,12 +32,12 @@ public class Meal {
     }
 
     /**
-     * Accurate calorie calculation using NutritionAnalyzer and food database
+     * Accurate calorie calculation using the food database
      */
     public double getCalories(Map<Integer, model.FoodItem> foodDatabase) {
-        backend.NutritionAnalyzer analyzer = new backend.NutritionAnalyzer(foodDatabase);
-        Map<String, Double> nutrients = analyzer.analyzeMeal(this);
-        return nutrients.getOrDefault("Calories", 0.0);
+        return new backend.MealNutritionEngine(foodDatabase)
+                .sumMeal(this, backend.MealNutritionEngine.scratch())
+                .getCalories();
     }
 
     /**
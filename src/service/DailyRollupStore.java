@@ -0,0 +1,247 @@
+package service;
+
+import backend.MealNutritionEngine;
+import dao.adapter.MealChangeListener;
+import dao.adapter.MySQLAdapter;
+import model.FoodItem;
+import model.meal.Meal;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-user daily calorie rollups for the journal summary. A user's rollup is built
+ * once from their meals, then kept current from MySQLAdapter meal events: a saved,
+ * updated or deleted meal only changes its own day. Reading the rollup costs one
+ * step per day, however many meals each day has.
+ *
+ * Every event bumps the generation of the user it concerns (or a shared one when the
+ * owner is unknown), so a rollup built while events arrived is returned but not kept.
+ */
+public class DailyRollupStore implements MealChangeListener {
+    private static DailyRollupStore instance;
+
+    private final Map<Integer, UserRollup> rollups = new HashMap<>();
+    // MealID -> owning user, for events that only carry a MealID
+    private final Map<Integer, Integer> ownerByMealId = new HashMap<>();
+    // UserID -> count of events for that user, and the count of events with no known owner
+    private final Map<Integer, Long> generations = new HashMap<>();
+    private long unownedGeneration;
+
+    public static synchronized DailyRollupStore getInstance() {
+        if (instance == null) {
+            instance = new DailyRollupStore();
+            MySQLAdapter.addMealChangeListener(instance);
+        }
+        return instance;
+    }
+
+    /**
+     * Day totals for a user, newest first. The rollup is (re)built from mealLoader only when
+     * the user has none yet, or it was computed against a different food map (e.g. the
+     * catalog was reloaded); otherwise the stored totals are returned as they are.
+     */
+    public List<DaySummary> getDays(int userId, Map<Integer, FoodItem> foods, Supplier<List<Meal>> mealLoader) {
+        long generation;
+        long unowned;
+        synchronized (this) {
+            UserRollup rollup = rollups.get(userId);
+            if (rollup != null && rollup.foods == foods) {
+                return rollup.summaries();
+            }
+            generation = generations.getOrDefault(userId, 0L);
+            unowned = unownedGeneration;
+        }
+
+        // Build outside the lock; the loader may hit the database
+        List<Meal> meals = mealLoader.get();
+        UserRollup rollup = new UserRollup(foods);
+        for (Meal meal : meals != null ? meals : Collections.<Meal>emptyList()) {
+            rollup.add(meal);
+        }
+
+        synchronized (this) {
+            if (generations.getOrDefault(userId, 0L) != generation || unownedGeneration != unowned) {
+                // An event may have missed the meals just read; don't keep a rollup that could miss it
+                return rollup.summaries();
+            }
+            dropUser(userId);
+            rollups.put(userId, rollup);
+            for (Integer mealId : rollup.dateByMealId.keySet()) {
+                ownerByMealId.put(mealId, userId);
+            }
+            return rollup.summaries();
+        }
+    }
+
+    /** Forget a user's rollup; the next getDays rebuilds it */
+    public synchronized void invalidate(int userId) {
+        touch(userId);
+        dropUser(userId);
+    }
+
+    public synchronized void clear() {
+        unownedGeneration++;
+        rollups.clear();
+        ownerByMealId.clear();
+    }
+
+    @Override
+    public synchronized void mealSaved(Meal meal) {
+        touch(meal.getUserID());
+        UserRollup rollup = rollups.get(meal.getUserID());
+        if (rollup != null) {
+            rollup.add(meal);
+            ownerByMealId.put(meal.getMealID(), meal.getUserID());
+        }
+    }
+
+    @Override
+    public synchronized void mealUpdated(Meal meal) {
+        touch(meal.getUserID());
+        Integer previousOwner = ownerByMealId.get(meal.getMealID());
+        if (previousOwner != null && previousOwner != meal.getUserID()) {
+            touch(previousOwner);
+            rollups.get(previousOwner).remove(meal.getMealID());
+            ownerByMealId.remove(meal.getMealID());
+        }
+        UserRollup rollup = rollups.get(meal.getUserID());
+        if (rollup != null) {
+            rollup.remove(meal.getMealID());
+            rollup.add(meal);
+            ownerByMealId.put(meal.getMealID(), meal.getUserID());
+        }
+    }
+
+    @Override
+    public synchronized void mealDeleted(int mealId) {
+        Integer userId = ownerByMealId.remove(mealId);
+        if (userId != null) {
+            touch(userId);
+            rollups.get(userId).remove(mealId);
+        } else {
+            unownedGeneration++;
+        }
+    }
+
+    @Override
+    public synchronized void mealChanged(int mealId) {
+        Integer userId = ownerByMealId.get(mealId);
+        if (userId != null) {
+            touch(userId);
+            dropUser(userId);
+        } else {
+            unownedGeneration++;
+        }
+    }
+
+    @Override
+    public synchronized void mealsDeleted(int userId, LocalDate date) {
+        touch(userId);
+        UserRollup rollup = rollups.get(userId);
+        if (rollup != null) {
+            rollup.removeDay(date).forEach(ownerByMealId::remove);
+        }
+    }
+
+    @Override
+    public synchronized void mealsChanged(int userId) {
+        touch(userId);
+        dropUser(userId);
+    }
+
+    private void touch(int userId) {
+        generations.merge(userId, 1L, Long::sum);
+    }
+
+    private void dropUser(int userId) {
+        UserRollup rollup = rollups.remove(userId);
+        if (rollup != null) {
+            rollup.dateByMealId.keySet().forEach(ownerByMealId::remove);
+        }
+    }
+
+    /**
+     * Totals for one day
+     */
+    public static final class DaySummary {
+        private final LocalDate date;
+        private final double calories;
+        private final int mealCount;
+
+        DaySummary(LocalDate date, double calories, int mealCount) {
+            this.date = date;
+            this.calories = calories;
+            this.mealCount = mealCount;
+        }
+
+        public LocalDate getDate() { return date; }
+        public double getCalories() { return calories; }
+        public int getMealCount() { return mealCount; }
+    }
+
+    /**
+     * One user's days, plus each meal's contribution so it can be taken back out
+     */
+    private static final class UserRollup {
+        private final Map<Integer, FoodItem> foods;
+        private final MealNutritionEngine engine;
+        private final TreeMap<LocalDate, Map<Integer, Double>> caloriesByDay = new TreeMap<>(Comparator.reverseOrder());
+        private final Map<Integer, LocalDate> dateByMealId = new HashMap<>();
+
+        private UserRollup(Map<Integer, FoodItem> foods) {
+            this.foods = foods;
+            this.engine = new MealNutritionEngine(foods);
+        }
+
+        private void add(Meal meal) {
+            if (meal.getDate() == null) {
+                return;
+            }
+            double calories = engine.sumMeal(meal, MealNutritionEngine.scratch()).getCalories();
+            caloriesByDay.computeIfAbsent(meal.getDate(), d -> new HashMap<>()).put(meal.getMealID(), calories);
+            dateByMealId.put(meal.getMealID(), meal.getDate());
+        }
+
+        private void remove(int mealId) {
+            LocalDate date = dateByMealId.remove(mealId);
+            if (date == null) {
+                return;
+            }
+            Map<Integer, Double> day = caloriesByDay.get(date);
+            day.remove(mealId);
+            if (day.isEmpty()) {
+                caloriesByDay.remove(date);
+            }
+        }
+
+        /** Remove a whole day, returning the MealIDs it held */
+        private List<Integer> removeDay(LocalDate date) {
+            Map<Integer, Double> day = caloriesByDay.remove(date);
+            if (day == null) {
+                return Collections.emptyList();
+            }
+            day.keySet().forEach(dateByMealId::remove);
+            return new ArrayList<>(day.keySet());
+        }
+
+        private List<DaySummary> summaries() {
+            List<DaySummary> summaries = new ArrayList<>(caloriesByDay.size());
+            for (Map.Entry<LocalDate, Map<Integer, Double>> day : caloriesByDay.entrySet()) {
+                double calories = 0.0;
+                for (double mealCalories : day.getValue().values()) {
+                    calories += mealCalories;
+                }
+                summaries.add(new DaySummary(day.getKey(), calories, day.getValue().size()));
+            }
+            return summaries;
+        }
+    }
+}
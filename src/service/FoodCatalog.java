@@ -0,0 +1,298 @@
+package service;
+
+import dao.adapter.DatabaseManager;
+import dao.adapter.FoodCatalogSnapshot;
+import model.FoodItem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide food catalog loaded once and shared by all panels and services.
+ * Readers always get a complete, unmodifiable snapshot; reloads build a new
+ * snapshot and swap it in atomically.
+ *
+ * The shared instance starts from the compiled catalog file when there is one, so it
+ * does not wait for MySQL; reloads go to the database and recompile the file. The file
+ * lives in the data directory (the nutrisci.data.dir system property, or ~/.nutrisci)
+ * and is checked against the database in the background after it is served; if the
+ * food tables have changed since it was written, the catalog reloads.
+ */
+public class FoodCatalog {
+    private static FoodCatalog instance;
+    // An empty catalog (database unavailable) is retried after this long
+    private static final long EMPTY_RETRY_MILLIS = 30_000;
+    private static final String DATA_DIR_PROPERTY = "nutrisci.data.dir";
+    private static final String SNAPSHOT_FILE = "food-catalog.snapshot";
+
+    private final Supplier<List<FoodItem>> loader;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile long ttlMillis; // 0 = never expires
+
+    public FoodCatalog(Supplier<List<FoodItem>> loader) {
+        this.loader = loader;
+    }
+
+    public static synchronized FoodCatalog getInstance() {
+        if (instance == null) {
+            SnapshotLoader loader = new SnapshotLoader(snapshotPath(),
+                    () -> DatabaseManager.getAdapter().loadFoods(),
+                    () -> DatabaseManager.getAdapter().loadFoodCatalogKey());
+            FoodCatalog catalog = new FoodCatalog(loader);
+            loader.setOnStale(catalog::reload);
+            instance = catalog;
+        }
+        return instance;
+    }
+
+    /**
+     * Get all foods keyed by FoodID. Loads on first use and reloads once the TTL
+     * (if set) has expired. Returns an empty map if nothing could be loaded.
+     */
+    public Map<Integer, FoodItem> getFoods() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            reloadLock.lock();
+            try {
+                snapshot = current.get();
+                if (snapshot == null) {
+                    snapshot = load();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        } else if (isExpired(snapshot) && reloadLock.tryLock()) {
+            // One caller refreshes; everyone else keeps reading the old snapshot meanwhile
+            try {
+                if (current.get() == snapshot) {
+                    snapshot = load();
+                } else {
+                    snapshot = current.get();
+                }
+            } finally {
+                reloadLock.unlock();
+            }
+        }
+        return snapshot.foods;
+    }
+
+    /** Get a single food, or null if it is not in the catalog */
+    public FoodItem getFood(int foodId) {
+        return getFoods().get(foodId);
+    }
+
+    /** Force a reload from the underlying source */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /** Reload automatically when the catalog is older than the given age; 0 disables */
+    public void setTimeToLive(long ttlMillis) {
+        this.ttlMillis = Math.max(0, ttlMillis);
+    }
+
+    public boolean isLoaded() {
+        return current.get() != null;
+    }
+
+    public int size() {
+        Snapshot snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.foods.size();
+    }
+
+    /** Incremented on every successful load */
+    public long getVersion() {
+        Snapshot snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.version;
+    }
+
+    /** Duration of the last successful load in milliseconds */
+    public long getLoadTimeMillis() {
+        Snapshot snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.loadTimeMillis;
+    }
+
+    /** Wall-clock time of the last successful load (epoch millis) */
+    public long getLoadedAt() {
+        Snapshot snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.loadedAt;
+    }
+
+    // Independent of the working directory, which depends on how the app was launched
+    private static Path snapshotPath() {
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        Path dir = dataDir != null && !dataDir.isBlank()
+                ? Paths.get(dataDir)
+                : Paths.get(System.getProperty("user.home"), ".nutrisci");
+        return dir.resolve(SNAPSHOT_FILE);
+    }
+
+    private boolean isExpired(Snapshot snapshot) {
+        long age = System.currentTimeMillis() - snapshot.loadedAt;
+        if (snapshot.foods.isEmpty()) {
+            return age > EMPTY_RETRY_MILLIS;
+        }
+        long ttl = ttlMillis;
+        return ttl > 0 && age > ttl;
+    }
+
+    // Caller must hold reloadLock
+    private Snapshot load() {
+        Snapshot previous = current.get();
+        long start = System.nanoTime();
+        List<FoodItem> foods;
+        try {
+            foods = loader.get();
+        } catch (RuntimeException e) {
+            System.err.println("Error loading food catalog: " + e.getMessage());
+            foods = List.of();
+        }
+
+        // Keep serving the previous catalog if a refresh comes back empty
+        if ((foods == null || foods.isEmpty()) && previous != null && !previous.foods.isEmpty()) {
+            System.err.println("Food catalog reload returned no foods, keeping version " + previous.version);
+            Snapshot kept = new Snapshot(previous.foods, previous.version,
+                    System.currentTimeMillis(), previous.loadTimeMillis);
+            current.set(kept);
+            return kept;
+        }
+
+        Map<Integer, FoodItem> map = new LinkedHashMap<>();
+        if (foods != null) {
+            for (FoodItem food : foods) {
+                map.put(food.getFoodID(), food);
+            }
+        }
+
+        long loadTimeMillis = (System.nanoTime() - start) / 1_000_000;
+        long version = previous == null ? 1 : previous.version + 1;
+        Snapshot snapshot = new Snapshot(Collections.unmodifiableMap(map), version,
+                System.currentTimeMillis(), loadTimeMillis);
+        current.set(snapshot);
+        System.out.println("Food catalog v" + version + " loaded: " + map.size() + " foods in " + loadTimeMillis + " ms");
+        return snapshot;
+    }
+
+    private static final class Snapshot {
+        private final Map<Integer, FoodItem> foods;
+        private final long version;
+        private final long loadedAt;
+        private final long loadTimeMillis;
+
+        private Snapshot(Map<Integer, FoodItem> foods, long version, long loadedAt, long loadTimeMillis) {
+            this.foods = foods;
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.loadTimeMillis = loadTimeMillis;
+        }
+    }
+
+    /**
+     * Loads from the snapshot file the first time, if it can be opened. Database loads
+     * (the first one without a usable file, and every reload) recompile the file and are
+     * served from it, so the nutrient values live in the mapped file instead of the heap.
+     * Only called with reloadLock held.
+     *
+     * The file records the database key it was compiled under. A file served at startup
+     * is checked against the current key in the background, and onStale runs if they
+     * differ; a key that cannot be read (database unavailable) leaves the file in use.
+     */
+    static final class SnapshotLoader implements Supplier<List<FoodItem>> {
+        private final Path path;
+        private final Supplier<List<FoodItem>> database;
+        private final Supplier<String> databaseKey;
+        private volatile Runnable onStale = () -> { };
+        private boolean triedSnapshot;
+
+        SnapshotLoader(Path path, Supplier<List<FoodItem>> database, Supplier<String> databaseKey) {
+            this.path = path;
+            this.database = database;
+            this.databaseKey = databaseKey;
+        }
+
+        void setOnStale(Runnable onStale) {
+            this.onStale = onStale;
+        }
+
+        @Override
+        public List<FoodItem> get() {
+            if (!triedSnapshot) {
+                triedSnapshot = true;
+                FoodCatalogSnapshot snapshot = openSnapshot();
+                if (snapshot != null) {
+                    checkInBackground(snapshot.getSourceKey());
+                    return snapshot.getFoods();
+                }
+            }
+
+            // Read the key first: a change made during the load then shows up as a mismatch
+            String key = readKey();
+            List<FoodItem> foods = database.get();
+            if (foods == null || foods.isEmpty()) {
+                return foods;
+            }
+            try {
+                FoodCatalogSnapshot.write(foods, path, key);
+            } catch (IOException e) {
+                System.err.println("Error writing food catalog snapshot: " + e.getMessage());
+                return foods;
+            }
+            FoodCatalogSnapshot mapped = openSnapshot();
+            return mapped != null ? mapped.getFoods() : foods;
+        }
+
+        // Returns at once; the key query scans the food tables
+        CompletableFuture<Boolean> checkInBackground(String snapshotKey) {
+            return CompletableFuture.supplyAsync(() -> {
+                String key = readKey();
+                if (key == null || key.equals(snapshotKey)) {
+                    return false;
+                }
+                System.out.println("Food catalog snapshot is out of date, reloading from the database");
+                onStale.run();
+                return true;
+            }).exceptionally(e -> {
+                System.err.println("Error checking food catalog snapshot: " + e.getMessage());
+                return false;
+            });
+        }
+
+        private String readKey() {
+            try {
+                return databaseKey.get();
+            } catch (RuntimeException e) {
+                System.err.println("Error reading food catalog key: " + e.getMessage());
+                return null;
+            }
+        }
+
+        private FoodCatalogSnapshot openSnapshot() {
+            if (!Files.exists(path)) {
+                return null;
+            }
+            try {
+                FoodCatalogSnapshot snapshot = FoodCatalogSnapshot.open(path);
+                return snapshot.size() > 0 ? snapshot : null;
+            } catch (IOException e) {
+                System.err.println("Error opening food catalog snapshot: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
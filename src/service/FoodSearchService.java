@@ -0,0 +1,143 @@
+package service;
+
+import backend.FoodSearchIndex;
+import dao.Implementations.FoodDAO;
+import dao.adapter.MealChangeListener;
+import dao.adapter.MySQLAdapter;
+import model.FoodItem;
+import model.meal.IngredientEntry;
+import model.meal.Meal;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Typo-tolerant food search: word prefixes in any order, substrings, and words within
+ * a few edits ("brocoli" finds "Broccoli, raw"). Results are ranked by match quality,
+ * then by how often the food has been logged, so common foods come first among equal matches.
+ *
+ * The index is rebuilt only when the food collection changes (a new catalog snapshot).
+ * Usage counts are shared by all instances: loaded once on the first search (from the
+ * logged ingredients by default), then counted from saved meals.
+ */
+public class FoodSearchService {
+    private static FoodSearchService instance;
+
+    private static final Map<Integer, Integer> usageCounts = new ConcurrentHashMap<>();
+    private static volatile boolean usageLoaded = false;
+
+    private final Supplier<? extends Collection<FoodItem>> foodSource;
+    private final Supplier<Map<Integer, Integer>> usageLoader;
+    private volatile Collection<FoodItem> indexedFoods;
+    private volatile FoodSearchIndex index;
+
+    /**
+     * @param foodSource foods to search; should return the same collection while the foods are unchanged
+     */
+    public FoodSearchService(Supplier<? extends Collection<FoodItem>> foodSource) {
+        this(foodSource, () -> new FoodDAO(null).getFoodUsageCounts());
+    }
+
+    /**
+     * @param foodSource foods to search; should return the same collection while the foods are unchanged
+     * @param usageLoader initial usage counts by FoodID, if none were loaded yet
+     */
+    public FoodSearchService(Supplier<? extends Collection<FoodItem>> foodSource,
+                             Supplier<Map<Integer, Integer>> usageLoader) {
+        this.foodSource = foodSource;
+        this.usageLoader = usageLoader;
+    }
+
+    /** Search over the shared food catalog */
+    public static synchronized FoodSearchService getInstance() {
+        if (instance == null) {
+            instance = new FoodSearchService(() -> FoodCatalog.getInstance().getFoods().values());
+        }
+        return instance;
+    }
+
+    /**
+     * Up to limit foods matching the query, best first
+     */
+    public List<FoodItem> search(String query, int limit) {
+        loadUsageCounts();
+        return getIndex().search(query, limit, true,
+                food -> usageCounts.getOrDefault(food.getFoodID(), 0));
+    }
+
+    /** Index over the current foods, also for lookups by ID or name */
+    public FoodSearchIndex getIndex() {
+        Collection<FoodItem> foods = foodSource.get();
+        FoodSearchIndex current = index;
+        if (current == null || indexedFoods != foods) {
+            synchronized (this) {
+                current = index;
+                if (current == null || indexedFoods != foods) {
+                    current = new FoodSearchIndex(foods);
+                    index = current;
+                    indexedFoods = foods;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** Count a food as logged once more */
+    private static void recordUse(int foodId) {
+        usageCounts.merge(foodId, 1, Integer::sum);
+    }
+
+    private void loadUsageCounts() {
+        if (usageLoaded) {
+            return;
+        }
+        synchronized (FoodSearchService.class) {
+            if (usageLoaded) {
+                return;
+            }
+            // Counted even when the database is unavailable, so searches never wait on it again
+            usageLoaded = true;
+            try {
+                usageLoader.get().forEach(
+                        (foodId, uses) -> usageCounts.merge(foodId, uses, Integer::sum));
+            } catch (RuntimeException e) {
+                System.err.println("Error loading food usage counts: " + e.getMessage());
+            }
+            MySQLAdapter.addMealChangeListener(new UsageCounter());
+        }
+    }
+
+    /**
+     * Counts the ingredients of newly saved meals. Other changes are ignored: the
+     * counts only order equally good matches, so they need not be exact.
+     */
+    private static final class UsageCounter implements MealChangeListener {
+        @Override
+        public void mealSaved(Meal meal) {
+            if (meal.getIngredients() != null) {
+                for (IngredientEntry ingredient : meal.getIngredients()) {
+                    recordUse(ingredient.getFoodID());
+                }
+            }
+        }
+
+        @Override
+        public void mealUpdated(Meal meal) { }
+
+        @Override
+        public void mealDeleted(int mealId) { }
+
+        @Override
+        public void mealChanged(int mealId) { }
+
+        @Override
+        public void mealsDeleted(int userId, LocalDate date) { }
+
+        @Override
+        public void mealsChanged(int userId) { }
+    }
+}
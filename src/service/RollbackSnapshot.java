@@ -0,0 +1,287 @@
+package service;
+
+import model.meal.IngredientEntry;
+import model.meal.Meal;
+import model.meal.MealType;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The meals a swap batch replaced, kept so the swap can be rolled back.
+ *
+ * Encoded form is "MS1:" followed by Base64 of a compact binary layout, so it fits
+ * the existing text columns:
+ *   version byte, varint meal count, then per meal: zigzag varint MealID,
+ *   varint UserID, varint date (0 = none, else zigzag epoch day + 1), MealType ordinal + 1
+ *   (0 = none), varint ingredient count, then per ingredient: varint FoodID and a
+ *   quantity tag (centigrams << 1, or 1 followed by the 8-byte double when the
+ *   quantity is not a whole number of centigrams).
+ *
+ * decode() also reads the older text formats ("ORIGINAL_MEALS:", "ORIGINAL:" and
+ * "MealID:...;Ingredients:...") so rows written before the codec still restore.
+ */
+public final class RollbackSnapshot {
+
+    public static final String PREFIX = "MS1:";
+    private static final int VERSION = 1;
+
+    private final List<Meal> meals;
+    private final Map<Integer, Meal> mealsById = new LinkedHashMap<>();
+    private final Map<MealType, Meal> mealsByType = new EnumMap<>(MealType.class);
+
+    private RollbackSnapshot(List<Meal> meals) {
+        this.meals = Collections.unmodifiableList(meals);
+        for (Meal meal : meals) {
+            if (meal.getMealID() > 0) {
+                mealsById.putIfAbsent(meal.getMealID(), meal);
+            }
+            if (meal.getType() != null) {
+                mealsByType.putIfAbsent(meal.getType(), meal);
+            }
+        }
+    }
+
+    /** Snapshot of the given meals; ingredient lists are copied */
+    public static RollbackSnapshot of(List<Meal> meals) {
+        List<Meal> copies = new ArrayList<>(meals.size());
+        for (Meal meal : meals) {
+            copies.add(new Meal(meal.getMealID(), meal.getUserID(), meal.getDate(), meal.getType(),
+                    meal.getIngredients() == null ? new ArrayList<>() : new ArrayList<>(meal.getIngredients())));
+        }
+        return new RollbackSnapshot(copies);
+    }
+
+    public List<Meal> getMeals() {
+        return meals;
+    }
+
+    public boolean isEmpty() {
+        return meals.isEmpty();
+    }
+
+    /**
+     * The original of the given meal: matched by MealID, then by meal type (the
+     * legacy day format has no IDs), then the only meal of a single-meal snapshot.
+     * Returns null when nothing matches.
+     */
+    public Meal findMeal(int mealId, MealType type) {
+        Meal meal = mealsById.get(mealId);
+        if (meal == null && type != null) {
+            meal = mealsByType.get(type);
+        }
+        if (meal == null && meals.size() == 1) {
+            meal = meals.get(0);
+        }
+        return meal;
+    }
+
+    public String encode() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + meals.size() * 32);
+        out.write(VERSION);
+        writeVarint(out, meals.size());
+        for (Meal meal : meals) {
+            writeVarint(out, zigzag(meal.getMealID()));
+            writeVarint(out, meal.getUserID());
+            writeVarint(out, meal.getDate() == null ? 0 : zigzag(meal.getDate().toEpochDay()) + 1);
+            out.write(meal.getType() == null ? 0 : meal.getType().ordinal() + 1);
+            writeVarint(out, meal.getIngredients().size());
+            for (IngredientEntry ingredient : meal.getIngredients()) {
+                writeVarint(out, ingredient.getFoodID());
+                writeQuantity(out, ingredient.getQuantity());
+            }
+        }
+        return PREFIX + Base64.getEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    /**
+     * Decode stored rollback data in any supported format. Returns an empty snapshot
+     * for null, blank or unreadable data.
+     */
+    public static RollbackSnapshot decode(String data) {
+        if (data == null || data.isBlank()) {
+            return new RollbackSnapshot(new ArrayList<>());
+        }
+        try {
+            if (data.startsWith(PREFIX)) {
+                return decodeBinary(Base64.getDecoder().decode(data.substring(PREFIX.length())));
+            }
+            return new RollbackSnapshot(LegacyParser.parse(data));
+        } catch (RuntimeException e) {
+            System.err.println("Error decoding rollback snapshot: " + e.getMessage());
+            return new RollbackSnapshot(new ArrayList<>());
+        }
+    }
+
+    private static RollbackSnapshot decodeBinary(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        int version = in.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        }
+        int mealCount = (int) readVarint(in);
+        List<Meal> meals = new ArrayList<>(mealCount);
+        for (int m = 0; m < mealCount; m++) {
+            int mealId = (int) unzigzag(readVarint(in));
+            int userId = (int) readVarint(in);
+            long date = readVarint(in);
+            int type = in.get() & 0xFF;
+            int ingredientCount = (int) readVarint(in);
+            List<IngredientEntry> ingredients = new ArrayList<>(ingredientCount);
+            for (int i = 0; i < ingredientCount; i++) {
+                int foodId = (int) readVarint(in);
+                ingredients.add(new IngredientEntry(foodId, readQuantity(in)));
+            }
+            meals.add(new Meal(mealId, userId, date == 0 ? null : LocalDate.ofEpochDay(unzigzag(date - 1)),
+                    type == 0 ? null : MealType.values()[type - 1], ingredients));
+        }
+        return new RollbackSnapshot(meals);
+    }
+
+    private static void writeQuantity(ByteArrayOutputStream out, double quantity) {
+        double centigrams = quantity * 100.0;
+        long whole = Math.round(centigrams);
+        if (whole >= 0 && whole < (1L << 40) && whole / 100.0 == quantity) {
+            writeVarint(out, whole << 1);
+        } else {
+            out.write(1);
+            long bits = Double.doubleToLongBits(quantity);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (bits >>> shift));
+            }
+        }
+    }
+
+    private static double readQuantity(ByteBuffer in) {
+        long tag = readVarint(in);
+        if ((tag & 1) == 0) {
+            return (tag >>> 1) / 100.0;
+        }
+        return in.getDouble();
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reader for the text formats written before the codec existed
+     */
+    private static final class LegacyParser {
+
+        static List<Meal> parse(String data) {
+            if (data.startsWith("ORIGINAL_MEALS:")) {
+                return parseDay(data);
+            }
+            if (data.startsWith("ORIGINAL:")) {
+                // "ORIGINAL:foodId,qty;foodId,qty;" for one meal whose ID and type are implied
+                return List.of(new Meal(-1, 0, null, null, parsePairs(data.substring("ORIGINAL:".length()))));
+            }
+            if (data.contains("Ingredients:")) {
+                return List.of(parseKeyValue(data));
+            }
+            throw new IllegalArgumentException("Unknown rollback data format");
+        }
+
+        // "ORIGINAL_MEALS:\nMEAL:TYPE:\n  FOOD:id:qty\n..." for a whole day, meals identified by type
+        private static List<Meal> parseDay(String data) {
+            List<Meal> meals = new ArrayList<>();
+            MealType type = null;
+            List<IngredientEntry> ingredients = null;
+            for (String line : data.split("\n")) {
+                if (line.startsWith("MEAL:")) {
+                    if (ingredients != null) {
+                        meals.add(new Meal(-1, 0, null, type, ingredients));
+                    }
+                    String typeName = line.substring(5);
+                    if (typeName.endsWith(":")) {
+                        typeName = typeName.substring(0, typeName.length() - 1);
+                    }
+                    type = MealType.valueOf(typeName.trim());
+                    ingredients = new ArrayList<>();
+                } else if (line.trim().startsWith("FOOD:") && ingredients != null) {
+                    String[] parts = line.trim().substring(5).split(":");
+                    if (parts.length >= 2) {
+                        ingredients.add(new IngredientEntry(Integer.parseInt(parts[0]), Double.parseDouble(parts[1])));
+                    }
+                }
+            }
+            if (ingredients != null) {
+                meals.add(new Meal(-1, 0, null, type, ingredients));
+            }
+            return meals;
+        }
+
+        // "MealID:123;UserID:1;Date:2025-07-27;Type:BREAKFAST;Ingredients:123,100;456,200;"
+        private static Meal parseKeyValue(String data) {
+            int mealId = -1;
+            int userId = 0;
+            LocalDate date = null;
+            MealType type = null;
+            int ingredientsAt = data.indexOf("Ingredients:");
+            for (String part : data.substring(0, ingredientsAt).split(";")) {
+                int colon = part.indexOf(':');
+                if (colon < 0) continue;
+                String key = part.substring(0, colon).trim();
+                String value = part.substring(colon + 1).trim();
+                switch (key) {
+                    case "MealID" -> mealId = Integer.parseInt(value);
+                    case "UserID" -> userId = Integer.parseInt(value);
+                    case "Date" -> date = LocalDate.parse(value);
+                    case "Type" -> type = MealType.valueOf(value);
+                    default -> { }
+                }
+            }
+            List<IngredientEntry> ingredients = parsePairs(data.substring(ingredientsAt + "Ingredients:".length()));
+            return new Meal(mealId, userId, date, type, ingredients);
+        }
+
+        // "id,qty;id,qty;" or "id,qty,id,qty" (both were written)
+        private static List<IngredientEntry> parsePairs(String pairs) {
+            List<IngredientEntry> ingredients = new ArrayList<>();
+            List<String> tokens = new ArrayList<>();
+            for (String token : pairs.split("[;,]")) {
+                if (!token.isBlank()) {
+                    tokens.add(token.trim());
+                }
+            }
+            for (int i = 0; i + 1 < tokens.size(); i += 2) {
+                ingredients.add(new IngredientEntry(Integer.parseInt(tokens.get(i)),
+                        Double.parseDouble(tokens.get(i + 1))));
+            }
+            return ingredients;
+        }
+    }
+}
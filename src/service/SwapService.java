@@ -1,6 +1,10 @@
 package service;
 
+import backend.MealNutritionEngine;
+import backend.MealNutritionEngine.NutrientTotals;
+import backend.SwapCandidateIndex;
 import backend.SwapEngine;
+import dao.Implementations.DailyNutrientTotalsDAO;
 import dao.Implementations.MealDAO;
 import dao.Implementations.SwapStatusDAO;
 import dao.adapter.DatabaseAdapter;
@@ -8,21 +12,43 @@ import dao.adapter.MySQLAdapter;
 import model.Goal;
 import model.meal.IngredientEntry;
 import model.meal.Meal;
-import model.meal.MealType;
 import model.SwapSuggestion;
 import model.FoodItem;
 
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class SwapService {
     private SwapEngine swapEngine;
     private MealDAO mealDAO;
     private SwapStatusDAO swapStatusDAO;
+    private DailyNutrientTotalsDAO dailyTotalsDAO;
+    private DatabaseAdapter databaseAdapter;
     private Map<Integer, FoodItem> foodDatabase;
     
-    // Simple hardcoded max user ID for now
-    private static final int MAX_USER_ID = 1000;
+    // Days written per batch in applyMealPlanToDateRange; progress is reported after each
+    private static final int RANGE_BATCH_DAYS = 7;
+    
+    // Alternatives kept per goal so the batch merge has fallbacks when the best is taken
+    private static final int BATCH_ALTERNATIVES_PER_GOAL = 5;
+    // Bounded pool for batch suggestion generation, shared by all SwapService instances
+    private static final ForkJoinPool SUGGESTION_POOL =
+            new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+    // Recently stored or decoded rollback snapshots by snapshot ID
+    private static final int SNAPSHOT_CACHE_SIZE = 64;
+    private static final Map<Integer, RollbackSnapshot> snapshotCache =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, RollbackSnapshot> eldest) {
+                    return size() > SNAPSHOT_CACHE_SIZE;
+                }
+            };
     
     public SwapService() {
         this.swapEngine = new SwapEngine();
@@ -32,8 +58,22 @@ public class SwapService {
         // This will be set later via setDatabaseAdapter method
         this.swapStatusDAO = null; // Will be initialized when database adapter is set
         
-        this.foodDatabase = new HashMap<>(); // In real app, load from database
-        initializeMockFoodDatabase();
+    }
+    
+    /**
+     * Food data used for suggestions and nutrient totals: the shared catalog,
+     * or a small mock set when the database is unavailable
+     */
+    private Map<Integer, FoodItem> getFoodDatabase() {
+        Map<Integer, FoodItem> catalog = FoodCatalog.getInstance().getFoods();
+        if (!catalog.isEmpty()) {
+            return catalog;
+        }
+        if (foodDatabase == null) {
+            foodDatabase = new HashMap<>();
+            initializeMockFoodDatabase();
+        }
+        return foodDatabase;
     }
     
     /**
@@ -45,7 +85,9 @@ public class SwapService {
         System.out.println("DatabaseAdapter: " + (databaseAdapter != null ? "NOT NULL" : "NULL"));
         
         if (databaseAdapter != null) {
+            this.databaseAdapter = databaseAdapter;
             this.swapStatusDAO = new SwapStatusDAO(databaseAdapter);
+            this.dailyTotalsDAO = new DailyNutrientTotalsDAO(databaseAdapter);
             System.out.println("SwapStatusDAO initialized successfully");
         } else {
             System.out.println("Warning: DatabaseAdapter is null, SwapStatusDAO not initialized");
@@ -116,6 +158,98 @@ public class SwapService {
         return modifiedCount;
     }
     
+    /**
+     * Receives progress of a long-running operation
+     */
+    public interface ProgressListener {
+        void onProgress(int done, int total);
+    }
+    
+    /**
+     * Copy a day's (swapped) meals onto every date from startDate to endDate, replacing the
+     * meals already logged there. The replaced meals are snapshotted per date, and the copies
+     * on each date are marked as swapped so they can be rolled back to them. Everything runs
+     * in one transaction, so either the whole range is written or nothing changes.
+     * @param userId User ID
+     * @param startDate First date to write
+     * @param endDate Last date to write (inclusive)
+     * @param template Meals to copy onto each date
+     * @param progress Told the number of days written so far (may be null)
+     * @return The saved copies with their MealIDs, or null if the range could not be written
+     */
+    public List<Meal> applyMealPlanToDateRange(int userId, LocalDate startDate, LocalDate endDate,
+                                               List<Meal> template, ProgressListener progress) {
+        if (databaseAdapter == null || swapStatusDAO == null) {
+            System.err.println("Warning: DatabaseAdapter not set, cannot apply meal plan to date range");
+            return null;
+        }
+        
+        int totalDays = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        List<Meal> copies = new ArrayList<>();
+        
+        try (Connection conn = databaseAdapter.borrowConnection()) {
+            if (conn == null) {
+                System.err.println("Failed to create database connection for applying meal plan");
+                return null;
+            }
+            
+            // Before the transaction: creating the table would commit it part way through
+            SwapStatusDAO.ensureSnapshotTable(conn);
+            conn.setAutoCommit(false);
+            try {
+                int daysDone = 0;
+                List<Meal> replaced = new ArrayList<>();
+                for (LocalDate from = startDate; !from.isAfter(endDate); from = from.plusDays(RANGE_BATCH_DAYS)) {
+                    LocalDate to = from.plusDays(RANGE_BATCH_DAYS - 1);
+                    if (to.isAfter(endDate)) {
+                        to = endDate;
+                    }
+                    // Snapshot what is there before it is deleted, under the same transaction's locks
+                    replaced.addAll(databaseAdapter.loadMealsForUpdate(conn, userId, from, to));
+                    copies.addAll(databaseAdapter.replaceMealsInRange(conn, userId, from, to, template));
+                    daysDone += (int) ChronoUnit.DAYS.between(from, to) + 1;
+                    if (progress != null) {
+                        progress.onProgress(daysDone, totalDays);
+                    }
+                }
+                
+                // The replaced meals are gone, and so is their swap status
+                swapStatusDAO.deleteSwapStatus(conn, userId, replaced);
+                
+                // Each date's copies roll back to the meals they replaced on that date. Copies on a
+                // date that had no meals have nothing to roll back to, so they are not marked.
+                Map<LocalDate, List<Meal>> replacedByDate = new TreeMap<>();
+                for (Meal meal : replaced) {
+                    replacedByDate.computeIfAbsent(meal.getDate(), date -> new ArrayList<>()).add(meal);
+                }
+                Map<LocalDate, List<Meal>> copiesByDate = new HashMap<>();
+                for (Meal copy : copies) {
+                    copiesByDate.computeIfAbsent(copy.getDate(), date -> new ArrayList<>()).add(copy);
+                }
+                for (Map.Entry<LocalDate, List<Meal>> day : replacedByDate.entrySet()) {
+                    List<Meal> dayCopies = copiesByDate.get(day.getKey());
+                    if (dayCopies == null) {
+                        continue;
+                    }
+                    int snapshotId = swapStatusDAO.saveSnapshot(conn, userId, RollbackSnapshot.of(day.getValue()).encode());
+                    swapStatusDAO.markMealsAsSwapped(conn, userId, dayCopies,
+                            SwapStatusDAO.SNAPSHOT_REFERENCE_PREFIX + snapshotId);
+                }
+                
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error applying meal plan to date range: " + e.getMessage());
+            return null;
+        }
+        
+        System.out.println("Applied " + template.size() + " meals to " + totalDays + " days (" + copies.size() + " meals written)");
+        return copies;
+    }
+    
     /**
      * Generate swap suggestions for a meal based on user goals
      * @param meal The meal to analyze
@@ -127,7 +261,72 @@ public class SwapService {
             return new ArrayList<>();
         }
         
-        return swapEngine.generateSwaps(goals, meal.getIngredients(), foodDatabase);
+        return swapEngine.generateSwaps(goals, meal.getIngredients(), getFoodDatabase());
+    }
+    
+    /**
+     * Generate swap suggestions for many meals at once (e.g. a month of meals).
+     * Each meal is ranked in parallel against one read-only food snapshot; a sequential
+     * merge then walks the meals in order and, per goal, takes the best alternative whose
+     * replacement food was not already suggested for an earlier meal, falling back to the
+     * best one when all are taken. The result does not depend on the number of threads.
+     * @param meals Meals to analyze
+     * @param goals User's nutrition goals
+     * @return Suggestions for each meal, in the same order as meals
+     */
+    public List<List<SwapSuggestion>> generateSuggestionsForMeals(List<Meal> meals, List<Goal> goals) {
+        return generateSuggestionsForMeals(swapEngine, meals, goals, getFoodDatabase(), SUGGESTION_POOL);
+    }
+    
+    // The pool is a parameter so the result can be compared across thread counts
+    static List<List<SwapSuggestion>> generateSuggestionsForMeals(SwapEngine engine, List<Meal> meals,
+                                                                  List<Goal> goals, Map<Integer, FoodItem> foods,
+                                                                  ForkJoinPool pool) {
+        SwapCandidateIndex.forFoods(foods); // Build the shared index once, before fanning out
+        
+        // Phase 1: rank alternatives per meal, independently and in parallel
+        List<List<List<SwapSuggestion>>> ranked;
+        try {
+            ranked = pool.submit(() -> IntStream.range(0, meals.size())
+                    .parallel()
+                    .mapToObj(i -> rankAlternatives(engine, meals.get(i), goals, foods))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Batch swap generation interrupted: " + e.getMessage());
+            return new ArrayList<>();
+        } catch (ExecutionException e) {
+            System.err.println("Error generating batch swap suggestions: " + e.getCause());
+            return new ArrayList<>();
+        }
+        
+        // Phase 2: resolve cross-meal de-duplication in meal order
+        Set<Integer> usedAlternatives = new HashSet<>();
+        List<List<SwapSuggestion>> result = new ArrayList<>(meals.size());
+        for (List<List<SwapSuggestion>> mealRanking : ranked) {
+            List<SwapSuggestion> mealSuggestions = new ArrayList<>();
+            for (List<SwapSuggestion> goalRanking : mealRanking) {
+                SwapSuggestion chosen = goalRanking.get(0);
+                for (SwapSuggestion alternative : goalRanking) {
+                    if (!usedAlternatives.contains(alternative.getReplacement().getFoodID())) {
+                        chosen = alternative;
+                        break;
+                    }
+                }
+                usedAlternatives.add(chosen.getReplacement().getFoodID());
+                mealSuggestions.add(chosen);
+            }
+            result.add(mealSuggestions);
+        }
+        return result;
+    }
+    
+    private static List<List<SwapSuggestion>> rankAlternatives(SwapEngine engine, Meal meal, List<Goal> goals,
+                                                               Map<Integer, FoodItem> foods) {
+        if (meal.getIngredients() == null || meal.getIngredients().isEmpty()) {
+            return List.of();
+        }
+        return engine.rankSwaps(goals, meal.getIngredients(), foods, BATCH_ALTERNATIVES_PER_GOAL);
     }
     
     /**
@@ -160,13 +359,28 @@ public class SwapService {
     }
     
     /**
-     * Get cumulative nutrition data for a date range
+     * Get cumulative nutrition data for a date range, read from the daily nutrient
+     * totals when the database is available
      * @param userId User ID
      * @param startDate Start date
      * @param endDate End date
      * @return Cumulative nutrition data
      */
     public Map<String, Double> getCumulativeNutrition(int userId, LocalDate startDate, LocalDate endDate) {
+        if (dailyTotalsDAO != null) {
+            Map<String, Double> totals = dailyTotalsDAO.getTotals(userId, startDate, endDate);
+            if (totals != null) {
+                // Same nutrients calculateNutrients reports for each meal
+                Map<String, Double> cumulative = new HashMap<>();
+                if (!totals.isEmpty()) {
+                    for (String nutrient : List.of("Calories", "Protein", "Carbs", "Fat", "Fiber")) {
+                        cumulative.put(nutrient, totals.getOrDefault(nutrient, 0.0));
+                    }
+                }
+                return cumulative;
+            }
+        }
+        
         List<Meal> meals = getMealsInDateRange(userId, startDate, endDate);
         Map<String, Double> cumulative = new HashMap<>();
         
@@ -191,30 +405,23 @@ public class SwapService {
                 System.err.println("Warning: SwapStatusDAO not initialized, cannot store rollback data");
                 return;
             }
+            if (originalMeals.isEmpty()) {
+                return;
+            }
             
             System.out.println("DEBUG: Storing rollback data for " + originalMeals.size() + " meals on date " + date);
             
-            StringBuilder rollbackData = new StringBuilder();
-            rollbackData.append("ORIGINAL_MEALS:");
-            
-            for (Meal meal : originalMeals) {
-                System.out.println("DEBUG: Adding meal " + meal.getType() + " with " + meal.getIngredients().size() + " ingredients");
-                rollbackData.append("\nMEAL:").append(meal.getType().name()).append(":");
-                for (IngredientEntry ingredient : meal.getIngredients()) {
-                    rollbackData.append("\n  FOOD:").append(ingredient.getFoodID())
-                               .append(":").append(ingredient.getQuantity());
-                    System.out.println("DEBUG: Added ingredient FoodID:" + ingredient.getFoodID() + " Quantity:" + ingredient.getQuantity());
-                }
+            // One snapshot for the whole batch; every meal's row refers to it
+            int userId = originalMeals.get(0).getUserID();
+            RollbackSnapshot snapshot = RollbackSnapshot.of(originalMeals);
+            if (storeSnapshot(userId, originalMeals, snapshot)) {
+                return;
             }
             
-            String data = rollbackData.toString();
-            System.out.println("Storing detailed rollback data for date " + date);
-            System.out.println("DEBUG: Complete rollback data: " + data);
-            
-            // Store in database for each meal
+            // The snapshot table cannot be written: each row carries the encoded snapshot itself
+            String data = snapshot.encode();
             LocalDate localDate = LocalDate.parse(date);
             for (Meal meal : originalMeals) {
-                System.out.println("DEBUG: Storing rollback data for meal " + meal.getType() + " (ID: " + meal.getMealID() + ")");
                 swapStatusDAO.markMealAsSwapped(meal.getUserID(), meal.getMealID(), localDate, data);
             }
             
@@ -223,12 +430,87 @@ public class SwapService {
         }
     }
     
+    /**
+     * Store a rollback snapshot of the given meals and mark each of them as swapped with a
+     * reference to it, in one transaction on one connection
+     * @return true if both were written, false if nothing was
+     */
+    private boolean storeSnapshot(int userId, List<Meal> originalMeals, RollbackSnapshot snapshot) {
+        if (databaseAdapter == null) {
+            return false;
+        }
+        
+        int snapshotId;
+        try (Connection conn = databaseAdapter.borrowConnection()) {
+            if (conn == null) {
+                System.err.println("Failed to create database connection for storing rollback snapshot");
+                return false;
+            }
+            
+            // Before the transaction: creating the table would commit it part way through
+            SwapStatusDAO.ensureSnapshotTable(conn);
+            conn.setAutoCommit(false);
+            try {
+                snapshotId = swapStatusDAO.saveSnapshot(conn, userId, snapshot.encode());
+                swapStatusDAO.markMealsAsSwapped(conn, userId, originalMeals,
+                        SwapStatusDAO.SNAPSHOT_REFERENCE_PREFIX + snapshotId);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error storing rollback snapshot: " + e.getMessage());
+            return false;
+        }
+        
+        synchronized (snapshotCache) {
+            snapshotCache.put(snapshotId, snapshot);
+        }
+        return true;
+    }
+    
+    /**
+     * Decode the original_meal_data of a swap_status row: a snapshot reference, an
+     * inline snapshot, or one of the older text formats. Decoded snapshots are cached
+     * by ID, so the rows of one batch share a single decode. Never returns null.
+     */
+    public RollbackSnapshot resolveRollbackSnapshot(String originalMealData) {
+        if (originalMealData == null || !originalMealData.startsWith(SwapStatusDAO.SNAPSHOT_REFERENCE_PREFIX)) {
+            return RollbackSnapshot.decode(originalMealData);
+        }
+        
+        int snapshotId;
+        try {
+            snapshotId = Integer.parseInt(originalMealData.substring(SwapStatusDAO.SNAPSHOT_REFERENCE_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Error reading snapshot reference: " + e.getMessage());
+            return RollbackSnapshot.decode(null);
+        }
+        synchronized (snapshotCache) {
+            RollbackSnapshot cachedSnapshot = snapshotCache.get(snapshotId);
+            if (cachedSnapshot != null) {
+                return cachedSnapshot;
+            }
+        }
+        
+        RollbackSnapshot snapshot = RollbackSnapshot.decode(
+                swapStatusDAO != null ? swapStatusDAO.loadSnapshot(snapshotId) : null);
+        if (!snapshot.isEmpty()) {
+            synchronized (snapshotCache) {
+                snapshotCache.put(snapshotId, snapshot);
+            }
+        }
+        return snapshot;
+    }
+    
     /**
      * Get rollback data for a specific date
+     * @param userId The user whose swap to roll back
      * @param date The date for which to get rollback data
      * @return The rollback data, or null if not found
      */
-    public String getRollbackData(String date) {
+    public String getRollbackData(int userId, String date) {
         try {
             if (swapStatusDAO == null) {
                 System.err.println("Warning: SwapStatusDAO not initialized, cannot get rollback data");
@@ -237,24 +519,19 @@ public class SwapService {
             
             LocalDate localDate = LocalDate.parse(date);
             
-            // Use hardcoded max user ID for simplicity
-            System.out.println("DEBUG: Searching for rollback data in user range 1-" + MAX_USER_ID);
-            
-            // Try to find swapped meals for different user IDs
-            for (int userId = 1; userId <= MAX_USER_ID; userId++) {
-                List<Integer> swappedMealIds = swapStatusDAO.getSwappedMealIds(userId, localDate);
-                if (!swappedMealIds.isEmpty()) {
-                    System.out.println("Found swapped meals for user " + userId + " on date " + date);
-                    // Get the rollback data from the first swapped meal (all meals have the same complete data)
-                    String rollbackData = swapStatusDAO.getOriginalMealData(userId, swappedMealIds.get(0), localDate);
-                    if (rollbackData != null && !rollbackData.isEmpty()) {
-                        System.out.println("Retrieved rollback data: " + rollbackData.substring(0, Math.min(100, rollbackData.length())) + "...");
-                    }
-                    return rollbackData;
+            // One indexed query for the user's swapped meals on this date
+            List<SwapStatusDAO.SwapStatusRecord> swappedMeals = swapStatusDAO.getSwappedMealsOnDate(localDate, userId);
+            if (!swappedMeals.isEmpty()) {
+                System.out.println("Found swapped meals for user " + userId + " on date " + date);
+                // Get the rollback data from the first swapped meal (all meals have the same complete data)
+                String rollbackData = swapStatusDAO.getOriginalMealData(userId, swappedMeals.get(0).getMealId(), localDate);
+                if (rollbackData != null && !rollbackData.isEmpty()) {
+                    System.out.println("Retrieved rollback data: " + rollbackData.substring(0, Math.min(100, rollbackData.length())) + "...");
                 }
+                return rollbackData;
             }
             
-            System.out.println("No swapped meals found for date " + date + " in any user (searched up to user " + MAX_USER_ID + ")");
+            System.out.println("No swapped meals found for user " + userId + " on date " + date);
             
         } catch (Exception e) {
             System.err.println("Error getting rollback data: " + e.getMessage());
@@ -277,105 +554,34 @@ public class SwapService {
                 return;
             }
             
-            // Parse rollback data to get original meal information
-            if (rollbackData != null && rollbackData.startsWith("ORIGINAL_MEALS:")) {
-                // Parse the detailed rollback data
-                String[] lines = rollbackData.split("\n");
-                
-                // Find the meal type for this specific meal ID
-                // We need to get the original date first
-                LocalDate originalDate = null;
-                try {
-                    // Get the original date from the meal
-                    Meal currentMeal = getMealById(mealId, userId);
-                    if (currentMeal != null) {
-                        originalDate = currentMeal.getDate();
-                    } else {
-                        System.err.println("Could not find meal with ID: " + mealId);
-                        return;
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error getting original date: " + e.getMessage());
-                    return;
-                }
-                
-                // Parse rollback data to find the correct meal based on meal type
-                String targetMealType = null;
-                List<IngredientEntry> originalIngredients = new ArrayList<>();
-                
-                // First, get the current meal type to know which meal to restore
-                Meal currentMeal = getMealById(mealId, userId);
-                if (currentMeal != null) {
-                    targetMealType = currentMeal.getType().name();
-                    System.out.println("Looking for meal type: " + targetMealType + " for meal ID: " + mealId);
-                } else {
-                    System.err.println("Could not determine meal type for meal ID: " + mealId);
-                    return;
-                }
-                
-                // Parse rollback data to find the matching meal type
-                boolean foundTargetMeal = false;
-                String currentMealType = "";
-                List<IngredientEntry> currentIngredients = new ArrayList<>();
-                
-                for (String line : lines) {
-                    if (line.startsWith("MEAL:")) {
-                        // If we found a new meal and we were processing the target meal, break
-                        if (foundTargetMeal && currentMealType.equals(targetMealType)) {
-                            break;
-                        }
-                        
-                        // Remove "MEAL:" prefix and any trailing colon
-                        String mealTypeStr = line.substring(5);
-                        if (mealTypeStr.endsWith(":")) {
-                            mealTypeStr = mealTypeStr.substring(0, mealTypeStr.length() - 1);
-                        }
-                        currentMealType = mealTypeStr;
-                        currentIngredients.clear(); // Clear previous meal's ingredients
-                        System.out.println("Parsed meal type: " + currentMealType);
-                        
-                        // Check if this is the meal we're looking for
-                        if (currentMealType.equals(targetMealType)) {
-                            foundTargetMeal = true;
-                        }
-                    } else if (line.startsWith("  FOOD:") && foundTargetMeal && currentMealType.equals(targetMealType)) {
-                        String[] parts = line.substring(7).split(":"); // Remove "  FOOD:" prefix
-                        if (parts.length >= 2) {
-                            int foodId = Integer.parseInt(parts[0]);
-                            double quantity = Double.parseDouble(parts[1]);
-                            currentIngredients.add(new IngredientEntry(foodId, quantity));
-                        }
-                    }
-                }
-                
-                // Use the ingredients we found for the target meal
-                if (foundTargetMeal && !currentIngredients.isEmpty()) {
-                    originalIngredients = new ArrayList<>(currentIngredients);
-                    System.out.println("Found target meal: " + targetMealType + " with " + originalIngredients.size() + " ingredients");
-                } else {
-                    System.err.println("Could not find target meal type: " + targetMealType + " in rollback data");
-                    return;
-                }
-                
-                // Create original meal with parsed data and original date
-                Meal originalMeal = new Meal(mealId, userId, originalDate, 
-                    MealType.valueOf(targetMealType), originalIngredients);
-                
-                System.out.println("Restoring meal " + mealId + " to original state:");
-                System.out.println("  Date: " + originalDate);
-                System.out.println("  Type: " + targetMealType);
-                System.out.println("  Ingredients: " + originalIngredients.size());
-                
-                // Update the meal in database
-                mealDAO.updateMeal(originalMeal);
-                
-                // Mark meal as restored in swap status table
-                swapStatusDAO.markMealAsRestored(userId, mealId, originalDate);
-                
-                System.out.println("Successfully restored original meal " + mealId + " with " + originalIngredients.size() + " ingredients");
-            } else {
-                System.err.println("Invalid rollback data format");
+            // The current meal gives the date and type to restore into
+            Meal currentMeal = getMealById(mealId, userId);
+            if (currentMeal == null) {
+                System.err.println("Could not find meal with ID: " + mealId);
+                return;
             }
+            
+            Meal original = resolveRollbackSnapshot(rollbackData).findMeal(mealId, currentMeal.getType());
+            if (original == null || original.getIngredients().isEmpty()) {
+                System.err.println("Could not find meal " + mealId + " (" + currentMeal.getType() + ") in rollback data");
+                return;
+            }
+            
+            Meal originalMeal = new Meal(mealId, userId, currentMeal.getDate(), currentMeal.getType(),
+                    new ArrayList<>(original.getIngredients()));
+            
+            System.out.println("Restoring meal " + mealId + " to original state:");
+            System.out.println("  Date: " + originalMeal.getDate());
+            System.out.println("  Type: " + originalMeal.getType());
+            System.out.println("  Ingredients: " + originalMeal.getIngredients().size());
+            
+            // Update the meal in database
+            mealDAO.updateMeal(originalMeal);
+            
+            // Mark meal as restored in swap status table
+            swapStatusDAO.markMealAsRestored(userId, mealId, originalMeal.getDate());
+            
+            System.out.println("Successfully restored original meal " + mealId + " with " + originalMeal.getIngredients().size() + " ingredients");
         } catch (Exception e) {
             System.err.println("Error restoring original meal: " + e.getMessage());
             e.printStackTrace();
@@ -488,23 +694,13 @@ public class SwapService {
     // Helper methods
     private Meal getMealById(int mealId, int userId) {
         try {
-            // First try to get the meal directly using MealDAO
+            // Primary-key lookup, served from the meal cache on repeated swaps/restores
             Meal meal = mealDAO.getMealById(mealId);
-            if (meal != null) {
-                return meal;
-            }
-            
-            // If not found, try to get all meals for the user and find the one with matching mealId
-            List<Meal> userMeals = mealDAO.getMealsByUserId(userId);
-            if (userMeals != null) {
-                for (Meal userMeal : userMeals) {
-                    if (userMeal.getMealID() == mealId) {
-                        return userMeal;
-                    }
-                }
+            if (meal == null) {
+                System.err.println("Meal not found: " + mealId + " for user: " + userId);
+                return null;
             }
-            System.err.println("Meal not found: " + mealId + " for user: " + userId);
-            return null;
+            return meal;
         } catch (Exception e) {
             System.err.println("Error getting meal by ID: " + e.getMessage());
             return null;
@@ -512,8 +708,8 @@ public class SwapService {
     }
     
     private List<Meal> getMealsInDateRange(int userId, LocalDate startDate, LocalDate endDate) {
-        // Mock implementation - in real app, use DAO
-        return new ArrayList<>();
+        List<Meal> meals = mealDAO.getMealsInDateRange(userId, startDate, endDate);
+        return meals != null ? meals : new ArrayList<>();
     }
     
     private Meal createModifiedMeal(Meal originalMeal, List<SwapSuggestion> suggestions) {
@@ -542,32 +738,14 @@ public class SwapService {
             return nutrients;
         }
         
-        double totalCalories = 0;
-        double totalProtein = 0;
-        double totalCarbs = 0;
-        double totalFat = 0;
-        double totalFiber = 0;
-        
-        for (IngredientEntry ingredient : meal.getIngredients()) {
-            FoodItem food = foodDatabase.get(ingredient.getFoodID());
-            if (food != null) {
-                double quantity = ingredient.getQuantity() / 100.0; // Convert to 100g basis
-                totalCalories += food.getCalories() * quantity;
-                
-                // Get nutrients from the nutrients map
-                Map<String, Double> foodNutrients = food.getNutrients();
-                totalProtein += foodNutrients.getOrDefault("Protein", 0.0) * quantity;
-                totalCarbs += foodNutrients.getOrDefault("Carbs", 0.0) * quantity;
-                totalFat += foodNutrients.getOrDefault("Fat", 0.0) * quantity;
-                totalFiber += foodNutrients.getOrDefault("Fiber", 0.0) * quantity;
-            }
-        }
+        NutrientTotals totals = new MealNutritionEngine(getFoodDatabase())
+                .sumMeal(meal, MealNutritionEngine.scratch());
         
-        nutrients.put("Calories", totalCalories);
-        nutrients.put("Protein", totalProtein);
-        nutrients.put("Carbs", totalCarbs);
-        nutrients.put("Fat", totalFat);
-        nutrients.put("Fiber", totalFiber);
+        nutrients.put("Calories", totals.getCalories());
+        nutrients.put("Protein", totals.get("Protein"));
+        nutrients.put("Carbs", totals.get("Carbs"));
+        nutrients.put("Fat", totals.get("Fat"));
+        nutrients.put("Fiber", totals.get("Fiber"));
         
         return nutrients;
     }
@@ -625,17 +803,14 @@ public class SwapService {
                 return;
             }
             
-            StringBuilder mealData = new StringBuilder();
-            mealData.append("ORIGINAL:"); // Simplified prefix
-            
-            for (IngredientEntry ingredient : originalMeal.getIngredients()) {
-                mealData.append(ingredient.getFoodID()).append(",").append(ingredient.getQuantity()).append(";");
+            RollbackSnapshot snapshot = RollbackSnapshot.of(List.of(originalMeal));
+            System.out.println("DEBUG: Storing original meal data for meal " + originalMeal.getMealID());
+            if (storeSnapshot(originalMeal.getUserID(), List.of(originalMeal), snapshot)) {
+                return;
             }
             
-            String data = mealData.toString();
-            System.out.println("DEBUG: Storing original meal data for meal " + originalMeal.getMealID() + ": " + data);
-            
-            boolean success = swapStatusDAO.markMealAsSwapped(originalMeal.getUserID(), originalMeal.getMealID(), originalMeal.getDate(), data);
+            // The snapshot table cannot be written: the row carries the encoded snapshot itself
+            boolean success = swapStatusDAO.markMealAsSwapped(originalMeal.getUserID(), originalMeal.getMealID(), originalMeal.getDate(), snapshot.encode());
             if (!success) {
                 System.err.println("Warning: Failed to mark meal " + originalMeal.getMealID() + " as swapped");
             }
@@ -668,6 +843,25 @@ public class SwapService {
         return null;
     }
     
+    /**
+     * Get the original (pre-swap) version of a meal
+     * @param meal The current meal
+     * @param userId The user ID
+     * @return The original meal with the current meal's ID, date and type, or null if not found
+     */
+    public Meal getOriginalMeal(Meal meal, int userId) {
+        String data = getOriginalMealData(meal.getMealID(), userId, meal.getDate());
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+        Meal original = resolveRollbackSnapshot(data).findMeal(meal.getMealID(), meal.getType());
+        if (original == null) {
+            return null;
+        }
+        return new Meal(meal.getMealID(), meal.getUserID(), meal.getDate(), meal.getType(),
+                new ArrayList<>(original.getIngredients()));
+    }
+    
 
     
     // Inner classes for data structures
@@ -1,101 +1,112 @@
 package service;
 
 import dao.adapter.DatabaseAdapter;
-import dao.adapter.MySQLAdapter;
+import dao.adapter.DatabaseManager;
 import model.user.UserProfile;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Singleton class to manage user profiles.
+ *
+ * Profiles are cached by UserID in load order. Writes go to the database first and
+ * then to the cache, and a lookup that misses the cache reads that one profile by key,
+ * so switching profiles never rescans the whole table.
  */
 public class UserProfileManager {
     private static UserProfileManager instance;
-    private ArrayList<UserProfile> profiles;
+    private final Map<Integer, UserProfile> profiles = new LinkedHashMap<>();
     private final DatabaseAdapter db;
     private UserProfile currentProfile;
 
     private UserProfileManager() {
-        db = new MySQLAdapter(); // or swap in a different adapter like CSV/JSON
-        db.connect();
-        profiles = new ArrayList<>();
+        db = DatabaseManager.getAdapter(); // or swap in a different adapter like CSV/JSON
         loadProfiles();
     }
 
-    public static UserProfileManager getInstance() {
+    public static synchronized UserProfileManager getInstance() {
         if (instance == null) {
             instance = new UserProfileManager();
         }
         return instance;
     }
 
-    public void addProfile(UserProfile p) {
+    public synchronized void addProfile(UserProfile p) {
         // Don't save to database here, assume it's already saved
-        profiles.add(p);
+        profiles.put(p.getUserID(), p);
         if (currentProfile == null) {
             currentProfile = p;
         }
     }
-    
-    public void addProfileAndSave(UserProfile p) {
+
+    public synchronized void addProfileAndSave(UserProfile p) {
         db.saveProfile(p);
-        profiles.add(p);
-        if (currentProfile == null) {
-            currentProfile = p;
-        }
+        addProfile(p);
     }
 
-    public UserProfile getProfile(int id) {
-        for (UserProfile p : profiles) {
-            if (p.getUserID() == id) return p;
+    /** The cached profile, or the one read from the database by key if it is not cached yet */
+    public synchronized UserProfile getProfile(int id) {
+        UserProfile p = profiles.get(id);
+        if (p == null) {
+            p = db.loadProfile(id);
+            if (p != null) {
+                profiles.put(id, p);
+            }
         }
-        return null;
+        return p;
     }
 
-    public void loadProfiles() {
+    public synchronized void loadProfiles() {
         List<UserProfile> loaded = db.loadProfiles();
-        profiles = new ArrayList<>(loaded);
-        if (!profiles.isEmpty()) {
-            currentProfile = profiles.get(0); // default selection
+        profiles.clear();
+        for (UserProfile p : loaded) {
+            profiles.put(p.getUserID(), p);
+        }
+        if (!loaded.isEmpty()) {
+            currentProfile = loaded.get(0); // default selection
         }
     }
 
-    public ArrayList<UserProfile> getProfiles() {
-        return profiles;
+    /** A copy of the cached profiles, in load order */
+    public synchronized ArrayList<UserProfile> getProfiles() {
+        return new ArrayList<>(profiles.values());
     }
 
-    public void saveProfile(UserProfile p) {
+    public synchronized void saveProfile(UserProfile p) {
         db.saveProfile(p);
-        for (int i = 0; i < profiles.size(); i++) {
-            if (profiles.get(i).getUserID() == p.getUserID()) {
-                profiles.set(i, p); // update local list
-                break;
-            }
-        }
+        profiles.put(p.getUserID(), p); // update local cache
     }
 
-    public void setCurrentProfile(int id) {
-        for (UserProfile p : profiles) {
-            if (p.getUserID() == id) {
-                currentProfile = p;
-                break;
-            }
+    public synchronized void setCurrentProfile(int id) {
+        UserProfile p = getProfile(id);
+        if (p != null) {
+            currentProfile = p;
         }
     }
 
-    public UserProfile getCurrentProfile() {
+    public synchronized UserProfile getCurrentProfile() {
         return currentProfile;
     }
 
-    public void removeCurrentProfile() {
+    public synchronized void removeCurrentProfile() {
         if (currentProfile != null) {
-            profiles.removeIf(p -> p.getUserID() == currentProfile.getUserID());
+            profiles.remove(currentProfile.getUserID());
+            currentProfile = null;
+        }
+    }
+
+    /** Forget a deleted profile, clearing the current profile if it is that one */
+    public synchronized void removeProfile(int id) {
+        profiles.remove(id);
+        if (currentProfile != null && currentProfile.getUserID() == id) {
             currentProfile = null;
         }
     }
 
-    public void clearCurrentProfile() {
+    public synchronized void clearCurrentProfile() {
         // Only clear the current profile reference, don't remove from profiles list
         currentProfile = null;
     }
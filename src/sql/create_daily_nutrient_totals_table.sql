@@ -0,0 +1,25 @@
+-- Daily nutrient totals: each user's intake per day and CNF nutrient, summed from
+-- meal, ingredient and nutrient_amount (values per 100g, quantities in grams).
+-- MySQLAdapter keeps the affected days current on every meal write; the primary key
+-- serves "totals / average daily intake between D1 and D2" as one range aggregate.
+CREATE TABLE IF NOT EXISTS daily_nutrient_totals (
+    user_id INT NOT NULL,
+    date DATE NOT NULL,
+    nutrient_id INT NOT NULL,
+    amount DOUBLE NOT NULL,
+    PRIMARY KEY (user_id, date, nutrient_id)
+);
+
+-- Backfill (safe to re-run): rebuild every row from the logged meals
+START TRANSACTION;
+DELETE FROM daily_nutrient_totals;
+INSERT INTO daily_nutrient_totals (user_id, date, nutrient_id, amount)
+SELECT m.UserID, m.Date, na.NutrientID, SUM(i.Quantity * na.NutrientValue / 100)
+FROM meal m
+JOIN ingredient i ON i.MealID = m.MealID
+JOIN nutrient_amount na ON na.FoodID = i.FoodID
+GROUP BY m.UserID, m.Date, na.NutrientID;
+COMMIT;
+
+-- Show the table structure
+DESCRIBE daily_nutrient_totals;
@@ -0,0 +1,21 @@
+-- Index for a user's meals in a date range, read with their ingredients:
+--   SELECT ... FROM meal m LEFT JOIN ingredient i ON i.MealID = m.MealID
+--   WHERE m.UserID = ? AND m.Date BETWEEN ? AND ?
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so only create it when it is missing
+SET @index_exists = (
+    SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'meal'
+      AND index_name = 'idx_meal_user_date'
+);
+
+SET @create_index = IF(@index_exists = 0,
+    'CREATE INDEX idx_meal_user_date ON meal (UserID, Date)',
+    'SELECT ''idx_meal_user_date already exists''');
+
+PREPARE stmt FROM @create_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Show the indexes
+SHOW INDEX FROM meal;
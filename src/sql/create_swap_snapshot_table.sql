@@ -0,0 +1,13 @@
+-- Rollback snapshots: the original meals of one swap batch, stored once.
+-- swap_status.original_meal_data refers to a row here as 'SNAPSHOT:<snapshot_id>'.
+-- snapshot_data holds the RollbackSnapshot encoding ('MS1:' + Base64).
+CREATE TABLE IF NOT EXISTS swap_snapshot (
+    snapshot_id INT AUTO_INCREMENT PRIMARY KEY,
+    user_id INT NOT NULL,
+    snapshot_data MEDIUMTEXT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_swap_snapshot_user (user_id)
+);
+
+-- Show the table structure
+DESCRIBE swap_snapshot;
@@ -0,0 +1,20 @@
+-- Covering index for "swapped meals on a date", optionally for one user:
+--   SELECT user_id, meal_id FROM swap_status WHERE date = ? AND is_swapped = TRUE [AND user_id = ?]
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so only create it when it is missing
+SET @index_exists = (
+    SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'swap_status'
+      AND index_name = 'idx_swap_status_date_swapped_user_meal'
+);
+
+SET @create_index = IF(@index_exists = 0,
+    'CREATE INDEX idx_swap_status_date_swapped_user_meal ON swap_status (date, is_swapped, user_id, meal_id)',
+    'SELECT ''idx_swap_status_date_swapped_user_meal already exists''');
+
+PREPARE stmt FROM @create_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Show the indexes
+SHOW INDEX FROM swap_status;
@@ -0,0 +1,21 @@
+-- Index for looking a profile up by name, e.g. the duplicate check when creating one:
+--   SELECT UserName FROM user_profile WHERE UserName = ?
+-- Lookups by UserID already use the primary key.
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so only create it when it is missing
+SET @index_exists = (
+    SELECT COUNT(*) FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'user_profile'
+      AND index_name = 'idx_user_profile_name'
+);
+
+SET @create_index = IF(@index_exists = 0,
+    'CREATE INDEX idx_user_profile_name ON user_profile (UserName)',
+    'SELECT ''idx_user_profile_name already exists''');
+
+PREPARE stmt FROM @create_index;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Show the indexes
+SHOW INDEX FROM user_profile;
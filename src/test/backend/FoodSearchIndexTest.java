@@ -0,0 +1,216 @@
+package backend;
+
+import model.FoodItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FoodSearchIndexTest {
+
+    private static final List<FoodItem> FOODS = List.of(
+            new FoodItem(1, "Cheese, cheddar, shredded", "Dairy"),
+            new FoodItem(2, "Cheese", "Dairy"),
+            new FoodItem(3, "Cheeseburger, plain", "Fast Foods"),
+            new FoodItem(4, "Broccoli, raw", "Vegetables"),
+            new FoodItem(5, "Chicken, broiler, roasted", "Poultry"),
+            new FoodItem(6, "Soup, cream of broccoli and cheese", "Soups"),
+            new FoodItem(7, "Macaroni and cheese, boxed", "Mixed Dishes"),
+            new FoodItem(8, "Chop suey, with meat, canned", "Mixed Dishes"));
+
+    @Test
+    public void testRanksExactThenPrefixThenWordThenSubstring() {
+        FoodSearchIndex index = new FoodSearchIndex(FOODS);
+        // Exact, name prefix (shorter first), then later-word matches (shorter first)
+        assertEquals(List.of(2, 3, 1, 7, 6), ids(index.search("cheese", 10)));
+        // "eese" starts no word, so only the trigram substring search finds these
+        assertEquals(Set.of(1, 2, 3, 6, 7), new HashSet<>(ids(index.search("eese", 10))));
+        assertEquals(List.of(1), ids(index.search("shredded ched", 10)));
+        assertEquals(List.of(2, 3), ids(index.search("CHEESE", 2)));
+    }
+
+    @Test
+    public void testBlankAndUnmatchedQueries() {
+        FoodSearchIndex index = new FoodSearchIndex(FOODS);
+        assertTrue(index.search("", 10).isEmpty());
+        assertTrue(index.search("   ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+        assertTrue(index.search("cheese", 0).isEmpty());
+        assertTrue(index.search("xyz", 10).isEmpty());
+        assertTrue(new FoodSearchIndex(List.of()).search("cheese", 10, true, null).isEmpty());
+    }
+
+    @Test
+    public void testFuzzyMatchesTyposAfterExactMatches() {
+        FoodSearchIndex index = new FoodSearchIndex(FOODS);
+        assertTrue(index.search("brocoli", 10).isEmpty());
+        assertEquals(List.of(4, 6), ids(index.search("brocoli", 10, true, null)));
+        assertEquals(List.of(5), ids(index.search("chiken roasted", 10, true, null)));
+        // Words of three letters or fewer tolerate no typos
+        assertTrue(index.search("chp", 10, true, null).isEmpty());
+
+        List<Integer> mixed = ids(index.search("broccoli", 10, true, null));
+        assertEquals(List.of(4, 6), mixed.subList(0, 2));
+    }
+
+    @Test
+    public void testPopularityBreaksTiesWithinARank() {
+        FoodSearchIndex index = new FoodSearchIndex(FOODS);
+        Map<Integer, Integer> uses = Map.of(7, 5, 6, 1);
+        List<Integer> found = ids(index.search("cheese", 10, false, food -> uses.getOrDefault(food.getFoodID(), 0)));
+        assertEquals(List.of(2, 3, 1, 7, 6), found);
+        Map<Integer, Integer> favourSoup = Map.of(6, 9);
+        assertEquals(List.of(2, 3, 1, 6, 7),
+                ids(index.search("cheese", 10, false, food -> favourSoup.getOrDefault(food.getFoodID(), 0))));
+    }
+
+    @Test
+    public void testEditDistanceMatchesFullTable() {
+        Random random = new Random(19);
+        for (int round = 0; round < 2_000; round++) {
+            String a = randomWord(random, 0, 9);
+            String b = randomWord(random, 0, 9);
+            int expected = levenshtein(a, b);
+            for (int limit = 0; limit <= 4; limit++) {
+                assertEquals(Math.min(expected, limit + 1), FoodSearchIndex.editDistance(a, b, limit), a + " / " + b);
+            }
+        }
+    }
+
+    @Test
+    public void testSearchAgreesWithBruteForce() {
+        Random random = new Random(20);
+        List<FoodItem> foods = new ArrayList<>();
+        for (int id = 1; id <= 400; id++) {
+            StringBuilder name = new StringBuilder();
+            int wordCount = 1 + random.nextInt(4);
+            for (int w = 0; w < wordCount; w++) {
+                if (w > 0) {
+                    name.append(random.nextBoolean() ? ", " : " ");
+                }
+                name.append(randomWord(random, 2, 9));
+            }
+            foods.add(new FoodItem(id, name.toString(), "Group"));
+        }
+        FoodSearchIndex index = new FoodSearchIndex(foods);
+
+        for (int round = 0; round < 300; round++) {
+            // Queries taken from real names, then cut, joined or mistyped
+            String source = foods.get(random.nextInt(foods.size())).getName().toLowerCase();
+            String query;
+            switch (random.nextInt(4)) {
+                case 0 -> query = source.substring(random.nextInt(source.length()));
+                case 1 -> query = source.substring(0, 1 + random.nextInt(source.length()));
+                case 2 -> query = mistype(random, source);
+                default -> query = randomWord(random, 3, 6);
+            }
+
+            Set<Integer> exact = new HashSet<>();
+            Set<Integer> all = new HashSet<>();
+            for (FoodItem food : foods) {
+                if (matches(food.getName(), query, false)) {
+                    exact.add(food.getFoodID());
+                }
+                if (matches(food.getName(), query, true)) {
+                    all.add(food.getFoodID());
+                }
+            }
+
+            assertEquals(exact, new HashSet<>(ids(index.search(query, foods.size()))), query);
+            List<Integer> fuzzy = ids(index.search(query, foods.size(), true, null));
+            assertEquals(all, new HashSet<>(fuzzy), query);
+            // Every exact match ranks ahead of every typo match
+            assertEquals(exact, new HashSet<>(fuzzy.subList(0, exact.size())), query);
+        }
+    }
+
+    // The matching rules from the index's class comment, checked food by food
+    private static boolean matches(String name, String query, boolean fuzzy) {
+        String lowerName = name.toLowerCase();
+        String lowerQuery = query.toLowerCase().trim();
+        if (lowerQuery.isEmpty()) {
+            return false;
+        }
+        if (lowerQuery.length() >= 3 && lowerName.contains(lowerQuery)) {
+            return true;
+        }
+        String[] queryWords = words(lowerQuery);
+        if (queryWords.length == 0) {
+            return false;
+        }
+        String[] nameWords = words(lowerName);
+        for (String queryWord : queryWords) {
+            boolean found = false;
+            for (String nameWord : nameWords) {
+                if (nameWord.startsWith(queryWord)
+                        || fuzzy && queryWord.length() > 3
+                        && levenshtein(queryWord, nameWord) <= (queryWord.length() <= 7 ? 1 : 2)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] words(String lower) {
+        String spaced = lower.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return spaced.isEmpty() ? new String[0] : spaced.split(" ");
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    d[i][j] = i + j;
+                } else {
+                    d[i][j] = Math.min(d[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                            Math.min(d[i - 1][j], d[i][j - 1]) + 1);
+                }
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+
+    private static String mistype(Random random, String text) {
+        StringBuilder typo = new StringBuilder(text);
+        int edits = 1 + random.nextInt(2);
+        for (int e = 0; e < edits && typo.length() > 1; e++) {
+            int at = random.nextInt(typo.length());
+            switch (random.nextInt(3)) {
+                case 0 -> typo.deleteCharAt(at);
+                case 1 -> typo.insert(at, (char) ('a' + random.nextInt(6)));
+                default -> typo.setCharAt(at, (char) ('a' + random.nextInt(6)));
+            }
+        }
+        return typo.toString();
+    }
+
+    // Small alphabet so names share words, prefixes and near misses
+    private static String randomWord(Random random, int minLength, int maxLength) {
+        StringBuilder word = new StringBuilder();
+        int length = minLength + random.nextInt(maxLength - minLength + 1);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(6)));
+        }
+        return word.toString();
+    }
+
+    private static List<Integer> ids(List<FoodItem> foods) {
+        List<Integer> ids = new ArrayList<>();
+        for (FoodItem food : foods) {
+            ids.add(food.getFoodID());
+        }
+        return ids;
+    }
+}
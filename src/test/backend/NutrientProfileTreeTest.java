@@ -0,0 +1,134 @@
+package backend;
+
+import model.FoodItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NutrientProfileTreeTest {
+
+    private static final List<String> NUTRIENTS = List.of("calories", "protein", "carbs", "fat", "fiber");
+
+    @Test
+    public void testRangeQueryMatchesBruteForce() {
+        Random random = new Random(8);
+        int partial = 0;
+        for (int size : new int[]{0, 1, 2, 7, 100, 1_000}) {
+            List<FoodItem> foods = randomFoods(random, size);
+            NutrientProfileTree tree = new NutrientProfileTree(foods, NUTRIENTS);
+            assertEquals(size, tree.size());
+            for (int round = 0; round < 200; round++) {
+                double[] min = new double[NUTRIENTS.size()];
+                double[] max = new double[NUTRIENTS.size()];
+                randomBox(random, foods, min, max);
+                Set<Integer> expected = bruteForce(foods, min, max);
+                assertEquals(expected, query(tree, min, max), "size " + size + ", round " + round);
+                if (!expected.isEmpty() && expected.size() < size) {
+                    partial++;
+                }
+            }
+        }
+        // The boxes must actually cut through the data for the comparison to mean anything
+        assertTrue(partial > 300, "partial results: " + partial);
+    }
+
+    @Test
+    public void testPointQueryFindsEveryFoodWithThatProfile() {
+        Random random = new Random(88);
+        List<FoodItem> foods = randomFoods(random, 500);
+        NutrientProfileTree tree = new NutrientProfileTree(foods, NUTRIENTS);
+        for (int i = 0; i < foods.size(); i++) {
+            double[] point = profile(foods.get(i));
+            Set<Integer> found = query(tree, point, point);
+            assertTrue(found.contains(i), "food " + i);
+            assertEquals(bruteForce(foods, point, point), found);
+        }
+    }
+
+    @Test
+    public void testUnboundedQueryReportsEveryFoodOnce() {
+        List<FoodItem> foods = randomFoods(new Random(888), 300);
+        NutrientProfileTree tree = new NutrientProfileTree(foods, NUTRIENTS);
+        double[] min = new double[NUTRIENTS.size()];
+        double[] max = new double[NUTRIENTS.size()];
+        Arrays.fill(min, Double.NEGATIVE_INFINITY);
+        Arrays.fill(max, Double.POSITIVE_INFINITY);
+
+        List<Integer> reported = new ArrayList<>();
+        tree.rangeQuery(min, max, reported::add);
+        assertEquals(foods.size(), reported.size());
+        assertEquals(foods.size(), new TreeSet<>(reported).size());
+    }
+
+    private static Set<Integer> query(NutrientProfileTree tree, double[] min, double[] max) {
+        Set<Integer> found = new TreeSet<>();
+        tree.rangeQuery(min, max, position -> assertTrue(found.add(position), "reported twice: " + position));
+        return found;
+    }
+
+    private static Set<Integer> bruteForce(List<FoodItem> foods, double[] min, double[] max) {
+        Set<Integer> found = new TreeSet<>();
+        for (int i = 0; i < foods.size(); i++) {
+            double[] point = profile(foods.get(i));
+            boolean inside = true;
+            for (int d = 0; d < point.length; d++) {
+                inside &= point[d] >= min[d] && point[d] <= max[d];
+            }
+            if (inside) {
+                found.add(i);
+            }
+        }
+        return found;
+    }
+
+    private static double[] profile(FoodItem food) {
+        double[] point = new double[NUTRIENTS.size()];
+        for (int d = 0; d < point.length; d++) {
+            point[d] = food.getNutrientValue(NUTRIENTS.get(d));
+        }
+        return point;
+    }
+
+    // Coarse values so many foods tie on a split value; fiber is constant in small sets
+    private static List<FoodItem> randomFoods(Random random, int count) {
+        List<FoodItem> foods = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            Map<String, Double> nutrients = Map.of(
+                    "Protein", (double) random.nextInt(30),
+                    "Carbs", random.nextInt(20) * 2.5,
+                    "Fat", random.nextDouble() * 40,
+                    "Fiber", count < 10 ? 3.0 : random.nextInt(3));
+            foods.add(new FoodItem(id, "Food " + id, random.nextInt(60) * 10.0, nutrients, "Group"));
+        }
+        return foods;
+    }
+
+    // Bounds on a few dimensions, taken from food values so edges land exactly on points
+    private static void randomBox(Random random, List<FoodItem> foods, double[] min, double[] max) {
+        for (int d = 0; d < min.length; d++) {
+            min[d] = Double.NEGATIVE_INFINITY;
+            max[d] = Double.POSITIVE_INFINITY;
+            if (foods.isEmpty() || random.nextInt(3) == 0) {
+                continue;
+            }
+            double a = profile(foods.get(random.nextInt(foods.size())))[d];
+            double b = profile(foods.get(random.nextInt(foods.size())))[d];
+            switch (random.nextInt(3)) {
+                case 0 -> min[d] = Math.min(a, b);
+                case 1 -> max[d] = Math.max(a, b);
+                default -> {
+                    min[d] = Math.min(a, b);
+                    max[d] = Math.max(a, b);
+                }
+            }
+        }
+    }
+}
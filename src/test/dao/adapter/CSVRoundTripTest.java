@@ -0,0 +1,165 @@
+package dao.adapter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CSVRoundTripTest {
+
+    @Test
+    public void testQuotedFieldsRoundTrip() throws IOException {
+        List<String[]> records = List.of(
+                new String[]{"FoodID", "FoodDescription", "FoodCode"},
+                new String[]{"1", "Chop suey, with meat, canned", "a"},
+                new String[]{"2", "Say \"cheese\"", "\"\""},
+                new String[]{"3", "first line\nsecond line", "crlf\r\ninside"},
+                new String[]{"4", "", "trailing,"});
+
+        String text = write(records);
+        assertTrue(text.contains("\"Chop suey, with meat, canned\""));
+        assertTrue(text.contains("\"Say \"\"cheese\"\"\""));
+        assertTrue(text.contains("\"\"\"\"\"\""));
+
+        assertRecordsEqual(records, read(text));
+    }
+
+    @Test
+    public void testPlainFieldsAreNotQuoted() throws IOException {
+        assertEquals("a,b c,1.5\n", write(List.<String[]>of(new String[]{"a", "b c", "1.5"})));
+    }
+
+    @Test
+    public void testEmbeddedNewlineKeepsLineNumbers() throws IOException {
+        CSVReader reader = new CSVReader(new StringReader("a,\"x\ny\nz\"\nb,c\n"));
+        assertTrue(reader.nextRecord());
+        assertEquals(1, reader.getLineNumber());
+        assertEquals("x\ny\nz", reader.field(1));
+        assertTrue(reader.nextRecord());
+        assertEquals(4, reader.getLineNumber());
+        assertEquals("b", reader.field(0));
+        assertFalse(reader.nextRecord());
+    }
+
+    @Test
+    public void testReaderHandlesCrlfBlankLinesAndByteOrderMark() throws IOException {
+        List<String[]> records = read("\uFEFFa,b\r\n\r\n\nc,\"d\"\r\n");
+        assertRecordsEqual(List.of(new String[]{"a", "b"}, new String[]{"c", "d"}), records);
+    }
+
+    @Test
+    public void testEmptyFieldsAndMissingFinalNewline() throws IOException {
+        assertRecordsEqual(List.<String[]>of(new String[]{"", "", "x"}), read(",,x"));
+        assertRecordsEqual(List.<String[]>of(new String[]{"a", ""}), read("a,\n"));
+    }
+
+    @Test
+    public void testStrayQuoteInUnquotedFieldIsKept() throws IOException {
+        assertRecordsEqual(List.<String[]>of(new String[]{"5\" pie", "b"}), read("5\" pie,b\n"));
+    }
+
+    @Test
+    public void testFieldIndexOutOfRange() throws IOException {
+        CSVReader reader = new CSVReader(new StringReader("a,b\n"));
+        assertTrue(reader.nextRecord());
+        assertEquals(2, reader.fieldCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> reader.field(2));
+    }
+
+    @Test
+    public void testNumberFields() throws IOException {
+        StringWriter out = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(out)) {
+            writer.field(-42L).field(0L).field(Long.MIN_VALUE).endRecord();
+            writer.field(1.005, 2).field(-1.25, 1).field(2.5, 0).field(3.14159, 4).field(0.1).endRecord();
+        }
+        assertEquals("-42,0," + Long.MIN_VALUE + "\n"
+                + "1.01,-1.3,3,3.1416,0.1\n", out.toString());
+    }
+
+    @Test
+    public void testRandomRecordsRoundTripThroughFile() throws IOException {
+        Random random = new Random(4180);
+        char[] alphabet = {'a', 'b', ' ', ',', '"', '\n', '\r', 'é', '1'};
+        List<String[]> records = new ArrayList<>();
+        for (int r = 0; r < 2_000; r++) {
+            String[] record = new String[1 + random.nextInt(6)];
+            for (int f = 0; f < record.length; f++) {
+                StringBuilder field = new StringBuilder();
+                int length = random.nextInt(r % 50 == 0 ? 200 : 12);
+                for (int i = 0; i < length; i++) {
+                    field.append(alphabet[random.nextInt(alphabet.length)]);
+                }
+                record[f] = field.toString();
+            }
+            if (record.length == 1 && record[0].isEmpty()) {
+                // A lone empty field is written as a blank line, which the reader skips
+                record[0] = "x";
+            }
+            records.add(record);
+        }
+
+        // Large enough that records straddle the 64K buffer boundaries
+        Path file = Files.createTempFile("csv-round-trip", ".csv");
+        try {
+            try (CSVWriter writer = CSVWriter.open(file)) {
+                for (String[] record : records) {
+                    writer.record(record);
+                }
+            }
+            List<String[]> read = new ArrayList<>();
+            try (CSVReader reader = CSVReader.open(file)) {
+                while (reader.nextRecord()) {
+                    read.add(current(reader));
+                }
+            }
+            assertRecordsEqual(records, read);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String write(List<String[]> records) throws IOException {
+        StringWriter out = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(out)) {
+            for (String[] record : records) {
+                writer.record(record);
+            }
+        }
+        return out.toString();
+    }
+
+    private static List<String[]> read(String text) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new StringReader(text))) {
+            while (reader.nextRecord()) {
+                records.add(current(reader));
+            }
+        }
+        return records;
+    }
+
+    private static String[] current(CSVReader reader) {
+        String[] record = new String[reader.fieldCount()];
+        for (int i = 0; i < record.length; i++) {
+            record[i] = reader.field(i);
+        }
+        return record;
+    }
+
+    private static void assertRecordsEqual(List<String[]> expected, List<String[]> actual) {
+        assertEquals(expected.size(), actual.size(), "record count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i), "record " + i + ": " + Arrays.toString(actual.get(i)));
+        }
+    }
+}
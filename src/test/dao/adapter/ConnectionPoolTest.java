@@ -0,0 +1,310 @@
+package dao.adapter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Permit and slot accounting of ConnectionPool, against an in-memory JDBC driver that
+ * can be told to fail
+ */
+public class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:pooltest:db";
+    private static final long MAX_WAIT_MILLIS = 200;
+
+    private static final StubDriver driver = new StubDriver();
+    private ConnectionPool pool;
+
+    @BeforeAll
+    public static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(driver);
+    }
+
+    @AfterAll
+    public static void deregisterDriver() throws SQLException {
+        DriverManager.deregisterDriver(driver);
+    }
+
+    @BeforeEach
+    public void resetDriver() {
+        driver.open.set(0);
+        driver.peak.set(0);
+        driver.connectFailures.set(0);
+        driver.runtimeFailures = false;
+        driver.rollbackFails = false;
+    }
+
+    @AfterEach
+    public void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailedConnectReturnsItsPermit() throws SQLException {
+        pool = newPool(2);
+        driver.connectFailures.set(5);
+        for (int i = 0; i < 5; i++) {
+            assertThrows(SQLException.class, pool::borrow);
+        }
+
+        // Both permits and both slots are still there
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        assertTimesOut();
+        first.close();
+        second.close();
+        assertEquals(0, pool.getMetrics().getActive());
+        assertEquals(2, pool.getMetrics().getCreatedCount());
+    }
+
+    @Test
+    public void testDriverRuntimeExceptionReturnsItsPermit() throws SQLException {
+        pool = newPool(1);
+        driver.runtimeFailures = true;
+        driver.connectFailures.set(3);
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalStateException.class, pool::borrow);
+        }
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+        }
+    }
+
+    @Test
+    public void testBorrowTimesOutWhenExhaustedAndCloseReturnsThePermit() throws SQLException {
+        pool = newPool(2);
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        assertTimesOut();
+        assertEquals(1, pool.getMetrics().getTimeoutCount());
+
+        first.close();
+        Connection third = pool.borrow();
+        assertEquals(2, pool.getMetrics().getActive());
+        assertEquals(2, driver.open.get(), "the returned connection is reused");
+        second.close();
+        third.close();
+        assertEquals(2, pool.getMetrics().getIdle());
+    }
+
+    @Test
+    public void testClosingAHandleTwiceReturnsOnePermit() throws SQLException {
+        pool = newPool(1);
+        Connection connection = pool.borrow();
+        connection.close();
+        connection.close();
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, () -> connection.setAutoCommit(false));
+
+        Connection next = pool.borrow();
+        assertTimesOut();
+        next.close();
+    }
+
+    @Test
+    public void testFailedResetDiscardsTheConnectionAndReturnsThePermit() throws SQLException {
+        pool = newPool(1);
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        driver.rollbackFails = true;
+        connection.close();
+        assertEquals(0, driver.open.get(), "a connection that failed to roll back is closed");
+        assertEquals(0, pool.getMetrics().getIdle());
+
+        driver.rollbackFails = false;
+        try (Connection fresh = pool.borrow()) {
+            assertTrue(fresh.getAutoCommit());
+        }
+        assertEquals(2, pool.getMetrics().getCreatedCount());
+    }
+
+    @Test
+    public void testFailedWarmUpKeepsPermitsAndSlots() throws SQLException {
+        pool = newPool(3);
+        driver.connectFailures.set(1);
+        assertThrows(SQLException.class, () -> pool.warmUp(3));
+        assertEquals(3, pool.warmUp(3));
+        assertEquals(0, pool.warmUp(3), "already warm");
+        assertEquals(3, driver.open.get());
+
+        List<Connection> borrowed = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            borrowed.add(pool.borrow());
+        }
+        assertTimesOut();
+        assertEquals(3, driver.peak.get());
+        for (Connection connection : borrowed) {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentBorrowsWithFailuresStayWithinPoolSize() throws Exception {
+        int size = 3;
+        pool = new ConnectionPool(URL, "user", "password", size, 5_000, 60_000,
+                ConnectionPool.LEAK_DETECTION_DISABLED);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            tasks.add(executor.submit(() -> pool.warmUp(size)));
+            for (int t = 0; t < 7; t++) {
+                tasks.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        if (ThreadLocalRandom.current().nextInt(10) == 0) {
+                            driver.connectFailures.incrementAndGet();
+                        }
+                        try (Connection connection = pool.borrow()) {
+                            if (ThreadLocalRandom.current().nextBoolean()) {
+                                connection.setAutoCommit(false);
+                            }
+                        } catch (SQLException e) {
+                            // An injected connect failure
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(driver.peak.get() <= size, "peak open " + driver.peak.get());
+        assertEquals(0, pool.getMetrics().getActive());
+        assertEquals(0, pool.getMetrics().getTimeoutCount());
+
+        // Every permit came back
+        driver.connectFailures.set(0);
+        List<Connection> borrowed = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            borrowed.add(pool.borrow());
+        }
+        for (Connection connection : borrowed) {
+            connection.close();
+        }
+        pool.shutdown();
+        assertEquals(0, driver.open.get());
+    }
+
+    private static ConnectionPool newPool(int size) {
+        return new ConnectionPool(URL, "user", "password", size, MAX_WAIT_MILLIS, 60_000,
+                ConnectionPool.LEAK_DETECTION_DISABLED);
+    }
+
+    private void assertTimesOut() {
+        SQLException e = assertThrows(SQLException.class, pool::borrow);
+        assertTrue(e.getMessage().startsWith("Timed out"), e.getMessage());
+    }
+
+    /**
+     * Driver for jdbc:pooltest: URLs whose connections only track close, autocommit and rollback
+     */
+    private static final class StubDriver implements Driver {
+        private final AtomicInteger open = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private final AtomicInteger connectFailures = new AtomicInteger();
+        private volatile boolean runtimeFailures;
+        private volatile boolean rollbackFails;
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            if (connectFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                if (runtimeFailures) {
+                    throw new IllegalStateException("Injected driver bug");
+                }
+                throw new SQLException("Injected connect failure");
+            }
+            peak.accumulateAndGet(open.incrementAndGet(), Math::max);
+
+            boolean[] closed = {false};
+            boolean[] autoCommit = {true};
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                synchronized (closed) {
+                                    if (!closed[0]) {
+                                        closed[0] = true;
+                                        open.decrementAndGet();
+                                    }
+                                }
+                                return null;
+                            case "isClosed":
+                                return closed[0];
+                            case "isValid":
+                                return !closed[0];
+                            case "getAutoCommit":
+                                return autoCommit[0];
+                            case "setAutoCommit":
+                                autoCommit[0] = (Boolean) args[0];
+                                return null;
+                            case "rollback":
+                                if (rollbackFails) {
+                                    throw new SQLException("Injected rollback failure");
+                                }
+                                return null;
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith("jdbc:pooltest:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() {
+            return Logger.getGlobal();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package service;
+
+import model.FoodItem;
+import model.meal.IngredientEntry;
+import model.meal.Meal;
+import model.meal.MealType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DailyRollupStoreTest {
+
+    private static final Map<Integer, FoodItem> FOODS = Map.of(1, new FoodItem(1, "Bread", 250, Map.of(), "Cereals"));
+    private static final LocalDate DAY = LocalDate.of(2025, 7, 27);
+
+    @Test
+    public void testRollupIsBuiltOnceAndKeptCurrentByEvents() {
+        DailyRollupStore store = new DailyRollupStore();
+        AtomicInteger loads = new AtomicInteger();
+        List<Meal> stored = new ArrayList<>(List.of(meal(1, DAY)));
+
+        assertEquals(1, store.getDays(7, FOODS, () -> load(loads, stored)).get(0).getMealCount());
+        store.mealSaved(meal(2, DAY));
+        store.mealSaved(meal(3, DAY.plusDays(1)));
+        store.mealDeleted(1);
+
+        List<DailyRollupStore.DaySummary> days = store.getDays(7, FOODS, () -> load(loads, stored));
+        assertEquals(1, loads.get());
+        assertEquals(DAY.plusDays(1), days.get(0).getDate());
+        assertEquals(1, days.get(1).getMealCount());
+    }
+
+    @Test
+    public void testEventDuringLoadKeepsTheRebuildOutOfTheStore() {
+        DailyRollupStore store = new DailyRollupStore();
+        AtomicInteger loads = new AtomicInteger();
+        List<Meal> stored = new ArrayList<>(List.of(meal(1, DAY)));
+
+        // A meal is saved after the loader read the table but before the rollup is stored
+        List<DailyRollupStore.DaySummary> first = store.getDays(7, FOODS, () -> {
+            List<Meal> read = load(loads, stored);
+            stored.add(meal(2, DAY));
+            store.mealSaved(meal(2, DAY));
+            return read;
+        });
+        assertEquals(1, first.get(0).getMealCount());
+
+        // Not cached, so the next read sees the saved meal
+        List<DailyRollupStore.DaySummary> second = store.getDays(7, FOODS, () -> load(loads, stored));
+        assertEquals(2, loads.get());
+        assertEquals(2, second.get(0).getMealCount());
+
+        // And that rebuild, with no events meanwhile, is kept
+        store.getDays(7, FOODS, () -> load(loads, stored));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testDeleteOfAnUnknownMealDuringLoadKeepsTheRebuildOutOfTheStore() {
+        DailyRollupStore store = new DailyRollupStore();
+        AtomicInteger loads = new AtomicInteger();
+        List<Meal> stored = new ArrayList<>(List.of(meal(1, DAY), meal(2, DAY)));
+
+        // The deleted meal's owner is not known yet, since no rollup holds it
+        store.getDays(7, FOODS, () -> {
+            List<Meal> read = load(loads, stored);
+            stored.remove(1);
+            store.mealDeleted(2);
+            return read;
+        });
+        assertEquals(1, store.getDays(7, FOODS, () -> load(loads, stored)).get(0).getMealCount());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testEventsForOtherUsersDoNotDiscardTheRebuild() {
+        DailyRollupStore store = new DailyRollupStore();
+        AtomicInteger loads = new AtomicInteger();
+        List<Meal> stored = List.of(meal(1, DAY));
+
+        store.getDays(7, FOODS, () -> {
+            store.mealsChanged(8);
+            return load(loads, stored);
+        });
+        store.getDays(7, FOODS, () -> load(loads, stored));
+        assertEquals(1, loads.get());
+    }
+
+    private static List<Meal> load(AtomicInteger loads, List<Meal> stored) {
+        loads.incrementAndGet();
+        return new ArrayList<>(stored);
+    }
+
+    private static Meal meal(int mealId, LocalDate date) {
+        return new Meal(mealId, 7, date, MealType.LUNCH, List.of(new IngredientEntry(1, 100)));
+    }
+}
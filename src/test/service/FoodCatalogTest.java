@@ -0,0 +1,94 @@
+package service;
+
+import model.FoodItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FoodCatalogTest {
+
+    private static final List<FoodItem> FIRST = List.of(
+            new FoodItem(1, "Bread", 250, Map.of("Protein", 9.0), "Cereals"),
+            new FoodItem(2, "Milk", 60, Map.of("Protein", 3.3), "Dairy"));
+    private static final List<FoodItem> SECOND = List.of(
+            new FoodItem(1, "Bread, whole wheat", 240, Map.of("Protein", 11.0), "Cereals"));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testSnapshotWithTheCurrentKeyIsServedWithoutTheDatabase() throws Exception {
+        Path path = dir.resolve("catalog.snapshot");
+        AtomicInteger loads = new AtomicInteger();
+        new FoodCatalog.SnapshotLoader(path, () -> load(loads, FIRST), () -> "k1").get();
+        assertEquals(1, loads.get());
+
+        // Next start, same tables
+        AtomicInteger staleRuns = new AtomicInteger();
+        FoodCatalog.SnapshotLoader restarted = new FoodCatalog.SnapshotLoader(path,
+                () -> load(loads, SECOND), () -> "k1");
+        restarted.setOnStale(staleRuns::incrementAndGet);
+        assertEquals("Bread", restarted.get().get(0).getName());
+        assertEquals(1, loads.get());
+        assertFalse(restarted.checkInBackground("k1").get(5, TimeUnit.SECONDS));
+        assertEquals(0, staleRuns.get());
+    }
+
+    @Test
+    public void testChangedKeyReloadsFromTheDatabase() throws Exception {
+        Path path = dir.resolve("catalog.snapshot");
+        AtomicInteger loads = new AtomicInteger();
+        new FoodCatalog.SnapshotLoader(path, () -> load(loads, FIRST), () -> "k1").get();
+
+        // The food tables changed while the app was closed
+        FoodCatalog.SnapshotLoader restarted = new FoodCatalog.SnapshotLoader(path,
+                () -> load(loads, SECOND), () -> "k2");
+        FoodCatalog catalog = new FoodCatalog(restarted);
+        CountDownLatch reloaded = new CountDownLatch(1);
+        restarted.setOnStale(() -> {
+            catalog.reload();
+            reloaded.countDown();
+        });
+
+        // The file is served first, then replaced
+        assertEquals(2, catalog.getFoods().size());
+        assertTrue(reloaded.await(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+        assertEquals(1, catalog.getFoods().size());
+        assertEquals("Bread, whole wheat", catalog.getFood(1).getName());
+
+        // And the recompiled file carries the new key
+        FoodCatalog.SnapshotLoader again = new FoodCatalog.SnapshotLoader(path, () -> load(loads, FIRST), () -> "k2");
+        again.setOnStale(() -> fail("snapshot written under k2 is stale"));
+        assertEquals(1, again.get().size());
+        assertFalse(again.checkInBackground("k2").get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUnreadableKeyKeepsTheSnapshot() throws Exception {
+        Path path = dir.resolve("catalog.snapshot");
+        AtomicInteger loads = new AtomicInteger();
+        new FoodCatalog.SnapshotLoader(path, () -> load(loads, FIRST), () -> "k1").get();
+
+        FoodCatalog.SnapshotLoader offline = new FoodCatalog.SnapshotLoader(path, () -> load(loads, SECOND), () -> {
+            throw new IllegalStateException("no database");
+        });
+        offline.setOnStale(() -> fail("reloaded without a database key"));
+        assertEquals(2, offline.get().size());
+        assertFalse(offline.checkInBackground("k1").get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    private static List<FoodItem> load(AtomicInteger loads, List<FoodItem> foods) {
+        loads.incrementAndGet();
+        return foods;
+    }
+}
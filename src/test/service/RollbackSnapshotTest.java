@@ -0,0 +1,146 @@
+package service;
+
+import model.meal.IngredientEntry;
+import model.meal.Meal;
+import model.meal.MealType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RollbackSnapshotTest {
+
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        List<Meal> meals = List.of(
+                new Meal(101, 1, LocalDate.of(2025, 7, 27), MealType.BREAKFAST,
+                        List.of(new IngredientEntry(2, 100), new IngredientEntry(61, 12.5))),
+                new Meal(102, 1, LocalDate.of(2025, 7, 27), MealType.DINNER,
+                        List.of(new IngredientEntry(500_000, 0.333), new IngredientEntry(7, 0))),
+                new Meal(-1, 0, null, null, new ArrayList<>()));
+
+        String encoded = RollbackSnapshot.of(meals).encode();
+        assertTrue(encoded.startsWith(RollbackSnapshot.PREFIX));
+        assertMealsEqual(meals, RollbackSnapshot.decode(encoded).getMeals());
+    }
+
+    @Test
+    public void testDatesAroundTheEpochRoundTrip() {
+        List<Meal> meals = new ArrayList<>();
+        for (long day = -3; day <= 3; day++) {
+            meals.add(new Meal((int) day, 1, LocalDate.ofEpochDay(day), MealType.LUNCH, new ArrayList<>()));
+        }
+        meals.add(new Meal(9, 1, LocalDate.of(1900, 1, 1), MealType.SNACK, new ArrayList<>()));
+        meals.add(new Meal(10, 1, LocalDate.of(2100, 12, 31), MealType.SNACK, new ArrayList<>()));
+        assertMealsEqual(meals, RollbackSnapshot.decode(RollbackSnapshot.of(meals).encode()).getMeals());
+    }
+
+    @Test
+    public void testRandomSnapshotsRoundTrip() {
+        Random random = new Random(13);
+        MealType[] types = MealType.values();
+        for (int round = 0; round < 200; round++) {
+            List<Meal> meals = new ArrayList<>();
+            int mealCount = random.nextInt(8);
+            for (int m = 0; m < mealCount; m++) {
+                List<IngredientEntry> ingredients = new ArrayList<>();
+                int ingredientCount = random.nextInt(6);
+                for (int i = 0; i < ingredientCount; i++) {
+                    // Mix whole centigram quantities with ones that need the full double
+                    double quantity = random.nextBoolean()
+                            ? random.nextInt(100_000) / 100.0
+                            : random.nextDouble() * 1_000 - 10;
+                    ingredients.add(new IngredientEntry(random.nextInt(Integer.MAX_VALUE), quantity));
+                }
+                LocalDate date = random.nextInt(5) == 0 ? null : LocalDate.ofEpochDay(random.nextInt(80_000) - 10_000);
+                MealType type = random.nextInt(5) == 0 ? null : types[random.nextInt(types.length)];
+                meals.add(new Meal(random.nextInt(), random.nextInt(Integer.MAX_VALUE), date, type, ingredients));
+            }
+            assertMealsEqual(meals, RollbackSnapshot.decode(RollbackSnapshot.of(meals).encode()).getMeals());
+        }
+    }
+
+    @Test
+    public void testOfCopiesIngredientLists() {
+        List<IngredientEntry> ingredients = new ArrayList<>(List.of(new IngredientEntry(1, 50)));
+        RollbackSnapshot snapshot = RollbackSnapshot.of(List.of(new Meal(1, 1, LocalDate.now(), MealType.LUNCH, ingredients)));
+        ingredients.add(new IngredientEntry(2, 75));
+        assertEquals(1, snapshot.getMeals().get(0).getIngredients().size());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getMeals().add(null));
+    }
+
+    @Test
+    public void testDecodeLegacyDayFormat() {
+        RollbackSnapshot snapshot = RollbackSnapshot.decode(
+                "ORIGINAL_MEALS:\nMEAL:BREAKFAST:\n  FOOD:2:100.0\n  FOOD:61:25.5\nMEAL:DINNER:\n  FOOD:7:200.0\n");
+        assertEquals(2, snapshot.getMeals().size());
+        assertSame(snapshot.getMeals().get(0), snapshot.findMeal(-1, MealType.BREAKFAST));
+        Meal dinner = snapshot.findMeal(42, MealType.DINNER);
+        assertEquals(MealType.DINNER, dinner.getType());
+        assertEquals(7, dinner.getIngredients().get(0).getFoodID());
+        assertEquals(200.0, dinner.getIngredients().get(0).getQuantity());
+        assertNull(snapshot.findMeal(42, MealType.LUNCH));
+    }
+
+    @Test
+    public void testDecodeLegacyMealFormats() {
+        Meal original = RollbackSnapshot.decode("ORIGINAL:2,100.0;61,25.5;").findMeal(5, MealType.LUNCH);
+        assertNotNull(original);
+        assertEquals(2, original.getIngredients().size());
+        assertEquals(25.5, original.getIngredients().get(1).getQuantity());
+
+        RollbackSnapshot keyValue = RollbackSnapshot.decode(
+                "MealID:123;UserID:1;Date:2025-07-27;Type:BREAKFAST;Ingredients:123,100,456,200");
+        Meal meal = keyValue.findMeal(123, null);
+        assertEquals(1, meal.getUserID());
+        assertEquals(LocalDate.of(2025, 7, 27), meal.getDate());
+        assertEquals(MealType.BREAKFAST, meal.getType());
+        assertEquals(456, meal.getIngredients().get(1).getFoodID());
+        assertEquals(200.0, meal.getIngredients().get(1).getQuantity());
+    }
+
+    @Test
+    public void testFindMealMatchesByIdThenType() {
+        Meal lunch = new Meal(1, 1, LocalDate.now(), MealType.LUNCH, new ArrayList<>());
+        Meal dinner = new Meal(2, 1, LocalDate.now(), MealType.DINNER, new ArrayList<>());
+        RollbackSnapshot snapshot = RollbackSnapshot.decode(RollbackSnapshot.of(List.of(lunch, dinner)).encode());
+
+        assertEquals(2, snapshot.findMeal(2, MealType.LUNCH).getMealID());
+        assertEquals(1, snapshot.findMeal(99, MealType.LUNCH).getMealID());
+        assertNull(snapshot.findMeal(99, MealType.SNACK));
+        assertNull(snapshot.findMeal(99, null));
+    }
+
+    @Test
+    public void testUnreadableDataDecodesEmpty() {
+        assertTrue(RollbackSnapshot.decode(null).isEmpty());
+        assertTrue(RollbackSnapshot.decode("  ").isEmpty());
+        assertTrue(RollbackSnapshot.decode("something else").isEmpty());
+        assertTrue(RollbackSnapshot.decode(RollbackSnapshot.PREFIX + "not base64!").isEmpty());
+
+        String encoded = RollbackSnapshot.of(List.of(new Meal(1, 1, LocalDate.now(), MealType.LUNCH,
+                List.of(new IngredientEntry(1, 1))))).encode();
+        assertTrue(RollbackSnapshot.decode(encoded.substring(0, encoded.length() - 4)).isEmpty());
+    }
+
+    private static void assertMealsEqual(List<Meal> expected, List<Meal> actual) {
+        assertEquals(expected.size(), actual.size(), "meal count");
+        for (int m = 0; m < expected.size(); m++) {
+            Meal e = expected.get(m);
+            Meal a = actual.get(m);
+            assertEquals(e.getMealID(), a.getMealID());
+            assertEquals(e.getUserID(), a.getUserID());
+            assertEquals(e.getDate(), a.getDate());
+            assertEquals(e.getType(), a.getType());
+            assertEquals(e.getIngredients().size(), a.getIngredients().size());
+            for (int i = 0; i < e.getIngredients().size(); i++) {
+                assertEquals(e.getIngredients().get(i).getFoodID(), a.getIngredients().get(i).getFoodID());
+                assertEquals(e.getIngredients().get(i).getQuantity(), a.getIngredients().get(i).getQuantity());
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package service;
+
+import backend.SwapEngine;
+import model.FoodItem;
+import model.Goal;
+import model.SwapSuggestion;
+import model.meal.IngredientEntry;
+import model.meal.Meal;
+import model.meal.MealType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwapServiceBatchTest {
+
+    private static final String[] GROUPS = {"Dairy", "Cereals", "Vegetables"};
+
+    @Test
+    public void testBatchIsTheSameForAnyThreadCount() {
+        Random random = new Random(9);
+        Map<Integer, FoodItem> foods = randomFoods(random, 300);
+        List<Meal> meals = randomMeals(random, foods, 120);
+        List<Goal> goals = List.of(new Goal("fiber", "increase", 5, "moderate"),
+                new Goal("calories", "decrease", 50, "low"));
+
+        List<String> sequential = describe(run(meals, goals, foods, 1));
+        assertEquals(meals.size(), sequential.size());
+        assertTrue(sequential.stream().anyMatch(meal -> !meal.isEmpty()), "no meal got a suggestion");
+        for (int parallelism : new int[]{2, 4, 8}) {
+            for (int repeat = 0; repeat < 3; repeat++) {
+                assertEquals(sequential, describe(run(meals, goals, foods, parallelism)), "parallelism " + parallelism);
+            }
+        }
+    }
+
+    @Test
+    public void testLaterMealsAvoidAlternativesAlreadySuggested() {
+        Random random = new Random(99);
+        Map<Integer, FoodItem> foods = randomFoods(random, 300);
+        // The same meal many times over, so every meal ranks the same alternatives
+        Meal template = randomMeals(random, foods, 1).get(0);
+        List<Goal> goals = List.of(new Goal("fiber", "increase", 5, "moderate"));
+
+        SwapEngine engine = new SwapEngine();
+        List<List<SwapSuggestion>> ranked = engine.rankSwaps(goals, template.getIngredients(), foods, 5);
+        assertFalse(ranked.isEmpty(), "template meal has no alternatives");
+        List<SwapSuggestion> alternatives = ranked.get(0);
+        assertTrue(alternatives.size() > 1, "template meal needs fallbacks to de-duplicate");
+
+        // More meals than alternatives, so the last ones find them all taken
+        List<Meal> meals = new ArrayList<>();
+        for (int i = 0; i < alternatives.size() + 2; i++) {
+            meals.add(new Meal(i + 1, 1, template.getDate(), template.getType(), template.getIngredients()));
+        }
+
+        List<List<SwapSuggestion>> batch = run(meals, goals, foods, 4);
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < meals.size(); i++) {
+            int replacement = batch.get(i).get(0).getReplacement().getFoodID();
+            if (i < alternatives.size()) {
+                // Each meal takes the best alternative no earlier meal has taken
+                assertEquals(alternatives.get(i).getReplacement().getFoodID(), replacement, "meal " + i);
+                assertTrue(used.add(replacement));
+            } else {
+                // All taken: fall back to the best
+                assertEquals(alternatives.get(0).getReplacement().getFoodID(), replacement, "meal " + i);
+            }
+        }
+    }
+
+    @Test
+    public void testMealsWithoutIngredientsGetNoSuggestions() {
+        Map<Integer, FoodItem> foods = randomFoods(new Random(999), 50);
+        List<Meal> meals = List.of(new Meal(1, 1, LocalDate.now(), MealType.LUNCH, new ArrayList<>()),
+                new Meal(2, 1, LocalDate.now(), MealType.DINNER, null));
+        List<List<SwapSuggestion>> batch = run(meals, List.of(new Goal("fiber", "increase", 5, "low")), foods, 2);
+        assertEquals(List.of(List.of(), List.of()), batch);
+    }
+
+    private static List<List<SwapSuggestion>> run(List<Meal> meals, List<Goal> goals,
+                                                  Map<Integer, FoodItem> foods, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return SwapService.generateSuggestionsForMeals(new SwapEngine(), meals, goals, foods, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static List<String> describe(List<List<SwapSuggestion>> batch) {
+        List<String> described = new ArrayList<>();
+        for (List<SwapSuggestion> meal : batch) {
+            StringBuilder text = new StringBuilder();
+            for (SwapSuggestion suggestion : meal) {
+                text.append(suggestion.getOriginal().getFoodID()).append("->")
+                        .append(suggestion.getReplacement().getFoodID()).append(" x")
+                        .append(suggestion.getReplacement().getQuantity()).append(": ")
+                        .append(suggestion.getReason()).append("; ");
+            }
+            described.add(text.toString());
+        }
+        return described;
+    }
+
+    // Foods close to each other within a group, so many swaps stay within tolerance
+    private static Map<Integer, FoodItem> randomFoods(Random random, int count) {
+        Map<Integer, FoodItem> foods = new HashMap<>();
+        for (int id = 1; id <= count; id++) {
+            Map<String, Double> nutrients = Map.of(
+                    "Protein", 8 + random.nextDouble() * 2,
+                    "Carbs", 20 + random.nextDouble() * 4,
+                    "Fat", 5 + random.nextDouble(),
+                    "Fiber", 1 + random.nextDouble() * 4);
+            foods.put(id, new FoodItem(id, "Food " + id, 150 + random.nextInt(30), nutrients,
+                    GROUPS[id % GROUPS.length]));
+        }
+        return foods;
+    }
+
+    private static List<Meal> randomMeals(Random random, Map<Integer, FoodItem> foods, int count) {
+        List<Meal> meals = new ArrayList<>();
+        MealType[] types = MealType.values();
+        for (int m = 0; m < count; m++) {
+            List<IngredientEntry> ingredients = new ArrayList<>();
+            int ingredientCount = 6 + random.nextInt(4);
+            for (int i = 0; i < ingredientCount; i++) {
+                ingredients.add(new IngredientEntry(1 + random.nextInt(foods.size()), 100));
+            }
+            meals.add(new Meal(m + 1, 1, LocalDate.of(2025, 1, 1).plusDays(m / 4), types[m % types.length], ingredients));
+        }
+        return meals;
+    }
+}
@@ -32,21 +32,27 @@ import java.util.*;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
-import java.util.stream.Collectors;
 
 public class JournalPanel extends JPanel {
     private JTable table;
     private MealLoggerController controller = new MealLoggerController();
     private UserProfileController userController = new UserProfileController();
     private SwapService swapService = new SwapService();
-    private List<Meal> meals;
     private DefaultTableModel tableModel;
     private int userId;
     
     // Goals for demonstration - in real app, get from user profile
-    private List<Goal> userGoals;
+    private volatile List<Goal> userGoals;
+    
+    // Background loads; a new load of the same kind cancels the one in flight
+    private JournalLoader journalLoader;
+    private SwingWorker<List<Meal>, Void> detailLoader;
+    private JProgressBar loadingIndicator;
+    private JPanel mainContentPanel;
+    private JPanel cumulativeEffectsPanel;
     
     // Unified color scheme
+    private static final Map<Integer, model.FoodItem> FALLBACK_FOODS = createFallbackFoods();
     private static final Color[] CHART_COLORS = {
         new Color(52, 152, 219),   // Blue
         new Color(231, 76, 60),    // Red
@@ -75,37 +81,29 @@ public class JournalPanel extends JPanel {
             mealDAO = new MealDAO();
         }
         
-        // Load user's actual goals from database
-        loadUserGoals();
-        
         // Initialize components
         initializeComponents();
         
-        // Load today's meals
-        loadTodaysMeals();
-        
-        // Populate the table
-        populateDailySummaryTable();
+        // Load goals, meals and the daily summary in the background
+        reloadJournal();
     }
     
-    private void loadUserGoals() {
+    private List<Goal> loadUserGoals() {
         try {
             // Use GoalDAO to load real goals
             dao.Implementations.GoalDAO goalDAO = new dao.Implementations.GoalDAO();
-            userGoals = goalDAO.loadGoals(userId);
+            List<Goal> goals = goalDAO.loadGoals(userId);
             
-            if (userGoals == null || userGoals.isEmpty()) {
-                // Fallback to default goals if none set - only Fiber, no Calories
-                userGoals = Arrays.asList(
-                    new Goal("Fiber", "Increase", 5.0, "moderate")
-                );
+            if (goals != null && !goals.isEmpty()) {
+                return goals;
             }
         } catch (Exception e) {
-            // Fallback to default goals - only Fiber, no Calories
-            userGoals = Arrays.asList(
-                new Goal("Fiber", "Increase", 5.0, "moderate")
-            );
+            System.err.println("Error loading goals: " + e.getMessage());
         }
+        // Fallback to default goals - only Fiber, no Calories
+        return Arrays.asList(
+            new Goal("Fiber", "Increase", 5.0, "moderate")
+        );
     }
 
     private void initializeComponents() {
@@ -125,6 +123,13 @@ public class JournalPanel extends JPanel {
             }
         });
         
+        // Shown while the journal or a day's details are loading
+        loadingIndicator = new JProgressBar();
+        loadingIndicator.setIndeterminate(true);
+        loadingIndicator.setStringPainted(true);
+        loadingIndicator.setVisible(false);
+        
+        topPanel.add(loadingIndicator);
         topPanel.add(backToMainBtn);
         add(topPanel, BorderLayout.SOUTH);
 
@@ -136,8 +141,7 @@ public class JournalPanel extends JPanel {
             }
         };
 
-        // Meals will be loaded in loadTodaysMeals() method
-        // Don't call populateDailySummaryTable() here as it's called in constructor
+        // Rows are added by JournalLoader as each day is computed
 
         table = new JTable(tableModel);
         table.setRowHeight(30);
@@ -195,62 +199,133 @@ public class JournalPanel extends JPanel {
         scrollPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
         // Create main content panel with table and cumulative effects
-        JPanel mainContentPanel = new JPanel(new BorderLayout(10, 10));
+        mainContentPanel = new JPanel(new BorderLayout(10, 10));
         mainContentPanel.add(scrollPane, BorderLayout.CENTER);
         
-        // Add cumulative effects panel below the table - create it after data is loaded
+        // The cumulative effects panel is added below the table once the data is loaded
         add(mainContentPanel, BorderLayout.CENTER);
-        
-        // Create and add cumulative effects panel after data is loaded
-        SwingUtilities.invokeLater(() -> {
-            JPanel cumulativeEffectsPanel = createCumulativeEffectsPanel();
-            mainContentPanel.add(cumulativeEffectsPanel, BorderLayout.SOUTH);
-            mainContentPanel.revalidate();
-            mainContentPanel.repaint();
-        });
     }
 
-    private void loadTodaysMeals() {
-        // Load all meals for the user
-        this.meals = controller.getMealsForUser(userId);
-        if (this.meals == null) {
-            this.meals = new ArrayList<>();
+    /**
+     * (Re)load goals, meals and the daily summary off the EDT. Rows are added to the table
+     * as each day is computed; a load already in progress is cancelled first.
+     */
+    private void reloadJournal() {
+        if (journalLoader != null) {
+            journalLoader.cancel(true);
         }
-    }
-
-    private void populateDailySummaryTable() {
         tableModel.setRowCount(0);
-        
-        // Get food database for calorie calculation
-        Map<Integer, model.FoodItem> foodDatabase = getFoodDatabase();
-        
-        // Group meals by date
-        Map<LocalDate, List<Meal>> mealsByDate = new HashMap<>();
-        for (Meal meal : meals) {
-            mealsByDate.computeIfAbsent(meal.getDate(), k -> new ArrayList<>()).add(meal);
+        journalLoader = new JournalLoader();
+        journalLoader.execute();
+        updateLoadingIndicator();
+    }
+    
+    /**
+     * Cancel everything still loading for this panel
+     */
+    private void cancelLoads() {
+        if (journalLoader != null) {
+            journalLoader.cancel(true);
+        }
+        if (detailLoader != null) {
+            detailLoader.cancel(true);
         }
+    }
+    
+    @Override
+    public void removeNotify() {
+        // Panel closed or replaced (e.g. another profile opened): stop its pending work
+        cancelLoads();
+        super.removeNotify();
+    }
+    
+    private void updateLoadingIndicator() {
+        String message = null;
+        if (journalLoader != null && !journalLoader.isDone()) {
+            message = "Loading journal...";
+        } else if (detailLoader != null && !detailLoader.isDone()) {
+            message = "Loading meal details...";
+        }
+        loadingIndicator.setString(message);
+        loadingIndicator.setVisible(message != null);
+    }
+    
+    /**
+     * Loads goals, publishes one summary row per day (newest first) from the daily
+     * rollups, then calculates today's cumulative swap effects from today's meals
+     */
+    private class JournalLoader extends SwingWorker<Map<String, Double>, Object[]> {
         
-        // Calculate daily totals and create table rows
-        for (Map.Entry<LocalDate, List<Meal>> entry : mealsByDate.entrySet()) {
-            LocalDate date = entry.getKey();
-            List<Meal> dailyMeals = entry.getValue();
+        @Override
+        protected Map<String, Double> doInBackground() {
+            userGoals = loadUserGoals();
+            
+            // Day totals come from the rollup store, kept current by meal write events;
+            // the full history is only loaded when it has nothing for this user yet
+            List<service.DailyRollupStore.DaySummary> days = service.DailyRollupStore.getInstance()
+                .getDays(userId, getFoodDatabase(), () -> controller.getMealsForUser(userId));
             
-            double totalCalories = dailyMeals.stream()
-                .mapToDouble(meal -> meal.getCalories(foodDatabase))
-                .sum();
+            for (service.DailyRollupStore.DaySummary day : days) {
+                if (isCancelled()) {
+                    return null;
+                }
+                double totalCalories = day.getCalories();
+                
+                // Target calories - in real app, get from user profile
+                double targetCalories = 2000.0;
+                
+                String status = totalCalories <= targetCalories ? "On Track" : "Over Target";
+                
+                publish(new Object[]{
+                    day.getDate().toString(),
+                    String.format("%.0f", totalCalories),
+                    String.format("%.0f", targetCalories),
+                    status,
+                    "Delete"
+                });
+            }
             
-            // Target calories - in real app, get from user profile
-            double targetCalories = 2000.0;
+            if (isCancelled()) {
+                return null;
+            }
+            LocalDate today = LocalDate.now();
+            List<Meal> todaysMeals = controller.getMealsForUserOnDate(userId, today);
+            return calculateCumulativeEffects(today, todaysMeals != null ? todaysMeals : new ArrayList<>());
+        }
+        
+        @Override
+        protected void process(List<Object[]> rows) {
+            if (isCancelled()) {
+                return;
+            }
+            for (Object[] row : rows) {
+                tableModel.addRow(row);
+            }
+        }
+        
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                return;
+            }
+            updateLoadingIndicator();
             
-            String status = totalCalories <= targetCalories ? "On Track" : "Over Target";
+            Map<String, Double> cumulativeChanges;
+            try {
+                cumulativeChanges = get();
+            } catch (Exception e) {
+                System.err.println("Error loading journal: " + e.getMessage());
+                cumulativeChanges = new HashMap<>();
+            }
             
-            tableModel.addRow(new Object[]{
-                date.toString(),
-                String.format("%.0f", totalCalories),
-                String.format("%.0f", targetCalories),
-                status,
-                "Delete"
-            });
+            // Add (or replace) the cumulative effects panel below the table
+            if (cumulativeEffectsPanel != null) {
+                mainContentPanel.remove(cumulativeEffectsPanel);
+            }
+            cumulativeEffectsPanel = createCumulativeEffectsPanel(cumulativeChanges);
+            mainContentPanel.add(cumulativeEffectsPanel, BorderLayout.SOUTH);
+            mainContentPanel.revalidate();
+            mainContentPanel.repaint();
         }
     }
 
@@ -258,19 +333,58 @@ public class JournalPanel extends JPanel {
         String dateStr = (String) tableModel.getValueAt(rowIndex, 0);
         LocalDate selectedDate = LocalDate.parse(dateStr);
         
-        // Get meals for this date
-        List<Meal> dailyMeals = meals.stream()
-            .filter(meal -> meal.getDate().equals(selectedDate))
-            .toList();
-        
-        if (dailyMeals.isEmpty()) {
-            JOptionPane.showMessageDialog(this, 
-                "No meals recorded for " + dateStr, 
-                "No Data", 
-                JOptionPane.INFORMATION_MESSAGE);
-            return;
+        // Picking another date abandons the one still loading
+        if (detailLoader != null) {
+            detailLoader.cancel(true);
         }
-        
+        detailLoader = new SwingWorker<>() {
+            private volatile boolean hasBeenSwapped;
+            private volatile List<SwapSuggestion> suggestions;
+            
+            @Override
+            protected List<Meal> doInBackground() {
+                // Only this date's meals, plus the catalog, swap status and suggestions the dialog needs
+                List<Meal> dailyMeals = controller.getMealsForUserOnDate(userId, selectedDate);
+                if (dailyMeals == null || dailyMeals.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                Map<Integer, model.FoodItem> foodDatabase = getFoodDatabase();
+                hasBeenSwapped = checkIfMealsHaveBeenSwapped(dailyMeals);
+                if (!hasBeenSwapped) {
+                    suggestions = generateSmartSwapSuggestions(dailyMeals, foodDatabase);
+                }
+                return dailyMeals;
+            }
+            
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                updateLoadingIndicator();
+                List<Meal> dailyMeals;
+                try {
+                    dailyMeals = get();
+                } catch (Exception e) {
+                    System.err.println("Error loading meal details: " + e.getMessage());
+                    dailyMeals = new ArrayList<>();
+                }
+                if (dailyMeals.isEmpty()) {
+                    JOptionPane.showMessageDialog(JournalPanel.this, 
+                        "No meals recorded for " + dateStr, 
+                        "No Data", 
+                        JOptionPane.INFORMATION_MESSAGE);
+                    return;
+                }
+                openDailyMealDetails(dateStr, dailyMeals, hasBeenSwapped, suggestions);
+            }
+        };
+        detailLoader.execute();
+        updateLoadingIndicator();
+    }
+    
+    private void openDailyMealDetails(String dateStr, List<Meal> dailyMeals, boolean hasBeenSwapped,
+                                      List<SwapSuggestion> suggestions) {
         // Create detailed view dialog
         JDialog detailDialog = new JDialog((Frame) SwingUtilities.getWindowAncestor(this), 
             "Meal Details for " + dateStr, true);
@@ -286,7 +400,7 @@ public class JournalPanel extends JPanel {
         JPanel leftPanel = createMealBreakdownPanel(dailyMeals);
         
         // Right panel: Charts and swap suggestions
-        JPanel rightPanel = createChartsAndSwapPanel(dailyMeals);
+        JPanel rightPanel = createChartsAndSwapPanel(dailyMeals, hasBeenSwapped, suggestions);
         
         contentPanel.add(leftPanel, BorderLayout.WEST);
         contentPanel.add(rightPanel, BorderLayout.CENTER);
@@ -356,7 +470,8 @@ public class JournalPanel extends JPanel {
         return panel;
     }
     
-    private JPanel createChartsAndSwapPanel(List<Meal> dailyMeals) {
+    private JPanel createChartsAndSwapPanel(List<Meal> dailyMeals, boolean hasBeenSwapped,
+                                            List<SwapSuggestion> suggestions) {
         JPanel panel = new JPanel(new BorderLayout(5, 5));
         panel.setBorder(BorderFactory.createTitledBorder("Daily Nutrition Analysis"));
         panel.setPreferredSize(new Dimension(500, 500));
@@ -377,7 +492,7 @@ public class JournalPanel extends JPanel {
         tabbedPane.addTab("Calories", caloriePanel);
         
         // Tab 4: Swap Suggestions (Use Case 3-5)
-        JPanel swapPanel = createSwapSuggestionsPanel(dailyMeals);
+        JPanel swapPanel = createSwapSuggestionsPanel(dailyMeals, hasBeenSwapped, suggestions);
         tabbedPane.addTab("Swap Suggestions", swapPanel);
         
         panel.add(tabbedPane, BorderLayout.CENTER);
@@ -772,53 +887,51 @@ public class JournalPanel extends JPanel {
     }
     
     private Map<Integer, model.FoodItem> getFoodDatabase() {
-        // Load real food database from MySQL
-        Map<Integer, model.FoodItem> foodDatabase = new HashMap<>();
+        // Shared catalog, loaded from MySQL once per process
+        Map<Integer, model.FoodItem> catalog = service.FoodCatalog.getInstance().getFoods();
+        if (!catalog.isEmpty()) {
+            return catalog;
+        }
         
-        try {
-            dao.adapter.MySQLAdapter adapter = new dao.adapter.MySQLAdapter();
-            adapter.connect();
-            List<model.FoodItem> foods = adapter.loadFoods();
-            
-            for (model.FoodItem food : foods) {
-                foodDatabase.put(food.getFoodID(), food);
-            }
-            
-        } catch (Exception e) {
-            // Fallback to basic food data if database fails
-            foodDatabase.put(1, new model.FoodItem(1, "Beef Steak", 250, 
-                Map.of("Calories", 250.0, "Protein", 26.0, "Fat", 15.0, "Sodium", 70.0), "Meat"));
-            foodDatabase.put(2, new model.FoodItem(2, "Chicken Breast", 165, 
-                Map.of("Calories", 165.0, "Protein", 31.0, "Fat", 3.6, "Sodium", 74.0), "Meat"));
-            foodDatabase.put(3, new model.FoodItem(3, "Salmon", 208, 
-                Map.of("Calories", 208.0, "Protein", 25.0, "Fat", 12.0, "Omega-3", 2.3), "Fish"));
-            foodDatabase.put(4, new model.FoodItem(4, "Brown Rice", 111, 
-                Map.of("Calories", 111.0, "Protein", 2.6, "Fiber", 1.8, "Carbs", 23.0), "Grains"));
-            foodDatabase.put(5, new model.FoodItem(5, "White Rice", 130, 
-                Map.of("Calories", 130.0, "Protein", 2.7, "Fiber", 0.4, "Carbs", 28.0), "Grains"));
-            foodDatabase.put(6, new model.FoodItem(6, "Broccoli", 55, 
-                Map.of("Calories", 55.0, "Protein", 3.7, "Fiber", 5.2, "Vitamin C", 89.0), "Vegetables"));
-            foodDatabase.put(7, new model.FoodItem(7, "Spinach", 23, 
-                Map.of("Calories", 23.0, "Protein", 2.9, "Fiber", 2.2, "Iron", 2.7), "Vegetables"));
-            foodDatabase.put(8, new model.FoodItem(8, "Apple", 95, 
-                Map.of("Calories", 95.0, "Protein", 0.5, "Fiber", 4.4, "Vitamin C", 8.4), "Fruits"));
-            foodDatabase.put(9, new model.FoodItem(9, "Banana", 105, 
-                Map.of("Calories", 105.0, "Protein", 1.3, "Fiber", 3.1, "Potassium", 422.0), "Fruits"));
-            foodDatabase.put(10, new model.FoodItem(10, "Greek Yogurt", 59, 
-                Map.of("Calories", 59.0, "Protein", 10.0, "Fat", 0.4, "Calcium", 110.0), "Dairy"));
-            
-            // Add more common foods
-            foodDatabase.put(11, new model.FoodItem(11, "Cheese souffle", 300, 
-                Map.of("Calories", 300.0, "Protein", 15.0, "Fat", 25.0, "Carbs", 5.0), "Dairy"));
-            foodDatabase.put(12, new model.FoodItem(12, "Bread", 265, 
-                Map.of("Calories", 265.0, "Protein", 9.0, "Fat", 3.0, "Carbs", 49.0, "Fiber", 2.7), "Grains"));
-            foodDatabase.put(13, new model.FoodItem(13, "Eggs", 155, 
-                Map.of("Calories", 155.0, "Protein", 13.0, "Fat", 11.0, "Carbs", 1.1), "Protein"));
-            foodDatabase.put(14, new model.FoodItem(14, "Milk", 42, 
-                Map.of("Calories", 42.0, "Protein", 3.4, "Fat", 1.0, "Carbs", 5.0, "Calcium", 113.0), "Dairy"));
-        }
-        
-        return foodDatabase;
+        // The same map every time, so caches keyed on the food map (DailyRollupStore) stay valid
+        return FALLBACK_FOODS;
+    }
+    
+    // Basic food data used when the database fails
+    private static Map<Integer, model.FoodItem> createFallbackFoods() {
+        Map<Integer, model.FoodItem> foodDatabase = new HashMap<>();
+        foodDatabase.put(1, new model.FoodItem(1, "Beef Steak", 250, 
+            Map.of("Calories", 250.0, "Protein", 26.0, "Fat", 15.0, "Sodium", 70.0), "Meat"));
+        foodDatabase.put(2, new model.FoodItem(2, "Chicken Breast", 165, 
+            Map.of("Calories", 165.0, "Protein", 31.0, "Fat", 3.6, "Sodium", 74.0), "Meat"));
+        foodDatabase.put(3, new model.FoodItem(3, "Salmon", 208, 
+            Map.of("Calories", 208.0, "Protein", 25.0, "Fat", 12.0, "Omega-3", 2.3), "Fish"));
+        foodDatabase.put(4, new model.FoodItem(4, "Brown Rice", 111, 
+            Map.of("Calories", 111.0, "Protein", 2.6, "Fiber", 1.8, "Carbs", 23.0), "Grains"));
+        foodDatabase.put(5, new model.FoodItem(5, "White Rice", 130, 
+            Map.of("Calories", 130.0, "Protein", 2.7, "Fiber", 0.4, "Carbs", 28.0), "Grains"));
+        foodDatabase.put(6, new model.FoodItem(6, "Broccoli", 55, 
+            Map.of("Calories", 55.0, "Protein", 3.7, "Fiber", 5.2, "Vitamin C", 89.0), "Vegetables"));
+        foodDatabase.put(7, new model.FoodItem(7, "Spinach", 23, 
+            Map.of("Calories", 23.0, "Protein", 2.9, "Fiber", 2.2, "Iron", 2.7), "Vegetables"));
+        foodDatabase.put(8, new model.FoodItem(8, "Apple", 95, 
+            Map.of("Calories", 95.0, "Protein", 0.5, "Fiber", 4.4, "Vitamin C", 8.4), "Fruits"));
+        foodDatabase.put(9, new model.FoodItem(9, "Banana", 105, 
+            Map.of("Calories", 105.0, "Protein", 1.3, "Fiber", 3.1, "Potassium", 422.0), "Fruits"));
+        foodDatabase.put(10, new model.FoodItem(10, "Greek Yogurt", 59, 
+            Map.of("Calories", 59.0, "Protein", 10.0, "Fat", 0.4, "Calcium", 110.0), "Dairy"));
+        
+        // Add more common foods
+        foodDatabase.put(11, new model.FoodItem(11, "Cheese souffle", 300, 
+            Map.of("Calories", 300.0, "Protein", 15.0, "Fat", 25.0, "Carbs", 5.0), "Dairy"));
+        foodDatabase.put(12, new model.FoodItem(12, "Bread", 265, 
+            Map.of("Calories", 265.0, "Protein", 9.0, "Fat", 3.0, "Carbs", 49.0, "Fiber", 2.7), "Grains"));
+        foodDatabase.put(13, new model.FoodItem(13, "Eggs", 155, 
+            Map.of("Calories", 155.0, "Protein", 13.0, "Fat", 11.0, "Carbs", 1.1), "Protein"));
+        foodDatabase.put(14, new model.FoodItem(14, "Milk", 42, 
+            Map.of("Calories", 42.0, "Protein", 3.4, "Fat", 1.0, "Carbs", 5.0, "Calcium", 113.0), "Dairy"));
+        
+        return Collections.unmodifiableMap(foodDatabase);
     }
     
     private JPanel createNutritionChartPanel(Map<String, Double> nutrients) {
@@ -852,13 +965,12 @@ public class JournalPanel extends JPanel {
         return panel;
     }
     
-    private JPanel createSwapSuggestionsPanel(List<Meal> dailyMeals) {
+    // suggestions were generated off the EDT with the meals (null for swapped meals)
+    private JPanel createSwapSuggestionsPanel(List<Meal> dailyMeals, boolean hasBeenSwapped,
+                                              List<SwapSuggestion> suggestions) {
         JPanel panel = new JPanel(new BorderLayout(5, 5));
         panel.setBorder(BorderFactory.createTitledBorder("Food Swap Suggestions"));
         
-        // Check if meals have been swapped before
-        boolean hasBeenSwapped = checkIfMealsHaveBeenSwapped(dailyMeals);
-        
         // Get food database for suggestions
         Map<Integer, model.FoodItem> foodDatabase = getFoodDatabase();
         
@@ -959,8 +1071,8 @@ public class JournalPanel extends JPanel {
             return combinedPanel;
         }
         
-        // Generate swap suggestions based on current meals and goals
-        List<SwapSuggestion> allSuggestions = generateSmartSwapSuggestions(dailyMeals, foodDatabase);
+        // Swap suggestions based on current meals and goals
+        List<SwapSuggestion> allSuggestions = suggestions != null ? suggestions : new ArrayList<>();
         
         if (allSuggestions.isEmpty()) {
             JPanel noSuggestionsPanel = new JPanel(new BorderLayout());
@@ -1067,32 +1179,22 @@ public class JournalPanel extends JPanel {
         
         try {
             // Direct database query to check if any meals for this date are marked as swapped
-            dao.adapter.MySQLAdapter adapter = new dao.adapter.MySQLAdapter();
-            Connection conn = adapter.connect();
-            
-            if (conn != null) {
-                // First, let's check what's actually in the swap_status table for this user and date
-                String debugSql = "SELECT meal_id, date, is_swapped FROM swap_status WHERE user_id = ? AND date = ?";
-                try (PreparedStatement debugStmt = conn.prepareStatement(debugSql)) {
-                    debugStmt.setInt(1, userId);
-                    debugStmt.setDate(2, Date.valueOf(date));
-                    
-                    ResultSet debugRs = debugStmt.executeQuery();
-                }
-                
-                // Now check the count of swapped meals for current user
-                String sql = "SELECT COUNT(*) FROM swap_status WHERE user_id = ? AND date = ? AND is_swapped = TRUE";
-                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    stmt.setInt(1, userId);
-                    stmt.setDate(2, Date.valueOf(date));
-                    
-                    ResultSet rs = stmt.executeQuery();
-                    if (rs.next()) {
-                        int count = rs.getInt(1);
-                        return count > 0;
+            dao.adapter.DatabaseAdapter adapter = dao.adapter.DatabaseManager.getAdapter();
+            try (Connection conn = adapter.borrowConnection()) {
+                if (conn != null) {
+                    // Check the count of swapped meals for current user
+                    String sql = "SELECT COUNT(*) FROM swap_status WHERE user_id = ? AND date = ? AND is_swapped = TRUE";
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        stmt.setInt(1, userId);
+                        stmt.setDate(2, Date.valueOf(date));
+                        
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            if (rs.next()) {
+                                int count = rs.getInt(1);
+                                return count > 0;
+                            }
+                        }
                     }
-                } finally {
-                    conn.close();
                 }
             }
         } catch (Exception e) {
@@ -1162,46 +1264,14 @@ public class JournalPanel extends JPanel {
     
             
             for (Meal meal : dailyMeals) {
-                // Get original meal data for this specific meal
-                String originalMealData = swapService.getOriginalMealData(meal.getMealID(), userId, meal.getDate());
-                if (originalMealData != null && !originalMealData.isEmpty()) {
-    
-                    
-                    // Parse original meal data and restore
-                    if (originalMealData.startsWith("ORIGINAL:")) {
-                        String ingredientsData = originalMealData.substring("ORIGINAL:".length());
-        
-                        
-                        if (!ingredientsData.isEmpty()) {
-                            // Get the first ingredient (assuming single ingredient meals for simplicity)
-                            String[] ingredientParts = ingredientsData.split(";");
-                            if (ingredientParts.length > 0) {
-                                String firstIngredient = ingredientParts[0];
-                                String[] parts = firstIngredient.split(",");
-                
-                                
-                                if (parts.length >= 2) {
-                                    int originalFoodId = Integer.parseInt(parts[0]);
-                                    double originalQuantity = Double.parseDouble(parts[1]);
-                                    
+                // Original version of this meal, with every ingredient it had
+                Meal restoredMeal = swapService.getOriginalMeal(meal, userId);
+                if (restoredMeal != null && !restoredMeal.getIngredients().isEmpty()) {
+                    // Update in database
+                    mealDAO.updateMeal(restoredMeal);
                     
-                                    
-                                    // Create new ingredient list with original data
-                                    List<IngredientEntry> originalIngredients = new ArrayList<>();
-                                    originalIngredients.add(new IngredientEntry(originalFoodId, originalQuantity));
-                                    
-                                    // Create restored meal
-                                    Meal restoredMeal = new Meal(meal.getMealID(), meal.getUserID(), meal.getDate(), meal.getType(), originalIngredients);
-                                    
-                                    // Update in database
-                                    mealDAO.updateMeal(restoredMeal);
-                                    
-                                    // Mark as restored
-                                    swapService.markMealAsRestored(meal.getMealID(), userId);
-                                }
-                            }
-                        }
-                    }
+                    // Mark as restored
+                    swapService.markMealAsRestored(meal.getMealID(), userId);
                 } else {
                     System.out.println("DEBUG: No original meal data found for " + meal.getType() + ", skipping restore");
                 }
@@ -1327,176 +1397,95 @@ public class JournalPanel extends JPanel {
     }
     
     private void applySwapsToDateRange(LocalDate fromDate, LocalDate toDate, List<Meal> originalMeals) {
-        try {
-            System.out.println("DEBUG: Applying swaps to date range from " + fromDate + " to " + toDate);
-            
-            // Use the current swapped meals directly (not the original meals)
-            // These meals are already swapped and should be copied as-is
-            int datesProcessed = 0;
-            
-            // Process each date in the range
-            for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
-                datesProcessed++;
-                System.out.println("DEBUG: Processing date " + date);
+        int totalDays = (int) java.time.temporal.ChronoUnit.DAYS.between(fromDate, toDate) + 1;
+        
+        // Progress dialog, closed when the background work finishes
+        Window owner = SwingUtilities.getWindowAncestor(this);
+        JDialog progressDialog = new JDialog(owner, "Applying Swaps", Dialog.ModalityType.APPLICATION_MODAL);
+        progressDialog.setDefaultCloseOperation(JDialog.DO_NOTHING_ON_CLOSE);
+        JProgressBar progressBar = new JProgressBar(0, totalDays);
+        progressBar.setStringPainted(true);
+        progressBar.setString("0 / " + totalDays + " days");
+        JPanel progressPanel = new JPanel(new BorderLayout(10, 10));
+        progressPanel.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+        progressPanel.add(new JLabel("Applying swaps from " + fromDate + " to " + toDate + "..."), BorderLayout.NORTH);
+        progressPanel.add(progressBar, BorderLayout.CENTER);
+        progressDialog.add(progressPanel);
+        progressDialog.pack();
+        progressDialog.setLocationRelativeTo(owner);
+        
+        SwingWorker<List<Meal>, Integer> worker = new SwingWorker<>() {
+            @Override
+            protected List<Meal> doInBackground() {
+                // Copy the current (already swapped) meals onto every date in one transaction
+                List<Meal> copies = swapService.applyMealPlanToDateRange(userId, fromDate, toDate, originalMeals,
+                        (done, total) -> publish(done));
+                if (copies == null) {
+                    return null;
+                }
                 
-                // Delete existing meals for this date (if any)
-                mealDAO.deleteMealsByDate(userId, date.toString());
+                // Get the cumulative effects from the date we're copying from
+                Map<String, Double> currentDateEffects = loadCumulativeEffectsFromDatabase(originalMeals.get(0).getDate());
+                if (currentDateEffects.isEmpty()) {
+                    // Fallback: calculate from suggestions if not in database
+                    List<SwapSuggestion> originalSuggestions = generateSmartSwapSuggestions(originalMeals, getFoodDatabase());
+                    currentDateEffects = calculateCumulativeEffectsFromSuggestions(originalSuggestions);
+                }
                 
-                // Create new meals for this date by copying the current swapped meals exactly
-                for (Meal currentMeal : originalMeals) {
-                    // Create a new meal for this date with the exact same ingredients as the current swapped meal
-                    List<model.meal.IngredientEntry> newIngredients = new ArrayList<>();
-                    
-                    // Copy all ingredients exactly as they are in the current swapped meal
-                    for (model.meal.IngredientEntry currentIngredient : currentMeal.getIngredients()) {
-                        newIngredients.add(new model.meal.IngredientEntry(
-                            currentIngredient.getFoodID(), 
-                            currentIngredient.getQuantity()
-                        ));
-                    }
-                    
-                    // Create and save the new meal with the same type as the current meal
-                    Meal newMeal = controller.buildMeal(userId, date, currentMeal.getType(), newIngredients);
-                    controller.logMeal(newMeal);
-                    
-                    // After saving, we need to get the actual meal ID from the database
-                    // Let's reload the meal to get the correct ID
-                    List<Meal> savedMeals = controller.getMealsForUser(userId);
-                    Meal savedMeal = null;
-                    for (Meal meal : savedMeals) {
-                        if (meal.getDate().equals(date) && meal.getType() == currentMeal.getType()) {
-                            // Check if ingredients match
-                            boolean ingredientsMatch = true;
-                            if (meal.getIngredients().size() == newIngredients.size()) {
-                                for (int i = 0; i < newIngredients.size(); i++) {
-                                    if (meal.getIngredients().get(i).getFoodID() != newIngredients.get(i).getFoodID() ||
-                                        meal.getIngredients().get(i).getQuantity() != newIngredients.get(i).getQuantity()) {
-                                        ingredientsMatch = false;
-                                        break;
-                                    }
-                                }
-                            } else {
-                                ingredientsMatch = false;
-                            }
-                            if (ingredientsMatch) {
-                                savedMeal = meal;
-                                break;
-                            }
-                        }
-                    }
-                    
-                    if (savedMeal != null) {
-                        newMeal = savedMeal; // Use the saved meal with correct ID
-                        System.out.println("DEBUG: Found saved meal ID " + newMeal.getMealID() + " for date " + date + " with " + newIngredients.size() + " ingredients");
-                    } else {
-                        System.out.println("DEBUG: Could not find saved meal, using original meal ID " + newMeal.getMealID() + " for date " + date + " with " + newIngredients.size() + " ingredients");
-                    }
-                    
-                    // Mark as swapped for potential rollback - only after meal is successfully saved
-                    if (newMeal.getMealID() > 0) {
-                        System.out.println("DEBUG: Attempting to mark meal " + newMeal.getMealID() + " as swapped for date " + date);
-                        
-                        // Direct database insertion to mark meal as swapped
-                        try {
-                            dao.adapter.MySQLAdapter adapter = new dao.adapter.MySQLAdapter();
-                            Connection conn = adapter.connect();
-                            
-                            if (conn != null) {
-                                // Build original meal data
-                                StringBuilder mealData = new StringBuilder();
-                                mealData.append("ORIGINAL:");
-                                for (model.meal.IngredientEntry ingredient : newMeal.getIngredients()) {
-                                    mealData.append(ingredient.getFoodID()).append(",").append(ingredient.getQuantity()).append(";");
-                                }
-                                String currentMealData = mealData.toString();
-                                System.out.println("DEBUG: Original meal data: " + currentMealData);
-                                
-                                // Insert swap status directly
-                                String sql = "INSERT INTO swap_status (user_id, meal_id, date, is_swapped, original_meal_data) " +
-                                           "VALUES (?, ?, ?, TRUE, ?) " +
-                                           "ON DUPLICATE KEY UPDATE is_swapped = TRUE, original_meal_data = ?";
-                                
-                                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                                    stmt.setInt(1, userId);
-                                    stmt.setInt(2, newMeal.getMealID());
-                                    stmt.setDate(3, Date.valueOf(newMeal.getDate()));
-                                    stmt.setString(4, currentMealData);
-                                    stmt.setString(5, currentMealData);
-                                    
-                                    System.out.println("DEBUG: Executing SQL with userId=" + userId + ", mealId=" + newMeal.getMealID() + ", date=" + newMeal.getDate());
-                                    int result = stmt.executeUpdate();
-                                    if (result > 0) {
-                                        System.out.println("DEBUG: Successfully marked meal " + newMeal.getMealID() + " as swapped for date " + date + " (result=" + result + ")");
-                                    } else {
-                                        System.err.println("ERROR: Failed to mark meal " + newMeal.getMealID() + " as swapped for date " + date + " (result=" + result + ")");
-                                    }
-                                } finally {
-                                    conn.close();
-                                }
-                            } else {
-                                System.err.println("ERROR: Could not connect to database to mark meal as swapped");
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Error marking meal as swapped: " + e.getMessage());
-                            e.printStackTrace();
-                        }
-                    } else {
-                        System.err.println("ERROR: Meal ID is 0 or negative, cannot mark as swapped");
-                    }
+                // Replace the cumulative effects of each date in the range with the copied ones
+                for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+                    clearCumulativeEffectsForDate(date);
+                    saveCumulativeEffectsToDatabase(date, currentDateEffects);
                 }
+                return copies;
             }
             
-            // Get the cumulative effects from the current date (27th) that we're copying from
-            Map<String, Double> currentDateEffects = loadCumulativeEffectsFromDatabase(originalMeals.get(0).getDate());
-            
-            if (currentDateEffects.isEmpty()) {
-                System.out.println("DEBUG: No cumulative effects found for current date, calculating from suggestions");
-                // Fallback: calculate from suggestions if not in database
-                Map<Integer, model.FoodItem> foodDatabase = getFoodDatabase();
-                List<SwapSuggestion> originalSuggestions = generateSmartSwapSuggestions(originalMeals, foodDatabase);
-                currentDateEffects = calculateCumulativeEffectsFromSuggestions(originalSuggestions);
-            }
-            
-            System.out.println("DEBUG: Copying cumulative effects from current date: " + currentDateEffects);
-            
-            // Clear old cumulative effects for each date in the range first
-            for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
-                clearCumulativeEffectsForDate(date);
-                System.out.println("DEBUG: Cleared old cumulative effects for date " + date);
-            }
-            
-            // Save the same cumulative effects for each date in the range
-            for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
-                saveCumulativeEffectsToDatabase(date, currentDateEffects);
-                System.out.println("DEBUG: Saved cumulative effects for date " + date + ": " + currentDateEffects);
-            }
-            
-            // Refresh the meals list and table
-            this.meals = controller.getMealsForUser(userId);
-            if (this.meals == null) {
-                this.meals = new ArrayList<>();
+            @Override
+            protected void process(List<Integer> daysDone) {
+                int done = daysDone.get(daysDone.size() - 1);
+                progressBar.setValue(done);
+                progressBar.setString(done + " / " + totalDays + " days");
             }
-            populateDailySummaryTable();
-            
-            // Show simple success message using JOptionPane with English text
-            JOptionPane.showMessageDialog(this, 
-                "Successfully applied", 
-                "Application Complete", 
-                JOptionPane.INFORMATION_MESSAGE);
             
-            // Close the current dialog and return to summary
-            Window window = SwingUtilities.getWindowAncestor(this);
-            if (window != null) {
-                window.dispose();
+            @Override
+            protected void done() {
+                progressDialog.dispose();
+                List<Meal> copies;
+                try {
+                    copies = get();
+                } catch (Exception e) {
+                    System.err.println("Error applying swaps to date range: " + e.getMessage());
+                    copies = null;
+                }
+                
+                if (copies == null) {
+                    showEnglishMessageDialog(JournalPanel.this,
+                        "Error applying meal plan to date range. No meals were changed.",
+                        "Application Error",
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                // Refresh the meals list and table
+                reloadJournal();
+                
+                JOptionPane.showMessageDialog(JournalPanel.this,
+                    "Successfully applied",
+                    "Application Complete",
+                    JOptionPane.INFORMATION_MESSAGE);
+                
+                // Close the current dialog and return to summary
+                Window window = SwingUtilities.getWindowAncestor(JournalPanel.this);
+                if (window != null) {
+                    window.dispose();
+                }
             }
-            
-        } catch (Exception e) {
-            System.err.println("Error applying swaps to date range: " + e.getMessage());
-            e.printStackTrace();
-            showEnglishMessageDialog(this,
-                "Error applying meal plan to date range: " + e.getMessage(),
-                "Application Error",
-                JOptionPane.ERROR_MESSAGE);
+        };
+        
+        worker.execute();
+        // Modal: blocks here (while still dispatching events) until done() disposes it
+        if (!worker.isDone()) {
+            progressDialog.setVisible(true);
         }
     }
     
@@ -2019,15 +2008,9 @@ public class JournalPanel extends JPanel {
         try {
             System.out.println("DEBUG: Starting applyAllSuggestions for " + dailyMeals.size() + " meals");
             
-            // Store rollback data before applying changes
-            for (Meal meal : dailyMeals) {
-                System.out.println("DEBUG: Storing rollback data for meal " + meal.getMealID() + " (User: " + userId + ")");
-                List<Meal> mealList = new ArrayList<>();
-                mealList.add(meal);
-                swapService.storeRollbackData(meal.getDate().toString(), mealList);
-                
-                // Also store original meal data for each meal
-                swapService.storeOriginalMealData(meal);
+            // Store rollback data before applying changes: one snapshot for the whole day
+            if (!dailyMeals.isEmpty()) {
+                swapService.storeRollbackData(dailyMeals.get(0).getDate().toString(), dailyMeals);
             }
             
             // Apply suggestions to each meal
@@ -2053,12 +2036,8 @@ public class JournalPanel extends JPanel {
                 }
             }
             
-            // Refresh the meals list
-            this.meals = controller.getMealsForUser(userId);
-            if (this.meals == null) {
-                this.meals = new ArrayList<>();
-            }
-            populateDailySummaryTable();
+            // Refresh the meals list and table
+            reloadJournal();
             
             // Calculate and display cumulative effects from applied suggestions
             Map<String, Double> cumulativeEffects = calculateCumulativeEffectsFromSuggestions(suggestions);
@@ -2097,7 +2076,7 @@ public class JournalPanel extends JPanel {
             
             // Check if swap data was saved correctly
             System.out.println("DEBUG: Checking if swap data was saved...");
-            dao.Implementations.SwapStatusDAO swapStatusDAO = new dao.Implementations.SwapStatusDAO(new dao.adapter.MySQLAdapter());
+            dao.Implementations.SwapStatusDAO swapStatusDAO = new dao.Implementations.SwapStatusDAO(dao.adapter.DatabaseManager.getAdapter());
             List<dao.Implementations.SwapStatusDAO.SwapStatusRecord> swappedMeals = swapStatusDAO.getSwappedMeals(userId);
             System.out.println("DEBUG: Found " + swappedMeals.size() + " swapped meals in database after applying swaps");
             for (dao.Implementations.SwapStatusDAO.SwapStatusRecord record : swappedMeals) {
@@ -2169,9 +2148,7 @@ public class JournalPanel extends JPanel {
     private void deleteMealsForDate(LocalDate date) {
         try {
             // Get all meals for the date
-            List<Meal> mealsToDelete = meals.stream()
-                .filter(meal -> meal.getDate().equals(date))
-                .toList();
+            List<Meal> mealsToDelete = controller.getMealsForUserOnDate(userId, date);
             
             if (mealsToDelete.isEmpty()) {
                 JOptionPane.showMessageDialog(this, 
@@ -2182,7 +2159,7 @@ public class JournalPanel extends JPanel {
             }
             
             // First, delete swap_status records for these meals to avoid foreign key constraint errors
-            dao.Implementations.SwapStatusDAO swapStatusDAO = new dao.Implementations.SwapStatusDAO(new dao.adapter.MySQLAdapter());
+            dao.Implementations.SwapStatusDAO swapStatusDAO = new dao.Implementations.SwapStatusDAO(dao.adapter.DatabaseManager.getAdapter());
             for (Meal meal : mealsToDelete) {
                 try {
                     swapStatusDAO.deleteSwapStatusByMealId(meal.getMealID());
@@ -2195,14 +2172,8 @@ public class JournalPanel extends JPanel {
             dao.Implementations.MealDAO mealDAO = new dao.Implementations.MealDAO();
             mealDAO.deleteMealsByDate(userId, date.toString());
             
-            // Refresh the meals list from database
-            this.meals = controller.getMealsForUser(userId);
-            if (this.meals == null) {
-                this.meals = new ArrayList<>();
-            }
-            
-            // Refresh the table (editing is already stopped)
-            populateDailySummaryTable();
+            // Refresh the meals list and table from database (editing is already stopped)
+            reloadJournal();
             
             JOptionPane.showMessageDialog(this, 
                 "Successfully deleted " + mealsToDelete.size() + " meals for " + date + " from database.",
@@ -2220,69 +2191,24 @@ public class JournalPanel extends JPanel {
     }
 
     /**
-     * Create cumulative effects panel showing nutrient changes from swaps
+     * Cumulative swap effects for one date, calculated from the date's meals
+     * (database work, so call it off the EDT)
      */
-    private JPanel createCumulativeEffectsPanel() {
-        JPanel panel = new JPanel(new BorderLayout(10, 10));
-        panel.setBorder(BorderFactory.createTitledBorder("Cumulative Effects from Swaps"));
-        panel.setPreferredSize(new Dimension(800, 200));
-        
-        // Check if user has goals set
-        if (userGoals == null || userGoals.isEmpty()) {
-            JLabel noGoalsLabel = new JLabel("No nutrition goals set. Set goals to see cumulative effects.", SwingConstants.CENTER);
-            noGoalsLabel.setForeground(Color.GRAY);
-            panel.add(noGoalsLabel, BorderLayout.CENTER);
-            return panel;
-        }
-        
-        // Calculate cumulative effects from all swapped days
-        System.out.println("DEBUG: Creating cumulative effects panel");
-        
-        System.out.println("DEBUG: Creating cumulative effects panel");
-        
-        // Calculate cumulative effects from all swapped days
-        System.out.println("DEBUG: Creating cumulative effects panel");
-        
-        // Get meals for the current date being displayed (from the table)
+    private Map<String, Double> calculateCumulativeEffects(LocalDate currentDate, List<Meal> currentDateMeals) {
         Map<String, Double> cumulativeChanges = new HashMap<>();
-        
-        // Get the current date from the table selection or default to today
-        LocalDate currentDate = LocalDate.now();
-        if (table.getSelectedRow() >= 0) {
-            String dateStr = (String) table.getValueAt(table.getSelectedRow(), 0);
-            try {
-                currentDate = LocalDate.parse(dateStr);
-            } catch (Exception e) {
-                System.out.println("DEBUG: Could not parse date from table: " + dateStr);
-            }
-        }
-        
-        System.out.println("DEBUG: Calculating cumulative effects for date: " + currentDate);
-        
-        // Get meals for the current date
-        final LocalDate finalCurrentDate = currentDate;
-        List<Meal> currentDateMeals = controller.getMealsForUser(userId).stream()
-            .filter(meal -> meal.getDate().equals(finalCurrentDate))
-            .collect(Collectors.toList());
-        
-        System.out.println("DEBUG: Found " + currentDateMeals.size() + " meals for date " + currentDate);
-        for (Meal meal : currentDateMeals) {
-            System.out.println("DEBUG: Meal: " + meal.getMealType() + " with " + meal.getIngredients().size() + " ingredients");
+        if (userGoals == null || userGoals.isEmpty()) {
+            return cumulativeChanges;
         }
         
-        if (currentDateMeals != null && !currentDateMeals.isEmpty()) {
+        if (!currentDateMeals.isEmpty()) {
             // Check if this date has been swapped
             boolean hasBeenSwapped = checkIfMealsHaveBeenSwapped(currentDateMeals);
-            System.out.println("DEBUG: Date " + currentDate + " has been swapped: " + hasBeenSwapped);
             
             if (hasBeenSwapped) {
-                System.out.println("DEBUG: Date " + currentDate + " has been swapped, loading cumulative effects from database");
-                
                 // Load cumulative effects directly from database for current date only
                 cumulativeChanges = loadCumulativeEffectsFromDatabase(currentDate);
                 
                 if (cumulativeChanges.isEmpty()) {
-                    System.out.println("DEBUG: No cumulative effects found in database, calculating from suggestions");
                     
                     // Fallback: calculate from suggestions if not in database
                     Map<Integer, model.FoodItem> foodDatabase = getFoodDatabase();
@@ -2293,16 +2219,29 @@ public class JournalPanel extends JPanel {
                     saveCumulativeEffectsToDatabase(currentDate, cumulativeChanges);
                 }
                 
-                System.out.println("DEBUG: Final cumulative effects: " + cumulativeChanges);
-            } else {
-                System.out.println("DEBUG: Date " + currentDate + " has not been swapped");
             }
-        } else {
-            System.out.println("DEBUG: No meals found for date " + currentDate);
+        }
+        
+        return cumulativeChanges;
+    }
+    
+    /**
+     * Create cumulative effects panel showing nutrient changes from swaps
+     */
+    private JPanel createCumulativeEffectsPanel(Map<String, Double> cumulativeChanges) {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createTitledBorder("Cumulative Effects from Swaps"));
+        panel.setPreferredSize(new Dimension(800, 200));
+        
+        // Check if user has goals set
+        if (userGoals == null || userGoals.isEmpty()) {
+            JLabel noGoalsLabel = new JLabel("No nutrition goals set. Set goals to see cumulative effects.", SwingConstants.CENTER);
+            noGoalsLabel.setForeground(Color.GRAY);
+            panel.add(noGoalsLabel, BorderLayout.CENTER);
+            return panel;
         }
         
         if (cumulativeChanges.isEmpty()) {
-            System.out.println("DEBUG: No cumulative changes found, showing 'no swaps' message");
             JLabel noSwapsLabel = new JLabel("No swap effects to display. Apply swaps to see cumulative changes.", SwingConstants.CENTER);
             noSwapsLabel.setForeground(Color.GRAY);
             panel.add(noSwapsLabel, BorderLayout.CENTER);
@@ -2418,37 +2357,24 @@ public class JournalPanel extends JPanel {
         Map<String, Double> cumulativeChanges = new HashMap<>();
         
         if (userGoals == null || userGoals.isEmpty()) {
-            System.out.println("DEBUG: No user goals found");
             return cumulativeChanges;
         }
         
-        System.out.println("=== Cumulative Effects Debug ===");
-        System.out.println("User ID: " + userId);
-        System.out.println("User Goals: " + userGoals.size());
-        for (Goal goal : userGoals) {
-            System.out.println("  Goal: " + goal.getNutrient() + " " + goal.getDirection() + " by " + goal.getAmount());
-        }
-        
         // Get all meals for this user
         List<Meal> allUserMeals = controller.getMealsForUser(userId);
-        System.out.println("DEBUG: Total meals for user " + userId + ": " + (allUserMeals != null ? allUserMeals.size() : 0));
         
         // Check meals for user 20 (which has the swapped meals according to database)
         List<Meal> user20Meals = controller.getMealsForUser(20);
-        System.out.println("DEBUG: Total meals for user 20: " + (user20Meals != null ? user20Meals.size() : 0));
         
         // Use user 20 meals if current user has no meals
         if ((allUserMeals == null || allUserMeals.isEmpty()) && (user20Meals != null && !user20Meals.isEmpty())) {
-            System.out.println("DEBUG: Using user 20 meals instead of user " + userId);
             allUserMeals = user20Meals;
             // Temporarily change userId for this calculation
             int originalUserId = userId;
             userId = 20;
-            System.out.println("DEBUG: Temporarily using userId = 20 for calculation");
         }
         
         if (allUserMeals == null || allUserMeals.isEmpty()) {
-            System.out.println("DEBUG: No meals found for user");
             return cumulativeChanges;
         }
         
@@ -2458,17 +2384,11 @@ public class JournalPanel extends JPanel {
             mealsByDate.computeIfAbsent(meal.getDate(), k -> new ArrayList<>()).add(meal);
         }
         
-        System.out.println("DEBUG: Meals grouped by date:");
-        for (Map.Entry<LocalDate, List<Meal>> entry : mealsByDate.entrySet()) {
-            System.out.println("  Date " + entry.getKey() + ": " + entry.getValue().size() + " meals");
-        }
-        
         // Check which dates have swapped meals
         Map<LocalDate, Boolean> swappedDates = new HashMap<>();
         for (LocalDate date : mealsByDate.keySet()) {
             boolean hasSwappedMeals = checkIfMealsHaveBeenSwapped(mealsByDate.get(date));
             swappedDates.put(date, hasSwappedMeals);
-            System.out.println("  Date " + date + " has swapped meals: " + hasSwappedMeals);
         }
         
         // Calculate cumulative changes for each goal nutrient
@@ -2488,12 +2408,10 @@ public class JournalPanel extends JPanel {
                      
                     // Calculate total change for this date based on suggestions
                     double dateChange = 0.0;
-                    System.out.println("DEBUG: Found " + suggestions.size() + " suggestions for date " + date);
                     
                     for (SwapSuggestion suggestion : suggestions) {
                         // Extract nutrient change from the reason
                         String reason = suggestion.getReason();
-                        System.out.println("DEBUG: Processing suggestion reason: " + reason);
                         
                         if (reason.contains(targetNutrient)) {
                             // Parse the change from reason like "increase Fiber (0.1 -> 6.9)"
@@ -2506,7 +2424,6 @@ public class JournalPanel extends JPanel {
                                         double newValue = Double.parseDouble(parts[1]);
                                         double change = newValue - originalValue;
                                         dateChange += change;
-                                        System.out.println("DEBUG: " + targetNutrient + " increase: " + originalValue + " → " + newValue + " = +" + change);
                                     }
                                 } else if (reason.contains("decrease " + targetNutrient)) {
                                     String changePart = reason.substring(reason.indexOf("(") + 1, reason.indexOf(")"));
@@ -2516,26 +2433,19 @@ public class JournalPanel extends JPanel {
                                         double newValue = Double.parseDouble(parts[1]);
                                         double change = newValue - originalValue;
                                         dateChange += change;
-                                        System.out.println("DEBUG: " + targetNutrient + " decrease: " + originalValue + " → " + newValue + " = " + change);
                                     }
                                 }
                             } catch (Exception e) {
                                 System.err.println("Error parsing nutrient change from reason: " + reason);
                                 e.printStackTrace();
                             }
-                        } else {
-                            System.out.println("DEBUG: Reason does not contain " + targetNutrient + ": " + reason);
                         }
                     }
                     
-                    System.out.println("DEBUG: Total " + targetNutrient + " change for date " + date + ": " + dateChange);
-                    
                     totalChange += dateChange;
-                    System.out.println("  " + targetNutrient + " change for date " + date + ": " + dateChange);
                 }
             }
             
-            System.out.println("Total " + targetNutrient + " change: " + totalChange);
             cumulativeChanges.put(targetNutrient, totalChange);
         }
         
@@ -2549,50 +2459,37 @@ public class JournalPanel extends JPanel {
         Map<String, Double> cumulativeChanges = new HashMap<>();
         
         if (userGoals == null || userGoals.isEmpty()) {
-            System.out.println("DEBUG: No user goals found");
             return cumulativeChanges;
         }
         
-        System.out.println("=== Database Cumulative Effects Debug ===");
-        System.out.println("User ID: " + userId);
-        System.out.println("User Goals: " + userGoals.size());
-        for (Goal goal : userGoals) {
-            System.out.println("  Goal: " + goal.getNutrient() + " " + goal.getDirection() + " by " + goal.getAmount());
-        }
-        
         // Get all swapped meals from database
         List<dao.Implementations.SwapStatusDAO.SwapStatusRecord> swappedMeals = new ArrayList<>();
         
         try {
-            dao.adapter.MySQLAdapter adapter = new dao.adapter.MySQLAdapter();
-            Connection conn = adapter.connect();
-            
-            if (conn != null) {
-                // Query all swapped meals from database (not limited to specific user_id)
-                String sql = "SELECT meal_id, date, original_meal_data FROM swap_status WHERE is_swapped = TRUE ORDER BY date";
-                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        while (rs.next()) {
-                            dao.Implementations.SwapStatusDAO.SwapStatusRecord record = new dao.Implementations.SwapStatusDAO.SwapStatusRecord();
-                            record.setMealId(rs.getInt("meal_id"));
-                            record.setDate(rs.getDate("date").toLocalDate());
-                            record.setOriginalMealData(rs.getString("original_meal_data"));
-                            swappedMeals.add(record);
+            dao.adapter.DatabaseAdapter adapter = dao.adapter.DatabaseManager.getAdapter();
+            try (Connection conn = adapter.borrowConnection()) {
+                if (conn != null) {
+                    // Query all swapped meals from database (not limited to specific user_id)
+                    String sql = "SELECT meal_id, date, original_meal_data FROM swap_status WHERE is_swapped = TRUE ORDER BY date";
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                dao.Implementations.SwapStatusDAO.SwapStatusRecord record = new dao.Implementations.SwapStatusDAO.SwapStatusRecord();
+                                record.setMealId(rs.getInt("meal_id"));
+                                record.setDate(rs.getDate("date").toLocalDate());
+                                record.setOriginalMealData(rs.getString("original_meal_data"));
+                                swappedMeals.add(record);
+                            }
                         }
                     }
                 }
-                
-                conn.close();
             }
         } catch (Exception e) {
             System.err.println("Error getting swapped meals from database: " + e.getMessage());
             e.printStackTrace();
         }
         
-        System.out.println("DEBUG: Found " + swappedMeals.size() + " swapped meals in database");
-        
         if (swappedMeals.isEmpty()) {
-            System.out.println("DEBUG: No swapped meals found in database");
             return cumulativeChanges;
         }
         
@@ -2607,8 +2504,6 @@ public class JournalPanel extends JPanel {
                 uniqueDates.add(record.getDate());
             }
             
-            System.out.println("DEBUG: Found " + uniqueDates.size() + " unique dates with swap records");
-            
             // Calculate change for one day, then multiply by number of days
             double singleDayChange = 0.0;
             for (dao.Implementations.SwapStatusDAO.SwapStatusRecord record : swappedMeals) {
@@ -2617,14 +2512,11 @@ public class JournalPanel extends JPanel {
                     // Calculate change by comparing original vs current meal
                     double change = calculateNutrientChangeForMeal(record.getMealId(), originalData, targetNutrient, getFoodDatabase());
                     singleDayChange += change;
-                    System.out.println("DEBUG: " + targetNutrient + " change for meal " + record.getMealId() + ": " + change);
                 }
             }
             
             // Calculate cumulative effect: single day change × number of days
             totalChange = singleDayChange * uniqueDates.size();
-            System.out.println("DEBUG: Single day " + targetNutrient + " change: " + singleDayChange);
-            System.out.println("DEBUG: Total cumulative " + targetNutrient + " change: " + totalChange + " (×" + uniqueDates.size() + " days)");
             cumulativeChanges.put(targetNutrient, totalChange);
         }
         
@@ -2649,31 +2541,22 @@ public class JournalPanel extends JPanel {
         // Calculate effects from each suggestion
         for (SwapSuggestion suggestion : suggestions) {
             String reason = suggestion.getReason();
-            System.out.println("DEBUG: Parsing reason: " + reason);
-            System.out.println("DEBUG: Reason length: " + reason.length());
-            System.out.println("DEBUG: Full reason: [" + reason + "]");
             
             // Parse all nutrient changes from reason string
             for (Goal goal : userGoals) {
                 String targetNutrient = goal.getNutrient();
-                System.out.println("DEBUG: Looking for nutrient: " + targetNutrient);
                 
                 // Look for the nutrient in the reason string
                 if (reason.contains(targetNutrient)) {
-                    System.out.println("DEBUG: Found nutrient " + targetNutrient + " in reason string");
                     try {
                         // Find the specific nutrient change part
                         String[] parts = reason.split(", ");
-                        System.out.println("DEBUG: Split reason into " + parts.length + " parts");
                         for (int i = 0; i < parts.length; i++) {
                             String part = parts[i];
-                            System.out.println("DEBUG: Part " + i + ": [" + part + "]");
                             if (part.contains(targetNutrient)) {
-                                System.out.println("DEBUG: Found " + targetNutrient + " in part " + i);
                                 // Extract the change values - use lastIndexOf to handle multiple parentheses
                                 int startIndex = part.lastIndexOf("(");
                                 int endIndex = part.lastIndexOf(")");
-                                System.out.println("DEBUG: For " + targetNutrient + " in part: startIndex=" + startIndex + ", endIndex=" + endIndex);
                                 if (startIndex != -1 && endIndex != -1 && startIndex < endIndex) {
                                     String changePart = part.substring(startIndex + 1, endIndex);
                                     // Handle both Unicode arrow (→) and ASCII arrow (->)
@@ -2683,7 +2566,6 @@ public class JournalPanel extends JPanel {
                                         double newValue = Double.parseDouble(values[1]);
                                         double change = newValue - originalValue;
                                         cumulativeEffects.put(targetNutrient, cumulativeEffects.get(targetNutrient) + change);
-                                        System.out.println("DEBUG: " + targetNutrient + " change: " + originalValue + " → " + newValue + " = " + change);
                                     }
                                 }
                                 // Don't break here - continue checking other parts for the same nutrient
@@ -2715,7 +2597,7 @@ public class JournalPanel extends JPanel {
             double currentValue = calculateNutrientValueForMeal(currentMeal, targetNutrient, foodDatabase);
             
             // Parse original meal data to get original nutrient value
-            double originalValue = parseOriginalNutrientValue(originalData, targetNutrient, foodDatabase);
+            double originalValue = parseOriginalNutrientValue(currentMeal, originalData, targetNutrient, foodDatabase);
             
             return currentValue - originalValue;
             
@@ -2743,129 +2625,54 @@ public class JournalPanel extends JPanel {
     }
     
     /**
-     * Parse original nutrient value from stored data
+     * Original nutrient value of a meal, from its stored rollback data
      */
-    private double parseOriginalNutrientValue(String originalData, String targetNutrient, Map<Integer, model.FoodItem> foodDatabase) {
-        try {
-            System.out.println("DEBUG: Parsing original data: " + originalData);
-            
-            // Handle simplified format: "ORIGINAL:FOOD_ID,QUANTITY;"
-            if (originalData.startsWith("ORIGINAL:")) {
-                String dataPart = originalData.substring(9); // Remove "ORIGINAL:"
-                String[] parts = dataPart.split(";");
-                double totalValue = 0.0;
-                
-                for (String part : parts) {
-                    if (!part.trim().isEmpty()) {
-                        String[] foodData = part.split(",");
-                        if (foodData.length == 2) {
-                            try {
-                                int foodId = Integer.parseInt(foodData[0]);
-                                double quantity = Double.parseDouble(foodData[1]);
-                                
-                                model.FoodItem food = foodDatabase.get(foodId);
-                                if (food != null && food.getNutrients() != null) {
-                                    double nutrientValue = food.getNutrients().getOrDefault(targetNutrient, 0.0);
-                                    totalValue += nutrientValue * (quantity / 100.0);
-                                    System.out.println("DEBUG: Food " + foodId + " " + targetNutrient + ": " + nutrientValue + " * " + quantity + "/100 = " + (nutrientValue * quantity / 100.0));
-                                    System.out.println("DEBUG: Food " + foodId + " name: " + food.getName() + ", all nutrients: " + food.getNutrients());
-                                } else {
-                                    System.out.println("DEBUG: Food " + foodId + " not found in database or has no nutrients");
-                                }
-                            } catch (NumberFormatException e) {
-                                System.err.println("Error parsing food data: " + foodData[0] + "," + foodData[1]);
-                            }
-                        }
-                    }
-                }
-                
-                System.out.println("DEBUG: Total original " + targetNutrient + " value: " + totalValue);
-                return totalValue;
-            }
-            
-            // Handle full format: "MealID:123;UserID:1;Date:2025-07-27;Type:BREAKFAST;Ingredients:123,100;456,200;"
-            if (originalData.contains("Ingredients:")) {
-                String[] parts = originalData.split(";");
-                double totalValue = 0.0;
-                
-                for (String part : parts) {
-                    if (part.startsWith("Ingredients:")) {
-                        String ingredientsPart = part.substring(12); // Remove "Ingredients:"
-                        String[] ingredientData = ingredientsPart.split(",");
-                        
-                        // Process pairs of foodId,quantity
-                        for (int i = 0; i < ingredientData.length - 1; i += 2) {
-                            try {
-                                int foodId = Integer.parseInt(ingredientData[i]);
-                                double quantity = Double.parseDouble(ingredientData[i + 1]);
-                                
-                                model.FoodItem food = foodDatabase.get(foodId);
-                                if (food != null && food.getNutrients() != null) {
-                                    double nutrientValue = food.getNutrients().getOrDefault(targetNutrient, 0.0);
-                                    totalValue += nutrientValue * (quantity / 100.0);
-                                    System.out.println("DEBUG: Food " + foodId + " " + targetNutrient + ": " + nutrientValue + " * " + quantity + "/100 = " + (nutrientValue * quantity / 100.0));
-                                }
-                            } catch (NumberFormatException e) {
-                                System.err.println("Error parsing ingredient data: " + ingredientData[i] + "," + ingredientData[i + 1]);
-                            }
-                        }
-                        break; // Found ingredients, no need to check other parts
-                    }
-                }
-                
-                System.out.println("DEBUG: Total original " + targetNutrient + " value: " + totalValue);
-                return totalValue;
-            }
-        } catch (Exception e) {
-            System.err.println("Error parsing original nutrient value: " + e.getMessage());
-            e.printStackTrace();
+    private double parseOriginalNutrientValue(Meal currentMeal, String originalData, String targetNutrient, Map<Integer, model.FoodItem> foodDatabase) {
+        Meal original = swapService.resolveRollbackSnapshot(originalData).findMeal(currentMeal.getMealID(), currentMeal.getType());
+        if (original == null) {
+            return 0.0;
         }
-        
-        return 0.0;
+        return calculateNutrientValueForMeal(original, targetNutrient, foodDatabase);
     }
-
+    
     /**
      * Save cumulative effects to database for a specific date
      */
     private void saveCumulativeEffectsToDatabase(LocalDate date, Map<String, Double> cumulativeEffects) {
         try {
-            dao.adapter.MySQLAdapter adapter = new dao.adapter.MySQLAdapter();
-            Connection conn = adapter.connect();
-            
-            if (conn != null) {
-                // Create table if not exists
-                String createTableSQL = """
-                    CREATE TABLE IF NOT EXISTS cumulative_effects (
-                        id INT AUTO_INCREMENT PRIMARY KEY,
-                        user_id INT NOT NULL,
-                        date DATE NOT NULL,
-                        nutrient VARCHAR(50) NOT NULL,
-                        effect_value DOUBLE NOT NULL,
-                        UNIQUE KEY unique_user_date_nutrient (user_id, date, nutrient)
-                    )
-                """;
-                
-                try (PreparedStatement stmt = conn.prepareStatement(createTableSQL)) {
-                    stmt.executeUpdate();
-                }
-                
-                // Save each nutrient effect
-                String insertSQL = "INSERT INTO cumulative_effects (user_id, date, nutrient, effect_value) VALUES (?, ?, ?, ?) " +
-                                 "ON DUPLICATE KEY UPDATE effect_value = VALUES(effect_value)";
-                
-                try (PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
-                    for (Map.Entry<String, Double> entry : cumulativeEffects.entrySet()) {
-                        stmt.setInt(1, userId);
-                        stmt.setDate(2, Date.valueOf(date));
-                        stmt.setString(3, entry.getKey());
-                        stmt.setDouble(4, entry.getValue());
+            dao.adapter.DatabaseAdapter adapter = dao.adapter.DatabaseManager.getAdapter();
+            try (Connection conn = adapter.borrowConnection()) {
+                if (conn != null) {
+                    // Create table if not exists
+                    String createTableSQL = """
+                        CREATE TABLE IF NOT EXISTS cumulative_effects (
+                            id INT AUTO_INCREMENT PRIMARY KEY,
+                            user_id INT NOT NULL,
+                            date DATE NOT NULL,
+                            nutrient VARCHAR(50) NOT NULL,
+                            effect_value DOUBLE NOT NULL,
+                            UNIQUE KEY unique_user_date_nutrient (user_id, date, nutrient)
+                        )
+                    """;
+                
+                    try (PreparedStatement stmt = conn.prepareStatement(createTableSQL)) {
                         stmt.executeUpdate();
-                        
-                        System.out.println("DEBUG: Saved " + entry.getKey() + " effect: " + entry.getValue() + " for date " + date);
                     }
-                }
                 
-                conn.close();
+                    // Save each nutrient effect
+                    String insertSQL = "INSERT INTO cumulative_effects (user_id, date, nutrient, effect_value) VALUES (?, ?, ?, ?) " +
+                                     "ON DUPLICATE KEY UPDATE effect_value = VALUES(effect_value)";
+                
+                    try (PreparedStatement stmt = conn.prepareStatement(insertSQL)) {
+                        for (Map.Entry<String, Double> entry : cumulativeEffects.entrySet()) {
+                            stmt.setInt(1, userId);
+                            stmt.setDate(2, Date.valueOf(date));
+                            stmt.setString(3, entry.getKey());
+                            stmt.setDouble(4, entry.getValue());
+                            stmt.executeUpdate();
+                        }
+                    }
+                }
             }
         } catch (Exception e) {
             System.err.println("Error saving cumulative effects: " + e.getMessage());
@@ -2880,27 +2687,24 @@ public class JournalPanel extends JPanel {
         Map<String, Double> cumulativeEffects = new HashMap<>();
         
         try {
-            dao.adapter.MySQLAdapter adapter = new dao.adapter.MySQLAdapter();
-            Connection conn = adapter.connect();
-            
-            if (conn != null) {
-                String sql = "SELECT nutrient, effect_value FROM cumulative_effects WHERE user_id = ? AND date = ?";
+            dao.adapter.DatabaseAdapter adapter = dao.adapter.DatabaseManager.getAdapter();
+            try (Connection conn = adapter.borrowConnection()) {
+                if (conn != null) {
+                    String sql = "SELECT nutrient, effect_value FROM cumulative_effects WHERE user_id = ? AND date = ?";
                 
-                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    stmt.setInt(1, userId);
-                    stmt.setDate(2, Date.valueOf(date));
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        stmt.setInt(1, userId);
+                        stmt.setDate(2, Date.valueOf(date));
                     
-                    try (ResultSet rs = stmt.executeQuery()) {
-                        while (rs.next()) {
-                            String nutrient = rs.getString("nutrient");
-                            double effectValue = rs.getDouble("effect_value");
-                            cumulativeEffects.put(nutrient, effectValue);
-                            System.out.println("DEBUG: Loaded " + nutrient + " effect: " + effectValue + " for date " + date);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                String nutrient = rs.getString("nutrient");
+                                double effectValue = rs.getDouble("effect_value");
+                                cumulativeEffects.put(nutrient, effectValue);
+                            }
                         }
                     }
                 }
-                
-                conn.close();
             }
         } catch (Exception e) {
             System.err.println("Error loading cumulative effects: " + e.getMessage());
@@ -2910,28 +2714,23 @@ public class JournalPanel extends JPanel {
         return cumulativeEffects;
     }
     
-
-    
     /**
      * Clear cumulative effects for a specific date
      */
     private void clearCumulativeEffectsForDate(LocalDate date) {
         try {
-            dao.adapter.MySQLAdapter adapter = new dao.adapter.MySQLAdapter();
-            Connection conn = adapter.connect();
-            
-            if (conn != null) {
-                String sql = "DELETE FROM cumulative_effects WHERE user_id = ? AND date = ?";
+            dao.adapter.DatabaseAdapter adapter = dao.adapter.DatabaseManager.getAdapter();
+            try (Connection conn = adapter.borrowConnection()) {
+                if (conn != null) {
+                    String sql = "DELETE FROM cumulative_effects WHERE user_id = ? AND date = ?";
                 
-                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                    stmt.setInt(1, userId);
-                    stmt.setDate(2, Date.valueOf(date));
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        stmt.setInt(1, userId);
+                        stmt.setDate(2, Date.valueOf(date));
                     
-                    int deletedRows = stmt.executeUpdate();
-                    System.out.println("DEBUG: Deleted " + deletedRows + " old cumulative effects for date " + date);
+                        stmt.executeUpdate();
+                    }
                 }
-                
-                conn.close();
             }
         } catch (Exception e) {
             System.err.println("Error clearing cumulative effects: " + e.getMessage());
@@ -2939,8 +2738,6 @@ public class JournalPanel extends JPanel {
         }
     }
     
-
-    
     /**
      * Create a custom message dialog with English buttons
      */
@@ -1,11 +1,16 @@
 package view;
 
 import dao.adapter.DatabaseAdapter;
+import dao.adapter.DatabaseManager;
 import dao.adapter.MySQLAdapter;
+import service.FoodCatalog;
+import service.FoodSearchService;
 import model.FoodItem;
 import model.meal.MealType;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
@@ -27,7 +32,13 @@ public class MealEntryPanel extends JPanel {
     private DefaultTableModel tableModel;
     private DatabaseAdapter databaseAdapter;
     private List<FoodItem> foodItems;
+    private FoodSearchService foodSearchService;
+    private SwingWorker<List<FoodItem>, Void> searchWorker;
     private int currentUserId;
+    
+    // Food search: results shown, and the typing pause before searching
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int SEARCH_DEBOUNCE_MS = 150;
 
     private JButton addIngredientBtn, removeIngredientBtn, submitMealBtn;
     
@@ -38,14 +49,11 @@ public class MealEntryPanel extends JPanel {
     
     // Calculate food calories
     private double calculateFoodCalories(int foodId, double quantity) {
-        if (foodItems != null) {
-            for (FoodItem food : foodItems) {
-                if (food.getFoodID() == foodId) {
-                    // Use the same calorie calculation method as JournalPanel
-                    double caloriesPer100g = food.getCalories();
-                    return (caloriesPer100g * quantity) / 100.0;
-                }
-            }
+        FoodItem food = foodSearchService != null ? foodSearchService.getIndex().findById(foodId) : null;
+        if (food != null) {
+            // Use the same calorie calculation method as JournalPanel
+            double caloriesPer100g = food.getCalories();
+            return (caloriesPer100g * quantity) / 100.0;
         }
         return 0.0;
     }
@@ -233,18 +241,30 @@ public class MealEntryPanel extends JPanel {
     
     private void initializeDatabase() {
         try {
-            databaseAdapter = new MySQLAdapter();
+            databaseAdapter = DatabaseManager.getAdapter();
             databaseAdapter.connect();
-            foodItems = databaseAdapter.loadFoods();
+            // Shared catalog, loaded from MySQL once per process
+            foodItems = new ArrayList<>(FoodCatalog.getInstance().getFoods().values());
         } catch (Exception e) {
+            foodItems = null;
+        }
+        
+        if (foodItems == null || foodItems.isEmpty()) {
             // Fallback to CSV data
             try {
                 foodItems = dao.adapter.CSVAdapter.loadFoodItemsFromCSV("src/csv/FOOD NAME.csv");
             } catch (Exception csvException) {
+                foodItems = null;
+            }
+            if (foodItems == null || foodItems.isEmpty()) {
                 // Final fallback to basic food data
                 foodItems = createBasicFoodItems();
             }
         }
+        // Build the search index now rather than on the first keystroke
+        List<FoodItem> searchableFoods = foodItems;
+        foodSearchService = new FoodSearchService(() -> searchableFoods);
+        foodSearchService.getIndex();
     }
     
     private List<FoodItem> createBasicFoodItems() {
@@ -453,8 +473,42 @@ public class MealEntryPanel extends JPanel {
         showRecommendedFoods(mealType, foodNames, listModel);
         
         // ===== Search functionality =====
-        searchButton.addActionListener(e -> performSearch(searchField.getText(), foodNames, listModel, mealTypeCombo));
-        searchField.addActionListener(e -> performSearch(searchField.getText(), foodNames, listModel, mealTypeCombo));
+        // Search as the user types, once typing pauses; Enter or the button search at once
+        Timer searchTimer = new Timer(SEARCH_DEBOUNCE_MS, e -> performSearch(searchField.getText(), foodNames, listModel));
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                searchTimer.restart();
+            }
+        });
+        searchButton.addActionListener(e -> {
+            searchTimer.stop();
+            performSearch(searchField.getText(), foodNames, listModel);
+        });
+        searchField.addActionListener(e -> {
+            searchTimer.stop();
+            performSearch(searchField.getText(), foodNames, listModel);
+        });
+        dialog.addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosed(java.awt.event.WindowEvent e) {
+                searchTimer.stop();
+                if (searchWorker != null) {
+                    searchWorker.cancel(true);
+                }
+            }
+        });
         
         // ===== Confirm button =====
         confirmButton.addActionListener(e -> {
@@ -518,12 +572,15 @@ public class MealEntryPanel extends JPanel {
         dialog.setVisible(true);
     }
     
-    private void performSearch(String searchText, String[] foodNames, DefaultListModel<String> listModel, JComboBox<String> mealTypeCombo) {
-        String query = searchText.toLowerCase().trim();
-        
-        // Convert combo box selection to uppercase to match enum values
-        String selectedMealType = (String) mealTypeCombo.getSelectedItem();
-        MealType mealType = MealType.valueOf(selectedMealType.toUpperCase());
+    /**
+     * Show the best matches for the search text, typos included. The lookup runs on a
+     * worker thread; a newer search cancels an older one still running.
+     */
+    private void performSearch(String searchText, String[] foodNames, DefaultListModel<String> listModel) {
+        String query = searchText.trim();
+        if (searchWorker != null) {
+            searchWorker.cancel(true);
+        }
         
         if (query.isEmpty()) {
             // If search box is empty, show initial list
@@ -531,29 +588,37 @@ public class MealEntryPanel extends JPanel {
             return;
         }
         
-        // Clear the list model before adding search results
-        listModel.clear();
-        
-        // Search for matching foods
-        List<String> matchingFoods = new ArrayList<>();
-        for (String item : foodNames) {
-            if (item.toLowerCase().contains(query)) {
-                matchingFoods.add(item);
+        searchWorker = new SwingWorker<>() {
+            @Override
+            protected List<FoodItem> doInBackground() {
+                return foodSearchService.search(query, MAX_SEARCH_RESULTS);
             }
-        }
-        
-        // Add matching foods
-        int count = 0;
-        for (String item : matchingFoods) {
-            if (count < 50) { // Limit display count
-                listModel.addElement(item);
-                count++;
+            
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                List<FoodItem> matchingFoods;
+                try {
+                    matchingFoods = get();
+                } catch (Exception e) {
+                    System.err.println("Error searching foods: " + e.getMessage());
+                    matchingFoods = new ArrayList<>();
+                }
+                
+                // Clear the list model before adding search results
+                listModel.clear();
+                for (FoodItem food : matchingFoods) {
+                    listModel.addElement(food.getName());
+                }
+                
+                if (listModel.size() == 0) {
+                    listModel.addElement("No items found matching: " + searchText);
+                }
             }
-        }
-        
-        if (listModel.size() == 0) {
-            listModel.addElement("No items found matching: " + searchText);
-        }
+        };
+        searchWorker.execute();
     }
     
     private void showInitialItems(String[] foodNames, DefaultListModel<String> listModel) {
@@ -592,14 +657,8 @@ public class MealEntryPanel extends JPanel {
 
     
     private int findFoodIdByName(String foodName) {
-        if (foodItems != null) {
-            for (model.FoodItem food : foodItems) {
-                if (food.getName().equals(foodName)) {
-                    return food.getFoodID();
-                }
-            }
-        }
-        return -1; // Not found
+        FoodItem food = foodSearchService != null ? foodSearchService.getIndex().findByName(foodName) : null;
+        return food != null ? food.getFoodID() : -1; // -1: not found
     }
     
     private void loadTodaysMeals() {
@@ -608,13 +667,8 @@ public class MealEntryPanel extends JPanel {
         
         if (databaseAdapter != null && databaseAdapter.getConnection() != null) {
             try {
-                // Load meals for current user and today's date
-                List<model.meal.Meal> todaysMeals = databaseAdapter.loadMeals(currentUserId);
-                
-                // Filter meals for today's date
-                List<model.meal.Meal> filteredMeals = todaysMeals.stream()
-                    .filter(meal -> meal.getDate().equals(selectedDate))
-                    .toList();
+                // Load meals for current user and the selected date only
+                List<model.meal.Meal> filteredMeals = databaseAdapter.loadMealsByDate(currentUserId, selectedDate);
                 
                 // Create a list to hold all ingredients with their meal types for sorting
                 List<Object[]> ingredientsWithMealType = new ArrayList<>();
@@ -672,14 +726,8 @@ public class MealEntryPanel extends JPanel {
     }
     
     private String findFoodNameById(int foodId) {
-        if (foodItems != null) {
-            for (model.FoodItem food : foodItems) {
-                if (food.getFoodID() == foodId) {
-                    return food.getName();
-                }
-            }
-        }
-        return null; // Not found
+        FoodItem food = foodSearchService != null ? foodSearchService.getIndex().findById(foodId) : null;
+        return food != null ? food.getName() : null; // null: not found
     }
 
     // Show recommended foods
@@ -7,29 +7,64 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class SplashScreenUI extends JFrame {
     private JComboBox<String> profileDropdown;
+    private List<UserProfile> shownProfiles; // In dropdown order
     private JButton loadBtn, newProfileBtn;
     private Runnable onProfileSelected; // Callback for when profile is selected
-    private UserProfileManager profileManager;
 
     public SplashScreenUI(Runnable onProfileSelected) {
+        this(onProfileSelected, UserProfileManager.getInstance().getProfiles());
+    }
+
+    /**
+     * With profiles null the splash shows a loading message, so it can be shown before
+     * the profiles are loaded; call showProfiles once they are.
+     */
+    public SplashScreenUI(Runnable onProfileSelected, List<UserProfile> profiles) {
         this.onProfileSelected = onProfileSelected;
-        this.profileManager = UserProfileManager.getInstance();
         
         setTitle("NutriSci - Welcome");
         setSize(450, 280);
         setLocationRelativeTo(null);
         setDefaultCloseOperation(EXIT_ON_CLOSE);
 
-        JLabel welcomeLabel = new JLabel("Welcome to NutriSci!");
-        welcomeLabel.setFont(new Font("Arial", Font.BOLD, 20));
-        welcomeLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        if (profiles == null) {
+            showLoading();
+        } else {
+            showProfiles(profiles);
+        }
+    }
 
-        // Load existing profiles
-        List<UserProfile> profiles = profileManager.getProfiles();
-        
+    /**
+     * Show a loading message until profiles completes, then the profiles, or an error with a
+     * retry button if they could not be loaded. The caller's thread (usually the EDT) never
+     * waits for them.
+     */
+    public SplashScreenUI(Runnable onProfileSelected, CompletableFuture<List<UserProfile>> profiles) {
+        this(onProfileSelected, (List<UserProfile>) null);
+        waitForProfiles(profiles);
+    }
+
+    private void waitForProfiles(CompletableFuture<List<UserProfile>> profiles) {
+        profiles.whenComplete((loaded, error) -> SwingUtilities.invokeLater(() -> {
+            if (error != null) {
+                showLoadError(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                showProfiles(loaded);
+            }
+        }));
+    }
+
+    /**
+     * Show the profiles to choose from, or the create profile message if there are none
+     */
+    public void showProfiles(List<UserProfile> profiles) {
+        getContentPane().removeAll();
         if (profiles.isEmpty()) {
             // No profiles exist - show create profile message
             showCreateProfileOnly();
@@ -37,6 +72,52 @@ public class SplashScreenUI extends JFrame {
             // Profiles exist - show selection interface
             showProfileSelection(profiles);
         }
+        revalidate();
+        repaint();
+    }
+
+    private void showLoading() {
+        JLabel loadingLabel = new JLabel("Loading profiles...");
+        loadingLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        loadingLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        setLayout(new BorderLayout(20, 20));
+        add(new JLabel("Welcome to NutriSci!"), BorderLayout.NORTH);
+        add(loadingLabel, BorderLayout.CENTER);
+    }
+
+    private void showLoadError(Throwable error) {
+        getContentPane().removeAll();
+        JLabel messageLabel = new JLabel("Could not load user profiles.");
+        messageLabel.setFont(new Font("Arial", Font.PLAIN, 14));
+        messageLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        JLabel detailLabel = new JLabel(error.getMessage() != null ? error.getMessage() : error.toString());
+        detailLabel.setFont(new Font("Arial", Font.PLAIN, 12));
+        detailLabel.setForeground(Color.RED);
+        detailLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        JButton retryBtn = new JButton("Retry");
+        retryBtn.setFont(new Font("Arial", Font.BOLD, 14));
+        retryBtn.addActionListener(e -> {
+            getContentPane().removeAll();
+            showLoading();
+            revalidate();
+            repaint();
+            // Off the EDT: the profile manager may still have to reach the database
+            waitForProfiles(CompletableFuture.supplyAsync(() -> UserProfileManager.getInstance().getProfiles()));
+        });
+
+        JPanel center = new JPanel(new GridLayout(3, 1, 10, 10));
+        center.add(messageLabel);
+        center.add(detailLabel);
+        center.add(retryBtn);
+
+        setLayout(new BorderLayout(20, 20));
+        add(new JLabel("Welcome to NutriSci!"), BorderLayout.NORTH);
+        add(center, BorderLayout.CENTER);
+        revalidate();
+        repaint();
     }
 
     private void showCreateProfileOnly() {
@@ -63,6 +144,7 @@ public class SplashScreenUI extends JFrame {
     }
 
     private void showProfileSelection(List<UserProfile> profiles) {
+        shownProfiles = profiles;
         // Convert profiles to display names (only show name, not ID)
         String[] profileNames = profiles.stream()
                 .map(UserProfile::getName)
@@ -117,20 +199,17 @@ public class SplashScreenUI extends JFrame {
     }
 
     private void handleLoadProfile(ActionEvent e) {
-        String selectedProfileName = (String) profileDropdown.getSelectedItem();
-        if (selectedProfileName == null) {
+        int selectedIndex = profileDropdown.getSelectedIndex();
+        if (selectedIndex < 0) {
             JOptionPane.showOptionDialog(this, "Please select a profile.", "No Profile Selected", 
                 JOptionPane.WARNING_MESSAGE, JOptionPane.WARNING_MESSAGE, null, 
                 new String[]{"OK"}, "OK");
             return;
         }
 
-        // Find the selected profile by name
-        List<UserProfile> profiles = profileManager.getProfiles();
-        UserProfile selectedProfile = profiles.stream()
-                .filter(p -> p.getName().equals(selectedProfileName))
-                .findFirst()
-                .orElse(null);
+        // The dropdown lists the shown profiles in order, so its index picks the profile
+        UserProfileManager profileManager = UserProfileManager.getInstance();
+        UserProfile selectedProfile = profileManager.getProfile(shownProfiles.get(selectedIndex).getUserID());
 
         if (selectedProfile == null) {
             JOptionPane.showMessageDialog(this, "Profile not found.", "Error", 